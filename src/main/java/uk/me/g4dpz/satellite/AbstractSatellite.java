@@ -43,7 +43,6 @@
 package uk.me.g4dpz.satellite;
 
 import java.io.Serializable;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
 
@@ -51,7 +50,7 @@ abstract class AbstractSatellite implements Satellite, Serializable {
 
     private static final long serialVersionUID = 1156988980297227860L;
     
-    private static final double DEG2RAD = 1.745329251994330E-2;
+    static final double DEG2RAD = 1.745329251994330E-2;
 
     static final double TWO_PI = Math.PI * 2.0;
     private static final double EPSILON = 1.0E-12;
@@ -62,10 +61,14 @@ abstract class AbstractSatellite implements Satellite, Serializable {
     /** J3 Harmonic (WGS '72). */
     protected static final double J3_HARMONIC = -2.53881E-6;
 
-    private static final double MINS_PER_DAY = 1.44E3;
+    static final double MINS_PER_DAY = 1.44E3;
     private static final double PI_OVER_TWO = Math.PI / 2.0;
     private static final double SECS_PER_DAY = 8.6400E4;
-    private static final double FLATTENING_FACTOR = 3.35281066474748E-3;
+    static final double FLATTENING_FACTOR = 3.35281066474748E-3;
+    /** 31Dec79 00:00:00 UTC, daynum 0, in milliseconds since 1970. */
+    private static final long DAYNUM_ZERO_MILLIS = 315446400000L;
+    /** Julian date of daynum 0. */
+    private static final double DAYNUM_ZERO_JULIAN = 2444238.5;
 
     protected static final double CK4 = 6.209887E-7;
     protected static final double EARTH_GRAVITATIONAL_CONSTANT = 3.986008E5;
@@ -94,45 +97,39 @@ abstract class AbstractSatellite implements Satellite, Serializable {
 
     private final TLE tle;
 
-    private double eclipseDepth;
-
-    /** Position vector of the satellite. Used to store the position for later calculations. */
-    private final Vector4 position = new Vector4();
-    /** Velocity vector of the satellite. Used to store the velocity for later calculations. */
-    private final Vector4 velocity = new Vector4();
-    /** Date/time at which the position and velocity were calculated. */
-    private double julUTC;
-    /** Satellite position. Used to store the SatPos for later calculations. */
-    private SatPos satPos;
-
     /** The time at which we do all the calculations. */
     static final TimeZone TZ = TimeZone.getTimeZone("UTC:UTC");
 
     private final double julEpoch;
-    
-    // Reusable objects to reduce allocations
-    private final Vector4 obsPos = new Vector4();
-    private final Vector4 obsVel = new Vector4();
-    private final Vector4 range = new Vector4();
-    private final Vector4 rgvel = new Vector4();
-    private final Vector4 squintVector = new Vector4();
+
+    /** State shared by calculateSatelliteVectors(..) and the calls which follow it. */
+    private final PropagationState sequenceState = new PropagationState();
+    /** Satellite position. Used to store the SatPos for later calculations. */
+    private SatPos satPos;
 
     public AbstractSatellite(final TLE tle) {
         this.tle = tle;
         julEpoch = AbstractSatellite.juliandDateOfEpoch(tle.getEpoch());
     }
 
-    protected void calculateSGP4(final double tsince) {
+    protected void calculateSGP4(final double tsince, final PropagationState state) {
     }
 
-    protected void calculateSDP4(final double tsince) {
+    protected void calculateSDP4(final double tsince, final PropagationState state) {
     }
 
     @Override
-    public final synchronized TLE getTLE() {
+    public final TLE getTLE() {
         return tle;
     }
 
+    /**
+     * @return the Julian date of the TLE epoch
+     */
+    final double getJulianEpoch() {
+        return julEpoch;
+    }
+
     /**
      * Calculates the Julian Day of the Year.
      *
@@ -186,23 +183,27 @@ abstract class AbstractSatellite implements Satellite, Serializable {
     }
 
     /**
-     * Read the system clock and return the number of days since 31Dec79 00:00:00 UTC (daynum 0).
+     * Return the number of days since 31Dec79 00:00:00 UTC (daynum 0).
      *
-     * @param date the date we wan to get the offset for
+     * @param now the time we want to get the offset for, milliseconds since 1970
      * @return the number of days offset
      */
-    private static double calcCurrentDaynum(final Date date) {
+    private static double calcCurrentDaynum(final long now) {
 
-        final long now = date.getTime();
-
-        final Calendar sgp4Epoch = Calendar.getInstance(TZ);
-        sgp4Epoch.clear();
-        sgp4Epoch.set(1979, Calendar.DECEMBER, 31, 0, 0, 0);
-        final long then = sgp4Epoch.getTimeInMillis();
-        final long millis = now - then;
+        final long millis = now - DAYNUM_ZERO_MILLIS;
         return millis / 1000.0 / 60.0 / 60.0 / 24.0;
     }
 
+    /**
+     * Returns the Julian date (UTC) of a time.
+     *
+     * @param epochMillis the time, milliseconds since 1970
+     * @return the Julian date
+     */
+    static double julianDate(final long epochMillis) {
+        return AbstractSatellite.calcCurrentDaynum(epochMillis) + DAYNUM_ZERO_JULIAN;
+    }
+
     /**
      * Returns the square of a double.
      *
@@ -265,7 +266,7 @@ abstract class AbstractSatellite implements Satellite, Serializable {
         return arg - Math.floor(arg);
     }
 
-    private static double thetaGJD(final double theJD) {
+    static double thetaGJD(final double theJD) {
         /* Reference: The 1992 Astronomical Almanac, page B6. */
 
         final double ut = AbstractSatellite.frac(theJD + 0.5);
@@ -316,18 +317,28 @@ abstract class AbstractSatellite implements Satellite, Serializable {
      *
      * Reference: The 1992 Astronomical Almanac, page K12.
      *
-     * @param time the time
-     * @param positionVector the position
-     * @param satellitePosition the satellite position
+     * @param state the state holding the time and position, which receives the sub satellite point
+     */
+    private static void calculateLatLonAlt(final PropagationState state) {
+        AbstractSatellite.calculateLatLonAlt(state, state.gmst);
+    }
+
+    /**
+     * Calculates the sub satellite point for a Greenwich sidereal time which has already been
+     * worked out, so that it can be shared between satellites.
+     *
+     * @param state the state holding the position, which receives the sub satellite point
+     * @param gmst the Greenwich sidereal time of the state, radians
      */
-    private void calculateLatLonAlt(final double time,
-            final Vector4 positionVector, final SatPos satellitePosition) {
+    static void calculateLatLonAlt(final PropagationState state, final double gmst) {
 
-        satPos.setTheta(Math.atan2(position.getY(), position.getX()));
-        satPos.setLongitude(AbstractSatellite.mod2PI(satPos.getTheta() - AbstractSatellite.thetaGJD(time)));
+        final Vector4 position = state.position;
+
+        state.theta = Math.atan2(position.getY(), position.getX());
+        state.longitude = AbstractSatellite.mod2PI(state.theta - gmst);
         final double r = Math.sqrt(AbstractSatellite.sqr(position.getX()) + AbstractSatellite.sqr(position.getY()));
         final double e2 = FLATTENING_FACTOR * (2.0 - FLATTENING_FACTOR);
-        satPos.setLatitude(Math.atan2(position.getZ(), r));
+        double latitude = Math.atan2(position.getZ(), r);
 
         double phi;
         double c;
@@ -335,24 +346,39 @@ abstract class AbstractSatellite implements Satellite, Serializable {
         boolean converged;
 
         do {
-            phi = satPos.getLatitude();
+            phi = latitude;
             c = AbstractSatellite.invert(Math.sqrt(1.0 - e2 * AbstractSatellite.sqr(Math.sin(phi))));
-            satPos.setLatitude(Math.atan2(position.getZ() + EARTH_RADIUS_KM * c * e2
-                    * Math.sin(phi), r));
+            latitude = Math.atan2(position.getZ() + EARTH_RADIUS_KM * c * e2
+                    * Math.sin(phi), r);
 
-            converged = Math.abs(satPos.getLatitude() - phi) < EPSILON;
+            converged = Math.abs(latitude - phi) < EPSILON;
 
         }
         while (i++ < 10 && !converged);
 
-        satPos.setAltitude(r / Math.cos(satPos.getLatitude()) - EARTH_RADIUS_KM * c);
-
-        double temp = satPos.getLatitude();
+        state.altitude = r / Math.cos(latitude) - EARTH_RADIUS_KM * c;
 
-        if (temp > PI_OVER_TWO) {
-            temp -= TWO_PI;
-            satPos.setLatitude(temp);
+        if (latitude > PI_OVER_TWO) {
+            latitude -= TWO_PI;
         }
+
+        state.latitude = latitude;
+    }
+
+    /**
+     * Calculates the sub satellite point and stores it in the SatPos.
+     *
+     * @param state the state holding the time and position
+     * @param satPos the satellite position
+     */
+    private static void calculateLatLonAlt(final PropagationState state, final SatPos satPos) {
+
+        AbstractSatellite.calculateLatLonAlt(state);
+
+        satPos.setTheta(state.theta);
+        satPos.setLongitude(state.longitude);
+        satPos.setLatitude(state.latitude);
+        satPos.setAltitude(state.altitude);
     }
 
     /**
@@ -362,7 +388,7 @@ abstract class AbstractSatellite implements Satellite, Serializable {
      * @param pos the position
      * @param vel the velocity
      */
-    private static void convertSatState(final Vector4 pos, final Vector4 vel) {
+    static void convertSatState(final Vector4 pos, final Vector4 vel) {
         /* Converts the satellite'S position and velocity */
         /* vectors from normalized values to km and km/sec */
         AbstractSatellite.scaleVector(EARTH_RADIUS_KM, pos);
@@ -376,45 +402,98 @@ abstract class AbstractSatellite implements Satellite, Serializable {
      * @param date the date
      */
     @Override
-    public synchronized SatPos getPosition(final GroundStationPosition gsPos, final Date date) {
+    public SatPos getPosition(final GroundStationPosition gsPos, final Date date) {
 
-        /* This is the stuff we need to do repetitively while tracking. */
-        satPos = new SatPos();
+        return getPosition(gsPos, date, new PropagationState());
+    }
 
-        julUTC = AbstractSatellite.calcCurrentDaynum(date) + 2444238.5;
+    /**
+     * Get the position of the satellite, using the caller's scratch state.
+     *
+     * @param gsPos the ground station position
+     * @param date the date
+     * @param state the scratch state, owned by the calling thread
+     */
+    public SatPos getPosition(final GroundStationPosition gsPos, final Date date,
+            final PropagationState state) {
 
-        /* Convert satellite'S epoch time to Julian */
-        /* and calculate time since epoch in minutes */
+        final SatPos satellitePosition = new SatPos();
 
-        final double tsince = (julUTC - julEpoch) * MINS_PER_DAY;
+        calculatePosition(gsPos, date.getTime(), satellitePosition, state);
 
-        if (tle.isDeepspace()) {
-            calculateSDP4(tsince);
-        }
-        else {
-            calculateSGP4(tsince);
-        }
+        return satellitePosition;
+    }
 
-        /* Scale position and velocity vectors to km and km/sec */
-        AbstractSatellite.convertSatState(position, velocity);
+    /**
+     * Get the position of the satellite into an existing SatPos, without allocating anything once
+     * the SatPos has been used for the first time. The scratch state is held by the SatPos, so a
+     * SatPos must not be the target of two calls at the same time.
+     *
+     * @param gsPos the ground station position
+     * @param epochMillis the time, milliseconds since 1970
+     * @param satellitePosition the SatPos to fill in
+     */
+    @Override
+    public void getPosition(final GroundStationPosition gsPos, final long epochMillis,
+            final SatPos satellitePosition) {
 
-        /* Calculate velocity of satellite */
+        calculatePosition(gsPos, epochMillis, satellitePosition, satellitePosition.getPropagationState());
+    }
+
+    /**
+     * Get the position of the satellite into an existing SatPos, using time dependent terms which
+     * have already been worked out. Nothing is allocated once the SatPos has been used for the
+     * first time. The scratch state is held by the SatPos, so a SatPos must not be the target of
+     * two calls at the same time.
+     *
+     * @param gsPos the ground station position
+     * @param time the time and the terms which depend only on it
+     * @param satellitePosition the SatPos to fill in
+     */
+    @Override
+    public void getPosition(final GroundStationPosition gsPos, final TimeContext time,
+            final SatPos satellitePosition) {
+
+        final PropagationState state = satellitePosition.getPropagationState();
+
+        time.copyTo(state);
+
+        calculatePosition(gsPos, satellitePosition, state);
+
+        satellitePosition.setTime(time.getEpochMillis());
+    }
+
+    private void calculatePosition(final GroundStationPosition gsPos, final long epochMillis,
+            final SatPos satellitePosition, final PropagationState state) {
+
+        AbstractSatellite.setTime(epochMillis, state);
+        AbstractSatellite.calculateSun(state);
 
-        AbstractSatellite.magnitude(velocity);
+        calculatePosition(gsPos, satellitePosition, state);
+
+        satellitePosition.setTime(epochMillis);
+    }
+
+    /**
+     * Fills in the SatPos for the time already held in the state.
+     */
+    private void calculatePosition(final GroundStationPosition gsPos, final SatPos satellitePosition,
+            final PropagationState state) {
+
+        /* This is the stuff we need to do repetitively while tracking. */
+        propagate(state);
 
         // /** All angles in rads. Distance in km. Velocity in km/S **/
         // /* Calculate satellite Azi, Ele, Range and Range-rate */
-        calculateObs(julUTC, position, velocity, gsPos, squintVector);
+        calculateObs(state, gsPos, satellitePosition);
         /* Calculate satellite Lat North, Lon East and Alt. */
 
-        calculateLatLonAlt(julUTC, position, satPos);
+        calculateLatLonAlt(state, satellitePosition);
 
-        satPos.setTime(date);
+        satellitePosition.setPhase(state.phase);
 
-        satPos.setEclipsed(isEclipsed());
-        satPos.setEclipseDepth(eclipseDepth);
-
-        return satPos;
+        satellitePosition.setEclipsed(isEclipsed(state));
+        satellitePosition.setEclipseDepth(state.eclipseDepth);
     }
 
     /**
@@ -425,12 +504,197 @@ abstract class AbstractSatellite implements Satellite, Serializable {
      */
     @Override
     @Deprecated
-    public synchronized void getPosition(final GroundStationPosition gsPos,
+    public void getPosition(final GroundStationPosition gsPos,
             final SatPos satellitePosition, final Date date) {
 
         satellitePosition.copy(getPosition(gsPos, date));
     }
 
+    /**
+     * Propagates the satellite to count evenly spaced times and stores the results in the columns.
+     *
+     * @param startMillis the time of the first sample, milliseconds since 1970
+     * @param stepMillis the time between samples, milliseconds
+     * @param count the number of samples
+     * @param gsPos the ground station for the look angle columns, may be null if they are not set
+     * @param columns the columns to fill, from index 0
+     */
+    @Override
+    public void calculatePositions(final long startMillis, final long stepMillis, final int count,
+            final GroundStationPosition gsPos, final EphemerisColumns columns) {
+
+        columns.check(count, gsPos != null);
+
+        final PropagationState state = new PropagationState();
+
+        for (int i = 0; i < count; i++) {
+            calculatePosition(startMillis + i * stepMillis, gsPos, columns, i, state);
+        }
+    }
+
+    /**
+     * Propagates the satellite to each of the given times and stores the results in the columns.
+     *
+     * @param epochMillis the sample times, milliseconds since 1970
+     * @param gsPos the ground station for the look angle columns, may be null if they are not set
+     * @param columns the columns to fill, from index 0
+     */
+    @Override
+    public void calculatePositions(final long[] epochMillis, final GroundStationPosition gsPos,
+            final EphemerisColumns columns) {
+
+        columns.check(epochMillis.length, gsPos != null);
+
+        final PropagationState state = new PropagationState();
+
+        for (int i = 0; i < epochMillis.length; i++) {
+            calculatePosition(epochMillis[i], gsPos, columns, i, state);
+        }
+    }
+
+    /**
+     * Propagates the satellite once and calculates its look angles from each of the ground
+     * stations. The result for station i is stored at index i of each array which is not null.
+     *
+     * @param epochMillis the time, milliseconds since 1970
+     * @param stations the ground stations
+     * @param azimuth the azimuths, radians
+     * @param elevation the elevations, radians
+     * @param range the ranges, km
+     * @param rangeRate the range rates, km/s
+     */
+    @Override
+    public void calculateLookAngles(final long epochMillis, final GroundStationPosition[] stations,
+            final double[] azimuth, final double[] elevation, final double[] range, final double[] rangeRate) {
+
+        final PropagationState state = new PropagationState();
+
+        AbstractSatellite.setTime(epochMillis, state);
+
+        calculateLookAngles(state, stations, azimuth, elevation, range, rangeRate);
+    }
+
+    /**
+     * Propagates the satellite once and calculates its look angles from each of the ground
+     * stations, using time dependent terms which have already been worked out and the caller's
+     * scratch state. Nothing is allocated. The result for station i is stored at index i of each
+     * array which is not null.
+     *
+     * @param time the time and the terms which depend only on it
+     * @param state the scratch state, owned by the calling thread
+     * @param stations the ground stations
+     * @param azimuth the azimuths, radians
+     * @param elevation the elevations, radians
+     * @param range the ranges, km
+     * @param rangeRate the range rates, km/s
+     */
+    public void calculateLookAngles(final TimeContext time, final PropagationState state,
+            final GroundStationPosition[] stations, final double[] azimuth, final double[] elevation,
+            final double[] range, final double[] rangeRate) {
+
+        time.copyTo(state);
+
+        calculateLookAngles(state, stations, azimuth, elevation, range, rangeRate);
+    }
+
+    private void calculateLookAngles(final PropagationState state, final GroundStationPosition[] stations,
+            final double[] azimuth, final double[] elevation, final double[] range, final double[] rangeRate) {
+
+        EphemerisColumns.checkLength("azimuth", azimuth, stations.length);
+        EphemerisColumns.checkLength("elevation", elevation, stations.length);
+        EphemerisColumns.checkLength("range", range, stations.length);
+        EphemerisColumns.checkLength("rangeRate", rangeRate, stations.length);
+
+        propagate(state);
+
+        for (int i = 0; i < stations.length; i++) {
+            calculateObs(state, stations[i].getObserver());
+
+            if (azimuth != null) {
+                azimuth[i] = state.azimuth;
+            }
+            if (elevation != null) {
+                elevation[i] = state.elevation;
+            }
+            if (range != null) {
+                range[i] = state.range.getW();
+            }
+            if (rangeRate != null) {
+                rangeRate[i] = state.rangeRate;
+            }
+        }
+    }
+
+    /**
+     * Calculates one sample of a batch call. Only the parts asked for by the columns are worked
+     * out, and the eclipse is never calculated.
+     */
+    void calculatePosition(final long epochMillis, final GroundStationPosition gsPos,
+            final EphemerisColumns columns, final int index, final PropagationState state) {
+
+        AbstractSatellite.setTime(epochMillis, state);
+        propagate(state);
+
+        if (columns.hasLookAngles()) {
+            calculateObs(state, gsPos.getObserver());
+        }
+
+        if (columns.hasGeodetic()) {
+            calculateLatLonAlt(state);
+        }
+
+        columns.store(index, state);
+    }
+
+    /**
+     * Sets the Julian date and Greenwich sidereal time of the state.
+     *
+     * @param epochMillis the time, milliseconds since 1970
+     * @param state the scratch state
+     */
+    static void setTime(final long epochMillis, final PropagationState state) {
+        state.julUTC = AbstractSatellite.julianDate(epochMillis);
+        state.gmst = AbstractSatellite.thetaGJD(state.julUTC);
+    }
+
+    /**
+     * Sets the position of the sun in the state, for the Julian date already held there.
+     *
+     * @param state the scratch state
+     */
+    static void calculateSun(final PropagationState state) {
+        AbstractSatellite.calculateSunVector(state.julUTC, state.sun);
+        AbstractSatellite.magnitude(state.sun);
+    }
+
+    /**
+     * Runs the SGP4 or SDP4 model for the Julian date held in the state, leaving the position and
+     * velocity of the satellite, in km and km/s, in the state.
+     *
+     * @param state the scratch state
+     */
+    final void propagate(final PropagationState state) {
+
+        /* Convert satellite'S epoch time to Julian */
+        /* and calculate time since epoch in minutes */
+
+        final double tsince = (state.julUTC - julEpoch) * MINS_PER_DAY;
+
+        if (tle.isDeepspace()) {
+            calculateSDP4(tsince, state);
+        }
+        else {
+            calculateSGP4(tsince, state);
+        }
+
+        /* Scale position and velocity vectors to km and km/sec */
+        AbstractSatellite.convertSatState(state.position, state.velocity);
+
+        /* Calculate velocity of satellite */
+
+        AbstractSatellite.magnitude(state.velocity);
+    }
+
     /**
      * Calculate_User_PosVel() passes the user'S observer position and the time of interest and
      * returns the ECI position and velocity of the observer. The velocity calculation assumes the
@@ -438,36 +702,36 @@ abstract class AbstractSatellite implements Satellite, Serializable {
      *
      * Reference: The 1992 Astronomical Almanac, page K11.
      *
-     * @param time the time
-     * @param gsPos the ground station position
-     * @param obsPos the position of the observer
-     * @param obsVel the velocity of the observer
+     * The earth fixed terms are precomputed by the Observer, so only the rotation by the sidereal
+     * time is done here.
+     *
+     * @param gmst the Greenwich sidereal time, radians
+     * @param observer the precomputed ground station
+     * @param state the state which receives the observer's position, velocity and local sidereal
+     *            time
      */
-    private static void calculateUserPosVel(final double time,
-            final GroundStationPosition gsPos, final Vector4 obsPos, final Vector4 obsVel) {
+    static void calculateUserPosVel(final double gmst,
+            final Observer observer, final PropagationState state) {
 
-        gsPos.setTheta(AbstractSatellite.mod2PI(AbstractSatellite.thetaGJD(time) + DEG2RAD
-                * gsPos.getLongitude()));
-        
-        final double sinLat = Math.sin(DEG2RAD * gsPos.getLatitude());
-        final double cosLat = Math.cos(DEG2RAD * gsPos.getLatitude());
-        final double sinLatSq = sinLat * sinLat;
-        
-        final double c = AbstractSatellite.invert(Math.sqrt(1.0 + FLATTENING_FACTOR * (FLATTENING_FACTOR - 2) * sinLatSq));
-        final double sq = AbstractSatellite.sqr(1.0 - FLATTENING_FACTOR) * c;
-        final double achcp = (EARTH_RADIUS_KM * c + gsPos.getHeightAMSL() / 1000.0) * cosLat;
-        
-        final double cosTheta = Math.cos(gsPos.getTheta());
-        final double sinTheta = Math.sin(gsPos.getTheta());
-        
-        obsPos.setXYZ(achcp * cosTheta,
-                achcp * sinTheta,
-                (EARTH_RADIUS_KM * sq + gsPos.getHeightAMSL() / 1000.0) * sinLat);
+        final double theta = AbstractSatellite.mod2PI(gmst + observer.longitudeRad);
+
+        final double cosTheta = Math.cos(theta);
+        final double sinTheta = Math.sin(theta);
+
+        final Vector4 obsPos = state.obsPos;
+        final Vector4 obsVel = state.obsVel;
+
+        obsPos.setXYZ(observer.axisDistance * cosTheta,
+                observer.axisDistance * sinTheta,
+                observer.equatorDistance);
         obsVel.setXYZ(-MFACTOR * obsPos.getY(),
                 MFACTOR * obsPos.getX(),
                 0);
         AbstractSatellite.magnitude(obsPos);
         AbstractSatellite.magnitude(obsVel);
+
+        state.sinLst = sinTheta;
+        state.cosLst = cosTheta;
     }
 
     /**
@@ -483,18 +747,36 @@ abstract class AbstractSatellite implements Satellite, Serializable {
      * in radians. Again, calculations are based ontopocentric position using the WGS '72 geoid and
      * incorporating atmospheric refraction.
      *
-     * @param julianUTC Julian date of UTC
-     * @param positionVector the position vector
-     * @param velocityVector the velocity vector
-     * @param gsPos the ground tstation position
-     * @param squintVector the squint vector
+     * @param state the state holding the satellite position and velocity, which receives the
+     *            look angles
+     * @param observer the precomputed ground station
      *
      */
-    private void calculateObs(final double julianUTC,
-            final Vector4 positionVector, final Vector4 velocityVector, final GroundStationPosition gsPos,
-            final Vector4 squintVector) {
+    private static void calculateObs(final PropagationState state,
+            final Observer observer) {
+
+        AbstractSatellite.calculateUserPosVel(state.gmst, observer, state);
+
+        AbstractSatellite.calculateLookAngles(state, observer);
+    }
 
-        AbstractSatellite.calculateUserPosVel(julianUTC, gsPos, obsPos, obsVel);
+    /**
+     * Calculates the look angles of the satellite for an observer whose ECI position and velocity
+     * are already in the state, so that they can be shared between satellites.
+     *
+     * @param state the state holding the satellite and observer vectors, which receives the look
+     *            angles
+     * @param observer the precomputed ground station
+     */
+    static void calculateLookAngles(final PropagationState state,
+            final Observer observer) {
+
+        final Vector4 positionVector = state.position;
+        final Vector4 velocityVector = state.velocity;
+        final Vector4 obsPos = state.obsPos;
+        final Vector4 obsVel = state.obsVel;
+        final Vector4 range = state.range;
+        final Vector4 rgvel = state.rgvel;
 
         range.setXYZ(positionVector.getX() - obsPos.getX(),
                 positionVector.getY() - obsPos.getY(),
@@ -502,7 +784,7 @@ abstract class AbstractSatellite implements Satellite, Serializable {
 
         /* Save these values globally for calculating squint angles later... */
 
-        squintVector.setXYZ(range.getX(),
+        state.squintVector.setXYZ(range.getX(),
                 range.getY(),
                 range.getZ());
 
@@ -512,10 +794,10 @@ abstract class AbstractSatellite implements Satellite, Serializable {
 
         AbstractSatellite.magnitude(range);
 
-        final double sinLat = Math.sin(DEG2RAD * gsPos.getLatitude());
-        final double cosLat = Math.cos(DEG2RAD * gsPos.getLatitude());
-        final double sinTheta = Math.sin(gsPos.getTheta());
-        final double cosTheta = Math.cos(gsPos.getTheta());
+        final double sinLat = observer.sinLatitude;
+        final double cosLat = observer.cosLatitude;
+        final double sinTheta = state.sinLst;
+        final double cosTheta = state.cosLst;
         final double topS = sinLat * cosTheta * range.getX() + sinLat * sinTheta
                 * range.getY() - cosLat * range.getZ();
         final double topE = -sinTheta * range.getX() + cosTheta * range.getY();
@@ -531,10 +813,30 @@ abstract class AbstractSatellite implements Satellite, Serializable {
             azim = azim + TWO_PI;
         }
 
-        satPos.setAzimuth(azim);
-        satPos.setElevation(Math.asin(topZ / range.getW()));
-        satPos.setRange(range.getW());
-        satPos.setRangeRate(AbstractSatellite.dot(range, rgvel) / range.getW());
+        state.azimuth = azim;
+        state.elevation = Math.asin(topZ / range.getW());
+        state.rangeRate = AbstractSatellite.dot(range, rgvel) / range.getW();
+    }
+
+    /**
+     * Calculates the look angles of the satellite from the ground station and stores them in the
+     * SatPos.
+     *
+     * @param state the state holding the satellite position and velocity
+     * @param gsPos the ground tstation position
+     * @param satPos the satellite position to fill in
+     */
+    private static void calculateObs(final PropagationState state,
+            final GroundStationPosition gsPos, final SatPos satPos) {
+
+        final Observer observer = gsPos.getObserver();
+
+        AbstractSatellite.calculateObs(state, observer);
+
+        satPos.setAzimuth(state.azimuth);
+        satPos.setElevation(state.elevation);
+        satPos.setRange(state.range.getW());
+        satPos.setRangeRate(state.rangeRate);
 
         final int sector = (int)(satPos.getAzimuth() / TWO_PI
                 * 360.0 / 10.0);
@@ -545,7 +847,7 @@ abstract class AbstractSatellite implements Satellite, Serializable {
             elevation = 180 - elevation;
         }
 
-        satPos.setAboveHorizon(elevation - gsPos.getHorizonElevations()[sector] > EPSILON);
+        satPos.setAboveHorizon(elevation - observer.getHorizonElevation(sector) > EPSILON);
     }
 
     /**
@@ -819,33 +1121,53 @@ abstract class AbstractSatellite implements Satellite, Serializable {
     @Override
     public synchronized void calculateSatelliteVectors(final Date date) {
         // Re-initialize, object can contain data from previous calculations
-        satPos = new SatPos();
+        satPos = calculateSatelliteVectors(date, sequenceState);
+    }
+
+    /**
+     * Calculates the position and velocity vectors of the satellite into the caller's state.
+     *
+     * @param date The date for the calculation the position and velocity vectors of the satellite.
+     * @param state the scratch state, owned by the calling thread
+     * @return a SatPos holding the time, phase and eclipse status of the satellite
+     */
+    public SatPos calculateSatelliteVectors(final Date date, final PropagationState state) {
 
-        // Date/time for which the satellite position and velocity are calculated
-        julUTC = AbstractSatellite.calcCurrentDaynum(date) + 2444238.5;
+        AbstractSatellite.setTime(date.getTime(), state);
+        AbstractSatellite.calculateSun(state);
 
-        // Calculate time since epoch in minutes
+        return calculateSatelliteVectors(date.getTime(), state);
+    }
 
-        final double tsince = (julUTC - julEpoch) * MINS_PER_DAY;
+    /**
+     * Calculates the position and velocity vectors of the satellite into the caller's state, using
+     * time dependent terms which have already been worked out. The state can then be passed to
+     * calculateSatPosForGroundStation(..) for each ground station.
+     *
+     * @param time the time and the terms which depend only on it
+     * @param state the scratch state, owned by the calling thread
+     * @return a SatPos holding the time, phase and eclipse status of the satellite
+     */
+    public SatPos calculateSatelliteVectors(final TimeContext time, final PropagationState state) {
 
-        // Calculations of satellite position, no ground stations involved here yet
-        if (tle.isDeepspace()) {
-            calculateSDP4(tsince);
-        }
-        else {
-            calculateSGP4(tsince);
-        }
+        time.copyTo(state);
 
-        // Scale position and velocity vectors to km and km/s
-        AbstractSatellite.convertSatState(position, velocity);
+        return calculateSatelliteVectors(time.getEpochMillis(), state);
+    }
 
-        // Calculate the magnitude of the velocity of satellite
-        AbstractSatellite.magnitude(velocity);
+    private SatPos calculateSatelliteVectors(final long epochMillis, final PropagationState state) {
+        final SatPos satellitePosition = new SatPos();
 
-        satPos.setEclipsed(isEclipsed());
-        satPos.setEclipseDepth(eclipseDepth);
+        // Calculations of satellite position, no ground stations involved here yet
+        propagate(state);
 
-        satPos.setTime(date);
+        satellitePosition.setPhase(state.phase);
+        satellitePosition.setEclipsed(isEclipsed(state));
+        satellitePosition.setEclipseDepth(state.eclipseDepth);
+
+        satellitePosition.setTime(epochMillis);
+
+        return satellitePosition;
     }
 
     /**
@@ -856,11 +1178,22 @@ abstract class AbstractSatellite implements Satellite, Serializable {
      */
     @Override
     public synchronized SatPos calculateSatelliteGroundTrack() {
-        calculateLatLonAlt(julUTC, position, this.satPos);
+        calculateSatelliteGroundTrack(sequenceState, this.satPos);
 
         return this.satPos;
     }
 
+    /**
+     * Calculates the ground track (sub satellite point) of the satellite, for the position already
+     * held in the state by calculateSatelliteVectors(date, state).
+     *
+     * @param state the state holding the satellite position
+     * @param satellitePosition the SatPos in which the ground track is stored
+     */
+    public void calculateSatelliteGroundTrack(final PropagationState state, final SatPos satellitePosition) {
+        calculateLatLonAlt(state, satellitePosition);
+    }
+
     /**
      * Calculates the position of the satellite from the perspective of a ground station. The
      * position and velocity of the satellite must have been determined before (by
@@ -873,39 +1206,93 @@ abstract class AbstractSatellite implements Satellite, Serializable {
      */
     @Override
     public synchronized SatPos calculateSatPosForGroundStation(final GroundStationPosition gsPos) {
-        // All angles in rads. Distance in km. Velocity in km/s
-        // Calculate satellite Azi, Ele, Range and Range-rate
-        calculateObs(julUTC, position, velocity, gsPos, squintVector);
+        calculateSatPosForGroundStation(gsPos, sequenceState, this.satPos);
 
         return this.satPos;
     }
 
-    protected SatPos getSatPos() {
+    /**
+     * Calculates the position of the satellite from the perspective of a ground station, for the
+     * position and velocity already held in the state by calculateSatelliteVectors(date, state).
+     *
+     * @param gsPos The position of the ground station to perform the calculations for.
+     * @param state the state holding the satellite position and velocity
+     * @param satellitePosition the SatPos in which the look angles are stored
+     */
+    public void calculateSatPosForGroundStation(final GroundStationPosition gsPos,
+            final PropagationState state, final SatPos satellitePosition) {
+        // All angles in rads. Distance in km. Velocity in km/s
+        // Calculate satellite Azi, Ele, Range and Range-rate
+        calculateObs(state, gsPos, satellitePosition);
+    }
+
+    protected synchronized SatPos getSatPos() {
         return satPos;
     }
 
     /**
      * Determines if the satellite is in sunlight.
+     *
+     * @param state the state holding the satellite and sun positions
      */
-    private boolean isEclipsed() {
+    private static boolean isEclipsed(final PropagationState state) {
 
-        final Vector4 sunVector = calculateSunVector();
+        final Vector4 position = state.position;
+        final Vector4 sunVector = state.sun;
 
         /* Calculates stellite's eclipse status and depth */
 
         /* Determine partial eclipse */
 
-        final double sdEarth = Math.asin(EARTH_RADIUS / position.w);
-        final Vector4 rho = Vector4.subtract(sunVector, position);
-        final double sdSun = Math.asin(SOLAR_RADIUS / rho.w);
-        final Vector4 earth = Vector4.scalarMultiply(position, -1);
-        final double delta = Vector4.angle(sunVector, earth);
-        eclipseDepth = sdEarth - sdSun - delta;
+        final double sdEarth = AbstractSatellite.earthSemiDiameter(position);
+        final double sdSun = AbstractSatellite.sunSemiDiameter(position, sunVector);
+        final double delta = AbstractSatellite.sunEarthAngle(position, sunVector);
 
-        return sdEarth >= sdSun && eclipseDepth >= 0;
+        state.eclipseDepth = sdEarth - sdSun - delta;
+
+        return sdEarth >= sdSun && state.eclipseDepth >= 0;
+    }
+
+    /**
+     * @param position the satellite's position, with its magnitude, km
+     * @return the angular radius of the earth seen from the satellite, radians
+     */
+    static double earthSemiDiameter(final Vector4 position) {
+        return Math.asin(EARTH_RADIUS / position.w);
+    }
+
+    /**
+     * @param position the satellite's position, km
+     * @param sunVector the sun's position, km
+     * @return the angular radius of the sun seen from the satellite, radians
+     */
+    static double sunSemiDiameter(final Vector4 position, final Vector4 sunVector) {
+
+        /* Distance from the satellite to the sun */
+        final double rhoX = sunVector.x - position.x;
+        final double rhoY = sunVector.y - position.y;
+        final double rhoZ = sunVector.z - position.z;
+        return Math.asin(SOLAR_RADIUS / Math.sqrt(rhoX * rhoX + rhoY * rhoY + rhoZ * rhoZ));
+    }
+
+    /**
+     * @param position the satellite's position, km
+     * @param sunVector the sun's position, with its magnitude, km
+     * @return the angle between the centres of the sun and the earth seen from the satellite,
+     *         radians
+     */
+    static double sunEarthAngle(final Vector4 position, final Vector4 sunVector) {
+
+        /* Angle between the sun and the earth, as seen from the satellite */
+        final double earthX = -position.x;
+        final double earthY = -position.y;
+        final double earthZ = -position.z;
+        final double earthW = Math.sqrt(earthX * earthX + earthY * earthY + earthZ * earthZ);
+        return Math.acos((sunVector.x * earthX + sunVector.y * earthY + sunVector.z * earthZ)
+                / (sunVector.w * earthW));
     }
 
-    private Vector4 calculateSunVector() {
+    static void calculateSunVector(final double julUTC, final Vector4 sunVector) {
 
         final double mjd = julUTC - 2415020.0;
         final double year = 1900 + mjd / 365.25;
@@ -938,7 +1325,8 @@ abstract class AbstractSatellite implements Satellite, Serializable {
                     );
         r = ASTRONOMICAL_UNIT * r;
 
-        return new Vector4(r, r * Math.cos(lsa), r * Math.sin(lsa) * Math.cos(eps), r * Math.sin(lsa) * Math.sin(eps));
+        sunVector.setW(r);
+        sunVector.setXYZ(r * Math.cos(lsa), r * Math.sin(lsa) * Math.cos(eps), r * Math.sin(lsa) * Math.sin(eps));
     }
 
     /**
@@ -950,7 +1338,7 @@ abstract class AbstractSatellite implements Satellite, Serializable {
      * Values determined using data from 1950-1991 in the 1990 Astronomical Almanac. See
      * DELTA_ET.WQ1 for details.
      */
-    private double deltaEt(final double year) {
+    static double deltaEt(final double year) {
 
         return 26.465 + 0.747622 * (year - 1950) + 1.886913 * Math.sin(TWO_PI * (year - 1975) / 33);
     }
@@ -958,11 +1346,12 @@ abstract class AbstractSatellite implements Satellite, Serializable {
     /**
      * Returns angle in radians from argument in degrees.
      */
-    private double radians(final double degrees) {
+    private static double radians(final double degrees) {
         return degrees * DEG2RAD;
     }
 
-    protected void calculatePhase(final double xlt, final double xnode, final double omgadf) {
+    protected static void calculatePhase(final PropagationState state,
+            final double xlt, final double xnode, final double omgadf) {
         /* Phase in radians */
         double phaseValue = xlt - xnode - omgadf + TWO_PI;
 
@@ -970,10 +1359,10 @@ abstract class AbstractSatellite implements Satellite, Serializable {
             phaseValue += TWO_PI;
         }
 
-        satPos.setPhase(AbstractSatellite.mod2PI(phaseValue));
+        state.phase = AbstractSatellite.mod2PI(phaseValue);
     }
 
-    protected void calculatePositionAndVelocity(final double rk,
+    protected static void calculatePositionAndVelocity(final PropagationState state, final double rk,
             final double uk, final double xnodek, final double xinck, final double rdotk, final double rfdotk) {
         /* Orientation vectors */
         final double sinuk = Math.sin(uk);
@@ -992,10 +1381,10 @@ abstract class AbstractSatellite implements Satellite, Serializable {
         final double vz = sinik * cosuk;
 
         /* Position and velocity */
-        position.setXYZ(rk * ux, rk * uy, rk * uz);
-        velocity.setX(rdotk * ux + rfdotk * vx);
-        velocity.setY(rdotk * uy + rfdotk * vy);
-        velocity.setZ(rdotk * uz + rfdotk * vz);
+        state.position.setXYZ(rk * ux, rk * uy, rk * uz);
+        state.velocity.setX(rdotk * ux + rfdotk * vx);
+        state.velocity.setY(rdotk * uy + rfdotk * vy);
+        state.velocity.setZ(rdotk * uz + rfdotk * vz);
     }
 
     protected static double invert(final double value) {
@@ -1003,9 +1392,9 @@ abstract class AbstractSatellite implements Satellite, Serializable {
     }
 
     /**
-     * @return the eclipseDepth
+     * @return the eclipseDepth from the last call to calculateSatelliteVectors(date)
      */
-    public final double getEclipseDepth() {
-        return eclipseDepth;
+    public final synchronized double getEclipseDepth() {
+        return sequenceState.eclipseDepth;
     }
 }
@@ -0,0 +1,569 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index of the element sets in archive files, which finds those of one satellite over a time
+ * range without reading the archives.
+ *
+ * {@link #build(Path, List, boolean)} scans each archive once, as {@link CatalogLoader} reads
+ * them, and writes an index file holding a fixed width entry of catalog number, epoch and archive
+ * offset for each element set, sorted by catalog number and epoch. Element sets with the same
+ * catalog number and epoch as one found earlier, as in daily dumps of a whole catalog, are indexed
+ * once. {@link #open(Path)} maps the index read only; a query finds its first entry by binary
+ * search and reads and parses only the records it returns, through {@link TLE#TLE(String[])}.
+ *
+ * The archives must be plain text, as gzip cannot be read at an offset, and must not change once
+ * indexed; an archive whose size has changed is reported when the index is opened. An index holds
+ * up to about 100 million element sets.
+ *
+ * An ArchiveIndex is immutable once opened, so any number of threads may use one.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class ArchiveIndex {
+
+    /** "P4JI", the first bytes of every index file. */
+    static final int MAGIC = 0x494a3450;
+
+    /** The version of the format written. */
+    static final int VERSION = 1;
+
+    /** The bytes of the header. */
+    static final int HEADER_BYTES = 32;
+
+    /** The bytes of each entry. */
+    static final int ENTRY_BYTES = 20;
+
+    /** The bits of an entry's location holding the offset in the archive. */
+    private static final int OFFSET_BITS = 48;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+    /** The most archives one index can refer to. */
+    private static final int MAXIMUM_ARCHIVES = 1 << (64 - OFFSET_BITS);
+
+    /** The bytes read for a record, more than any three line element set needs. */
+    private static final int RECORD_BYTES = 1024;
+
+    /* Offsets within the header */
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_ARCHIVES = 8;
+    private static final int HEADER_ENTRIES = 12;
+
+    /* Offsets within an entry */
+    private static final int CATNUM = 0;
+    private static final int EPOCH = 4;
+    private static final int LOCATION = 12;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final Path[] archives;
+
+    private ArchiveIndex(final ByteBuffer buffer, final int count, final Path[] archives) {
+        this.buffer = buffer;
+        this.count = count;
+        this.archives = archives;
+    }
+
+    /**
+     * Scans archive files and writes an index of their element sets, replacing any file already
+     * there.
+     *
+     * @param index the index file
+     * @param archives the archive files, which are recorded by absolute path
+     * @param verifyChecksums whether the line checksums are verified
+     * @return the number of element sets indexed
+     * @throws IOException if a file cannot be read or written
+     * @throws IllegalArgumentException if an argument is null, an archive is gzipped, an element
+     *             set is invalid or there are too many element sets for one index
+     */
+    public static int build(final Path index, final List<Path> archives, final boolean verifyChecksums)
+            throws IOException, IllegalArgumentException {
+
+        if (null == index || null == archives) {
+            throw new IllegalArgumentException("Index and archives must be set");
+        }
+
+        if (archives.size() > MAXIMUM_ARCHIVES) {
+            throw new IllegalArgumentException("An index can refer to at most " + MAXIMUM_ARCHIVES + " archives");
+        }
+
+        final Entries entries = new Entries();
+        final TLEParser parser = new TLEParser(verifyChecksums);
+        final byte[][] paths = new byte[archives.size()][];
+        final long[] sizes = new long[archives.size()];
+
+        for (int i = 0; i < paths.length; i++) {
+            final Path archive = archives.get(i).toAbsolutePath().normalize();
+            paths[i] = archive.toString().getBytes(StandardCharsets.UTF_8);
+            sizes[i] = scan(archive, i, parser, entries);
+        }
+
+        final int[] order = entries.sortedOrder();
+
+        /* Drop repeats of an element set, keeping the first found */
+        int unique = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (i == 0 || !entries.sameElementSet(order[i], order[i - 1])) {
+                order[unique++] = order[i];
+            }
+        }
+
+        long tableBytes = 0;
+        for (final byte[] path : paths) {
+            tableBytes += 12 + path.length;
+        }
+
+        final long size = HEADER_BYTES + (long)ENTRY_BYTES * unique + tableBytes;
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("An index of " + unique + " element sets is too large");
+        }
+
+        final ByteBuffer out = ByteBuffer.allocate((int)size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putInt(paths.length).putInt(unique);
+        out.position(HEADER_BYTES);
+
+        for (int i = 0; i < unique; i++) {
+            final int entry = order[i];
+            out.putInt(entries.catnums[entry]).putLong(entries.epochs[entry]).putLong(entries.locations[entry]);
+        }
+
+        for (int i = 0; i < paths.length; i++) {
+            out.putLong(sizes[i]).putInt(paths[i].length).put(paths[i]);
+        }
+
+        out.flip();
+
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+
+        return unique;
+    }
+
+    /**
+     * Opens an index file, mapping it read only.
+     *
+     * @param index the index file
+     * @return the index
+     * @throws IOException if the file cannot be read, is not an index, is of another version or
+     *             an archive has changed size since it was indexed
+     * @throws IllegalArgumentException if the file is null
+     */
+    public static ArchiveIndex open(final Path index) throws IOException, IllegalArgumentException {
+
+        if (null == index) {
+            throw new IllegalArgumentException("Index has not been set");
+        }
+
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException(index + " is not an archive index");
+            }
+
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException(index + " is not an archive index");
+            }
+
+            if (buffer.getInt(HEADER_VERSION) != VERSION) {
+                throw new IOException(index + " is archive index version " + buffer.getInt(HEADER_VERSION)
+                        + ", not " + VERSION);
+            }
+
+            final int archiveCount = buffer.getInt(HEADER_ARCHIVES);
+            final int count = buffer.getInt(HEADER_ENTRIES);
+            final Path[] archives = new Path[archiveCount];
+
+            try {
+                int position = HEADER_BYTES + ENTRY_BYTES * count;
+
+                for (int i = 0; i < archiveCount; i++) {
+                    final long archiveSize = buffer.getLong(position);
+                    final byte[] path = new byte[buffer.getInt(position + 8)];
+                    for (int j = 0; j < path.length; j++) {
+                        path[j] = buffer.get(position + 12 + j);
+                    }
+                    position += 12 + path.length;
+
+                    archives[i] = Paths.get(new String(path, StandardCharsets.UTF_8));
+
+                    try (FileChannel archive = FileChannel.open(archives[i], StandardOpenOption.READ)) {
+                        if (archive.size() != archiveSize) {
+                            throw new IOException(archives[i] + " has changed since it was indexed");
+                        }
+                    }
+                }
+
+                if (position != size) {
+                    throw new IOException(index + " is truncated or corrupt");
+                }
+            }
+            catch (final IndexOutOfBoundsException | NegativeArraySizeException e) {
+                throw new IOException(index + " is truncated or corrupt", e);
+            }
+
+            return new ArchiveIndex(buffer, count, archives);
+        }
+    }
+
+    /**
+     * @return the number of element sets indexed
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the archive files, in the order they were indexed
+     */
+    public List<Path> getArchives() {
+        return Arrays.asList(archives.clone());
+    }
+
+    /**
+     * Finds the epochs of a satellite's element sets from the index alone.
+     *
+     * @param catnum the catalog number
+     * @return the epochs, in order, milliseconds since 1970
+     */
+    public long[] getEpochs(final int catnum) {
+        final int first = firstEntry(catnum, Long.MIN_VALUE);
+        int last = first;
+
+        while (last < count && catnum(last) == catnum) {
+            last++;
+        }
+
+        final long[] epochs = new long[last - first];
+        for (int i = first; i < last; i++) {
+            epochs[i - first] = buffer.getLong(entry(i) + EPOCH);
+        }
+        return epochs;
+    }
+
+    /**
+     * Reads the element sets of a satellite whose epochs fall in a range. Only those records are
+     * read from the archives.
+     *
+     * @param catnum the catalog number
+     * @param fromMillis the start of the range, milliseconds since 1970
+     * @param toMillis the end of the range, inclusive, milliseconds since 1970
+     * @return the element sets, in epoch order
+     * @throws IOException if an archive cannot be read or no longer holds an element set at an
+     *             indexed offset
+     */
+    public List<TLE> getTLEs(final int catnum, final long fromMillis, final long toMillis) throws IOException {
+
+        final List<TLE> tles = new ArrayList<TLE>();
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+
+        FileChannel channel = null;
+        int open = -1;
+
+        try {
+            for (int i = firstEntry(catnum, fromMillis); i < count && catnum(i) == catnum
+                    && buffer.getLong(entry(i) + EPOCH) <= toMillis; i++) {
+
+                final long location = buffer.getLong(entry(i) + LOCATION);
+                final int archive = (int)(location >>> OFFSET_BITS);
+
+                if (archive != open) {
+                    if (channel != null) {
+                        channel.close();
+                    }
+                    channel = FileChannel.open(archives[archive], StandardOpenOption.READ);
+                    open = archive;
+                }
+
+                tles.add(read(channel, archives[archive], location & OFFSET_MASK, record));
+            }
+        }
+        finally {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+
+        return tles;
+    }
+
+    /**
+     * Reads the element set whose record starts at an offset of an archive.
+     */
+    private static TLE read(final FileChannel channel, final Path archive, final long offset,
+            final ByteBuffer record) throws IOException {
+
+        record.clear();
+        int read = 0;
+        while (record.hasRemaining() && read >= 0) {
+            read = channel.read(record, offset + record.position());
+        }
+        record.flip();
+
+        /* The record's first data line starts on its first or second line */
+        int secondLine = 0;
+        while (secondLine < record.limit() && record.get(secondLine) != '\n') {
+            secondLine++;
+        }
+
+        final String[] lines = new String[3];
+
+        CatalogLoader.scan(record, 0, Math.min(secondLine + 2, record.limit()), new CatalogLoader.RecordHandler() {
+            @Override
+            public void record(final int nameStart, final int nameEnd, final int line1Start, final int line2Start) {
+                lines[1] = text(record, line1Start, lineEnd(record, line1Start));
+                lines[2] = text(record, line2Start, lineEnd(record, line2Start));
+
+                if (nameStart >= 0) {
+                    final String name = text(record, nameStart, nameEnd).trim();
+                    lines[0] = name.startsWith("0 ") ? name.substring(2) : name;
+                }
+                else {
+                    lines[0] = Integer.toString(Integer.parseInt(lines[1].substring(2, 7).trim()));
+                }
+            }
+        });
+
+        if (lines[1] == null) {
+            throw new IOException(archive + " has no element set at byte " + offset);
+        }
+
+        return new TLE(lines);
+    }
+
+    /**
+     * Scans one archive, adding an entry for each of its element sets.
+     *
+     * @return the size of the archive
+     */
+    private static long scan(final Path archive, final int archiveIndex, final TLEParser parser,
+            final Entries entries) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            if (size >= 2) {
+                final ByteBuffer magic = ByteBuffer.allocate(2);
+                channel.read(magic, 0);
+                if ((magic.get(0) & 0xff) == 0x1f && (magic.get(1) & 0xff) == 0x8b) {
+                    throw new IllegalArgumentException(archive + " is gzipped and cannot be indexed");
+                }
+            }
+
+            if (size > OFFSET_MASK) {
+                throw new IllegalArgumentException(archive + " is too large to index");
+            }
+
+            for (long regionStart = 0; regionStart < size; regionStart += CatalogLoader.REGION_BYTES) {
+                final long regionEnd = Math.min(size, regionStart + CatalogLoader.REGION_BYTES);
+                final long mapStart = Math.max(0, regionStart - CatalogLoader.MARGIN_BYTES);
+                final long mapEnd = Math.min(size, regionEnd + CatalogLoader.MARGIN_BYTES);
+                final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+
+                CatalogLoader.scan(buffer, (int)(regionStart - mapStart), (int)(regionEnd - mapStart),
+                        new CatalogLoader.RecordHandler() {
+                            @Override
+                            public void record(final int nameStart, final int nameEnd, final int line1Start,
+                                    final int line2Start) {
+                                final TLE tle;
+                                try {
+                                    tle = parser.parse(buffer, -1, -1, line1Start, line2Start);
+                                }
+                                catch (final IllegalArgumentException e) {
+                                    throw new IllegalArgumentException(archive + ", element set at byte "
+                                            + (mapStart + line1Start) + ": " + e.getMessage(), e);
+                                }
+
+                                final long offset = mapStart + (nameStart >= 0 ? nameStart : line1Start);
+                                entries.add(tle.getCatnum(), tle.getEpochMillis(),
+                                        ((long)archiveIndex << OFFSET_BITS) | offset);
+                            }
+                        });
+            }
+
+            return size;
+        }
+    }
+
+    private int firstEntry(final int catnum, final long fromMillis) {
+        int low = 0;
+        int high = count;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final int middleCatnum = catnum(middle);
+
+            if (middleCatnum < catnum
+                    || middleCatnum == catnum && buffer.getLong(entry(middle) + EPOCH) < fromMillis) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private int catnum(final int index) {
+        return buffer.getInt(entry(index) + CATNUM);
+    }
+
+    private static int entry(final int index) {
+        return HEADER_BYTES + ENTRY_BYTES * index;
+    }
+
+    private static int lineEnd(final ByteBuffer buffer, final int start) {
+        int end = start;
+        while (end < buffer.limit() && buffer.get(end) != '\n' && buffer.get(end) != '\r') {
+            end++;
+        }
+        return end;
+    }
+
+    private static String text(final ByteBuffer buffer, final int start, final int end) {
+        final byte[] bytes = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            bytes[i - start] = buffer.get(i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The entries found by a build, in parallel primitive arrays.
+     */
+    private static final class Entries {
+
+        private int[] catnums = new int[1024];
+        private long[] epochs = new long[1024];
+        private long[] locations = new long[1024];
+        private int size;
+
+        void add(final int catnum, final long epoch, final long location) {
+            if (size == catnums.length) {
+                if (size > Integer.MAX_VALUE / 2) {
+                    throw new IllegalArgumentException("Too many element sets for one index");
+                }
+                catnums = Arrays.copyOf(catnums, size * 2);
+                epochs = Arrays.copyOf(epochs, size * 2);
+                locations = Arrays.copyOf(locations, size * 2);
+            }
+            catnums[size] = catnum;
+            epochs[size] = epoch;
+            locations[size] = location;
+            size++;
+        }
+
+        boolean sameElementSet(final int first, final int second) {
+            return catnums[first] == catnums[second] && epochs[first] == epochs[second];
+        }
+
+        /**
+         * @return the entries' indices sorted by catalog number, epoch and location
+         */
+        int[] sortedOrder() {
+            int[] order = new int[size];
+            int[] merged = new int[size];
+
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+
+            /* A bottom up merge sort, so nothing is boxed */
+            for (int width = 1; width < size; width *= 2) {
+                for (int low = 0; low < size; low += 2 * width) {
+                    final int middle = Math.min(low + width, size);
+                    final int high = Math.min(low + 2 * width, size);
+                    int left = low;
+                    int right = middle;
+
+                    for (int k = low; k < high; k++) {
+                        if (left < middle && (right >= high || compare(order[left], order[right]) <= 0)) {
+                            merged[k] = order[left++];
+                        }
+                        else {
+                            merged[k] = order[right++];
+                        }
+                    }
+                }
+
+                final int[] swap = order;
+                order = merged;
+                merged = swap;
+            }
+
+            return order;
+        }
+
+        private int compare(final int first, final int second) {
+            if (catnums[first] != catnums[second]) {
+                return Integer.compare(catnums[first], catnums[second]);
+            }
+            if (epochs[first] != epochs[second]) {
+                return Long.compare(epochs[first], epochs[second]);
+            }
+            return Long.compare(locations[first], locations[second]);
+        }
+    }
+}
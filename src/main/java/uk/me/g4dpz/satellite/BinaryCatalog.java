@@ -0,0 +1,404 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A catalog of element sets held in a versioned binary file, which opens without parsing anything.
+ *
+ * The file is a header, a fixed width record for each element set and the names. A record holds
+ * the values read from the element set, those {@link TLE} derives from them and, for a near earth
+ * satellite, its SGP4 constants, all as little endian primitives. Opening a catalog maps the file
+ * read only and checks the header; a {@link TLE} or {@link Satellite} is only built when asked for,
+ * straight from its record, and gives bit-for-bit the values of the one written.
+ *
+ * Deep space satellites have no saved constants, as their SDP4 initialisation holds far more
+ * state, and are built from their element set as {@link SatelliteFactory} builds them.
+ *
+ * A BinaryCatalog is immutable once opened, so any number of threads may use one.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class BinaryCatalog {
+
+    /** "P4JC", the first bytes of every catalog file. */
+    static final int MAGIC = 0x434a3450;
+
+    /** The version of the format written. */
+    static final int VERSION = 1;
+
+    /** The bytes of the header. */
+    static final int HEADER_BYTES = 64;
+
+    /** The bytes of each record. */
+    static final int RECORD_BYTES = 408;
+
+    private static final int FLAG_DEEP_SPACE = 1;
+    private static final int FLAG_CONSTANTS = 2;
+    private static final int FLAG_CREATED_DATE = 4;
+
+    /* Offsets within the header */
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_RECORD_BYTES = 8;
+    private static final int HEADER_COUNT = 12;
+    private static final int HEADER_NAMES_BYTES = 16;
+
+    /* Offsets within a record */
+    private static final int CATNUM = 0;
+    private static final int SETNUM = 4;
+    private static final int YEAR = 8;
+    private static final int ORBITNUM = 12;
+    private static final int NAME_OFFSET = 16;
+    private static final int NAME_LENGTH = 20;
+    private static final int FLAGS = 24;
+    private static final int CREATED_DATE = 32;
+    private static final int ELEMENTS = 40;
+    private static final int ELEMENT_COUNT = 18;
+    private static final int CONSTANTS = ELEMENTS + 8 * ELEMENT_COUNT;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int namesStart;
+    private final AtomicReferenceArray<Satellite> satellites;
+
+    private BinaryCatalog(final ByteBuffer buffer, final int count, final int namesStart) {
+        this.buffer = buffer;
+        this.count = count;
+        this.namesStart = namesStart;
+        satellites = new AtomicReferenceArray<Satellite>(count);
+    }
+
+    /**
+     * Writes a catalog file, replacing any file already there.
+     *
+     * @param file the file
+     * @param tles the element sets
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if an argument or element set is null, or the catalog is
+     *             too large for one file
+     */
+    public static void write(final Path file, final List<TLE> tles) throws IOException, IllegalArgumentException {
+
+        if (null == file || null == tles) {
+            throw new IllegalArgumentException("File and element sets must be set");
+        }
+
+        final byte[][] names = new byte[tles.size()][];
+        long namesBytes = 0;
+
+        for (int i = 0; i < names.length; i++) {
+            if (null == tles.get(i)) {
+                throw new IllegalArgumentException("Element set " + i + " was null");
+            }
+            names[i] = tles.get(i).getName() == null ? null : tles.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            namesBytes += names[i] == null ? 0 : names[i].length;
+        }
+
+        final long size = HEADER_BYTES + (long)RECORD_BYTES * names.length + namesBytes;
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A catalog of " + names.length + " element sets is too large");
+        }
+
+        final ByteBuffer out = ByteBuffer.allocate((int)size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(0, MAGIC);
+        out.putInt(HEADER_VERSION, VERSION);
+        out.putInt(HEADER_RECORD_BYTES, RECORD_BYTES);
+        out.putInt(HEADER_COUNT, names.length);
+        out.putInt(HEADER_NAMES_BYTES, (int)namesBytes);
+
+        final double[] constants = new double[LEOSatellite.CONSTANT_COUNT];
+        int nameOffset = 0;
+        final int namesStart = HEADER_BYTES + RECORD_BYTES * names.length;
+
+        for (int i = 0; i < names.length; i++) {
+            final TLE tle = tles.get(i);
+            final int record = HEADER_BYTES + RECORD_BYTES * i;
+            int flags = 0;
+
+            out.putInt(record + CATNUM, tle.getCatnum());
+            out.putInt(record + SETNUM, tle.getSetnum());
+            out.putInt(record + YEAR, tle.getYear());
+            out.putInt(record + ORBITNUM, tle.getOrbitnum());
+
+            if (names[i] == null) {
+                out.putInt(record + NAME_OFFSET, 0);
+                out.putInt(record + NAME_LENGTH, -1);
+            }
+            else {
+                out.putInt(record + NAME_OFFSET, nameOffset);
+                out.putInt(record + NAME_LENGTH, names[i].length);
+                for (int j = 0; j < names[i].length; j++) {
+                    out.put(namesStart + nameOffset + j, names[i][j]);
+                }
+                nameOffset += names[i].length;
+            }
+
+            if (tle.getCreateddate() != null) {
+                flags |= FLAG_CREATED_DATE;
+                out.putLong(record + CREATED_DATE, tle.getCreateddate().getTime());
+            }
+
+            final double[] elements = {tle.getRefepoch(), tle.getIncl(), tle.getRaan(), tle.getEccn(),
+                tle.getArgper(), tle.getMeanan(), tle.getMeanmo(), tle.getDrag(), tle.getNddot6(),
+                tle.getBstar(), tle.getEpoch(), tle.getXndt2o(), tle.getXincl(), tle.getXnodeo(),
+                tle.getEo(), tle.getOmegao(), tle.getXmo(), tle.getXno()};
+            for (int j = 0; j < ELEMENT_COUNT; j++) {
+                out.putDouble(record + ELEMENTS + 8 * j, elements[j]);
+            }
+
+            if (tle.isDeepspace()) {
+                flags |= FLAG_DEEP_SPACE;
+            }
+            else {
+                flags |= FLAG_CONSTANTS;
+                new LEOSatellite(tle).getConstants(constants);
+                for (int j = 0; j < LEOSatellite.CONSTANT_COUNT; j++) {
+                    out.putDouble(record + CONSTANTS + 8 * j, constants[j]);
+                }
+            }
+
+            out.putInt(record + FLAGS, flags);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.position(0);
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /**
+     * Opens a catalog file, mapping it read only.
+     *
+     * @param file the file
+     * @return the catalog
+     * @throws IOException if the file cannot be read, is not a catalog or is of another version
+     * @throws IllegalArgumentException if the file is null
+     */
+    public static BinaryCatalog open(final Path file) throws IOException, IllegalArgumentException {
+
+        if (null == file) {
+            throw new IllegalArgumentException("File has not been set");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a binary catalog");
+            }
+
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a binary catalog");
+            }
+
+            if (buffer.getInt(HEADER_VERSION) != VERSION) {
+                throw new IOException(file + " is binary catalog version " + buffer.getInt(HEADER_VERSION)
+                        + ", not " + VERSION);
+            }
+
+            final int count = buffer.getInt(HEADER_COUNT);
+            final long namesStart = HEADER_BYTES + (long)RECORD_BYTES * count;
+
+            if (buffer.getInt(HEADER_RECORD_BYTES) != RECORD_BYTES || count < 0
+                    || namesStart + buffer.getInt(HEADER_NAMES_BYTES) != size) {
+                throw new IOException(file + " is truncated or corrupt");
+            }
+
+            return new BinaryCatalog(buffer, count, (int)namesStart);
+        }
+    }
+
+    /**
+     * @return the number of element sets
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Reads the catalog number of an element set without building it.
+     *
+     * @param index the index of the element set
+     * @return the catalog number
+     * @throws IndexOutOfBoundsException if there is no such element set
+     */
+    public int getCatnum(final int index) throws IndexOutOfBoundsException {
+        return buffer.getInt(record(index) + CATNUM);
+    }
+
+    /**
+     * Builds an element set from its record. Each call builds a new TLE.
+     *
+     * @param index the index of the element set
+     * @return the element set
+     * @throws IndexOutOfBoundsException if there is no such element set
+     */
+    public TLE getTLE(final int index) throws IndexOutOfBoundsException {
+
+        final int record = record(index);
+        final int nameLength = buffer.getInt(record + NAME_LENGTH);
+        String name = null;
+
+        if (nameLength >= 0) {
+            final byte[] bytes = new byte[nameLength];
+            final int nameStart = namesStart + buffer.getInt(record + NAME_OFFSET);
+            for (int i = 0; i < nameLength; i++) {
+                bytes[i] = buffer.get(nameStart + i);
+            }
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        final int flags = buffer.getInt(record + FLAGS);
+        final int elements = record + ELEMENTS;
+
+        final TLE tle = new TLE(buffer.getInt(record + CATNUM), name, buffer.getInt(record + SETNUM),
+                buffer.getInt(record + YEAR), buffer.getDouble(elements), buffer.getDouble(elements + 8),
+                buffer.getDouble(elements + 16), buffer.getDouble(elements + 24), buffer.getDouble(elements + 32),
+                buffer.getDouble(elements + 40), buffer.getDouble(elements + 48), buffer.getDouble(elements + 56),
+                buffer.getDouble(elements + 64), buffer.getDouble(elements + 72), buffer.getInt(record + ORBITNUM),
+                buffer.getDouble(elements + 80), buffer.getDouble(elements + 88), buffer.getDouble(elements + 96),
+                buffer.getDouble(elements + 104), buffer.getDouble(elements + 112),
+                buffer.getDouble(elements + 120), buffer.getDouble(elements + 128),
+                buffer.getDouble(elements + 136), (flags & FLAG_DEEP_SPACE) != 0);
+
+        if ((flags & FLAG_CREATED_DATE) != 0) {
+            tle.setCreateddate(new Date(buffer.getLong(record + CREATED_DATE)));
+        }
+
+        return tle;
+    }
+
+    /**
+     * Gets the satellite of an element set, building it from its record the first time it is
+     * asked for. Later calls return the same satellite.
+     *
+     * @param index the index of the element set
+     * @return the satellite
+     * @throws IndexOutOfBoundsException if there is no such element set
+     */
+    public Satellite getSatellite(final int index) throws IndexOutOfBoundsException {
+
+        final int record = record(index);
+        final Satellite existing = satellites.get(index);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        final TLE tle = getTLE(index);
+        final Satellite satellite;
+
+        if ((buffer.getInt(record + FLAGS) & FLAG_CONSTANTS) != 0) {
+            final double[] constants = new double[LEOSatellite.CONSTANT_COUNT];
+            for (int i = 0; i < constants.length; i++) {
+                constants[i] = buffer.getDouble(record + CONSTANTS + 8 * i);
+            }
+            satellite = new LEOSatellite(tle, constants);
+        }
+        else {
+            satellite = SatelliteFactory.createSatellite(tle);
+        }
+
+        /* If another thread got there first, use its satellite */
+        return satellites.compareAndSet(index, null, satellite) ? satellite : satellites.get(index);
+    }
+
+    /**
+     * @return a view of the element sets, each built when it is read
+     */
+    public List<TLE> getTLEs() {
+        return new AbstractList<TLE>() {
+            @Override
+            public TLE get(final int index) {
+                return getTLE(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * @return a view of the satellites, each built the first time it is read
+     */
+    public List<Satellite> getSatellites() {
+        return new AbstractList<Satellite>() {
+            @Override
+            public Satellite get(final int index) {
+                return getSatellite(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    private int record(final int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Element set " + index + " of " + count);
+        }
+        return HEADER_BYTES + RECORD_BYTES * index;
+    }
+}
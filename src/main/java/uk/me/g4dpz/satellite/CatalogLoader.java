@@ -0,0 +1,623 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Loads large catalogs of element sets, parsing them and building their {@link Satellite}s in
+ * parallel.
+ *
+ * A plain file is mapped read only, a region of up to 1 GB at a time, and each region is cut into
+ * chunks at arbitrary offsets. A chunk takes every element set whose first data line starts inside
+ * it, so no record is split or read twice, and each chunk is parsed by its own {@link TLEParser}
+ * on a work stealing {@link ForkJoinPool}. Gzip input cannot be mapped and is inflated into memory
+ * first. The element sets come out in file order whatever the parallelism.
+ *
+ * Two and three line layouts may be mixed in one file. A data line 1 followed by a data line 2 is
+ * an element set; the line before it is its name unless that line is blank or is itself a data
+ * line, and two line sets are named by catalog number. A leading "0 ", as in three line files
+ * from CelesTrak, is dropped from the name. Other lines are ignored.
+ *
+ * A CatalogLoader holds no state between calls, so any number of threads may use one.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class CatalogLoader {
+
+    /** The largest region of a file mapped at once. */
+    static final int REGION_BYTES = 1 << 30;
+
+    /** The bytes mapped either side of a region, so records crossing its edges can be read. */
+    static final int MARGIN_BYTES = 4096;
+
+    /** The smallest chunk worth giving a task of its own. */
+    static final int MINIMUM_CHUNK_BYTES = 64 * 1024;
+
+    /** The chunks per worker, so that the work can be balanced. */
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    /** The satellites built by one task. */
+    private static final int SATELLITES_PER_TASK = 64;
+
+    private final int parallelism;
+    private final boolean verifyChecksums;
+    private final int regionBytes;
+
+    /**
+     * Creates a CatalogLoader using every available processor, which verifies checksums.
+     */
+    public CatalogLoader() {
+        this(Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    /**
+     * Creates a CatalogLoader.
+     *
+     * @param parallelism the number of worker threads; 1 does all the work on the calling thread
+     * @param verifyChecksums whether the line checksums are verified
+     * @throws IllegalArgumentException if the parallelism is less than 1
+     */
+    public CatalogLoader(final int parallelism, final boolean verifyChecksums)
+            throws IllegalArgumentException {
+        this(parallelism, verifyChecksums, REGION_BYTES);
+    }
+
+    /**
+     * Creates a CatalogLoader which maps files in regions of the given size.
+     */
+    CatalogLoader(final int parallelism, final boolean verifyChecksums, final int regionBytes)
+            throws IllegalArgumentException {
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+
+        if (regionBytes < 1) {
+            throw new IllegalArgumentException("Region size must be at least 1");
+        }
+
+        this.parallelism = parallelism;
+        this.verifyChecksums = verifyChecksums;
+        this.regionBytes = regionBytes;
+    }
+
+    /**
+     * @return the number of worker threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Loads the element sets in a file, which may be gzipped.
+     *
+     * @param file the file
+     * @return the element sets, in file order
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is null or an element set is invalid
+     */
+    public List<TLE> load(final Path file) throws IOException, IllegalArgumentException {
+        return load(file, false).tles;
+    }
+
+    /**
+     * Loads the element sets from a stream, which may be gzipped. The stream is read to its end
+     * but not closed.
+     *
+     * @param input the stream
+     * @return the element sets, in stream order
+     * @throws IOException if the stream cannot be read
+     * @throws IllegalArgumentException if the stream is null or an element set is invalid
+     */
+    public List<TLE> load(final InputStream input) throws IOException, IllegalArgumentException {
+        return load(readFully(input), false).tles;
+    }
+
+    /**
+     * Loads the element sets in a file, which may be gzipped, and builds their satellites.
+     *
+     * @param file the file
+     * @return the satellites, in file order
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is null or an element set is invalid
+     */
+    public List<Satellite> loadSatellites(final Path file) throws IOException, IllegalArgumentException {
+        return load(file, true).satellites;
+    }
+
+    /**
+     * Builds the satellites of a list of element sets, as
+     * {@link SatelliteFactory#createSatellite(TLE)} does.
+     *
+     * @param tles the element sets
+     * @return the satellites, in the same order
+     * @throws IllegalArgumentException if the list or one of its element sets is null
+     */
+    public List<Satellite> createSatellites(final List<TLE> tles) throws IllegalArgumentException {
+
+        if (null == tles) {
+            throw new IllegalArgumentException("Element sets have not been set");
+        }
+
+        final TLE[] sets = tles.toArray(new TLE[tles.size()]);
+        final Satellite[] satellites = new Satellite[sets.length];
+
+        run(new SatelliteTask(sets, satellites, 0, sets.length));
+
+        return Collections.unmodifiableList(Arrays.asList(satellites));
+    }
+
+    private Loaded load(final Path file, final boolean createSatellites) throws IOException {
+
+        if (null == file) {
+            throw new IllegalArgumentException("File has not been set");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            final ByteBuffer magic = ByteBuffer.allocate(2);
+            int read = 0;
+            while (magic.hasRemaining() && read >= 0) {
+                read = channel.read(magic, magic.position());
+            }
+
+            if (isGzip(magic.array(), magic.position())) {
+                try (InputStream input = Files.newInputStream(file)) {
+                    return load(readFully(input), createSatellites);
+                }
+            }
+
+            final List<Chunk> chunks = new ArrayList<Chunk>();
+
+            for (long regionStart = 0; regionStart < size; regionStart += regionBytes) {
+                final long regionEnd = Math.min(size, regionStart + regionBytes);
+                final long mapStart = Math.max(0, regionStart - MARGIN_BYTES);
+                final long mapEnd = Math.min(size, regionEnd + MARGIN_BYTES);
+                final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+                addChunks(chunks, buffer, mapStart, (int)(regionStart - mapStart), (int)(regionEnd - mapStart));
+            }
+
+            return load(chunks, createSatellites);
+        }
+    }
+
+    private Loaded load(final byte[] data, final boolean createSatellites) {
+        final List<Chunk> chunks = new ArrayList<Chunk>();
+        addChunks(chunks, ByteBuffer.wrap(data), 0, 0, data.length);
+        return load(chunks, createSatellites);
+    }
+
+    private Loaded load(final List<Chunk> chunks, final boolean createSatellites) {
+
+        final Chunk[] work = chunks.toArray(new Chunk[chunks.size()]);
+
+        final List<List<TLE>> tles = new ArrayList<List<TLE>>(Collections.<List<TLE>>nCopies(work.length, null));
+
+        final List<List<Satellite>> satellites = createSatellites
+                ? new ArrayList<List<Satellite>>(Collections.<List<Satellite>>nCopies(work.length, null))
+                : null;
+
+        run(new ChunkTask(work, verifyChecksums, tles, satellites, 0, work.length));
+
+        final Loaded loaded = new Loaded();
+
+        for (int i = 0; i < work.length; i++) {
+            loaded.tles.addAll(tles.get(i));
+            if (createSatellites) {
+                loaded.satellites.addAll(satellites.get(i));
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Cuts the bytes [from, to) of a buffer into chunks for the workers.
+     */
+    private void addChunks(final List<Chunk> chunks, final ByteBuffer buffer, final long base, final int from,
+            final int to) {
+
+        final int length = to - from;
+        final int count = Math.max(1, Math.min(parallelism * CHUNKS_PER_WORKER, length / MINIMUM_CHUNK_BYTES));
+
+        for (int i = 0; i < count; i++) {
+            chunks.add(new Chunk(buffer, base, from + (int)((long)length * i / count),
+                    from + (int)((long)length * (i + 1) / count)));
+        }
+    }
+
+    /**
+     * Runs a task on the calling thread or on a pool of the loader's parallelism.
+     */
+    private void run(final LoaderTask task) {
+
+        if (parallelism == 1) {
+            task.load();
+        }
+        else {
+            final ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(task);
+            }
+            catch (final RuntimeException e) {
+                /* The pool rethrows a copy of a worker's exception, with the original as its cause */
+                if (null != e.getCause() && e.getCause().getClass() == e.getClass()) {
+                    throw (RuntimeException)e.getCause();
+                }
+                throw e;
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static boolean isGzip(final byte[] magic, final int length) {
+        return length >= 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b;
+    }
+
+    /**
+     * Reads a stream to its end, inflating it if it is gzipped.
+     */
+    private static byte[] readFully(final InputStream input) throws IOException {
+
+        if (null == input) {
+            throw new IllegalArgumentException("Stream has not been set");
+        }
+
+        final BufferedInputStream buffered = new BufferedInputStream(input);
+        buffered.mark(2);
+        final byte[] magic = new byte[2];
+        final int length = buffered.read(magic, 0, 1) + Math.max(0, buffered.read(magic, 1, 1));
+        buffered.reset();
+
+        if (isGzip(magic, length)) {
+            return new GZIPInputStream(buffered).readAllBytes();
+        }
+
+        return buffered.readAllBytes();
+    }
+
+    /**
+     * Parses the element sets whose first data line starts in the bytes [from, to) of a buffer.
+     *
+     * @param buffer the bytes, of which only the data between 0 and the limit are read
+     * @param base the offset of the buffer in its file, for error messages
+     * @param from the first byte of the chunk
+     * @param to the byte after the chunk
+     * @param parser the parser
+     * @return the element sets, in order
+     * @throws IllegalArgumentException if an element set is invalid
+     */
+    static List<TLE> parse(final ByteBuffer buffer, final long base, final int from, final int to,
+            final TLEParser parser) throws IllegalArgumentException {
+
+        final List<TLE> tles = new ArrayList<TLE>();
+
+        scan(buffer, from, to, new RecordHandler() {
+            @Override
+            public void record(final int nameStart, final int nameEnd, final int line1Start, final int line2Start) {
+                int start = nameStart;
+                if (start >= 0 && nameEnd - start >= 2 && buffer.get(start) == '0' && buffer.get(start + 1) == ' ') {
+                    start += 2;
+                }
+
+                try {
+                    tles.add(parser.parse(buffer, start, nameEnd, line1Start, line2Start));
+                }
+                catch (final IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Element set at byte " + (base + line1Start) + ": "
+                            + e.getMessage(), e);
+                }
+            }
+        });
+
+        return tles;
+    }
+
+    /**
+     * Finds the element sets whose first data line starts in the bytes [from, to) of a buffer and
+     * passes each to a handler, in order.
+     *
+     * @param buffer the bytes, of which only the data between 0 and the limit are read
+     * @param from the first byte of the chunk
+     * @param to the byte after the chunk
+     * @param handler the handler
+     */
+    static void scan(final ByteBuffer buffer, final int from, final int to, final RecordHandler handler) {
+
+        final int limit = buffer.limit();
+
+        int start = from;
+        if (start > 0 && buffer.get(start - 1) != '\n') {
+            start = nextLine(buffer, start);
+        }
+
+        while (start < to) {
+            final int end = lineEnd(buffer, start);
+            final int next = nextLine(buffer, end);
+
+            if (startsWith(buffer, start, end, '1') && next < limit) {
+                final int end2 = lineEnd(buffer, next);
+
+                if (startsWith(buffer, next, end2, '2')) {
+                    int nameStart = -1;
+                    int nameEnd = -1;
+
+                    if (start > 0) {
+                        nameEnd = start - 1;
+                        if (nameEnd > 0 && buffer.get(nameEnd - 1) == '\r') {
+                            nameEnd--;
+                        }
+                        nameStart = nameEnd;
+                        while (nameStart > 0 && buffer.get(nameStart - 1) != '\n') {
+                            nameStart--;
+                        }
+                        if (isBlank(buffer, nameStart, nameEnd) || isDataLine(buffer, nameStart, nameEnd)) {
+                            nameStart = -1;
+                        }
+                    }
+
+                    handler.record(nameStart, nameEnd, start, next);
+
+                    start = nextLine(buffer, end2);
+                    continue;
+                }
+            }
+
+            start = next;
+        }
+    }
+
+    /**
+     * @return the index of the line break ending the line which starts at the given index, or the
+     *         limit, not counting a carriage return before it
+     */
+    private static int lineEnd(final ByteBuffer buffer, final int start) {
+        int end = start;
+        while (end < buffer.limit() && buffer.get(end) != '\n') {
+            end++;
+        }
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * @return the index of the start of the line after the given index
+     */
+    private static int nextLine(final ByteBuffer buffer, final int index) {
+        int next = index;
+        while (next < buffer.limit() && buffer.get(next) != '\n') {
+            next++;
+        }
+        return Math.min(next + 1, buffer.limit());
+    }
+
+    private static boolean startsWith(final ByteBuffer buffer, final int start, final int end,
+            final char lineNumber) {
+        return end - start >= 2 && buffer.get(start) == lineNumber && buffer.get(start + 1) == ' ';
+    }
+
+    private static boolean isDataLine(final ByteBuffer buffer, final int start, final int end) {
+        return end - start >= TLEParser.LINE_LENGTH - 1
+                && (startsWith(buffer, start, end, '1') || startsWith(buffer, start, end, '2'));
+    }
+
+    private static boolean isBlank(final ByteBuffer buffer, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if ((buffer.get(i) & 0xff) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Receives the element sets found by a scan.
+     */
+    interface RecordHandler {
+
+        /**
+         * Handles one element set.
+         *
+         * @param nameStart the index of the start of the name line, or -1 if there is none
+         * @param nameEnd the index just past the end of the name line, not counting the line break
+         * @param line1Start the index of the first data line
+         * @param line2Start the index of the second data line
+         */
+        void record(int nameStart, int nameEnd, int line1Start, int line2Start);
+    }
+
+    /**
+     * The results of a load.
+     */
+    private static final class Loaded {
+        private final List<TLE> tles = new ArrayList<TLE>();
+        private final List<Satellite> satellites = new ArrayList<Satellite>();
+    }
+
+    /**
+     * A part of a buffer, owning the element sets whose first data line starts in it.
+     */
+    private static final class Chunk {
+
+        private final ByteBuffer buffer;
+        private final long base;
+        private final int from;
+        private final int to;
+
+        Chunk(final ByteBuffer buffer, final long base, final int from, final int to) {
+            this.buffer = buffer;
+            this.base = base;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /**
+     * A task which can also be run on the calling thread.
+     */
+    private abstract static class LoaderTask extends RecursiveAction {
+
+        private static final long serialVersionUID = -3101754069184331573L;
+
+        /**
+         * Does all the work of the task on the current thread.
+         */
+        abstract void load();
+    }
+
+    /**
+     * Parses a range of chunks, splitting it until each task has one chunk.
+     */
+    private static final class ChunkTask extends LoaderTask {
+
+        private static final long serialVersionUID = 2871304506212359940L;
+
+        private final Chunk[] chunks;
+        private final boolean verifyChecksums;
+        private final List<List<TLE>> tles;
+        private final List<List<Satellite>> satellites;
+        private final int from;
+        private final int to;
+
+        ChunkTask(final Chunk[] chunks, final boolean verifyChecksums, final List<List<TLE>> tles,
+                final List<List<Satellite>> satellites, final int from, final int to) {
+            this.chunks = chunks;
+            this.verifyChecksums = verifyChecksums;
+            this.tles = tles;
+            this.satellites = satellites;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                load();
+            }
+            else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(chunks, verifyChecksums, tles, satellites, from, middle),
+                        new ChunkTask(chunks, verifyChecksums, tles, satellites, middle, to));
+            }
+        }
+
+        @Override
+        void load() {
+            final TLEParser parser = new TLEParser(verifyChecksums);
+
+            for (int i = from; i < to; i++) {
+                /* Only absolute reads are made, so the tasks can share a buffer */
+                final Chunk chunk = chunks[i];
+                final List<TLE> chunkTles = parse(chunk.buffer, chunk.base, chunk.from, chunk.to, parser);
+                tles.set(i, chunkTles);
+
+                if (null != satellites) {
+                    final List<Satellite> chunkSatellites = new ArrayList<Satellite>(chunkTles.size());
+                    for (final TLE tle : chunkTles) {
+                        chunkSatellites.add(SatelliteFactory.createSatellite(tle));
+                    }
+                    satellites.set(i, chunkSatellites);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the satellites of a range of element sets, splitting it into blocks.
+     */
+    private static final class SatelliteTask extends LoaderTask {
+
+        private static final long serialVersionUID = -6019431583047275216L;
+
+        private final TLE[] tles;
+        private final Satellite[] satellites;
+        private final int from;
+        private final int to;
+
+        SatelliteTask(final TLE[] tles, final Satellite[] satellites, final int from, final int to) {
+            this.tles = tles;
+            this.satellites = satellites;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SATELLITES_PER_TASK) {
+                load();
+            }
+            else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new SatelliteTask(tles, satellites, from, middle),
+                        new SatelliteTask(tles, satellites, middle, to));
+            }
+        }
+
+        @Override
+        void load() {
+            for (int i = from; i < to; i++) {
+                satellites[i] = SatelliteFactory.createSatellite(tles[i]);
+            }
+        }
+    }
+}
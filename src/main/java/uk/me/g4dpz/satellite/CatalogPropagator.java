@@ -0,0 +1,420 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Propagates a whole catalog of satellites to one instant.
+ *
+ * The SGP4 constants of every near earth satellite are packed into parallel arrays when the
+ * propagator is created, and one tight loop then runs the SGP4 model over all of them. The Julian
+ * date, Greenwich sidereal time and observer vectors are worked out once per call and shared.
+ * Deep space satellites are propagated one at a time with their own SDP4 model. Results are the
+ * same as {@link Satellite#getPosition(GroundStationPosition, Date)} gives for each satellite.
+ *
+ * A CatalogPropagator is immutable, so any number of threads may use one at the same time.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class CatalogPropagator {
+
+    private final AbstractSatellite[] satellites;
+
+    /* Catalog index of each packed near earth satellite, and of each deep space satellite. */
+    private final int[] nearEarthIndex;
+    private final int[] deepSpaceIndex;
+
+    /* Elements of the packed near earth satellites. */
+    private final double[] julEpoch;
+    private final double[] xmo;
+    private final double[] omegao;
+    private final double[] xnodeo;
+    private final double[] bstar;
+    private final double[] eo;
+    private final double[] xincl;
+
+    /* SGP4 constants of the packed near earth satellites, see LEOSatellite. */
+    private final double[] aodp;
+    private final double[] aycof;
+    private final double[] c1;
+    private final double[] c4;
+    private final double[] c5;
+    private final double[] cosio;
+    private final double[] d2;
+    private final double[] d3;
+    private final double[] d4;
+    private final double[] delmo;
+    private final double[] omgcof;
+    private final double[] eta;
+    private final double[] omgdot;
+    private final double[] sinio;
+    private final double[] xnodp;
+    private final double[] sinmo;
+    private final double[] t2cof;
+    private final double[] t3cof;
+    private final double[] t4cof;
+    private final double[] t5cof;
+    private final double[] x1mth2;
+    private final double[] x3thm1;
+    private final double[] x7thm1;
+    private final double[] xmcof;
+    private final double[] xmdot;
+    private final double[] xnodcf;
+    private final double[] xnodot;
+    private final double[] xlcof;
+    private final boolean[] sgp4Simple;
+
+    /**
+     * Packs a catalog of satellites.
+     *
+     * @param catalog the satellites, as created by {@link SatelliteFactory}. Their order is the
+     *            order of the output columns.
+     * @throws IllegalArgumentException if a satellite was not created by SatelliteFactory
+     */
+    public CatalogPropagator(final List<? extends Satellite> catalog) throws IllegalArgumentException {
+
+        satellites = new AbstractSatellite[catalog.size()];
+
+        int nearEarthCount = 0;
+
+        for (int i = 0; i < satellites.length; i++) {
+            final Satellite satellite = catalog.get(i);
+
+            if (!(satellite instanceof AbstractSatellite)) {
+                throw new IllegalArgumentException("Satellite " + i + " was not created by SatelliteFactory");
+            }
+
+            satellites[i] = (AbstractSatellite)satellite;
+
+            if (satellite instanceof LEOSatellite) {
+                nearEarthCount++;
+            }
+        }
+
+        nearEarthIndex = new int[nearEarthCount];
+        deepSpaceIndex = new int[satellites.length - nearEarthCount];
+
+        julEpoch = new double[nearEarthCount];
+        xmo = new double[nearEarthCount];
+        omegao = new double[nearEarthCount];
+        xnodeo = new double[nearEarthCount];
+        bstar = new double[nearEarthCount];
+        eo = new double[nearEarthCount];
+        xincl = new double[nearEarthCount];
+
+        aodp = new double[nearEarthCount];
+        aycof = new double[nearEarthCount];
+        c1 = new double[nearEarthCount];
+        c4 = new double[nearEarthCount];
+        c5 = new double[nearEarthCount];
+        cosio = new double[nearEarthCount];
+        d2 = new double[nearEarthCount];
+        d3 = new double[nearEarthCount];
+        d4 = new double[nearEarthCount];
+        delmo = new double[nearEarthCount];
+        omgcof = new double[nearEarthCount];
+        eta = new double[nearEarthCount];
+        omgdot = new double[nearEarthCount];
+        sinio = new double[nearEarthCount];
+        xnodp = new double[nearEarthCount];
+        sinmo = new double[nearEarthCount];
+        t2cof = new double[nearEarthCount];
+        t3cof = new double[nearEarthCount];
+        t4cof = new double[nearEarthCount];
+        t5cof = new double[nearEarthCount];
+        x1mth2 = new double[nearEarthCount];
+        x3thm1 = new double[nearEarthCount];
+        x7thm1 = new double[nearEarthCount];
+        xmcof = new double[nearEarthCount];
+        xmdot = new double[nearEarthCount];
+        xnodcf = new double[nearEarthCount];
+        xnodot = new double[nearEarthCount];
+        xlcof = new double[nearEarthCount];
+        sgp4Simple = new boolean[nearEarthCount];
+
+        int n = 0;
+        int d = 0;
+
+        for (int i = 0; i < satellites.length; i++) {
+            if (satellites[i] instanceof LEOSatellite) {
+                pack(n++, i, (LEOSatellite)satellites[i]);
+            }
+            else {
+                deepSpaceIndex[d++] = i;
+            }
+        }
+    }
+
+    private void pack(final int n, final int index, final LEOSatellite satellite) {
+        final TLE tle = satellite.getTLE();
+
+        nearEarthIndex[n] = index;
+
+        julEpoch[n] = satellite.getJulianEpoch();
+        xmo[n] = tle.getXmo();
+        omegao[n] = tle.getOmegao();
+        xnodeo[n] = tle.getXnodeo();
+        bstar[n] = tle.getBstar();
+        eo[n] = tle.getEo();
+        xincl[n] = tle.getXincl();
+
+        aodp[n] = satellite.aodp;
+        aycof[n] = satellite.aycof;
+        c1[n] = satellite.c1;
+        c4[n] = satellite.c4;
+        c5[n] = satellite.c5;
+        cosio[n] = satellite.cosio;
+        d2[n] = satellite.d2;
+        d3[n] = satellite.d3;
+        d4[n] = satellite.d4;
+        delmo[n] = satellite.delmo;
+        omgcof[n] = satellite.omgcof;
+        eta[n] = satellite.eta;
+        omgdot[n] = satellite.omgdot;
+        sinio[n] = satellite.sinio;
+        xnodp[n] = satellite.xnodp;
+        sinmo[n] = satellite.sinmo;
+        t2cof[n] = satellite.t2cof;
+        t3cof[n] = satellite.t3cof;
+        t4cof[n] = satellite.t4cof;
+        t5cof[n] = satellite.t5cof;
+        x1mth2[n] = satellite.x1mth2;
+        x3thm1[n] = satellite.x3thm1;
+        x7thm1[n] = satellite.x7thm1;
+        xmcof[n] = satellite.xmcof;
+        xmdot[n] = satellite.xmdot;
+        xnodcf[n] = satellite.xnodcf;
+        xnodot[n] = satellite.xnodot;
+        xlcof[n] = satellite.xlcof;
+        sgp4Simple[n] = satellite.sgp4Simple;
+    }
+
+    /**
+     * @return the number of satellites in the catalog
+     */
+    public int size() {
+        return satellites.length;
+    }
+
+    /**
+     * @param index the catalog index
+     * @return the satellite at that index
+     */
+    public Satellite getSatellite(final int index) {
+        return satellites[index];
+    }
+
+    /**
+     * Propagates every satellite in the catalog to one instant. The result for satellite i is
+     * stored at index i of each column which is set.
+     *
+     * @param epochMillis the time, milliseconds since 1970
+     * @param gsPos the ground station for the look angle columns, may be null if they are not set
+     * @param columns the columns to fill
+     * @throws IllegalArgumentException if a column is shorter than the catalog, or look angles are
+     *             asked for without a ground station
+     */
+    public void calculatePositions(final long epochMillis, final GroundStationPosition gsPos,
+            final EphemerisColumns columns) throws IllegalArgumentException {
+        calculatePositions(new TimeContext(epochMillis), gsPos, columns);
+    }
+
+    /**
+     * Propagates every satellite in the catalog to one instant, using time dependent terms which
+     * have already been worked out. The result for satellite i is stored at index i of each column
+     * which is set.
+     *
+     * @param time the time and the terms which depend only on it
+     * @param gsPos the ground station for the look angle columns, may be null if they are not set
+     * @param columns the columns to fill
+     * @throws IllegalArgumentException if a column is shorter than the catalog, or look angles are
+     *             asked for without a ground station
+     */
+    public void calculatePositions(final TimeContext time, final GroundStationPosition gsPos,
+            final EphemerisColumns columns) throws IllegalArgumentException {
+
+        columns.check(satellites.length, gsPos != null);
+
+        final PropagationState state = new PropagationState();
+        final boolean lookAngles = columns.hasLookAngles();
+        final boolean geodetic = columns.hasGeodetic();
+
+        /* Terms which depend only on the time, shared by every satellite */
+        time.copyTo(state);
+
+        final double julUTC = state.julUTC;
+        final double gmst = state.gmst;
+        final Observer observer = lookAngles ? gsPos.getObserver() : null;
+
+        if (lookAngles) {
+            AbstractSatellite.calculateUserPosVel(gmst, observer, state);
+        }
+
+        for (int n = 0; n < nearEarthIndex.length; n++) {
+            calculateSGP4(n, (julUTC - julEpoch[n]) * AbstractSatellite.MINS_PER_DAY, state);
+            AbstractSatellite.convertSatState(state.position, state.velocity);
+
+            store(nearEarthIndex[n], observer, gmst, lookAngles, geodetic, columns, state);
+        }
+
+        for (final int index : deepSpaceIndex) {
+            satellites[index].propagate(state);
+
+            store(index, observer, gmst, lookAngles, geodetic, columns, state);
+        }
+    }
+
+    private static void store(final int index, final Observer observer, final double gmst,
+            final boolean lookAngles, final boolean geodetic, final EphemerisColumns columns,
+            final PropagationState state) {
+
+        if (lookAngles) {
+            AbstractSatellite.calculateLookAngles(state, observer);
+        }
+
+        if (geodetic) {
+            AbstractSatellite.calculateLatLonAlt(state, gmst);
+        }
+
+        columns.store(index, state);
+    }
+
+    /**
+     * The SGP4 model of LEOSatellite.calculateSGP4(..), reading its constants from the packed
+     * arrays.
+     *
+     * @param n the packed index
+     * @param tsince minutes since the TLE epoch
+     * @param state the state which receives the normalised position and velocity
+     */
+    private void calculateSGP4(final int n, final double tsince, final PropagationState state) {
+
+        final double[] temp = state.temp;
+
+        /* Update for secular gravity and atmospheric drag. */
+        final double xmdf = xmo[n] + xmdot[n] * tsince;
+        final double omgadf = omegao[n] + omgdot[n]
+                * tsince;
+        final double xnoddf = xnodeo[n] + xnodot[n]
+                * tsince;
+        double omega = omgadf;
+        double xmp = xmdf;
+        final double tsq = AbstractSatellite.sqr(tsince);
+        final double xnode = xnoddf + xnodcf[n] * tsq;
+        final double bstarN = bstar[n];
+        double tempa = 1.0 - c1[n] * tsince;
+        double tempe = bstarN * c4[n] * tsince;
+        double templ = t2cof[n] * tsq;
+
+        if (!sgp4Simple[n]) {
+            final double delomg = omgcof[n] * tsince;
+            final double delm = xmcof[n]
+                    * (Math.pow(1.0 + eta[n] * Math.cos(xmdf), 3) - delmo[n]);
+            temp[0] = delomg + delm;
+            xmp = xmdf + temp[0];
+            omega = omgadf - temp[0];
+            final double tcube = tsq * tsince;
+            final double tfour = tsince * tcube;
+            tempa = tempa - d2[n] * tsq - d3[n] * tcube - d4[n] * tfour;
+            tempe = tempe + bstarN * c5[n]
+                    * (Math.sin(xmp) - sinmo[n]);
+            templ = templ + t3cof[n] * tcube + tfour * (t4cof[n] + tsince * t5cof[n]);
+        }
+
+        final double a = aodp[n] * Math.pow(tempa, 2);
+        final double e = eo[n] - tempe;
+        final double xl = xmp + omega + xnode + xnodp[n] * templ;
+        final double beta = Math.sqrt(1.0 - e * e);
+        final double xn = AbstractSatellite.XKE / Math.pow(a, 1.5);
+
+        /* Long period periodics */
+        final double axn = e * Math.cos(omega);
+        temp[0] = AbstractSatellite.invert(a * AbstractSatellite.sqr(beta));
+        final double xll = temp[0] * xlcof[n] * axn;
+        final double aynl = temp[0] * aycof[n];
+        final double xlt = xl + xll;
+        final double ayn = e * Math.sin(omega) + aynl;
+
+        /* Solve Kepler'S Equation */
+        final double capu = AbstractSatellite.mod2PI(xlt - xnode);
+        temp[2] = capu;
+
+        AbstractSatellite.converge(temp, axn, ayn, capu);
+
+        final double ecose = temp[5] + temp[6];
+        final double esine = temp[3] - temp[4];
+        final double elsq = axn * axn + ayn * ayn;
+        temp[0] = 1.0 - elsq;
+        final double pl = a * temp[0];
+        final double r = a * (1.0 - ecose);
+        temp[1] = AbstractSatellite.invert(r);
+        final double rdot = AbstractSatellite.XKE * Math.sqrt(a) * esine * temp[1];
+        final double rfdot = AbstractSatellite.XKE * Math.sqrt(pl) * temp[1];
+        temp[2] = a * temp[1];
+        final double betal = Math.sqrt(temp[0]);
+        temp[3] = AbstractSatellite.invert(1.0 + betal);
+        final double cosu = temp[2] * (temp[8] - axn + ayn * esine * temp[3]);
+        final double sinu = temp[2] * (temp[7] - ayn - axn * esine * temp[3]);
+        final double u = Math.atan2(sinu, cosu);
+        final double sin2u = 2.0 * sinu * cosu;
+        final double cos2u = 2.0 * cosu * cosu - 1;
+        temp[0] = AbstractSatellite.invert(pl);
+        temp[1] = AbstractSatellite.CK2 * temp[0];
+        temp[2] = temp[1] * temp[0];
+
+        /* Update for short periodics */
+        final double rk = r * (1.0 - 1.5 * temp[2] * betal * x3thm1[n]) + 0.5 * temp[1]
+                * x1mth2[n] * cos2u;
+        final double uk = u - 0.25 * temp[2] * x7thm1[n] * sin2u;
+        final double xnodek = xnode + 1.5 * temp[2] * cosio[n] * sin2u;
+        final double xinck = xincl[n] + 1.5 * temp[2]
+                * cosio[n] * sinio[n] * cos2u;
+        final double rdotk = rdot - xn * temp[1] * x1mth2[n] * sin2u;
+        final double rfdotk = rfdot + xn * temp[1]
+                * (x1mth2[n] * cos2u + 1.5 * x3thm1[n]);
+
+        AbstractSatellite.calculatePositionAndVelocity(state, rk, uk, xnodek, xinck, rdotk, rfdotk);
+    }
+}
@@ -43,6 +43,7 @@
 package uk.me.g4dpz.satellite;
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * DeepSpaceSatellite.
@@ -53,17 +54,15 @@ import java.io.Serializable;
 public class DeepSpaceSatellite extends AbstractSatellite {
 
     private static final long serialVersionUID = -9151311937099118037L;
-    private double c1;
-    private double c4;
-    private double x1mth2;
-    private double x3thm1;
-    private double xlcof;
-    private double xnodcf;
-    private double t2cof;
-    private double aycof;
-    private double x7thm1;
-
-    private boolean sdp4Init;
+    private final double c1;
+    private final double c4;
+    private final double x1mth2;
+    private final double x3thm1;
+    private final double xlcof;
+    private final double xnodcf;
+    private final double t2cof;
+    private final double aycof;
+    private final double x7thm1;
 
     private final DeepSpaceValueObject dsv;
 
@@ -72,13 +71,99 @@ public class DeepSpaceSatellite extends AbstractSatellite {
     /**
      * DeepSpaceSatellite Constructor.
      *
+     * The SDP4 and deep space constants are all calculated here and never change afterwards, so a
+     * DeepSpaceSatellite can be propagated from any number of threads at once.
+     *
      * @param tle the three line elements
      */
     public DeepSpaceSatellite(final TLE tle) {
         super(tle);
         this.dsv = new DeepSpaceValueObject();
         this.deep = new DeepSpaceCalculator();
-        initSDP4();
+
+        /* Recover original mean motion (xnodp) and */
+        /* semimajor axis (aodp) from input elements. */
+
+        final double a1 = Math.pow(XKE / tle.getXno(), TWO_THIRDS);
+        dsv.cosio = Math.cos(tle.getXincl());
+        dsv.theta2 = dsv.cosio * dsv.cosio;
+        x3thm1 = 3.0 * dsv.theta2 - 1;
+        dsv.eosq = tle.getEo() * tle.getEo();
+        dsv.betao2 = 1.0 - dsv.eosq;
+        dsv.betao = Math.sqrt(dsv.betao2);
+        final double del1 = 1.5 * CK2 * x3thm1
+                / (a1 * a1 * dsv.betao * dsv.betao2);
+        final double ao = a1
+                * (1.0 - del1 * (0.5 * TWO_THIRDS + del1 * (1.0 + 134 / 81 * del1)));
+        final double delo = 1.5 * CK2 * x3thm1
+                / (ao * ao * dsv.betao * dsv.betao2);
+        dsv.xnodp = tle.getXno() / (1.0 + delo);
+        dsv.aodp = ao / (1.0 - delo);
+
+        /* For perigee below 156 km, the values */
+        /* of S and QOMS2T are altered. */
+        setPerigee((dsv.aodp * (1.0 - tle.getEo()) - 1.0) * EARTH_RADIUS_KM);
+
+        checkPerigee();
+
+        final double pinvsq = AbstractSatellite.invert(dsv.aodp * dsv.aodp * dsv.betao2 * dsv.betao2);
+        dsv.sing = Math.sin(tle.getOmegao());
+        dsv.cosg = Math.cos(tle.getOmegao());
+        final double tsi = AbstractSatellite.invert(dsv.aodp - getS4());
+        final double eta = dsv.aodp * tle.getEo() * tsi;
+        final double etasq = eta * eta;
+        final double eeta = tle.getEo() * eta;
+        final double psisq = Math.abs(1.0 - etasq);
+        final double coef = getQoms24() * Math.pow(tsi, 4);
+        final double coef1 = coef / Math.pow(psisq, 3.5);
+        final double c2 = coef1
+                * dsv.xnodp
+                * (dsv.aodp * (1.0 + 1.5 * etasq + eeta * (4.0 + etasq)) + 0.75
+                        * CK2 * tsi / psisq * x3thm1
+                        * (8.0 + 3.0 * etasq * (8.0 + etasq)));
+        c1 = tle.getBstar() * c2;
+        dsv.sinio = Math.sin(tle.getXincl());
+        final double a3ovk2 = -J3_HARMONIC / CK2;
+        x1mth2 = 1.0 - dsv.theta2;
+        c4 = 2
+                * dsv.xnodp
+                * coef1
+                * dsv.aodp
+                * dsv.betao2
+                * (eta * (2.0 + 0.5 * etasq) + tle.getEo()
+                        * (0.5 + 2 * etasq) - 2
+                        * CK2
+                        * tsi
+                        / (dsv.aodp * psisq)
+                        * (-3 * x3thm1
+                                * (1.0 - 2 * eeta + etasq * (1.5 - 0.5 * eeta)) + 0.75
+                                * x1mth2
+                                * (2.0 * etasq - eeta * (1.0 + etasq))
+                                * Math.cos(2.0 * tle.getOmegao())));
+        final double theta4 = dsv.theta2 * dsv.theta2;
+        final double temp1 = 3.0 * CK2 * pinvsq * dsv.xnodp;
+        final double temp2 = temp1 * CK2 * pinvsq;
+        final double temp3 = 1.25 * CK4 * pinvsq * pinvsq * dsv.xnodp;
+        dsv.xmdot = dsv.xnodp + 0.5 * temp1 * dsv.betao * x3thm1 + 0.0625
+                * temp2 * dsv.betao * (13 - 78 * dsv.theta2 + 137 * theta4);
+        final double x1m5th = 1.0 - 5 * dsv.theta2;
+        dsv.omgdot = -0.5 * temp1 * x1m5th + 0.0625 * temp2
+                * (7.0 - 114 * dsv.theta2 + 395 * theta4) + temp3
+                * (3.0 - 36 * dsv.theta2 + 49 * theta4);
+        final double xhdot1 = -temp1 * dsv.cosio;
+        dsv.xnodot = xhdot1
+                + (0.5 * temp2 * (4.0 - 19 * dsv.theta2) + 2 * temp3
+                        * (3.0 - 7 * dsv.theta2)) * dsv.cosio;
+        xnodcf = 3.5 * dsv.betao2 * xhdot1 * c1;
+        t2cof = 1.5 * c1;
+        xlcof = 0.125 * a3ovk2 * dsv.sinio * (3.0 + 5 * dsv.cosio)
+                / (1.0 + dsv.cosio);
+        aycof = 0.25 * a3ovk2 * dsv.sinio;
+        x7thm1 = 7.0 * dsv.theta2 - 1;
+
+        /* initialize Deep() */
+
+        deep.init(tle);
     }
 
     /**
@@ -88,63 +173,59 @@ public class DeepSpaceSatellite extends AbstractSatellite {
      * ECI satellite position and velocity. Use Convert_Sat_State() to convert to km and km/S.
      *
      * @param tsince time since the epoch
+     * @param state the scratch state
      */
     @Override
-    protected synchronized void calculateSDP4(final double tsince) {
-
-        final double[] temp = new double[12];
+    protected void calculateSDP4(final double tsince, final PropagationState state) {
 
-        /* Initialization */
-
-        if (!sdp4Init) {
-
-            initSDP4();
-        }
+        final double[] temp = state.temp;
 
         final double xmdf = getTLE().getXmo() + dsv.xmdot * tsince;
         final double tsq = tsince * tsince;
         final double templ = t2cof * tsq;
-        dsv.xll = xmdf + dsv.xnodp * templ;
+        state.xll = xmdf + dsv.xnodp * templ;
 
-        dsv.omgadf = getTLE().getOmegao() + dsv.omgdot * tsince;
+        state.omgadf = getTLE().getOmegao() + dsv.omgdot * tsince;
         final double xnoddf = getTLE().getXnodeo() + dsv.xnodot * tsince;
-        dsv.xnode = xnoddf + xnodcf * tsq;
+        state.xnode = xnoddf + xnodcf * tsq;
         final double tempa = 1.0 - c1 * tsince;
         final double tempe = getTLE().getBstar() * c4 * tsince;
-        dsv.xn = dsv.xnodp;
+        state.xn = dsv.xnodp;
 
-        dsv.t = tsince;
+        state.t = tsince;
 
-        deep.dpsec(getTLE());
+        deep.dpsec(getTLE(), state);
 
-        final double a = Math.pow(XKE / dsv.xn, TWO_THIRDS) * tempa * tempa;
-        dsv.em = dsv.em - tempe;
-        deep.dpper(getTLE());
+        final double a = Math.pow(XKE / state.xn, TWO_THIRDS) * tempa * tempa;
+        state.em = state.em - tempe;
+        deep.dpper(state);
 
-        final double xl = dsv.xll + dsv.omgadf + dsv.xnode;
-        final double beta = Math.sqrt(1.0 - dsv.em * dsv.em);
-        dsv.xn = XKE / Math.pow(a, 1.5);
+        final double xl = state.xll + state.omgadf + state.xnode;
+        final double beta = Math.sqrt(1.0 - state.em * state.em);
+        state.xn = XKE / Math.pow(a, 1.5);
 
         /* Long period periodics */
-        final double axn = dsv.em * Math.cos(dsv.omgadf);
+        final double axn = state.em * Math.cos(state.omgadf);
         temp[0] = AbstractSatellite.invert(a * beta * beta);
         final double xll = temp[0] * xlcof * axn;
         final double aynl = temp[0] * aycof;
         final double xlt = xl + xll;
-        final double ayn = dsv.em * Math.sin(dsv.omgadf) + aynl;
+        final double ayn = state.em * Math.sin(state.omgadf) + aynl;
 
         /* Solve Kepler'S Equation */
-        final double capu = AbstractSatellite.mod2PI(xlt - dsv.xnode);
+        final double capu = AbstractSatellite.mod2PI(xlt - state.xnode);
         temp[2] = capu;
 
         AbstractSatellite.converge(temp, axn, ayn, capu);
 
-        calculatePositionAndVelocity(temp, a, axn, ayn);
+        calculatePositionAndVelocity(state, a, axn, ayn);
 
-        calculatePhase(xlt, dsv.xnode, dsv.omgadf);
+        AbstractSatellite.calculatePhase(state, xlt, state.xnode, state.omgadf);
     }
 
-    private void calculatePositionAndVelocity(final double[] temp, final double a, final double axn, final double ayn) {
+    private void calculatePositionAndVelocity(final PropagationState state, final double a, final double axn,
+            final double ayn) {
+        final double[] temp = state.temp;
         final double ecose = temp[5] + temp[6];
         final double esine = temp[3] - temp[4];
         final double axnSq = axn * axn;
@@ -174,115 +255,14 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         final double rk = temp[9] * (1.0 - 1.5 * temp[2] * betal * x3thm1) + 0.5
                 * temp[1] * x1mth2 * cos2u;
         final double uk = u - 0.25 * temp[2] * x7thm1 * sin2u;
-        final double xnodek = dsv.xnode + 1.5 * temp[2] * dsv.cosio * sin2u;
-        final double xinck = dsv.xinc + 1.5 * temp[2] * dsv.cosio
+        final double xnodek = state.xnode + 1.5 * temp[2] * dsv.cosio * sin2u;
+        final double xinck = state.xinc + 1.5 * temp[2] * dsv.cosio
                 * dsv.sinio * cos2u;
-        final double rdotk = temp[10] - dsv.xn * temp[1] * x1mth2 * sin2u;
-        final double rfdotk = temp[11] + dsv.xn * temp[1]
+        final double rdotk = temp[10] - state.xn * temp[1] * x1mth2 * sin2u;
+        final double rfdotk = temp[11] + state.xn * temp[1]
                 * (x1mth2 * cos2u + 1.5 * x3thm1);
 
-        super.calculatePositionAndVelocity(rk, uk, xnodek, xinck, rdotk, rfdotk);
-    }
-
-    /**
-     *
-     */
-    private void initSDP4() {
-        double temp1;
-        double temp2;
-        double temp3;
-        sdp4Init = true;
-
-        /* Recover original mean motion (xnodp) and */
-        /* semimajor axis (aodp) from input elements. */
-
-        recoverMeanMotionAndSemiMajorAxis();
-
-        /* For perigee below 156 km, the values */
-        /* of S and QOMS2T are altered. */
-        setPerigee((dsv.aodp * (1.0 - getTLE().getEo()) - 1.0) * EARTH_RADIUS_KM);
-
-        checkPerigee();
-
-        final double pinvsq = AbstractSatellite.invert(dsv.aodp * dsv.aodp * dsv.betao2 * dsv.betao2);
-        dsv.sing = Math.sin(getTLE().getOmegao());
-        dsv.cosg = Math.cos(getTLE().getOmegao());
-        final double tsi = AbstractSatellite.invert(dsv.aodp - getS4());
-        final double eta = dsv.aodp * getTLE().getEo() * tsi;
-        final double etasq = eta * eta;
-        final double eeta = getTLE().getEo() * eta;
-        final double psisq = Math.abs(1.0 - etasq);
-        final double coef = getQoms24() * Math.pow(tsi, 4);
-        final double coef1 = coef / Math.pow(psisq, 3.5);
-        final double c2 = coef1
-                * dsv.xnodp
-                * (dsv.aodp * (1.0 + 1.5 * etasq + eeta * (4.0 + etasq)) + 0.75
-                        * CK2 * tsi / psisq * x3thm1
-                        * (8.0 + 3.0 * etasq * (8.0 + etasq)));
-        c1 = getTLE().getBstar() * c2;
-        dsv.sinio = Math.sin(getTLE().getXincl());
-        final double a3ovk2 = -J3_HARMONIC / CK2;
-        x1mth2 = 1.0 - dsv.theta2;
-        c4 = 2
-                * dsv.xnodp
-                * coef1
-                * dsv.aodp
-                * dsv.betao2
-                * (eta * (2.0 + 0.5 * etasq) + getTLE().getEo()
-                        * (0.5 + 2 * etasq) - 2
-                        * CK2
-                        * tsi
-                        / (dsv.aodp * psisq)
-                        * (-3 * x3thm1
-                                * (1.0 - 2 * eeta + etasq * (1.5 - 0.5 * eeta)) + 0.75
-                                * x1mth2
-                                * (2.0 * etasq - eeta * (1.0 + etasq))
-                                * Math.cos(2.0 * getTLE().getOmegao())));
-        final double theta4 = dsv.theta2 * dsv.theta2;
-        temp1 = 3.0 * CK2 * pinvsq * dsv.xnodp;
-        temp2 = temp1 * CK2 * pinvsq;
-        temp3 = 1.25 * CK4 * pinvsq * pinvsq * dsv.xnodp;
-        dsv.xmdot = dsv.xnodp + 0.5 * temp1 * dsv.betao * x3thm1 + 0.0625
-                * temp2 * dsv.betao * (13 - 78 * dsv.theta2 + 137 * theta4);
-        final double x1m5th = 1.0 - 5 * dsv.theta2;
-        dsv.omgdot = -0.5 * temp1 * x1m5th + 0.0625 * temp2
-                * (7.0 - 114 * dsv.theta2 + 395 * theta4) + temp3
-                * (3.0 - 36 * dsv.theta2 + 49 * theta4);
-        final double xhdot1 = -temp1 * dsv.cosio;
-        dsv.xnodot = xhdot1
-                + (0.5 * temp2 * (4.0 - 19 * dsv.theta2) + 2 * temp3
-                        * (3.0 - 7 * dsv.theta2)) * dsv.cosio;
-        xnodcf = 3.5 * dsv.betao2 * xhdot1 * c1;
-        t2cof = 1.5 * c1;
-        xlcof = 0.125 * a3ovk2 * dsv.sinio * (3.0 + 5 * dsv.cosio)
-                / (1.0 + dsv.cosio);
-        aycof = 0.25 * a3ovk2 * dsv.sinio;
-        x7thm1 = 7.0 * dsv.theta2 - 1;
-
-        /* initialize Deep() */
-
-        deep.init(getTLE());
-    }
-
-    /**
-     *
-     */
-    private void recoverMeanMotionAndSemiMajorAxis() {
-        final double a1 = Math.pow(XKE / getTLE().getXno(), TWO_THIRDS);
-        dsv.cosio = Math.cos(getTLE().getXincl());
-        dsv.theta2 = dsv.cosio * dsv.cosio;
-        x3thm1 = 3.0 * dsv.theta2 - 1;
-        dsv.eosq = getTLE().getEo() * getTLE().getEo();
-        dsv.betao2 = 1.0 - dsv.eosq;
-        dsv.betao = Math.sqrt(dsv.betao2);
-        final double del1 = 1.5 * CK2 * x3thm1
-                / (a1 * a1 * dsv.betao * dsv.betao2);
-        final double ao = a1
-                * (1.0 - del1 * (0.5 * TWO_THIRDS + del1 * (1.0 + 134 / 81 * del1)));
-        final double delo = 1.5 * CK2 * x3thm1
-                / (ao * ao * dsv.betao * dsv.betao2);
-        dsv.xnodp = getTLE().getXno() / (1.0 + delo);
-        dsv.aodp = ao / (1.0 - delo);
+        AbstractSatellite.calculatePositionAndVelocity(state, rk, uk, xnodek, xinck, rdotk, rfdotk);
     }
 
     final class DeepSpaceCalculator implements Serializable {
@@ -290,6 +270,10 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         /* perturbation effects to deep-space orbit objects. */
 
         private static final long serialVersionUID = -1154274461279090353L;
+        /** Integrator steps between checkpoints, 8 steps being 4 days. */
+        static final int CHECKPOINT_STEPS = 8;
+        /** Checkpoints kept on each side of epoch, covering 1024 days either way. */
+        static final int CHECKPOINTS = 256;
         static final double ZSINIS = 3.9785416E-1;
         static final double ZSINGS = -9.8088458E-1;
         static final double ZNS = 1.19459E-5;
@@ -319,7 +303,6 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         private double omegaq;
         private double zmol;
         private double zmos;
-        private double savtsn;
         private double ee2;
         private double e3;
         private double xi2;
@@ -365,22 +348,12 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         private double fasx6;
         private double xlamo;
         private double xfact;
-        private double xni;
-        private double atime;
         private double stepp;
         private double stepn;
         private double step2;
         private double preep;
-        private double pl;
-        private double sghs;
-        private double xli;
         private double d2201;
         private double d2211;
-        private double sghl;
-        private double sh1;
-        private double pinc;
-        private double pe;
-        private double shs;
         private double zsingl;
         private double zcosgl;
         private double zsinhl;
@@ -399,39 +372,26 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         private double a9;
         private double a10;
         private double ainv2;
-        private double alfdp;
         private double aqnv;
         private double sgh;
         private double sini2;
-        private double sinis;
-        private double sinok;
         private double sh;
         private double si;
-        private double sil;
         private double day;
-        private double betdp;
-        private double dalf;
         private double bfact;
         private double c;
         private double cc;
-        private double cosis;
-        private double cosok;
         private double cosq;
         private double ctem;
         private double f322;
         private double zx;
         private double zy;
-        private double dbet;
-        private double dls;
         private double eoc;
         private double eq;
-        private double f2;
         private double f220;
         private double f221;
-        private double f3;
         private double f311;
         private double f321;
-        private double xnoh;
         private double f330;
         private double f441;
         private double f442;
@@ -442,8 +402,6 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         private double g200;
         private double g201;
         private double g211;
-        private double pgh;
-        private double ph;
         private double s1;
         private double s2;
         private double s3;
@@ -452,9 +410,6 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         private double s6;
         private double s7;
         private double se;
-        private double sel;
-        private double ses;
-        private double xls;
         private double g300;
         private double g310;
         private double g322;
@@ -466,33 +421,22 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         private double g533;
         private double gam;
         private double sinq;
-        private double sinzf;
-        private double sis;
         private double sl;
-        private double sll;
-        private double sls;
         private double stem;
         private double temp;
         private double temp1;
         private double x1;
         private double x2;
-        private double x2li;
-        private double x2omi;
         private double x3;
         private double x4;
         private double x5;
         private double x6;
         private double x7;
         private double x8;
-        private double xl;
-        private double xldot;
         private double xmao;
-        private double xnddt;
-        private double xndot;
         private double xno2;
         private double xnodce;
         private double xnoi;
-        private double xomi;
         private double xpidot;
         private double z1;
         private double z11;
@@ -507,8 +451,6 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         private double z32;
         private double z33;
         private double ze;
-        private double zf;
-        private double zm;
         private double zn;
         private double zsing;
         private double zsinh;
@@ -516,14 +458,16 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         private double zcosg;
         private double zcosh;
         private double zcosi;
-        private double delt;
-        private double ft;
+
+        /**
+         * Integrator checkpoints shared without locking, one slot every CHECKPOINT_STEPS steps;
+         * slots 0 to CHECKPOINTS - 1 are after epoch and the rest are before it.
+         */
+        private transient volatile AtomicReferenceArray<ResonanceState> checkpoints;
 
         private boolean lunarTermsDone;
         private boolean resonance;
         private boolean synchronous;
-        private boolean doLoop;
-        private boolean epochRestart;
 
         private DeepSpaceCalculator() {
         }
@@ -574,9 +518,6 @@ public class DeepSpaceSatellite extends AbstractSatellite {
             xfact = bfact - xnq;
 
             /* Initialize integrator */
-            xli = xlamo;
-            xni = xnq;
-            atime = 0;
             stepp = 720;
             stepn = -720;
             step2 = 259200;
@@ -698,7 +639,6 @@ public class DeepSpaceSatellite extends AbstractSatellite {
          *
          */
         private void doSolarTerms() {
-            savtsn = 1E20;
             zcosg = 1.945905E-1;
             zsing = ZSINGS;
             zcosi = 9.1744867E-1;
@@ -897,242 +837,265 @@ public class DeepSpaceSatellite extends AbstractSatellite {
          * Entrance for deep space secular effects.
          *
          * @param tle The TLE
+         * @param state the scratch state
          */
-        private void dpsec(final TLE tle) {
-            dsv.xll = dsv.xll + ssl * dsv.t;
-            dsv.omgadf = dsv.omgadf + ssg * dsv.t;
-            dsv.xnode = dsv.xnode + ssh * dsv.t;
-            dsv.em = tle.getEo() + sse * dsv.t;
-            dsv.xinc = tle.getXincl() + ssi * dsv.t;
-
-            if (dsv.xinc < 0) {
-                dsv.xinc = -dsv.xinc;
-                dsv.xnode = dsv.xnode + Math.PI;
-                dsv.omgadf = dsv.omgadf - Math.PI;
+        private void dpsec(final TLE tle, final PropagationState state) {
+            state.xll = state.xll + ssl * state.t;
+            state.omgadf = state.omgadf + ssg * state.t;
+            state.xnode = state.xnode + ssh * state.t;
+            state.em = tle.getEo() + sse * state.t;
+            state.xinc = tle.getXincl() + ssi * state.t;
+
+            if (state.xinc < 0) {
+                state.xinc = -state.xinc;
+                state.xnode = state.xnode + Math.PI;
+                state.omgadf = state.omgadf - Math.PI;
             }
 
             if (!resonance) {
                 return;
             }
 
-            do {
-                processEpochRestartLoop();
-            }
-            while (doLoop && epochRestart);
+            integrate(state);
 
-            dsv.xn = xni + xndot * ft + xnddt * ft * ft * 0.5;
-            xl = xli + xldot * ft + xndot * ft * ft * 0.5;
-            temp = -dsv.xnode + thgr + dsv.t * THDT;
+            final double ft = state.t - state.atime;
+            state.xn = state.xni + state.xndot * ft + state.xnddt * ft * ft * 0.5;
+            final double xl = state.xli + state.xldot * ft + state.xndot * ft * ft * 0.5;
+            final double temp = -state.xnode + thgr + state.t * THDT;
 
             if (synchronous) {
-                dsv.xll = xl - dsv.omgadf + temp;
+                state.xll = xl - state.omgadf + temp;
             }
             else {
-                dsv.xll = xl + temp + temp;
+                state.xll = xl + temp + temp;
             }
         }
 
         /**
+         * Steps the resonance integrator from epoch in 720 minute steps until it is within one
+         * step of the requested time. The integrator only ever steps away from epoch, so its value
+         * at any step is the same whichever earlier step it was started from; this lets it resume
+         * from the state's last step or from the nearest checkpoint recorded by any caller, so a
+         * query at any time costs at most CHECKPOINT_STEPS steps once the checkpoints exist.
          *
+         * @param state the scratch state
          */
-        private void processEpochRestartLoop() {
-            if ((atime == 0)
-                    || ((dsv.t >= 0) && (atime < 0))
-                    || ((dsv.t < 0) && (atime >= 0))) {
-                /* Epoch restart */
+        private void integrate(final PropagationState state) {
+            final double t = state.t;
 
-                calclateDelt();
+            if (state.resonanceOwner != this
+                    || (state.atime == 0)
+                    || (t * state.atime < 0)
+                    || (Math.abs(t) < Math.abs(state.atime))) {
+                /* Epoch restart */
 
-                atime = 0;
-                xni = xnq;
-                xli = xlamo;
-            }
-            else if (Math.abs(dsv.t) >= Math.abs(atime)) {
-                calclateDelt();
+                state.resonanceOwner = this;
+                state.atime = 0;
+                state.xni = xnq;
+                state.xli = xlamo;
             }
 
-            processNotEpochRestartLoop();
-        }
+            final AtomicReferenceArray<ResonanceState> table = getCheckpoints();
+            final int side = (t < 0) ? CHECKPOINTS : 0;
+
+            /* Resume from the furthest checkpoint which does not pass the requested time */
+            for (int slot = (int)Math.min(Math.abs(t) / (stepp * CHECKPOINT_STEPS), CHECKPOINTS);
+                    slot > 0; slot--) {
+                final ResonanceState checkpoint = table.get(side + slot - 1);
 
-        private void calclateDelt() {
-            if (dsv.t < 0) {
-                delt = stepn;
+                if (checkpoint != null) {
+                    if (Math.abs(checkpoint.atime) > Math.abs(state.atime)) {
+                        state.atime = checkpoint.atime;
+                        state.xli = checkpoint.xli;
+                        state.xni = checkpoint.xni;
+                    }
+                    break;
+                }
             }
-            else {
-                delt = stepp;
+
+            final double delt = (t < 0) ? stepn : stepp;
+
+            while (true) {
+                calculateDotTerms(state);
+
+                if (Math.abs(t - state.atime) < stepp) {
+                    break;
+                }
+
+                state.xli = state.xli + state.xldot * delt + state.xndot * step2;
+                state.xni = state.xni + state.xndot * delt + state.xnddt * step2;
+                state.atime = state.atime + delt;
+
+                final long steps = Math.round(Math.abs(state.atime) / stepp);
+
+                if (steps % CHECKPOINT_STEPS == 0 && steps <= CHECKPOINT_STEPS * CHECKPOINTS) {
+                    final int index = side + (int)(steps / CHECKPOINT_STEPS) - 1;
+
+                    if (table.get(index) == null) {
+                        table.set(index, new ResonanceState(state.atime, state.xli, state.xni));
+                    }
+                }
             }
         }
 
         /**
+         * Returns the checkpoint table, creating it on first use. Two threads racing here may
+         * each create a table; the one that is lost only costs some recomputation.
          *
+         * @return the checkpoint table
          */
-        private void processNotEpochRestartLoop() {
-            do {
-                if (Math.abs(dsv.t - atime) >= stepp) {
-                    doLoop = true;
-                    epochRestart = false;
-                }
-                else {
-                    ft = dsv.t - atime;
-                    doLoop = false;
-                }
+        private AtomicReferenceArray<ResonanceState> getCheckpoints() {
+            AtomicReferenceArray<ResonanceState> table = checkpoints;
 
-                if (Math.abs(dsv.t) < Math.abs(atime)) {
-                    if (dsv.t >= 0) {
-                        delt = stepn;
-                    }
-                    else {
-                        delt = stepp;
-                    }
-
-                    doLoop |= epochRestart;
-                }
+            if (table == null) {
+                table = new AtomicReferenceArray<>(2 * CHECKPOINTS);
+                checkpoints = table;
+            }
 
-                /* Dot terms calculated */
-                if (synchronous) {
-                    xndot = del1 * Math.sin(xli - fasx2) + del2
-                            * Math.sin(2.0 * (xli - fasx4)) + del3
-                            * Math.sin(3.0 * (xli - fasx6));
-                    xnddt = del1 * Math.cos(xli - fasx2) + 2 * del2
-                            * Math.cos(2.0 * (xli - fasx4)) + 3.0 * del3
-                            * Math.cos(3.0 * (xli - fasx6));
-                }
-                else {
-                    xomi = omegaq + dsv.omgdot * atime;
-                    x2omi = xomi + xomi;
-                    x2li = xli + xli;
-                    xndot = d2201 * Math.sin(x2omi + xli - G22) + d2211
-                            * Math.sin(xli - G22) + d3210
-                            * Math.sin(xomi + xli - G32) + d3222
-                            * Math.sin(-xomi + xli - G32) + d4410
-                            * Math.sin(x2omi + x2li - G44) + d4422
-                            * Math.sin(x2li - G44) + d5220
-                            * Math.sin(xomi + xli - G52) + d5232
-                            * Math.sin(-xomi + xli - G52) + d5421
-                            * Math.sin(xomi + x2li - G54) + d5433
-                            * Math.sin(-xomi + x2li - G54);
-                    xnddt = d2201
-                            * Math.cos(x2omi + xli - G22)
-                            + d2211
-                            * Math.cos(xli - G22)
-                            + d3210
-                            * Math.cos(xomi + xli - G32)
-                            + d3222
-                            * Math.cos(-xomi + xli - G32)
-                            + d5220
-                            * Math.cos(xomi + xli - G52)
-                            + d5232
-                            * Math.cos(-xomi + xli - G52)
-                            + 2
-                            * (d4410 * Math.cos(x2omi + x2li - G44) + d4422
-                                    * Math.cos(x2li - G44) + d5421
-                                    * Math.cos(xomi + x2li - G54) + d5433
-                                    * Math.cos(-xomi + x2li - G54));
-                }
+            return table;
+        }
 
-                xldot = xni + xfact;
-                xnddt = xnddt * xldot;
+        /**
+         * Dot terms calculated.
+         *
+         * @param state the scratch state
+         */
+        private void calculateDotTerms(final PropagationState state) {
+            final double xli = state.xli;
+            double xndot;
+            double xnddt;
 
-                if (doLoop) {
-                    xli = xli + xldot * delt + xndot * step2;
-                    xni = xni + xndot * delt + xnddt * step2;
-                    atime = atime + delt;
-                }
+            if (synchronous) {
+                xndot = del1 * Math.sin(xli - fasx2) + del2
+                        * Math.sin(2.0 * (xli - fasx4)) + del3
+                        * Math.sin(3.0 * (xli - fasx6));
+                xnddt = del1 * Math.cos(xli - fasx2) + 2 * del2
+                        * Math.cos(2.0 * (xli - fasx4)) + 3.0 * del3
+                        * Math.cos(3.0 * (xli - fasx6));
             }
-            while (doLoop && !epochRestart);
+            else {
+                final double xomi = omegaq + dsv.omgdot * state.atime;
+                final double x2omi = xomi + xomi;
+                final double x2li = xli + xli;
+                xndot = d2201 * Math.sin(x2omi + xli - G22) + d2211
+                        * Math.sin(xli - G22) + d3210
+                        * Math.sin(xomi + xli - G32) + d3222
+                        * Math.sin(-xomi + xli - G32) + d4410
+                        * Math.sin(x2omi + x2li - G44) + d4422
+                        * Math.sin(x2li - G44) + d5220
+                        * Math.sin(xomi + xli - G52) + d5232
+                        * Math.sin(-xomi + xli - G52) + d5421
+                        * Math.sin(xomi + x2li - G54) + d5433
+                        * Math.sin(-xomi + x2li - G54);
+                xnddt = d2201
+                        * Math.cos(x2omi + xli - G22)
+                        + d2211
+                        * Math.cos(xli - G22)
+                        + d3210
+                        * Math.cos(xomi + xli - G32)
+                        + d3222
+                        * Math.cos(-xomi + xli - G32)
+                        + d5220
+                        * Math.cos(xomi + xli - G52)
+                        + d5232
+                        * Math.cos(-xomi + xli - G52)
+                        + 2
+                        * (d4410 * Math.cos(x2omi + x2li - G44) + d4422
+                                * Math.cos(x2li - G44) + d5421
+                                * Math.cos(xomi + x2li - G54) + d5433
+                                * Math.cos(-xomi + x2li - G54));
+            }
+
+            final double xldot = state.xni + xfact;
+            xnddt = xnddt * xldot;
+
+            state.xldot = xldot;
+            state.xndot = xndot;
+            state.xnddt = xnddt;
         }
 
         /**
          * Entrance for lunar-solar periodics.
          *
-         * @param tle the three line elements
+         * @param state the scratch state
          */
-        private void dpper(final TLE tle) {
-            sinis = Math.sin(dsv.xinc);
-            cosis = Math.cos(dsv.xinc);
-
-            if (Math.abs(savtsn - dsv.t) >= 30) {
-                savtsn = dsv.t;
-                zm = zmos + ZNS * dsv.t;
-                zf = zm + 2 * ZES * Math.sin(zm);
-                sinzf = Math.sin(zf);
-                f2 = 0.5 * sinzf * sinzf - 0.25;
-                f3 = -0.5 * sinzf * Math.cos(zf);
-                ses = se2 * f2 + se3 * f3;
-                sis = si2 * f2 + si3 * f3;
-                sls = sl2 * f2 + sl3 * f3 + sl4 * sinzf;
-                sghs = sgh2 * f2 + sgh3 * f3 + sgh4 * sinzf;
-                shs = sh2 * f2 + sh3 * f3;
-                zm = zmol + ZNL * dsv.t;
-                zf = zm + 2 * ZEL * Math.sin(zm);
-                sinzf = Math.sin(zf);
-                f2 = 0.5 * sinzf * sinzf - 0.25;
-                f3 = -0.5 * sinzf * Math.cos(zf);
-                sel = ee2 * f2 + e3 * f3;
-                sil = xi2 * f2 + xi3 * f3;
-                sll = xl2 * f2 + xl3 * f3 + xl4 * sinzf;
-                sghl = xgh2 * f2 + xgh3 * f3 + xgh4 * sinzf;
-                sh1 = xh2 * f2 + xh3 * f3;
-                pe = ses + sel;
-                pinc = sis + sil;
-                pl = sls + sll;
-            }
-
-            pgh = sghs + sghl;
-            ph = shs + sh1;
-            dsv.xinc = dsv.xinc + pinc;
-            dsv.em = dsv.em + pe;
+        private void dpper(final PropagationState state) {
+            final double sinis = Math.sin(state.xinc);
+            final double cosis = Math.cos(state.xinc);
+
+            double zm = zmos + ZNS * state.t;
+            double zf = zm + 2 * ZES * Math.sin(zm);
+            double sinzf = Math.sin(zf);
+            double f2 = 0.5 * sinzf * sinzf - 0.25;
+            double f3 = -0.5 * sinzf * Math.cos(zf);
+            final double ses = se2 * f2 + se3 * f3;
+            final double sis = si2 * f2 + si3 * f3;
+            final double sls = sl2 * f2 + sl3 * f3 + sl4 * sinzf;
+            final double sghs = sgh2 * f2 + sgh3 * f3 + sgh4 * sinzf;
+            final double shs = sh2 * f2 + sh3 * f3;
+            zm = zmol + ZNL * state.t;
+            zf = zm + 2 * ZEL * Math.sin(zm);
+            sinzf = Math.sin(zf);
+            f2 = 0.5 * sinzf * sinzf - 0.25;
+            f3 = -0.5 * sinzf * Math.cos(zf);
+            final double sel = ee2 * f2 + e3 * f3;
+            final double sil = xi2 * f2 + xi3 * f3;
+            final double sll = xl2 * f2 + xl3 * f3 + xl4 * sinzf;
+            final double sghl = xgh2 * f2 + xgh3 * f3 + xgh4 * sinzf;
+            final double sh1 = xh2 * f2 + xh3 * f3;
+            final double pe = ses + sel;
+            final double pinc = sis + sil;
+            final double pl = sls + sll;
+
+            double pgh = sghs + sghl;
+            double ph = shs + sh1;
+            state.xinc = state.xinc + pinc;
+            state.em = state.em + pe;
 
             if (xqncl >= 0.2) {
                 /* Apply periodics directly */
                 ph = ph / dsv.sinio;
                 pgh = pgh - dsv.cosio * ph;
-                dsv.omgadf = dsv.omgadf + pgh;
-                dsv.xnode = dsv.xnode + ph;
-                dsv.xll = dsv.xll + pl;
+                state.omgadf = state.omgadf + pgh;
+                state.xnode = state.xnode + ph;
+                state.xll = state.xll + pl;
             }
 
             else {
 
-                applyPeriodics();
+                /* Apply periodics with Lyddane modification */
+                final double sinok = Math.sin(state.xnode);
+                final double cosok = Math.cos(state.xnode);
+                double alfdp = sinis * sinok;
+                double betdp = sinis * cosok;
+                final double dalf = ph * cosok + pinc * cosis * sinok;
+                final double dbet = -ph * sinok + pinc * cosis * cosok;
+                alfdp = alfdp + dalf;
+                betdp = betdp + dbet;
+                state.xnode = AbstractSatellite.mod2PI(state.xnode);
+                double xls = state.xll + state.omgadf + cosis * state.xnode;
+                final double dls = pl + pgh - pinc * state.xnode * sinis;
+                xls = xls + dls;
+                final double xnoh = state.xnode;
+                state.xnode = Math.atan2(alfdp, betdp);
 
                 /* This is a patch to Lyddane modification */
                 /* suggested by Rob Matson. */
 
-                if (Math.abs(xnoh - dsv.xnode) > Math.PI) {
-                    if (dsv.xnode < xnoh) {
-                        dsv.xnode += TWO_PI;
+                if (Math.abs(xnoh - state.xnode) > Math.PI) {
+                    if (state.xnode < xnoh) {
+                        state.xnode += TWO_PI;
                     }
                     else {
-                        dsv.xnode -= TWO_PI;
+                        state.xnode -= TWO_PI;
                     }
                 }
 
-                dsv.xll = dsv.xll + pl;
-                dsv.omgadf = xls - dsv.xll - Math.cos(dsv.xinc) * dsv.xnode;
+                state.xll = state.xll + pl;
+                state.omgadf = xls - state.xll - Math.cos(state.xinc) * state.xnode;
             }
         }
 
-        /**
-         * Apply periodics with Lyddane modification.
-         */
-        private void applyPeriodics() {
-            sinok = Math.sin(dsv.xnode);
-            cosok = Math.cos(dsv.xnode);
-            alfdp = sinis * sinok;
-            betdp = sinis * cosok;
-            dalf = ph * cosok + pinc * cosis * sinok;
-            dbet = -ph * sinok + pinc * cosis * cosok;
-            alfdp = alfdp + dalf;
-            betdp = betdp + dbet;
-            dsv.xnode = AbstractSatellite.mod2PI(dsv.xnode);
-            xls = dsv.xll + dsv.omgadf + cosis * dsv.xnode;
-            dls = pl + pgh - pinc * dsv.xnode * sinis;
-            xls = xls + dls;
-            xnoh = dsv.xnode;
-            dsv.xnode = Math.atan2(alfdp, betdp);
-        }
-
         /**
          * The function ThetaG calculates the Greenwich Mean Sidereal Time for an epoch specified in
          * the format used in the NORAD two-line element sets. It has now been adapted for dates
@@ -1169,6 +1132,22 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         }
     }
 
+    /**
+     * An immutable snapshot of the resonance integrator at one of its steps.
+     */
+    private static final class ResonanceState {
+
+        private final double atime;
+        private final double xli;
+        private final double xni;
+
+        private ResonanceState(final double atime, final double xli, final double xni) {
+            this.atime = atime;
+            this.xli = xli;
+            this.xni = xni;
+        }
+    }
+
     private static final class DeepSpaceValueObject implements Serializable {
 
         private static final long serialVersionUID = 5230929750062183569L;
@@ -1186,15 +1165,6 @@ public class DeepSpaceSatellite extends AbstractSatellite {
         private double xnodot;
         private double xnodp;
 
-        /* Used by dpsec and dpper parts of Deep() */
-        private double xll;
-        private double omgadf;
-        private double xnode;
-        private double em;
-        private double xinc;
-        private double xn;
-        private double t;
-
         /* Used by thetg and Deep() */
         private double ds50;
 
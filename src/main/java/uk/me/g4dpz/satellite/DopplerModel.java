@@ -0,0 +1,358 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.Arrays;
+
+/**
+ * A piecewise Chebyshev fit of the range rate of a satellite over an interval, usually a pass, for
+ * correcting radios for Doppler at a high rate. Building the model costs a few propagations per
+ * segment; evaluating it is a binary search over the segments and a Clenshaw sum of
+ * {@link #DEGREE} + 1 terms, with no propagation and no allocation.
+ *
+ * Each segment interpolates the range rate at the Chebyshev nodes and is checked at the points
+ * midway between them and at its ends, where the interpolation error is largest. A segment whose
+ * error there is more than the tolerance is halved, down to {@link #MINIMUM_SEGMENT_MILLIS}, for as
+ * long as halving at least halves the error. The convergence of the Kepler equation in the SGP4
+ * and SDP4 models leaves the range rate with a jitter of the order of 1.0E-5 km/s, which no fit can
+ * follow, so a tolerance below that stops at the jitter. The largest error found at the check
+ * points is kept as the model's error bound.
+ *
+ * The model is immutable and may be shared between threads.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class DopplerModel {
+
+    /** The degree of the polynomial fitted to each segment. */
+    public static final int DEGREE = 8;
+
+    /** The default tolerance, km/s, which is 0.15 Hz at 437 MHz. */
+    public static final double DEFAULT_TOLERANCE = 1.0E-4;
+
+    /** The shortest segment which will be halved. */
+    static final long MINIMUM_SEGMENT_MILLIS = 1000L;
+
+    private static final int NODES = DEGREE + 1;
+    private static final double SPEED_OF_LIGHT = 2.99792458E8;
+
+    /** The Chebyshev nodes on [-1, 1]. */
+    private static final double[] NODE_X = new double[NODES];
+
+    /** The check points on [-1, 1]: the ends and the midpoints between the nodes. */
+    private static final double[] CHECK_X = new double[NODES + 1];
+
+    static {
+        for (int k = 0; k < NODES; k++) {
+            NODE_X[k] = Math.cos(Math.PI * (k + 0.5) / NODES);
+        }
+
+        CHECK_X[0] = 1.0;
+        for (int k = 1; k < NODES; k++) {
+            CHECK_X[k] = 0.5 * (NODE_X[k - 1] + NODE_X[k]);
+        }
+        CHECK_X[NODES] = -1.0;
+    }
+
+    private final long startMillis;
+    private final long endMillis;
+    private final long[] segmentStarts;
+    private final double[] midpoints;
+    private final double[] halfWidths;
+    private final double[] coefficients;
+    private final double errorBound;
+    private final int propagationCount;
+
+    private DopplerModel(final long startMillis, final long endMillis, final Fitter fitter) {
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+
+        final int segments = fitter.segments;
+        this.segmentStarts = Arrays.copyOf(fitter.starts, segments);
+        this.midpoints = new double[segments];
+        this.halfWidths = new double[segments];
+
+        for (int s = 0; s < segments; s++) {
+            final long end = s + 1 < segments ? segmentStarts[s + 1] : endMillis;
+            halfWidths[s] = 0.5 * (end - segmentStarts[s]);
+            midpoints[s] = segmentStarts[s] + halfWidths[s];
+        }
+
+        this.coefficients = Arrays.copyOf(fitter.coefficients, segments * NODES);
+        this.errorBound = fitter.errorBound;
+        this.propagationCount = fitter.propagationCount;
+    }
+
+    /**
+     * Fits the range rate between two times to {@link #DEFAULT_TOLERANCE}.
+     *
+     * @param satellite the satellite
+     * @param gsPos the ground station
+     * @param startMillis the start, milliseconds since 1970
+     * @param endMillis the end, milliseconds since 1970
+     * @return the model
+     * @throws IllegalArgumentException if the end is not after the start
+     */
+    public static DopplerModel fit(final Satellite satellite, final GroundStationPosition gsPos,
+            final long startMillis, final long endMillis) throws IllegalArgumentException {
+        return DopplerModel.fit(satellite, gsPos, startMillis, endMillis, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Fits the range rate between two times.
+     *
+     * @param satellite the satellite
+     * @param gsPos the ground station
+     * @param startMillis the start, milliseconds since 1970
+     * @param endMillis the end, milliseconds since 1970
+     * @param tolerance the largest range rate error wanted, km/s
+     * @return the model
+     * @throws IllegalArgumentException if the end is not after the start or the tolerance is not
+     *             positive
+     */
+    public static DopplerModel fit(final Satellite satellite, final GroundStationPosition gsPos,
+            final long startMillis, final long endMillis, final double tolerance)
+            throws IllegalArgumentException {
+
+        if (endMillis <= startMillis) {
+            throw new IllegalArgumentException("End must be after start");
+        }
+        if (!(tolerance > 0.0)) {
+            throw new IllegalArgumentException("Tolerance must be positive: " + tolerance);
+        }
+
+        final Fitter fitter = new Fitter(satellite, gsPos, tolerance);
+        fitter.fit(startMillis, endMillis, Double.POSITIVE_INFINITY);
+
+        return new DopplerModel(startMillis, endMillis, fitter);
+    }
+
+    /**
+     * @param epochMillis the time, milliseconds since 1970, between the start and end of the model
+     * @return the range rate, km/s
+     * @throws IllegalArgumentException if the time is outside the model
+     */
+    public double getRangeRate(final long epochMillis) throws IllegalArgumentException {
+
+        if (epochMillis < startMillis || epochMillis > endMillis) {
+            throw new IllegalArgumentException("Time is outside the model: " + epochMillis);
+        }
+
+        int segment = Arrays.binarySearch(segmentStarts, epochMillis);
+        if (segment < 0) {
+            segment = -segment - 2;
+        }
+
+        final double x = (epochMillis - midpoints[segment]) / halfWidths[segment];
+
+        return DopplerModel.evaluate(coefficients, segment * NODES, x);
+    }
+
+    /**
+     * @param frequency the transmitted frequency, Hz
+     * @param epochMillis the time, milliseconds since 1970
+     * @return the frequency heard on the ground, Hz, as {@link PassPredictor#getDownlinkFreq}
+     * @throws IllegalArgumentException if the time is outside the model
+     */
+    public long getDownlinkFreq(final long frequency, final long epochMillis) throws IllegalArgumentException {
+        return (long)((double)frequency * (SPEED_OF_LIGHT - getRangeRate(epochMillis) * 1000.0) / SPEED_OF_LIGHT);
+    }
+
+    /**
+     * @param frequency the frequency wanted at the satellite, Hz
+     * @param epochMillis the time, milliseconds since 1970
+     * @return the frequency to transmit, Hz, as {@link PassPredictor#getUplinkFreq}
+     * @throws IllegalArgumentException if the time is outside the model
+     */
+    public long getUplinkFreq(final long frequency, final long epochMillis) throws IllegalArgumentException {
+        return (long)((double)frequency * (SPEED_OF_LIGHT + getRangeRate(epochMillis) * 1000.0) / SPEED_OF_LIGHT);
+    }
+
+    /**
+     * @return the largest range rate error found when checking the fit, km/s
+     */
+    public double getErrorBound() {
+        return errorBound;
+    }
+
+    /**
+     * @param frequency the frequency, Hz
+     * @return the error bound as a frequency error at the given frequency, Hz
+     */
+    public double getErrorBoundHz(final long frequency) {
+        return frequency * errorBound * 1000.0 / SPEED_OF_LIGHT;
+    }
+
+    /**
+     * @return the start of the model, milliseconds since 1970
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * @return the end of the model, milliseconds since 1970
+     */
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    /**
+     * @return the number of segments
+     */
+    public int getSegmentCount() {
+        return segmentStarts.length;
+    }
+
+    /**
+     * @return the number of propagations used to build the model
+     */
+    public int getPropagationCount() {
+        return propagationCount;
+    }
+
+    /**
+     * Sums a Chebyshev series by Clenshaw's recurrence. The first coefficient is already halved.
+     */
+    private static double evaluate(final double[] c, final int offset, final double x) {
+        final double twoX = 2.0 * x;
+        double b1 = 0.0;
+        double b2 = 0.0;
+
+        for (int j = DEGREE; j >= 1; j--) {
+            final double b0 = twoX * b1 - b2 + c[offset + j];
+            b2 = b1;
+            b1 = b0;
+        }
+
+        return x * b1 - b2 + c[offset];
+    }
+
+    /**
+     * Builds the segments, halving any which do not meet the tolerance.
+     */
+    private static final class Fitter {
+
+        private final Satellite satellite;
+        private final GroundStationPosition gsPos;
+        private final double tolerance;
+
+        private final long[] nodeTimes = new long[NODES];
+        private final long[] checkTimes = new long[NODES + 1];
+        private final double[] nodeValues = new double[NODES];
+        private final double[] checkValues = new double[NODES + 1];
+        private final double[] fitted = new double[NODES];
+        private final EphemerisColumns nodeColumns = new EphemerisColumns();
+        private final EphemerisColumns checkColumns = new EphemerisColumns();
+
+        private long[] starts = new long[8];
+        private double[] coefficients = new double[8 * NODES];
+        private int segments;
+        private double errorBound;
+        private int propagationCount;
+
+        Fitter(final Satellite satellite, final GroundStationPosition gsPos, final double tolerance) {
+            this.satellite = satellite;
+            this.gsPos = gsPos;
+            this.tolerance = tolerance;
+            nodeColumns.setLookAngles(null, null, null, nodeValues);
+            checkColumns.setLookAngles(null, null, null, checkValues);
+        }
+
+        /**
+         * Fits [start, end], in time order, so that the segment starts come out sorted.
+         *
+         * @param parentError the error of the segment this one was halved from
+         */
+        void fit(final long start, final long end, final double parentError) {
+
+            final double mid = 0.5 * (start + end);
+            final double half = 0.5 * (end - start);
+
+            for (int k = 0; k < NODES; k++) {
+                nodeTimes[k] = Math.round(mid + half * NODE_X[k]);
+            }
+            satellite.calculatePositions(nodeTimes, gsPos, nodeColumns);
+
+            /* Interpolate the node values */
+            for (int j = 0; j < NODES; j++) {
+                double sum = 0.0;
+                for (int k = 0; k < NODES; k++) {
+                    sum += nodeValues[k] * Math.cos(Math.PI * j * (k + 0.5) / NODES);
+                }
+                fitted[j] = 2.0 * sum / NODES;
+            }
+            fitted[0] *= 0.5;
+
+            /* Check between the nodes */
+            for (int k = 0; k < CHECK_X.length; k++) {
+                checkTimes[k] = Math.round(mid + half * CHECK_X[k]);
+            }
+            satellite.calculatePositions(checkTimes, gsPos, checkColumns);
+            propagationCount += NODES + CHECK_X.length;
+
+            double error = 0.0;
+            for (int k = 0; k < CHECK_X.length; k++) {
+                final double x = (checkTimes[k] - mid) / half;
+                error = Math.max(error, Math.abs(DopplerModel.evaluate(fitted, 0, x) - checkValues[k]));
+            }
+
+            if (error > tolerance && error < 0.5 * parentError && end - start >= 2 * MINIMUM_SEGMENT_MILLIS) {
+                final long split = start + (end - start) / 2;
+                fit(start, split, error);
+                fit(split, end, error);
+                return;
+            }
+
+            if (segments == starts.length) {
+                starts = Arrays.copyOf(starts, segments * 2);
+                coefficients = Arrays.copyOf(coefficients, segments * 2 * NODES);
+            }
+
+            starts[segments] = start;
+            System.arraycopy(fitted, 0, coefficients, segments * NODES, NODES);
+            segments++;
+            errorBound = Math.max(errorBound, error);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+/**
+ * Doppler corrected uplink and downlink frequencies for a set of transponder frequencies at evenly
+ * spaced times. The range rate is worked out once per sample and shared by every frequency.
+ *
+ * The arrays returned by the getters are the table's own, not copies.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class DopplerTable {
+
+    private static final double SPEED_OF_LIGHT = 2.99792458E8;
+
+    private final long[] times;
+    private final double[] rangeRate;
+    private final long[] frequencies;
+    private final long[][] downlink;
+    private final long[][] uplink;
+
+    private DopplerTable(final long[] times, final double[] rangeRate, final long[] frequencies) {
+        this.times = times;
+        this.rangeRate = rangeRate;
+        this.frequencies = frequencies;
+        this.downlink = new long[frequencies.length][];
+        this.uplink = new long[frequencies.length][];
+
+        for (int f = 0; f < frequencies.length; f++) {
+            downlink[f] = new long[times.length];
+            uplink[f] = new long[times.length];
+            DopplerTable.fillDownlink(rangeRate, times.length, frequencies[f], downlink[f]);
+            DopplerTable.fillUplink(rangeRate, times.length, frequencies[f], uplink[f]);
+        }
+    }
+
+    /**
+     * Calculates the table from start to end inclusive. One propagation is done per sample and the
+     * eclipse is not calculated.
+     *
+     * @param satellite the satellite
+     * @param gsPos the ground station
+     * @param startMillis the time of the first sample, milliseconds since 1970
+     * @param endMillis the latest time to sample, milliseconds since 1970
+     * @param stepMillis the time between samples, milliseconds
+     * @param frequencies the transponder frequencies, Hz
+     * @return the table
+     * @throws IllegalArgumentException if the step is not positive, the end is before the start
+     *             or there are too many samples
+     */
+    public static DopplerTable calculate(final Satellite satellite, final GroundStationPosition gsPos,
+            final long startMillis, final long endMillis, final long stepMillis, final long... frequencies)
+            throws IllegalArgumentException {
+
+        if (stepMillis <= 0) {
+            throw new IllegalArgumentException("Step must be positive: " + stepMillis);
+        }
+        if (endMillis < startMillis) {
+            throw new IllegalArgumentException("End is before start");
+        }
+        if (null == frequencies) {
+            throw new IllegalArgumentException("Frequencies have not been set");
+        }
+
+        final long samples = (endMillis - startMillis) / stepMillis + 1;
+
+        if (samples > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many samples: " + samples);
+        }
+
+        final int count = (int)samples;
+        final long[] times = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            times[i] = startMillis + i * stepMillis;
+        }
+
+        final double[] rangeRate = new double[count];
+        final EphemerisColumns columns = new EphemerisColumns();
+        columns.setLookAngles(null, null, null, rangeRate);
+
+        satellite.calculatePositions(startMillis, stepMillis, count, gsPos, columns);
+
+        return new DopplerTable(times, rangeRate, frequencies.clone());
+    }
+
+    /**
+     * Fills a column with the downlink frequency, as received on the ground, for each range rate.
+     * The results are the same as {@link PassPredictor#getDownlinkFreq(Long, java.util.Date)}.
+     *
+     * @param rangeRate the range rates, km/s
+     * @param count the number of samples
+     * @param frequency the transmitted frequency, Hz
+     * @param out the column to fill, from index 0
+     * @throws IllegalArgumentException if a column is shorter than count
+     */
+    public static void fillDownlink(final double[] rangeRate, final int count, final long frequency,
+            final long[] out) throws IllegalArgumentException {
+
+        DopplerTable.checkLength(rangeRate.length, count);
+        DopplerTable.checkLength(out.length, count);
+
+        for (int i = 0; i < count; i++) {
+            out[i] = (long)((double)frequency * (SPEED_OF_LIGHT - rangeRate[i] * 1000.0) / SPEED_OF_LIGHT);
+        }
+    }
+
+    /**
+     * Fills a column with the uplink frequency to transmit, so that it arrives at the satellite on
+     * the given frequency, for each range rate. The results are the same as
+     * {@link PassPredictor#getUplinkFreq(Long, java.util.Date)}.
+     *
+     * @param rangeRate the range rates, km/s
+     * @param count the number of samples
+     * @param frequency the frequency wanted at the satellite, Hz
+     * @param out the column to fill, from index 0
+     * @throws IllegalArgumentException if a column is shorter than count
+     */
+    public static void fillUplink(final double[] rangeRate, final int count, final long frequency,
+            final long[] out) throws IllegalArgumentException {
+
+        DopplerTable.checkLength(rangeRate.length, count);
+        DopplerTable.checkLength(out.length, count);
+
+        for (int i = 0; i < count; i++) {
+            out[i] = (long)((double)frequency * (SPEED_OF_LIGHT + rangeRate[i] * 1000.0) / SPEED_OF_LIGHT);
+        }
+    }
+
+    private static void checkLength(final int length, final int count) {
+        if (length < count) {
+            throw new IllegalArgumentException("Column holds " + length + " samples, " + count + " required");
+        }
+    }
+
+    /**
+     * @return the number of samples
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * @return the sample times, milliseconds since 1970
+     */
+    public long[] getTimes() {
+        return times;
+    }
+
+    /**
+     * @return the range rate at each sample, km/s
+     */
+    public double[] getRangeRate() {
+        return rangeRate;
+    }
+
+    /**
+     * @return the transponder frequencies, Hz, in the order of the tables
+     */
+    public long[] getFrequencies() {
+        return frequencies;
+    }
+
+    /**
+     * @param index the index of the frequency
+     * @return the downlink frequency at each sample, Hz
+     */
+    public long[] getDownlink(final int index) {
+        return downlink[index];
+    }
+
+    /**
+     * @param index the index of the frequency
+     * @return the uplink frequency at each sample, Hz
+     */
+    public long[] getUplink(final int index) {
+        return uplink[index];
+    }
+}
@@ -0,0 +1,339 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds when a satellite is in the earth's shadow, using the conical shadow model behind the
+ * eclipse flag of {@link SatPos}, and how much of each orbit it spends in sunlight.
+ *
+ * Two switching functions are followed: the umbra depth, which is the eclipse depth of
+ * {@link AbstractSatellite}, and the penumbra depth, the same angle with the sun's disc on the
+ * other side. Only the satellite's ECI position is propagated, and the sun's position comes from
+ * a {@link SunModel} built once for the window. The sweep steps by the time a depth needs to reach
+ * zero at the satellite's perigee angular rate, so it moves quickly through sunlight and shadow
+ * and slowly near their edges. Each change of sign is refined to {@link #TOLERANCE_MILLIS} by the
+ * Illinois method.
+ *
+ * A finder is not thread safe.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class EclipseFinder {
+
+    /** The accuracy to which transitions are found. */
+    public static final long TOLERANCE_MILLIS = 100L;
+
+    /** Allows for the earth's apparent radius changing with height. */
+    private static final double RATE_MARGIN = 1.5;
+    private static final int MAX_ITERATIONS = 50;
+
+    private final AbstractSatellite satellite;
+    private final PropagationState state = new PropagationState();
+    private final long periodMillis;
+    private final long maximumStepMillis;
+    private final double rate;
+
+    private SunModel sun;
+    private double umbraDepth;
+    private double penumbraDepth;
+    private int propagationCount;
+
+    /**
+     * @param satellite a satellite made by {@link SatelliteFactory}
+     * @throws IllegalArgumentException if the satellite was not made by {@link SatelliteFactory}
+     */
+    public EclipseFinder(final Satellite satellite) throws IllegalArgumentException {
+        if (!(satellite instanceof AbstractSatellite)) {
+            throw new IllegalArgumentException("Satellite was not created by SatelliteFactory");
+        }
+
+        this.satellite = (AbstractSatellite)satellite;
+        this.periodMillis = EventFinder.getPeriodMillis(satellite);
+        this.maximumStepMillis = Math.max(EventFinder.MINIMUM_STEP_MILLIS, periodMillis / 4);
+        this.rate = EventFinder.getPerigeeRate(satellite.getTLE()) * RATE_MARGIN;
+    }
+
+    /**
+     * Finds the passages through the earth's shadow between two times.
+     *
+     * @param startMillis the start, milliseconds since 1970
+     * @param endMillis the end, milliseconds since 1970
+     * @return the intervals, in time order
+     * @throws IllegalArgumentException if the end is before the start
+     */
+    public List<EclipseInterval> findEclipses(final long startMillis, final long endMillis)
+            throws IllegalArgumentException {
+
+        if (endMillis < startMillis) {
+            throw new IllegalArgumentException("End is before start");
+        }
+
+        sun = new SunModel(AbstractSatellite.julianDate(startMillis), AbstractSatellite.julianDate(endMillis));
+
+        final List<EclipseInterval> eclipses = new ArrayList<EclipseInterval>();
+
+        long time = startMillis;
+        evaluate(time);
+        double umbra = umbraDepth;
+        double penumbra = penumbraDepth;
+
+        long penumbraEntry = startMillis;
+        long umbraEntry = startMillis;
+        long umbraExit = startMillis;
+        boolean inPenumbra = penumbra > 0.0;
+        boolean hadUmbra = umbra > 0.0;
+
+        while (time < endMillis) {
+            final long step = getStepMillis(umbra, penumbra);
+            final long next = step >= endMillis - time ? endMillis : time + step;
+
+            evaluate(next);
+            final double nextUmbra = umbraDepth;
+            final double nextPenumbra = penumbraDepth;
+
+            final boolean penumbraChanged = (penumbra > 0.0) != (nextPenumbra > 0.0);
+            final boolean umbraChanged = (umbra > 0.0) != (nextUmbra > 0.0);
+
+            if (nextPenumbra > 0.0 && penumbraChanged) {
+                /* Entering, the penumbra first */
+                inPenumbra = true;
+                hadUmbra = false;
+                penumbraEntry = findTransition(false, time, penumbra, next, nextPenumbra);
+            }
+
+            if (umbraChanged) {
+                final long transition = findTransition(true, time, umbra, next, nextUmbra);
+
+                if (nextUmbra > 0.0) {
+                    hadUmbra = true;
+                    umbraEntry = transition;
+                }
+                else {
+                    umbraExit = transition;
+                }
+            }
+
+            if (nextPenumbra <= 0.0 && penumbraChanged) {
+                /* Leaving, the umbra first */
+                final long penumbraExit = findTransition(false, time, penumbra, next, nextPenumbra);
+                eclipses.add(new EclipseInterval(penumbraEntry, umbraEntry, umbraExit, penumbraExit, hadUmbra));
+                inPenumbra = false;
+                hadUmbra = false;
+            }
+
+            umbra = nextUmbra;
+            penumbra = nextPenumbra;
+            time = next;
+        }
+
+        if (inPenumbra) {
+            eclipses.add(new EclipseInterval(penumbraEntry, umbraEntry, umbra > 0.0 ? endMillis : umbraExit,
+                    endMillis, hadUmbra));
+        }
+
+        return eclipses;
+    }
+
+    /**
+     * Works out the fraction of the time between two times for which the satellite is lit,
+     * counting the time in the penumbra as half lit.
+     *
+     * @param startMillis the start, milliseconds since 1970
+     * @param endMillis the end, milliseconds since 1970, after the start
+     * @return the illumination fraction, from 0 to 1
+     * @throws IllegalArgumentException if the end is not after the start
+     */
+    public double getIlluminationFraction(final long startMillis, final long endMillis)
+            throws IllegalArgumentException {
+
+        if (endMillis <= startMillis) {
+            throw new IllegalArgumentException("End must be after start");
+        }
+
+        return EclipseFinder.illuminationFraction(findEclipses(startMillis, endMillis), startMillis, endMillis);
+    }
+
+    /**
+     * Works out the illumination fraction of each of a number of consecutive orbits, with one
+     * search over them all.
+     *
+     * @param startMillis the start of the first orbit, milliseconds since 1970
+     * @param orbits the number of orbits
+     * @return the illumination fraction of each orbit, from 0 to 1
+     * @throws IllegalArgumentException if the number of orbits is not positive
+     */
+    public double[] getOrbitIlluminationFractions(final long startMillis, final int orbits)
+            throws IllegalArgumentException {
+
+        if (orbits <= 0) {
+            throw new IllegalArgumentException("Number of orbits must be positive: " + orbits);
+        }
+
+        final List<EclipseInterval> eclipses = findEclipses(startMillis, startMillis + orbits * periodMillis);
+        final double[] fractions = new double[orbits];
+
+        for (int i = 0; i < orbits; i++) {
+            final long start = startMillis + i * periodMillis;
+            fractions[i] = EclipseFinder.illuminationFraction(eclipses, start, start + periodMillis);
+        }
+
+        return fractions;
+    }
+
+    /**
+     * @return the satellite's period, milliseconds, which is the length of the orbits of
+     *         {@link #getOrbitIlluminationFractions(long, int)}
+     */
+    public long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    /**
+     * @return the number of propagations done by this finder
+     */
+    public int getPropagationCount() {
+        return propagationCount;
+    }
+
+    private static double illuminationFraction(final List<EclipseInterval> eclipses,
+            final long startMillis, final long endMillis) {
+
+        double dark = 0.0;
+
+        for (final EclipseInterval eclipse : eclipses) {
+            final long penumbra = EclipseFinder.overlap(eclipse.getPenumbraEntry(), eclipse.getPenumbraExit(),
+                    startMillis, endMillis);
+
+            if (eclipse.hasUmbra()) {
+                final long umbra = EclipseFinder.overlap(eclipse.getUmbraEntry(), eclipse.getUmbraExit(),
+                        startMillis, endMillis);
+                dark += umbra + 0.5 * (penumbra - umbra);
+            }
+            else {
+                dark += 0.5 * penumbra;
+            }
+        }
+
+        return 1.0 - dark / (endMillis - startMillis);
+    }
+
+    private static long overlap(final long from, final long to, final long startMillis, final long endMillis) {
+        return Math.max(0L, Math.min(to, endMillis) - Math.max(from, startMillis));
+    }
+
+    /**
+     * Works out how long the depths must keep their signs. Within the penumbra band the sweep
+     * takes its shortest step.
+     */
+    private long getStepMillis(final double umbra, final double penumbra) {
+        final double distance = penumbra <= 0.0 ? -penumbra : umbra > 0.0 ? umbra : 0.0;
+        return EventFinder.quietMillis(distance, rate, maximumStepMillis);
+    }
+
+    /**
+     * Refines a change of sign of one of the depths by the Illinois method.
+     *
+     * @param umbraFunction whether to follow the umbra depth rather than the penumbra depth
+     * @return the first time found on the far side of the change
+     */
+    private long findTransition(final boolean umbraFunction, final long lower, final double lowerValue,
+            final long upper, final double upperValue) {
+
+        long a = lower;
+        double fa = lowerValue;
+        long b = upper;
+        double fb = upperValue;
+        int side = 0;
+
+        for (int i = 0; i < MAX_ITERATIONS && b - a > TOLERANCE_MILLIS; i++) {
+            long c = a + Math.round((b - a) * fa / (fa - fb));
+
+            if (c <= a || c >= b) {
+                c = a + (b - a) / 2;
+            }
+
+            evaluate(c);
+            final double fc = umbraFunction ? umbraDepth : penumbraDepth;
+
+            if ((fc > 0.0) == (fb > 0.0)) {
+                b = c;
+                fb = fc;
+                if (side == -1) {
+                    fa /= 2.0;
+                }
+                side = -1;
+            }
+            else {
+                a = c;
+                fa = fc;
+                if (side == 1) {
+                    fb /= 2.0;
+                }
+                side = 1;
+            }
+        }
+
+        return b;
+    }
+
+    /**
+     * Propagates the satellite and works out both depths.
+     */
+    private void evaluate(final long time) {
+        propagationCount++;
+
+        AbstractSatellite.setTime(time, state);
+        satellite.propagate(state);
+        sun.getSun(state.julUTC, state.sun);
+
+        final double sdEarth = AbstractSatellite.earthSemiDiameter(state.position);
+        final double sdSun = AbstractSatellite.sunSemiDiameter(state.position, state.sun);
+        final double delta = AbstractSatellite.sunEarthAngle(state.position, state.sun);
+
+        umbraDepth = sdEarth - sdSun - delta;
+        penumbraDepth = sdEarth + sdSun - delta;
+    }
+}
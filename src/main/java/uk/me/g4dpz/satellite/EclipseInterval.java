@@ -0,0 +1,142 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.Date;
+
+/**
+ * One passage of a satellite through the earth's shadow: into the penumbra, possibly into and out
+ * of the umbra, and out of the penumbra. An interval which was already under way at the start of a
+ * search, or still under way at its end, is cut off there.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class EclipseInterval {
+
+    private final long penumbraEntry;
+    private final long umbraEntry;
+    private final long umbraExit;
+    private final long penumbraExit;
+    private final boolean umbra;
+
+    /**
+     * @param penumbraEntry the time of entering the penumbra, milliseconds since 1970
+     * @param umbraEntry the time of entering the umbra, ignored if there is no umbra
+     * @param umbraExit the time of leaving the umbra, ignored if there is no umbra
+     * @param penumbraExit the time of leaving the penumbra
+     * @param umbra whether the satellite entered the umbra
+     */
+    EclipseInterval(final long penumbraEntry, final long umbraEntry, final long umbraExit,
+            final long penumbraExit, final boolean umbra) {
+        this.penumbraEntry = penumbraEntry;
+        this.umbraEntry = umbra ? umbraEntry : penumbraEntry;
+        this.umbraExit = umbra ? umbraExit : penumbraEntry;
+        this.penumbraExit = penumbraExit;
+        this.umbra = umbra;
+    }
+
+    /**
+     * @return the time of entering the penumbra, milliseconds since 1970
+     */
+    public long getPenumbraEntry() {
+        return penumbraEntry;
+    }
+
+    /**
+     * @return the time of entering the umbra, milliseconds since 1970
+     * @throws IllegalStateException if the satellite did not enter the umbra
+     */
+    public long getUmbraEntry() {
+        checkUmbra();
+        return umbraEntry;
+    }
+
+    /**
+     * @return the time of leaving the umbra, milliseconds since 1970
+     * @throws IllegalStateException if the satellite did not enter the umbra
+     */
+    public long getUmbraExit() {
+        checkUmbra();
+        return umbraExit;
+    }
+
+    /**
+     * @return the time of leaving the penumbra, milliseconds since 1970
+     */
+    public long getPenumbraExit() {
+        return penumbraExit;
+    }
+
+    /**
+     * @return whether the satellite entered the umbra, rather than only the penumbra
+     */
+    public boolean hasUmbra() {
+        return umbra;
+    }
+
+    /**
+     * @return the time spent in the umbra, milliseconds
+     */
+    public long getUmbraMillis() {
+        return umbraExit - umbraEntry;
+    }
+
+    /**
+     * @return the time spent in the penumbra but not the umbra, milliseconds
+     */
+    public long getPenumbraMillis() {
+        return penumbraExit - penumbraEntry - getUmbraMillis();
+    }
+
+    private void checkUmbra() {
+        if (!umbra) {
+            throw new IllegalStateException("The satellite did not enter the umbra");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Penumbra " + new Date(penumbraEntry) + " to " + new Date(penumbraExit)
+                + (umbra ? ", umbra " + new Date(umbraEntry) + " to " + new Date(umbraExit) : ", no umbra");
+    }
+}
@@ -0,0 +1,105 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+/**
+ * Detects the satellite rising above and setting below an elevation mask, that is AOS (rising)
+ * and LOS (falling). Spans in which the satellite cannot be seen are stepped over using
+ * {@link VisibilityFilter}, as {@link PassFinder} does.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class ElevationDetector implements EventDetector {
+
+    private final double mask;
+
+    private VisibilityFilter filter;
+    private long stepMillis;
+
+    /**
+     * Creates a detector for the geometric horizon.
+     */
+    public ElevationDetector() {
+        this(0.0);
+    }
+
+    /**
+     * @param maskDegrees the elevation mask, degrees, not below the horizon
+     * @throws IllegalArgumentException if the mask is below the horizon
+     */
+    public ElevationDetector(final double maskDegrees) throws IllegalArgumentException {
+        if (!(maskDegrees >= 0.0 && maskDegrees < 90.0)) {
+            throw new IllegalArgumentException("Mask must be from 0 to 90 degrees: " + maskDegrees);
+        }
+        this.mask = maskDegrees * AbstractSatellite.DEG2RAD;
+    }
+
+    @Override
+    public void init(final Satellite satellite, final GroundStationPosition gsPos) {
+        if (satellite.willBeSeen(gsPos)) {
+            filter = new VisibilityFilter(satellite.getTLE(), gsPos.getObserver());
+            stepMillis = Math.max(EventFinder.MINIMUM_STEP_MILLIS, EventFinder.getPeriodMillis(satellite) / 16);
+        }
+        else {
+            filter = null;
+        }
+    }
+
+    @Override
+    public double getValue(final SatPos satPos) {
+        return satPos.getElevation() - mask;
+    }
+
+    @Override
+    public long getStepMillis(final SatPos satPos, final double value) {
+        if (filter == null) {
+            return Long.MAX_VALUE;
+        }
+        else if (value > 0.0) {
+            return stepMillis;
+        }
+        else {
+            return Math.max(EventFinder.MINIMUM_STEP_MILLIS, filter.getInvisibleMillis(satPos));
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+/**
+ * Caller-supplied primitive columns for the batch propagation methods of {@link Satellite}.
+ *
+ * Each column is a plain double[] with one entry per sample. A column which is left null is not
+ * calculated, so a caller who only needs, say, the ECI position pays for nothing else. Units follow
+ * {@link SatPos}: angles are in radians, distances in km and velocities in km/s.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class EphemerisColumns {
+
+    private double[] positionX;
+    private double[] positionY;
+    private double[] positionZ;
+    private double[] velocityX;
+    private double[] velocityY;
+    private double[] velocityZ;
+
+    private double[] latitude;
+    private double[] longitude;
+    private double[] altitude;
+
+    private double[] azimuth;
+    private double[] elevation;
+    private double[] range;
+    private double[] rangeRate;
+
+    /**
+     * Creates a set of columns with nothing selected. Use the setters to supply the arrays.
+     */
+    public EphemerisColumns() {
+    }
+
+    /**
+     * Creates a set of columns with the ECI and geodetic columns allocated, and optionally the look
+     * angle columns.
+     *
+     * @param size the number of samples each column must hold
+     * @param lookAngles whether to allocate the azimuth, elevation, range and range rate columns
+     */
+    public EphemerisColumns(final int size, final boolean lookAngles) {
+        setEci(new double[size], new double[size], new double[size],
+                new double[size], new double[size], new double[size]);
+        setGeodetic(new double[size], new double[size], new double[size]);
+
+        if (lookAngles) {
+            setLookAngles(new double[size], new double[size], new double[size], new double[size]);
+        }
+    }
+
+    /**
+     * Sets the ECI position (km) and velocity (km/s) columns. Any of them may be null.
+     *
+     * @param x the X position column
+     * @param y the Y position column
+     * @param z the Z position column
+     * @param vx the X velocity column
+     * @param vy the Y velocity column
+     * @param vz the Z velocity column
+     */
+    public void setEci(final double[] x, final double[] y, final double[] z,
+            final double[] vx, final double[] vy, final double[] vz) {
+        this.positionX = x;
+        this.positionY = y;
+        this.positionZ = z;
+        this.velocityX = vx;
+        this.velocityY = vy;
+        this.velocityZ = vz;
+    }
+
+    /**
+     * Sets the sub satellite point columns. Any of them may be null.
+     *
+     * @param lat the latitude column, radians
+     * @param lon the longitude column, radians east
+     * @param alt the altitude column, km
+     */
+    public void setGeodetic(final double[] lat, final double[] lon, final double[] alt) {
+        this.latitude = lat;
+        this.longitude = lon;
+        this.altitude = alt;
+    }
+
+    /**
+     * Sets the look angle columns, as seen from the ground station passed to the batch call. Any
+     * of them may be null.
+     *
+     * @param az the azimuth column, radians
+     * @param el the elevation column, radians
+     * @param rng the range column, km
+     * @param rngRate the range rate column, km/s
+     */
+    public void setLookAngles(final double[] az, final double[] el, final double[] rng,
+            final double[] rngRate) {
+        this.azimuth = az;
+        this.elevation = el;
+        this.range = rng;
+        this.rangeRate = rngRate;
+    }
+
+    /**
+     * @return the ECI X position column, km
+     */
+    public double[] getPositionX() {
+        return positionX;
+    }
+
+    /**
+     * @return the ECI Y position column, km
+     */
+    public double[] getPositionY() {
+        return positionY;
+    }
+
+    /**
+     * @return the ECI Z position column, km
+     */
+    public double[] getPositionZ() {
+        return positionZ;
+    }
+
+    /**
+     * @return the ECI X velocity column, km/s
+     */
+    public double[] getVelocityX() {
+        return velocityX;
+    }
+
+    /**
+     * @return the ECI Y velocity column, km/s
+     */
+    public double[] getVelocityY() {
+        return velocityY;
+    }
+
+    /**
+     * @return the ECI Z velocity column, km/s
+     */
+    public double[] getVelocityZ() {
+        return velocityZ;
+    }
+
+    /**
+     * @return the latitude column, radians
+     */
+    public double[] getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * @return the longitude column, radians
+     */
+    public double[] getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * @return the altitude column, km
+     */
+    public double[] getAltitude() {
+        return altitude;
+    }
+
+    /**
+     * @return the azimuth column, radians
+     */
+    public double[] getAzimuth() {
+        return azimuth;
+    }
+
+    /**
+     * @return the elevation column, radians
+     */
+    public double[] getElevation() {
+        return elevation;
+    }
+
+    /**
+     * @return the range column, km
+     */
+    public double[] getRange() {
+        return range;
+    }
+
+    /**
+     * @return the range rate column, km/s
+     */
+    public double[] getRangeRate() {
+        return rangeRate;
+    }
+
+    /**
+     * @return whether any of the sub satellite point columns is set
+     */
+    boolean hasGeodetic() {
+        return latitude != null || longitude != null || altitude != null;
+    }
+
+    /**
+     * @return whether any of the look angle columns is set
+     */
+    boolean hasLookAngles() {
+        return azimuth != null || elevation != null || range != null || rangeRate != null;
+    }
+
+    /**
+     * Checks that every column which is set can hold the samples of a batch call.
+     *
+     * @param count the number of samples
+     * @param haveGroundStation whether the batch call was given a ground station
+     * @throws IllegalArgumentException if a column is too short, or look angles were asked for
+     *             without a ground station
+     */
+    void check(final int count, final boolean haveGroundStation) throws IllegalArgumentException {
+        if (count < 0) {
+            throw new IllegalArgumentException("Sample count was negative: " + count);
+        }
+
+        if (hasLookAngles() && !haveGroundStation) {
+            throw new IllegalArgumentException("Look angle columns need a ground station");
+        }
+
+        checkLength("positionX", positionX, count);
+        checkLength("positionY", positionY, count);
+        checkLength("positionZ", positionZ, count);
+        checkLength("velocityX", velocityX, count);
+        checkLength("velocityY", velocityY, count);
+        checkLength("velocityZ", velocityZ, count);
+        checkLength("latitude", latitude, count);
+        checkLength("longitude", longitude, count);
+        checkLength("altitude", altitude, count);
+        checkLength("azimuth", azimuth, count);
+        checkLength("elevation", elevation, count);
+        checkLength("range", range, count);
+        checkLength("rangeRate", rangeRate, count);
+    }
+
+    /**
+     * Checks that a column, if it is set, can hold count samples.
+     *
+     * @param name the name of the column, for the message
+     * @param column the column, may be null
+     * @param count the number of samples
+     * @throws IllegalArgumentException if the column is too short
+     */
+    static void checkLength(final String name, final double[] column, final int count) {
+        if (column != null && column.length < count) {
+            throw new IllegalArgumentException("Column " + name + " holds " + column.length
+                    + " samples, " + count + " required");
+        }
+    }
+
+    /**
+     * Stores the sample held in the state at the given index of every column which is set.
+     *
+     * @param index the sample index
+     * @param state the state holding the propagated sample
+     */
+    void store(final int index, final PropagationState state) {
+        if (positionX != null) {
+            positionX[index] = state.position.getX();
+        }
+        if (positionY != null) {
+            positionY[index] = state.position.getY();
+        }
+        if (positionZ != null) {
+            positionZ[index] = state.position.getZ();
+        }
+        if (velocityX != null) {
+            velocityX[index] = state.velocity.getX();
+        }
+        if (velocityY != null) {
+            velocityY[index] = state.velocity.getY();
+        }
+        if (velocityZ != null) {
+            velocityZ[index] = state.velocity.getZ();
+        }
+        if (latitude != null) {
+            latitude[index] = state.latitude;
+        }
+        if (longitude != null) {
+            longitude[index] = state.longitude;
+        }
+        if (altitude != null) {
+            altitude[index] = state.altitude;
+        }
+        if (azimuth != null) {
+            azimuth[index] = state.azimuth;
+        }
+        if (elevation != null) {
+            elevation[index] = state.elevation;
+        }
+        if (range != null) {
+            range[index] = state.range.getW();
+        }
+        if (rangeRate != null) {
+            rangeRate[index] = state.rangeRate;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Finds the events of any number of {@link EventDetector}s in one sweep of a satellite's orbit.
+ *
+ * Every detector is evaluated at each step of the sweep from the same propagation. The step is the
+ * shortest that any detector asks for, so detectors which know their function is far from zero,
+ * such as {@link ElevationDetector} while the satellite is out of sight, let the sweep move
+ * quickly. A change of sign between two steps is refined to {@link #TOLERANCE_MILLIS} by the
+ * Illinois method.
+ *
+ * A finder is not thread safe.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class EventFinder {
+
+    /** The accuracy to which events are found. */
+    public static final long TOLERANCE_MILLIS = 100L;
+
+    /** The shortest step the built in detectors take. */
+    static final long MINIMUM_STEP_MILLIS = 60000L;
+
+    private static final int MAX_ITERATIONS = 50;
+    private static final double MILLIS_PER_DAY = 86400000.0;
+
+    private final Satellite satellite;
+    private final GroundStationPosition groundStation;
+    private final List<EventDetector> detectors = new ArrayList<EventDetector>();
+    private final SatPos current = new SatPos();
+    private final SatPos probe = new SatPos();
+    private int propagationCount;
+
+    /**
+     * @param satellite the satellite
+     * @param gsPos the ground station, for the look angles
+     */
+    public EventFinder(final Satellite satellite, final GroundStationPosition gsPos) {
+        if (null == satellite) {
+            throw new IllegalArgumentException("Satellite has not been set");
+        }
+        if (null == gsPos) {
+            throw new IllegalArgumentException("Ground station has not been set");
+        }
+        this.satellite = satellite;
+        this.groundStation = gsPos;
+    }
+
+    /**
+     * Adds a detector to those evaluated by each search.
+     *
+     * @param detector the detector
+     * @return this finder
+     */
+    public EventFinder addDetector(final EventDetector detector) {
+        if (null == detector) {
+            throw new IllegalArgumentException("Detector has not been set");
+        }
+        detectors.add(detector);
+        return this;
+    }
+
+    /**
+     * Finds the events between two times.
+     *
+     * @param start the start of the search
+     * @param end the end of the search
+     * @return the events, in time order
+     */
+    public List<OrbitEvent> findEvents(final Date start, final Date end) {
+        return findEvents(start.getTime(), end.getTime());
+    }
+
+    /**
+     * Finds the events between two times.
+     *
+     * @param startMillis the start of the search, milliseconds since 1970
+     * @param endMillis the end of the search, milliseconds since 1970
+     * @return the events, in time order
+     * @throws IllegalArgumentException if the end is before the start
+     */
+    public List<OrbitEvent> findEvents(final long startMillis, final long endMillis)
+            throws IllegalArgumentException {
+
+        if (endMillis < startMillis) {
+            throw new IllegalArgumentException("End is before start");
+        }
+
+        final int count = detectors.size();
+        final List<OrbitEvent> events = new ArrayList<OrbitEvent>();
+
+        if (count == 0) {
+            return events;
+        }
+
+        for (final EventDetector detector : detectors) {
+            detector.init(satellite, groundStation);
+        }
+
+        final double[] before = new double[count];
+        final double[] after = new double[count];
+
+        long time = startMillis;
+        propagate(time, current);
+        evaluate(current, before);
+
+        while (time < endMillis) {
+            long step = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                step = Math.min(step, Math.max(1L, detectors.get(i).getStepMillis(current, before[i])));
+            }
+
+            final long next = step >= endMillis - time ? endMillis : time + step;
+
+            propagate(next, current);
+            evaluate(current, after);
+
+            for (int i = 0; i < count; i++) {
+                if ((before[i] > 0.0) != (after[i] > 0.0)) {
+                    events.add(findEvent(detectors.get(i), time, before[i], next, after[i]));
+                }
+            }
+
+            System.arraycopy(after, 0, before, 0, count);
+            time = next;
+        }
+
+        Collections.sort(events, new Comparator<OrbitEvent>() {
+            @Override
+            public int compare(final OrbitEvent a, final OrbitEvent b) {
+                return Long.compare(a.getTimeMillis(), b.getTimeMillis());
+            }
+        });
+
+        return events;
+    }
+
+    /**
+     * @return the number of propagations done by this finder
+     */
+    public int getPropagationCount() {
+        return propagationCount;
+    }
+
+    /**
+     * Refines a change of sign of a detector's function by the Illinois method.
+     *
+     * @return the event, at the first time found on the far side of the change
+     */
+    private OrbitEvent findEvent(final EventDetector detector, final long lower, final double lowerValue,
+            final long upper, final double upperValue) {
+
+        long a = lower;
+        double fa = lowerValue;
+        long b = upper;
+        double fb = upperValue;
+        int side = 0;
+
+        for (int i = 0; i < MAX_ITERATIONS && b - a > TOLERANCE_MILLIS; i++) {
+            long c = a + Math.round((b - a) * fa / (fa - fb));
+
+            if (c <= a || c >= b) {
+                c = a + (b - a) / 2;
+            }
+
+            propagate(c, probe);
+            final double fc = detector.getValue(probe);
+
+            if ((fc > 0.0) == (fb > 0.0)) {
+                b = c;
+                fb = fc;
+                if (side == -1) {
+                    fa /= 2.0;
+                }
+                side = -1;
+            }
+            else {
+                a = c;
+                fa = fc;
+                if (side == 1) {
+                    fb /= 2.0;
+                }
+                side = 1;
+            }
+        }
+
+        final SatPos position = new SatPos();
+        propagate(b, position);
+
+        return new OrbitEvent(detector, b, upperValue > 0.0, position);
+    }
+
+    private void propagate(final long time, final SatPos satPos) {
+        propagationCount++;
+        satellite.getPosition(groundStation, time, satPos);
+    }
+
+    private void evaluate(final SatPos satPos, final double[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = detectors.get(i).getValue(satPos);
+        }
+    }
+
+    /**
+     * @param satellite the satellite
+     * @return the satellite's period, milliseconds
+     */
+    static long getPeriodMillis(final Satellite satellite) {
+        return (long)(MILLIS_PER_DAY / satellite.getTLE().getMeanmo());
+    }
+
+    /**
+     * @param tle the satellite's elements
+     * @return the satellite's angular rate at perigee, radians per millisecond
+     */
+    static double getPerigeeRate(final TLE tle) {
+        final double eccentricity = tle.getEccn();
+        final double meanMotion = tle.getMeanmo() * AbstractSatellite.TWO_PI / MILLIS_PER_DAY;
+        return meanMotion * (1.0 + eccentricity) * (1.0 + eccentricity)
+                / Math.pow(1.0 - eccentricity * eccentricity, 1.5);
+    }
+
+    /**
+     * Works out how long an angle which changes no faster than a given rate must keep its sign.
+     *
+     * @param value the angle, radians
+     * @param rate the greatest rate of change, radians per millisecond
+     * @param maximumStepMillis the longest step to return
+     * @return the step, milliseconds, at least {@link #MINIMUM_STEP_MILLIS}
+     */
+    static long quietMillis(final double value, final double rate, final long maximumStepMillis) {
+        final double quiet = Math.abs(value) / rate;
+        return Math.max(MINIMUM_STEP_MILLIS, Math.min(maximumStepMillis, (long)quiet));
+    }
+}
@@ -54,6 +54,8 @@ public class GroundStationPosition {
     private double theta;
     private final int[] horizonElevations = new int[36];
     private String name;
+    /** The precomputed form of this ground station, made when first needed. */
+    private transient volatile Observer observer;
 
     /**
      * @param latitude the latitue of the ground station in degrees, North: positive
@@ -146,6 +148,24 @@ public class GroundStationPosition {
         }
 
         System.arraycopy(theHorizonElevations, 0, this.horizonElevations, 0, theHorizonElevations.length);
+        observer = null;
+    }
+
+    /**
+     * Gets the precomputed form of this ground station used by the satellite calculations. It is
+     * made on first use and kept until the horizon elevations are changed.
+     *
+     * @return the observer
+     */
+    public final Observer getObserver() {
+        Observer result = observer;
+
+        if (result == null) {
+            result = new Observer(this);
+            observer = result;
+        }
+
+        return result;
     }
 
     /**
@@ -0,0 +1,395 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * A track of satellite positions held as primitive columns rather than a List of {@link SatPos}.
+ * The times are a long[] of milliseconds since 1970, the horizon and eclipse flags are bit sets and
+ * each {@link Column} is a double[], or a float[] in float precision mode, which halves the size at
+ * the cost of about 7 significant figures. Angles are in radians, distances in km and velocities
+ * in km/s, as {@link SatPos}.
+ *
+ * A track grows as samples are added. {@link #view(int, int)} gives a read only track over a range
+ * of samples which shares the arrays, so nothing is copied.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class GroundTrack {
+
+    /**
+     * The columns held for each sample, besides the time and the eclipse flag.
+     */
+    public enum Column {
+        AZIMUTH,
+        ELEVATION,
+        LATITUDE,
+        LONGITUDE,
+        ALTITUDE,
+        RANGE,
+        RANGE_RATE
+    }
+
+    private static final int COLUMNS = Column.values().length;
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final boolean floatPrecision;
+    private final boolean view;
+    private final int offset;
+
+    private long[] times;
+    private double[][] doubles;
+    private float[][] floats;
+    private long[] aboveHorizon;
+    private long[] eclipsed;
+    private int size;
+
+    /**
+     * Creates an empty track.
+     *
+     * @param capacity the number of samples to make room for
+     * @param floatPrecision whether to hold the columns as float rather than double
+     */
+    public GroundTrack(final int capacity, final boolean floatPrecision) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity was negative: " + capacity);
+        }
+
+        this.floatPrecision = floatPrecision;
+        this.view = false;
+        this.offset = 0;
+        this.times = new long[capacity];
+        this.aboveHorizon = new long[(capacity + 63) >>> 6];
+        this.eclipsed = new long[(capacity + 63) >>> 6];
+
+        if (floatPrecision) {
+            floats = new float[COLUMNS][capacity];
+        }
+        else {
+            doubles = new double[COLUMNS][capacity];
+        }
+    }
+
+    private GroundTrack(final GroundTrack parent, final int from, final int to) {
+        this.floatPrecision = parent.floatPrecision;
+        this.view = true;
+        this.offset = parent.offset + from;
+        this.times = parent.times;
+        this.doubles = parent.doubles;
+        this.floats = parent.floats;
+        this.aboveHorizon = parent.aboveHorizon;
+        this.eclipsed = parent.eclipsed;
+        this.size = to - from;
+    }
+
+    /**
+     * Propagates a satellite to count evenly spaced times. One {@link SatPos} is reused for every
+     * sample, so nothing is allocated per sample.
+     *
+     * @param satellite the satellite
+     * @param gsPos the ground station for the look angles
+     * @param startMillis the time of the first sample, milliseconds since 1970
+     * @param stepMillis the time between samples, milliseconds
+     * @param count the number of samples
+     * @param floatPrecision whether to hold the columns as float rather than double
+     * @return the track
+     */
+    public static GroundTrack calculate(final Satellite satellite, final GroundStationPosition gsPos,
+            final long startMillis, final long stepMillis, final int count, final boolean floatPrecision) {
+
+        final GroundTrack track = new GroundTrack(count, floatPrecision);
+        final SatPos satPos = new SatPos();
+
+        for (int i = 0; i < count; i++) {
+            satellite.getPosition(gsPos, startMillis + i * stepMillis, satPos);
+            track.add(satPos);
+        }
+
+        return track;
+    }
+
+    /**
+     * Adds a sample to the end of the track.
+     *
+     * @param satPos the position to add, which is not kept
+     * @throws IllegalStateException if this is a view
+     */
+    public void add(final SatPos satPos) {
+        add(satPos.getTimeMillis(), satPos.getAzimuth(), satPos.getElevation(), satPos.getLatitude(),
+                satPos.getLongitude(), satPos.getAltitude(), satPos.getRange(), satPos.getRangeRate(),
+                satPos.isAboveHorizon(), satPos.isEclipsed());
+    }
+
+    /**
+     * Adds a sample to the end of the track.
+     *
+     * @param timeMillis the time, milliseconds since 1970
+     * @param azimuth the azimuth, radians
+     * @param elevation the elevation, radians
+     * @param latitude the latitude, radians
+     * @param longitude the longitude, radians
+     * @param altitude the altitude, km
+     * @param range the range, km
+     * @param rangeRate the range rate, km/s
+     * @param isAboveHorizon whether the satellite is above the ground station's horizon
+     * @param isEclipsed whether the satellite is in eclipse
+     * @throws IllegalStateException if this is a view
+     */
+    public void add(final long timeMillis, final double azimuth, final double elevation,
+            final double latitude, final double longitude, final double altitude, final double range,
+            final double rangeRate, final boolean isAboveHorizon, final boolean isEclipsed) {
+
+        if (view) {
+            throw new IllegalStateException("A view cannot be added to");
+        }
+
+        if (size == times.length) {
+            grow();
+        }
+
+        times[size] = timeMillis;
+        set(Column.AZIMUTH, azimuth);
+        set(Column.ELEVATION, elevation);
+        set(Column.LATITUDE, latitude);
+        set(Column.LONGITUDE, longitude);
+        set(Column.ALTITUDE, altitude);
+        set(Column.RANGE, range);
+        set(Column.RANGE_RATE, rangeRate);
+
+        GroundTrack.setBit(aboveHorizon, size, isAboveHorizon);
+        GroundTrack.setBit(eclipsed, size, isEclipsed);
+
+        size++;
+    }
+
+    private void set(final Column column, final double value) {
+        if (floatPrecision) {
+            floats[column.ordinal()][size] = (float)value;
+        }
+        else {
+            doubles[column.ordinal()][size] = value;
+        }
+    }
+
+    private static void setBit(final long[] bits, final int index, final boolean value) {
+        if (value) {
+            bits[index >>> 6] |= 1L << index;
+        }
+        else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    private static boolean getBit(final long[] bits, final int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private void grow() {
+        final int capacity = Math.max(DEFAULT_CAPACITY, times.length * 2);
+
+        times = Arrays.copyOf(times, capacity);
+        aboveHorizon = Arrays.copyOf(aboveHorizon, (capacity + 63) >>> 6);
+        eclipsed = Arrays.copyOf(eclipsed, (capacity + 63) >>> 6);
+
+        for (int c = 0; c < COLUMNS; c++) {
+            if (floatPrecision) {
+                floats[c] = Arrays.copyOf(floats[c], capacity);
+            }
+            else {
+                doubles[c] = Arrays.copyOf(doubles[c], capacity);
+            }
+        }
+    }
+
+    /**
+     * Gives a read only track over samples from (inclusive) to to (exclusive) of this one, sharing
+     * its arrays. Samples added to this track later are not seen by the view.
+     *
+     * @param from the first sample
+     * @param to one past the last sample
+     * @return the view
+     * @throws IndexOutOfBoundsException if the range is not within the track
+     */
+    public GroundTrack view(final int from, final int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("View [" + from + ", " + to + ") of " + size + " samples");
+        }
+
+        return new GroundTrack(this, from, to);
+    }
+
+    /**
+     * @return the number of samples
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return whether the columns are held as float
+     */
+    public boolean isFloatPrecision() {
+        return floatPrecision;
+    }
+
+    /**
+     * @param index the sample
+     * @return the time, milliseconds since 1970
+     */
+    public long getTimeMillis(final int index) {
+        return times[checkIndex(index)];
+    }
+
+    /**
+     * @param column the column
+     * @param index the sample
+     * @return the value
+     */
+    public double get(final Column column, final int index) {
+        final int i = checkIndex(index);
+
+        if (floatPrecision) {
+            return floats[column.ordinal()][i];
+        }
+        else {
+            return doubles[column.ordinal()][i];
+        }
+    }
+
+    /**
+     * @param index the sample
+     * @return whether the satellite is in eclipse
+     */
+    public boolean isEclipsed(final int index) {
+        return GroundTrack.getBit(eclipsed, checkIndex(index));
+    }
+
+    /**
+     * @param index the sample
+     * @return whether the satellite is above the ground station's horizon
+     */
+    public boolean isAboveHorizon(final int index) {
+        return GroundTrack.getBit(aboveHorizon, checkIndex(index));
+    }
+
+    /**
+     * @return the times, milliseconds since 1970, read straight from the array
+     */
+    public LongStream times() {
+        return Arrays.stream(times, offset, offset + size);
+    }
+
+    /**
+     * @param column the column
+     * @return the column's values, read straight from the array
+     */
+    public DoubleStream stream(final Column column) {
+        if (floatPrecision) {
+            final float[] values = floats[column.ordinal()];
+            return IntStream.range(offset, offset + size).mapToDouble(i -> values[i]);
+        }
+        else {
+            return Arrays.stream(doubles[column.ordinal()], offset, offset + size);
+        }
+    }
+
+    /**
+     * Copies the times into an array.
+     *
+     * @param dest the array to copy to
+     * @param destPos the index in dest of the first sample
+     */
+    public void copyTimes(final long[] dest, final int destPos) {
+        System.arraycopy(times, offset, dest, destPos, size);
+    }
+
+    /**
+     * Copies a column into an array.
+     *
+     * @param column the column
+     * @param dest the array to copy to
+     * @param destPos the index in dest of the first sample
+     */
+    public void copy(final Column column, final double[] dest, final int destPos) {
+        if (floatPrecision) {
+            final float[] values = floats[column.ordinal()];
+            for (int i = 0; i < size; i++) {
+                dest[destPos + i] = values[offset + i];
+            }
+        }
+        else {
+            System.arraycopy(doubles[column.ordinal()], offset, dest, destPos, size);
+        }
+    }
+
+    /**
+     * Fills a SatPos with a sample. The SatPos can be reused, so walking a track this way allocates
+     * nothing once the SatPos has been used.
+     *
+     * @param index the sample
+     * @param satPos the SatPos to fill in
+     */
+    public void getPosition(final int index, final SatPos satPos) {
+        satPos.setTime(getTimeMillis(index));
+        satPos.setAzimuth(get(Column.AZIMUTH, index));
+        satPos.setElevation(get(Column.ELEVATION, index));
+        satPos.setLatitude(get(Column.LATITUDE, index));
+        satPos.setLongitude(get(Column.LONGITUDE, index));
+        satPos.setAltitude(get(Column.ALTITUDE, index));
+        satPos.setRange(get(Column.RANGE, index));
+        satPos.setRangeRate(get(Column.RANGE_RATE, index));
+        satPos.setEclipsed(isEclipsed(index));
+        satPos.setAboveHorizon(isAboveHorizon(index));
+    }
+
+    private int checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Sample " + index + " of " + size);
+        }
+        return offset + index;
+    }
+}
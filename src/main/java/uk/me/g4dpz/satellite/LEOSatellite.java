@@ -50,169 +50,61 @@ package uk.me.g4dpz.satellite;
 public class LEOSatellite extends AbstractSatellite {
 
     private static final long serialVersionUID = 1206152575764077691L;
-    private double aodp;
-    private double aycof;
-    private double c1;
-    private double c4;
-    private double c5;
-    private double cosio;
-    private double d2;
-    private double d3;
-    private double d4;
-    private double delmo;
-    private double omgcof;
-    private double eta;
-    private double omgdot;
-    private double sinio;
-    private double xnodp;
-    private double sinmo;
-    private double t2cof;
-    private double t3cof;
-    private double t4cof;
-    private double t5cof;
-    private double x1mth2;
-    private double x3thm1;
-    private double x7thm1;
-    private double xmcof;
-    private double xmdot;
-    private double xnodcf;
-    private double xnodot;
-    private double xlcof;
-
-    private boolean sgp4Init;
-    private boolean sgp4Simple;
+
+    /** The number of SGP4 constants held by {@link #getConstants(double[])}. */
+    static final int CONSTANT_COUNT = 28;
+    /* SGP4 constants, package visible so that CatalogPropagator can pack them. */
+    final double aodp;
+    final double aycof;
+    final double c1;
+    final double c4;
+    final double c5;
+    final double cosio;
+    final double d2;
+    final double d3;
+    final double d4;
+    final double delmo;
+    final double omgcof;
+    final double eta;
+    final double omgdot;
+    final double sinio;
+    final double xnodp;
+    final double sinmo;
+    final double t2cof;
+    final double t3cof;
+    final double t4cof;
+    final double t5cof;
+    final double x1mth2;
+    final double x3thm1;
+    final double x7thm1;
+    final double xmcof;
+    final double xmdot;
+    final double xnodcf;
+    final double xnodot;
+    final double xlcof;
+
+    final boolean sgp4Simple;
 
     /**
      * Creates a Low Earth Orbit Satellite.
      *
+     * The SGP4 constants are all calculated here and never change afterwards, so a LEOSatellite
+     * can be propagated from any number of threads at once.
+     *
      * @param tle the three line elements
      */
     public LEOSatellite(final TLE tle) {
         super(tle);
-        sgp4Init();
-    }
-
-    @Override
-    protected void calculateSGP4(final double tsince) {
-
-        final double[] temp = new double[9];
-
-        /* Initialization */
-
-        if (!sgp4Init) {
-
-            sgp4Init();
-        }
-
-        /* Update for secular gravity and atmospheric drag. */
-        final double xmdf = getTLE().getXmo() + xmdot * tsince;
-        final double omgadf = getTLE().getOmegao() + omgdot
-                * tsince;
-        final double xnoddf = getTLE().getXnodeo() + xnodot
-                * tsince;
-        double omega = omgadf;
-        double xmp = xmdf;
-        final double tsq = AbstractSatellite.sqr(tsince);
-        final double xnode = xnoddf + xnodcf * tsq;
-        final double bstar = getTLE().getBstar();
-        double tempa = 1.0 - c1 * tsince;
-        double tempe = bstar * c4 * tsince;
-        double templ = t2cof * tsq;
-
-        if (!sgp4Simple) {
-            final double delomg = omgcof * tsince;
-            final double delm = xmcof
-                    * (Math.pow(1.0 + eta * Math.cos(xmdf), 3) - delmo);
-            temp[0] = delomg + delm;
-            xmp = xmdf + temp[0];
-            omega = omgadf - temp[0];
-            final double tcube = tsq * tsince;
-            final double tfour = tsince * tcube;
-            tempa = tempa - d2 * tsq - d3 * tcube - d4 * tfour;
-            tempe = tempe + bstar * c5
-                    * (Math.sin(xmp) - sinmo);
-            templ = templ + t3cof * tcube + tfour * (t4cof + tsince * t5cof);
-        }
-
-        final double a = aodp * Math.pow(tempa, 2);
-        final double eo = getTLE().getEo();
-        final double e = eo - tempe;
-        final double xl = xmp + omega + xnode + xnodp * templ;
-        final double beta = Math.sqrt(1.0 - e * e);
-        final double xn = XKE / Math.pow(a, 1.5);
-
-        /* Long period periodics */
-        final double axn = e * Math.cos(omega);
-        temp[0] = AbstractSatellite.invert(a * AbstractSatellite.sqr(beta));
-        final double xll = temp[0] * xlcof * axn;
-        final double aynl = temp[0] * aycof;
-        final double xlt = xl + xll;
-        final double ayn = e * Math.sin(omega) + aynl;
-
-        /* Solve Kepler'S Equation */
-        final double capu = AbstractSatellite.mod2PI(xlt - xnode);
-        temp[2] = capu;
-
-        AbstractSatellite.converge(temp, axn, ayn, capu);
-
-        calculatePositionAndVelocity(temp, xnode, a, xn, axn, ayn);
-
-        calculatePhase(xlt, xnode, omgadf);
-    }
-
-    private void calculatePositionAndVelocity(final double[] temp, final double xnode, final double a, final double xn,
-            final double axn, final double ayn) {
-        final double ecose = temp[5] + temp[6];
-        final double esine = temp[3] - temp[4];
-        final double axnSq = axn * axn;
-        final double aynSq = ayn * ayn;
-        final double elsq = axnSq + aynSq;
-        temp[0] = 1.0 - elsq;
-        final double pl = a * temp[0];
-        final double r = a * (1.0 - ecose);
-        temp[1] = AbstractSatellite.invert(r);
-        final double rdot = XKE * Math.sqrt(a) * esine * temp[1];
-        final double rfdot = XKE * Math.sqrt(pl) * temp[1];
-        temp[2] = a * temp[1];
-        final double betal = Math.sqrt(temp[0]);
-        temp[3] = AbstractSatellite.invert(1.0 + betal);
-        final double cosu = temp[2] * (temp[8] - axn + ayn * esine * temp[3]);
-        final double sinu = temp[2] * (temp[7] - ayn - axn * esine * temp[3]);
-        final double u = Math.atan2(sinu, cosu);
-        final double sin2u = 2.0 * sinu * cosu;
-        final double cos2u = 2.0 * cosu * cosu - 1;
-        temp[0] = AbstractSatellite.invert(pl);
-        temp[1] = CK2 * temp[0];
-        temp[2] = temp[1] * temp[0];
-
-        /* Update for short periodics */
-        final double rk = r * (1.0 - 1.5 * temp[2] * betal * x3thm1) + 0.5 * temp[1]
-                * x1mth2 * cos2u;
-        final double uk = u - 0.25 * temp[2] * x7thm1 * sin2u;
-        final double xnodek = xnode + 1.5 * temp[2] * cosio * sin2u;
-        final double xinck = getTLE().getXincl() + 1.5 * temp[2]
-                * cosio * sinio * cos2u;
-        final double rdotk = rdot - xn * temp[1] * x1mth2 * sin2u;
-        final double rfdotk = rfdot + xn * temp[1]
-                * (x1mth2 * cos2u + 1.5 * x3thm1);
-
-        super.calculatePositionAndVelocity(rk, uk, xnodek, xinck, rdotk, rfdotk);
-    }
-
-    /**
-     *
-     */
-    private void sgp4Init() {
 
         /* Recover original mean motion (xnodp) and */
         /* semimajor axis (aodp) from input elements. */
 
-        final double a1 = Math.pow(XKE / getTLE().getXno(),
+        final double a1 = Math.pow(XKE / tle.getXno(),
                 TWO_THIRDS);
-        cosio = Math.cos(getTLE().getXincl());
+        cosio = Math.cos(tle.getXincl());
         final double theta2 = AbstractSatellite.sqr(cosio);
         x3thm1 = 3.0 * theta2 - 1.0;
-        final double eo = getTLE().getEo();
+        final double eo = tle.getEo();
         final double eosq = AbstractSatellite.sqr(eo);
         final double betao2 = 1.0 - eosq;
         final double betao = Math.sqrt(betao2);
@@ -222,7 +114,7 @@ public class LEOSatellite extends AbstractSatellite {
                         * (0.5 * TWO_THIRDS + del1
                                 * (1.0 + 134.0 / 81.0 * del1)));
         final double delo = 1.5 * CK2 * x3thm1 / (AbstractSatellite.sqr(ao) * betao * betao2);
-        xnodp = getTLE().getXno() / (1.0 + delo);
+        xnodp = tle.getXno() / (1.0 + delo);
         aodp = ao / (1.0 - delo);
 
         /* For perigee less than 220 kilometers, the "simple" */
@@ -247,20 +139,20 @@ public class LEOSatellite extends AbstractSatellite {
         final double psisq = Math.abs(1.0 - etasq);
         final double coef = getQoms24() * Math.pow(tsi, 4);
         final double coef1 = coef / Math.pow(psisq, 3.5);
-        final double bstar = getTLE().getBstar();
+        final double bstar = tle.getBstar();
         final double c2 = coef1
                 * xnodp
                 * (aodp * (1.0 + 1.5 * etasq + eeta * (4.0 + etasq)) + 0.75
                         * CK2 * tsi / psisq * x3thm1
                         * (8.0 + 3.0 * etasq * (8.0 + etasq)));
         c1 = bstar * c2;
-        sinio = Math.sin(getTLE().getXincl());
+        sinio = Math.sin(tle.getXincl());
         final double a3ovk2 = -J3_HARMONIC / CK2;
         final double c3 = coef * tsi * a3ovk2 * xnodp * sinio
                 / eo;
         x1mth2 = 1.0 - theta2;
 
-        final double omegao = getTLE().getOmegao();
+        final double omegao = tle.getOmegao();
 
         c4 = 2
                 * xnodp
@@ -305,7 +197,7 @@ public class LEOSatellite extends AbstractSatellite {
         t2cof = 1.5 * c1;
         xlcof = 0.125 * a3ovk2 * sinio * (3.0 + 5 * cosio) / (1.0 + cosio);
         aycof = 0.25 * a3ovk2 * sinio;
-        final double xmo = getTLE().getXmo();
+        final double xmo = tle.getXmo();
         delmo = Math.pow(1.0 + eta
                 * Math.cos(xmo), 3);
         sinmo = Math.sin(xmo);
@@ -322,7 +214,195 @@ public class LEOSatellite extends AbstractSatellite {
             t5cof = 0.2 * (3.0 * d4 + 12 * c1 * d3 + 6 * d2 * d2 + 15 * c1sq
                     * (2.0 * d2 + c1sq));
         }
+        else {
+            d2 = 0.0;
+            d3 = 0.0;
+            d4 = 0.0;
+            t3cof = 0.0;
+            t4cof = 0.0;
+            t5cof = 0.0;
+        }
+    }
+
+    /**
+     * Creates a Low Earth Orbit Satellite from SGP4 constants saved by
+     * {@link #getConstants(double[])}, without working them out again.
+     *
+     * @param tle the three line elements the constants were worked out from
+     * @param constants the constants
+     */
+    LEOSatellite(final TLE tle, final double[] constants) {
+        super(tle);
+
+        aodp = constants[0];
+        aycof = constants[1];
+        c1 = constants[2];
+        c4 = constants[3];
+        c5 = constants[4];
+        cosio = constants[5];
+        d2 = constants[6];
+        d3 = constants[7];
+        d4 = constants[8];
+        delmo = constants[9];
+        omgcof = constants[10];
+        eta = constants[11];
+        omgdot = constants[12];
+        sinio = constants[13];
+        xnodp = constants[14];
+        sinmo = constants[15];
+        t2cof = constants[16];
+        t3cof = constants[17];
+        t4cof = constants[18];
+        t5cof = constants[19];
+        x1mth2 = constants[20];
+        x3thm1 = constants[21];
+        x7thm1 = constants[22];
+        xmcof = constants[23];
+        xmdot = constants[24];
+        xnodcf = constants[25];
+        xnodot = constants[26];
+        xlcof = constants[27];
+
+        final double eo = tle.getEo();
+        sgp4Simple = (aodp * (1.0 - eo)) < (220 / EARTH_RADIUS_KM + 1.0);
+        setPerigee((aodp * (1.0 - eo) - 1.0) * EARTH_RADIUS_KM);
+        checkPerigee();
+    }
+
+    /**
+     * Copies out the SGP4 constants, in the order {@link #LEOSatellite(TLE, double[])} takes them.
+     *
+     * @param constants an array of at least {@link #CONSTANT_COUNT} values
+     */
+    void getConstants(final double[] constants) {
+        constants[0] = aodp;
+        constants[1] = aycof;
+        constants[2] = c1;
+        constants[3] = c4;
+        constants[4] = c5;
+        constants[5] = cosio;
+        constants[6] = d2;
+        constants[7] = d3;
+        constants[8] = d4;
+        constants[9] = delmo;
+        constants[10] = omgcof;
+        constants[11] = eta;
+        constants[12] = omgdot;
+        constants[13] = sinio;
+        constants[14] = xnodp;
+        constants[15] = sinmo;
+        constants[16] = t2cof;
+        constants[17] = t3cof;
+        constants[18] = t4cof;
+        constants[19] = t5cof;
+        constants[20] = x1mth2;
+        constants[21] = x3thm1;
+        constants[22] = x7thm1;
+        constants[23] = xmcof;
+        constants[24] = xmdot;
+        constants[25] = xnodcf;
+        constants[26] = xnodot;
+        constants[27] = xlcof;
+    }
+
+    @Override
+    protected void calculateSGP4(final double tsince, final PropagationState state) {
+
+        final double[] temp = state.temp;
+
+        /* Update for secular gravity and atmospheric drag. */
+        final double xmdf = getTLE().getXmo() + xmdot * tsince;
+        final double omgadf = getTLE().getOmegao() + omgdot
+                * tsince;
+        final double xnoddf = getTLE().getXnodeo() + xnodot
+                * tsince;
+        double omega = omgadf;
+        double xmp = xmdf;
+        final double tsq = AbstractSatellite.sqr(tsince);
+        final double xnode = xnoddf + xnodcf * tsq;
+        final double bstar = getTLE().getBstar();
+        double tempa = 1.0 - c1 * tsince;
+        double tempe = bstar * c4 * tsince;
+        double templ = t2cof * tsq;
+
+        if (!sgp4Simple) {
+            final double delomg = omgcof * tsince;
+            final double delm = xmcof
+                    * (Math.pow(1.0 + eta * Math.cos(xmdf), 3) - delmo);
+            temp[0] = delomg + delm;
+            xmp = xmdf + temp[0];
+            omega = omgadf - temp[0];
+            final double tcube = tsq * tsince;
+            final double tfour = tsince * tcube;
+            tempa = tempa - d2 * tsq - d3 * tcube - d4 * tfour;
+            tempe = tempe + bstar * c5
+                    * (Math.sin(xmp) - sinmo);
+            templ = templ + t3cof * tcube + tfour * (t4cof + tsince * t5cof);
+        }
+
+        final double a = aodp * Math.pow(tempa, 2);
+        final double eo = getTLE().getEo();
+        final double e = eo - tempe;
+        final double xl = xmp + omega + xnode + xnodp * templ;
+        final double beta = Math.sqrt(1.0 - e * e);
+        final double xn = XKE / Math.pow(a, 1.5);
+
+        /* Long period periodics */
+        final double axn = e * Math.cos(omega);
+        temp[0] = AbstractSatellite.invert(a * AbstractSatellite.sqr(beta));
+        final double xll = temp[0] * xlcof * axn;
+        final double aynl = temp[0] * aycof;
+        final double xlt = xl + xll;
+        final double ayn = e * Math.sin(omega) + aynl;
+
+        /* Solve Kepler'S Equation */
+        final double capu = AbstractSatellite.mod2PI(xlt - xnode);
+        temp[2] = capu;
+
+        AbstractSatellite.converge(temp, axn, ayn, capu);
+
+        calculatePositionAndVelocity(state, xnode, a, xn, axn, ayn);
+
+        AbstractSatellite.calculatePhase(state, xlt, xnode, omgadf);
+    }
+
+    private void calculatePositionAndVelocity(final PropagationState state, final double xnode, final double a,
+            final double xn, final double axn, final double ayn) {
+        final double[] temp = state.temp;
+        final double ecose = temp[5] + temp[6];
+        final double esine = temp[3] - temp[4];
+        final double axnSq = axn * axn;
+        final double aynSq = ayn * ayn;
+        final double elsq = axnSq + aynSq;
+        temp[0] = 1.0 - elsq;
+        final double pl = a * temp[0];
+        final double r = a * (1.0 - ecose);
+        temp[1] = AbstractSatellite.invert(r);
+        final double rdot = XKE * Math.sqrt(a) * esine * temp[1];
+        final double rfdot = XKE * Math.sqrt(pl) * temp[1];
+        temp[2] = a * temp[1];
+        final double betal = Math.sqrt(temp[0]);
+        temp[3] = AbstractSatellite.invert(1.0 + betal);
+        final double cosu = temp[2] * (temp[8] - axn + ayn * esine * temp[3]);
+        final double sinu = temp[2] * (temp[7] - ayn - axn * esine * temp[3]);
+        final double u = Math.atan2(sinu, cosu);
+        final double sin2u = 2.0 * sinu * cosu;
+        final double cos2u = 2.0 * cosu * cosu - 1;
+        temp[0] = AbstractSatellite.invert(pl);
+        temp[1] = CK2 * temp[0];
+        temp[2] = temp[1] * temp[0];
+
+        /* Update for short periodics */
+        final double rk = r * (1.0 - 1.5 * temp[2] * betal * x3thm1) + 0.5 * temp[1]
+                * x1mth2 * cos2u;
+        final double uk = u - 0.25 * temp[2] * x7thm1 * sin2u;
+        final double xnodek = xnode + 1.5 * temp[2] * cosio * sin2u;
+        final double xinck = getTLE().getXincl() + 1.5 * temp[2]
+                * cosio * sinio * cos2u;
+        final double rdotk = rdot - xn * temp[1] * x1mth2 * sin2u;
+        final double rfdotk = rfdot + xn * temp[1]
+                * (x1mth2 * cos2u + 1.5 * x3thm1);
 
-        sgp4Init = true;
+        AbstractSatellite.calculatePositionAndVelocity(state, rk, uk, xnodek, xinck, rdotk, rfdotk);
     }
 }
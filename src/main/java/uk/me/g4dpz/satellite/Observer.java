@@ -0,0 +1,126 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+/**
+ * An immutable, precomputed form of a {@link GroundStationPosition}.
+ *
+ * Everything about the observer which does not change with time is worked out once here: the
+ * sine and cosine of the latitude, the geodetic to earth fixed terms, the longitude in radians
+ * and a copy of the horizon mask. Finding the observer's ECI position for a time is then only a
+ * rotation by the sidereal time. Get one from {@link GroundStationPosition#getObserver()}, which
+ * keeps it for as long as the ground station is unchanged.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class Observer {
+
+    private final double latitude;
+    private final double longitude;
+    private final double heightAMSL;
+    private final int[] horizonElevations;
+
+    /** Longitude, radians. */
+    final double longitudeRad;
+    final double sinLatitude;
+    final double cosLatitude;
+    /** Distance from the earth's axis, km. */
+    final double axisDistance;
+    /** Distance from the equatorial plane, km. */
+    final double equatorDistance;
+
+    /**
+     * Precomputes the geometry of a ground station.
+     *
+     * @param gsPos the ground station
+     */
+    public Observer(final GroundStationPosition gsPos) {
+        latitude = gsPos.getLatitude();
+        longitude = gsPos.getLongitude();
+        heightAMSL = gsPos.getHeightAMSL();
+        horizonElevations = gsPos.getHorizonElevations();
+
+        longitudeRad = AbstractSatellite.DEG2RAD * longitude;
+        sinLatitude = Math.sin(AbstractSatellite.DEG2RAD * latitude);
+        cosLatitude = Math.cos(AbstractSatellite.DEG2RAD * latitude);
+
+        final double sinLatSq = sinLatitude * sinLatitude;
+        final double f = AbstractSatellite.FLATTENING_FACTOR;
+        final double c = AbstractSatellite.invert(Math.sqrt(1.0 + f * (f - 2) * sinLatSq));
+        final double sq = AbstractSatellite.sqr(1.0 - f) * c;
+
+        axisDistance = (AbstractSatellite.EARTH_RADIUS_KM * c + heightAMSL / 1000.0) * cosLatitude;
+        equatorDistance = (AbstractSatellite.EARTH_RADIUS_KM * sq + heightAMSL / 1000.0) * sinLatitude;
+    }
+
+    /**
+     * @return latitude in degrees, North: positive
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * @return longitude in degrees, East: positive
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * @return height above mean sea level, metres
+     */
+    public double getHeightAMSL() {
+        return heightAMSL;
+    }
+
+    /**
+     * Gets one entry of the horizon mask.
+     *
+     * @param sector the 10 degree azimuth sector, 0 to 35
+     * @return the minimum elevation for that sector, in degrees
+     */
+    public int getHorizonElevation(final int sector) {
+        return horizonElevations[sector];
+    }
+}
@@ -0,0 +1,114 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.Date;
+
+/**
+ * A change of sign of an {@link EventDetector}'s switching function, found by an
+ * {@link EventFinder}.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class OrbitEvent {
+
+    private final EventDetector detector;
+    private final long timeMillis;
+    private final boolean rising;
+    private final SatPos position;
+
+    /**
+     * @param detector the detector whose function changed sign
+     * @param timeMillis the time, milliseconds since 1970
+     * @param rising whether the function became positive
+     * @param position the satellite's position at the time
+     */
+    OrbitEvent(final EventDetector detector, final long timeMillis, final boolean rising,
+            final SatPos position) {
+        this.detector = detector;
+        this.timeMillis = timeMillis;
+        this.rising = rising;
+        this.position = position;
+    }
+
+    /**
+     * @return the detector whose function changed sign
+     */
+    public EventDetector getDetector() {
+        return detector;
+    }
+
+    /**
+     * @return the time, milliseconds since 1970
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * @return the time
+     */
+    public Date getTime() {
+        return new Date(timeMillis);
+    }
+
+    /**
+     * @return whether the function became positive, rather than zero or negative
+     */
+    public boolean isRising() {
+        return rising;
+    }
+
+    /**
+     * @return the satellite's position at the time of the event
+     */
+    public SatPos getPosition() {
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return detector.getClass().getSimpleName() + (rising ? " rising at " : " falling at ")
+                + getTime();
+    }
+}
@@ -0,0 +1,341 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of the passes found by {@link PassFinder}.
+ *
+ * Passes are kept for each satellite element set and ground station, together with the window
+ * they were searched over. A request inside that window is answered from the cache, and one which
+ * overlaps or adjoins it only searches the part which is missing. The least recently used element
+ * set and station is dropped when the cache is full. Registering a newer element set for a
+ * catalog number, or asking for its passes, drops everything cached for the older ones.
+ *
+ * All methods are thread safe. Searches are made outside the lock, so a slow search does not hold
+ * up requests which hit the cache.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class PassCache {
+
+    private final int maxEntries;
+    private final Map<Key, CachedWindow> entries;
+    private final Map<Integer, Key> latest = new HashMap<Integer, Key>();
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Creates a PassCache.
+     *
+     * @param maxEntries the most element set and station pairs to keep
+     * @throws IllegalArgumentException if maxEntries is less than 1
+     */
+    public PassCache(final int maxEntries) throws IllegalArgumentException {
+
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The cache must hold at least one entry");
+        }
+
+        this.maxEntries = maxEntries;
+
+        entries = new LinkedHashMap<Key, CachedWindow>(16, 0.75f, true) {
+            private static final long serialVersionUID = -3059251346329421183L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, CachedWindow> eldest) {
+                return size() > PassCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Registers an element set. If it is newer than any seen before for its catalog number, the
+     * passes cached for the older element sets are dropped.
+     *
+     * @param tle the element set
+     * @return true if the element set is the newest for its catalog number
+     */
+    public synchronized boolean register(final TLE tle) {
+        return register(new Key(tle, null));
+    }
+
+    /**
+     * Gets the passes which are in progress at the start time or start before the end time, as
+     * {@link PassFinder#getPasses(Date, Date)} finds them.
+     *
+     * The passes may be shared with other callers and must not be changed. Passes for an element
+     * set older than one already registered are searched for but not cached.
+     *
+     * @param tle the element set
+     * @param groundStation the ground station
+     * @param start the start of the window
+     * @param end the end of the window
+     * @return the passes, in time order
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public List<SatPassTime> getPasses(final TLE tle, final GroundStationPosition groundStation,
+            final Date start, final Date end) throws IllegalArgumentException {
+
+        if (null == tle || null == groundStation || null == start || null == end) {
+            throw new IllegalArgumentException("TLE, ground station, start and end must be set");
+        }
+
+        final Key key = new Key(tle, groundStation);
+        final long startMillis = start.getTime();
+        final long endMillis = end.getTime();
+        final boolean current;
+        final CachedWindow cached;
+
+        synchronized (this) {
+            current = register(key);
+            cached = current ? entries.get(key) : null;
+
+            if (cached != null && cached.start <= startMillis && cached.end >= endMillis) {
+                hitCount++;
+                return cached.select(startMillis, endMillis);
+            }
+
+            missCount++;
+        }
+
+        if (!current) {
+            /* An older element set, searched outside the lock and not cached */
+            return Collections.unmodifiableList(new PassFinder(tle, groundStation).getPasses(start, end));
+        }
+
+        final PassFinder finder = new PassFinder(tle, groundStation);
+        final CachedWindow updated;
+
+        if (cached != null && startMillis <= cached.end && endMillis >= cached.start) {
+            /* Search only the parts of the window which are not cached */
+            final List<SatPassTime> passes = new ArrayList<SatPassTime>();
+
+            if (startMillis < cached.start) {
+                append(passes, finder.getPasses(start, new Date(cached.start)));
+            }
+
+            append(passes, cached.passes);
+
+            if (endMillis > cached.end) {
+                append(passes, finder.getPasses(new Date(cached.end), end));
+            }
+
+            updated = new CachedWindow(Math.min(startMillis, cached.start), Math.max(endMillis, cached.end), passes);
+        }
+        else {
+            updated = new CachedWindow(startMillis, endMillis, finder.getPasses(start, end));
+        }
+
+        synchronized (this) {
+            /* Unless a newer element set arrived during the search */
+            if (!isOlder(key, latest.get(key.catnum))) {
+                entries.put(key, updated);
+            }
+        }
+
+        return updated.select(startMillis, endMillis);
+    }
+
+    /**
+     * @return the number of element set and station pairs cached
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drops everything cached, and forgets the registered element sets.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        latest.clear();
+    }
+
+    /**
+     * @return the number of requests answered wholly from the cache
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of requests which needed a search
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Records the element set of a key as the newest for its catalog number unless a newer one is
+     * known, dropping the entries for any older ones. Must be called holding the lock.
+     *
+     * @return false if a newer element set is known
+     */
+    private boolean register(final Key key) {
+
+        final Key newest = latest.get(key.catnum);
+
+        if (newest != null && !isOlder(newest, key)) {
+            return !isOlder(key, newest);
+        }
+
+        latest.put(key.catnum, key);
+
+        final Iterator<Key> keys = entries.keySet().iterator();
+
+        while (keys.hasNext()) {
+            final Key cachedKey = keys.next();
+            if (cachedKey.catnum == key.catnum && isOlder(cachedKey, key)) {
+                keys.remove();
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return true if the first key's element set is older than the second's
+     */
+    private static boolean isOlder(final Key first, final Key second) {
+        return second != null
+                && TLE.compareAge(first.epochMillis, first.setnum, second.epochMillis, second.setnum) < 0;
+    }
+
+    /**
+     * Appends passes to a list, skipping any which overlap the last one already there; passes of
+     * one satellite over one station never overlap, so these are the same pass found twice.
+     */
+    private static void append(final List<SatPassTime> passes, final List<SatPassTime> more) {
+        for (final SatPassTime pass : more) {
+            if (passes.isEmpty() || pass.getStartTime().after(passes.get(passes.size() - 1).getEndTime())) {
+                passes.add(pass);
+            }
+        }
+    }
+
+    /**
+     * An element set and ground station.
+     */
+    private static final class Key {
+
+        private final int catnum;
+        private final int setnum;
+        private final long epochMillis;
+        private final double latitude;
+        private final double longitude;
+        private final double heightAMSL;
+
+        Key(final TLE tle, final GroundStationPosition groundStation) {
+            catnum = tle.getCatnum();
+            setnum = tle.getSetnum();
+            epochMillis = tle.getEpochMillis();
+            latitude = groundStation == null ? 0.0 : groundStation.getLatitude();
+            longitude = groundStation == null ? 0.0 : groundStation.getLongitude();
+            heightAMSL = groundStation == null ? 0.0 : groundStation.getHeightAMSL();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key)o;
+            return catnum == that.catnum && setnum == that.setnum && epochMillis == that.epochMillis
+                    && Double.compare(latitude, that.latitude) == 0
+                    && Double.compare(longitude, that.longitude) == 0
+                    && Double.compare(heightAMSL, that.heightAMSL) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = catnum;
+            result = 31 * result + setnum;
+            result = 31 * result + Long.hashCode(epochMillis);
+            result = 31 * result + Double.hashCode(latitude);
+            result = 31 * result + Double.hashCode(longitude);
+            result = 31 * result + Double.hashCode(heightAMSL);
+            return result;
+        }
+    }
+
+    /**
+     * The passes found over a window.
+     */
+    private static final class CachedWindow {
+
+        private final long start;
+        private final long end;
+        private final List<SatPassTime> passes;
+
+        CachedWindow(final long start, final long end, final List<SatPassTime> passes) {
+            this.start = start;
+            this.end = end;
+            this.passes = passes;
+        }
+
+        /**
+         * @return the passes which are in progress at the start or start before the end
+         */
+        List<SatPassTime> select(final long from, final long to) {
+            final List<SatPassTime> selected = new ArrayList<SatPassTime>();
+            for (final SatPassTime pass : passes) {
+                if (pass.getEndTime().getTime() > from && pass.getStartTime().getTime() < to) {
+                    selected.add(pass);
+                }
+            }
+            return Collections.unmodifiableList(selected);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Predicts the passes of a catalog of satellites over a set of ground stations.
+ *
+ * The catalog is split between the workers of a work stealing {@link ForkJoinPool}. Each worker
+ * creates its own {@link Satellite} and {@link PassFinder}s for the satellites it takes and writes
+ * their passes into its own slot of the results, so nothing is locked. The merged results come
+ * out in the same order whatever the parallelism.
+ *
+ * A PassEngine holds no state between calls, so any number of threads may use one.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class PassEngine {
+
+    /**
+     * The order of the merged results.
+     */
+    public enum Order {
+        /** By position in the catalog, then by ground station, then by AOS. */
+        SATELLITE,
+        /** By AOS, with ties in satellite order. */
+        TIME
+    }
+
+    private final int parallelism;
+    private final Order order;
+
+    /**
+     * Creates a PassEngine using every available processor, giving results in satellite order.
+     */
+    public PassEngine() {
+        this(Runtime.getRuntime().availableProcessors(), Order.SATELLITE);
+    }
+
+    /**
+     * Creates a PassEngine.
+     *
+     * @param parallelism the number of worker threads; 1 does all the work on the calling thread
+     * @param order the order of the merged results
+     * @throws IllegalArgumentException if the parallelism is less than 1 or the order is null
+     */
+    public PassEngine(final int parallelism, final Order order) throws IllegalArgumentException {
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+
+        if (null == order) {
+            throw new IllegalArgumentException("Order has not been set");
+        }
+
+        this.parallelism = parallelism;
+        this.order = order;
+    }
+
+    /**
+     * @return the number of worker threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return the order of the merged results
+     */
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * Finds every pass of every satellite over every ground station which is in progress at the
+     * start time or starts before the end time, as {@link PassFinder#getPasses(Date, Date)} does.
+     *
+     * @param catalog the satellites' elements
+     * @param groundStations the ground stations
+     * @param start the start of the window
+     * @param end the end of the window
+     * @return the passes, in the engine's order
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public List<ScheduledPass> getPasses(final List<TLE> catalog,
+            final List<GroundStationPosition> groundStations, final Date start, final Date end)
+            throws IllegalArgumentException {
+
+        if (null == catalog || null == groundStations) {
+            throw new IllegalArgumentException("Catalog and ground stations must be set");
+        }
+
+        if (null == start || null == end) {
+            throw new IllegalArgumentException("Start and end must be set");
+        }
+
+        final TLE[] tles = catalog.toArray(new TLE[catalog.size()]);
+        final GroundStationPosition[] stations = groundStations
+                .toArray(new GroundStationPosition[groundStations.size()]);
+
+        final List<List<ScheduledPass>> results =
+                new ArrayList<List<ScheduledPass>>(Collections.<List<ScheduledPass>>nCopies(tles.length, null));
+
+        final PassTask task = new PassTask(tles, stations, start, end, results, 0, tles.length);
+
+        if (parallelism == 1) {
+            task.predict();
+        }
+        else {
+            final ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(task);
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+
+        final List<ScheduledPass> passes = new ArrayList<ScheduledPass>();
+
+        for (final List<ScheduledPass> satellitePasses : results) {
+            passes.addAll(satellitePasses);
+        }
+
+        if (order == Order.TIME) {
+            /* A stable sort, so ties stay in satellite order */
+            Collections.sort(passes, ScheduledPass.BY_AOS);
+        }
+
+        return passes;
+    }
+
+    /**
+     * Finds the passes of a range of the catalog, splitting it until each task has one satellite.
+     */
+    private static final class PassTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 6532081254926154390L;
+
+        private final TLE[] tles;
+        private final GroundStationPosition[] stations;
+        private final Date start;
+        private final Date end;
+        private final List<List<ScheduledPass>> results;
+        private final int from;
+        private final int to;
+
+        PassTask(final TLE[] tles, final GroundStationPosition[] stations, final Date start,
+                final Date end, final List<List<ScheduledPass>> results, final int from, final int to) {
+            this.tles = tles;
+            this.stations = stations;
+            this.start = start;
+            this.end = end;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                predict();
+            }
+            else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new PassTask(tles, stations, start, end, results, from, middle),
+                        new PassTask(tles, stations, start, end, results, middle, to));
+            }
+        }
+
+        /**
+         * Finds the passes of each satellite of the range in turn.
+         */
+        void predict() {
+            for (int i = from; i < to; i++) {
+                final Satellite satellite = SatelliteFactory.createSatellite(tles[i]);
+                final List<ScheduledPass> satellitePasses = new ArrayList<ScheduledPass>();
+
+                for (final GroundStationPosition station : stations) {
+                    for (final SatPassTime pass : new PassFinder(satellite, station).getPasses(start, end)) {
+                        satellitePasses.add(new ScheduledPass(tles[i], station, pass));
+                    }
+                }
+
+                results.set(i, satellitePasses);
+            }
+        }
+    }
+}
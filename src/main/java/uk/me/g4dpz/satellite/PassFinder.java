@@ -0,0 +1,711 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Finds satellite passes by root finding rather than by stepping on a fixed grid.
+ *
+ * The elevation is sampled every minute until it changes sign, skipping ahead wherever the
+ * sub-satellite point is too far outside the station's footprint for the satellite to be seen,
+ * and the crossing in between is then refined to within 100 ms by the Illinois method. The pass
+ * itself is crossed in steps of a sixteenth of an orbit, the LOS refined in the same way, and the
+ * maximum elevation found to within about a second by a golden section search speeded up with
+ * parabolic steps (Brent's method). A pass takes a few dozen propagations and AOS, LOS and TCA
+ * are far closer than the 5 second grid used by {@link PassPredictor}.
+ *
+ * A PassFinder reuses one {@link SatPos} for all its work, so each thread needs its own.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class PassFinder {
+
+    /** The step used to look for a change of sign of the elevation. */
+    static final long SEARCH_STEP_MILLIS = 60000L;
+    /** How closely AOS and LOS are found. */
+    static final long CROSSING_TOLERANCE_MILLIS = 100L;
+    /** How closely the time of maximum elevation is found. */
+    static final long MAXIMUM_TOLERANCE_MILLIS = 1000L;
+
+    /** An elevation, in radians, close enough to the horizon to stop refining a crossing. */
+    private static final double HORIZON_TOLERANCE = 1.0E-5;
+    private static final int MAX_ITERATIONS = 100;
+    private static final double GOLDEN_SECTION = (3.0 - Math.sqrt(5.0)) / 2.0;
+    private static final double MILLIS_PER_DAY = 86400000.0;
+    private static final double RAD2DEG = 180.0 / Math.PI;
+
+    private final Satellite satellite;
+    private final GroundStationPosition groundStation;
+    private final boolean visible;
+    private final VisibilityFilter filter;
+    private final long periodMillis;
+    private final long passStepMillis;
+    private final SatPos satPos = new SatPos();
+    private int propagationCount;
+
+    /* The azimuth of the last propagation, and the results of the last searches. */
+    private double lastAzimuth;
+    private double crossingAzimuth;
+    private long maximumTime;
+    private double maximumElevation;
+    private double maximumAzimuth;
+
+    /**
+     * Creates a PassFinder for a satellite created from a TLE.
+     *
+     * @param tle the TLE
+     * @param groundStation the ground station
+     * @throws IllegalArgumentException if either argument is null
+     */
+    public PassFinder(final TLE tle, final GroundStationPosition groundStation)
+            throws IllegalArgumentException {
+        this(null == tle ? null : SatelliteFactory.createSatellite(tle), groundStation);
+    }
+
+    /**
+     * Creates a PassFinder for a satellite.
+     *
+     * @param satellite the satellite
+     * @param groundStation the ground station
+     * @throws IllegalArgumentException if either argument is null
+     */
+    public PassFinder(final Satellite satellite, final GroundStationPosition groundStation)
+            throws IllegalArgumentException {
+
+        if (null == satellite) {
+            throw new IllegalArgumentException("Satellite has not been set");
+        }
+
+        if (null == groundStation) {
+            throw new IllegalArgumentException("Ground station has not been set");
+        }
+
+        this.satellite = satellite;
+        this.groundStation = groundStation;
+
+        visible = satellite.willBeSeen(groundStation);
+        filter = new VisibilityFilter(satellite.getTLE(), groundStation.getObserver());
+        periodMillis = visible ? (long)(MILLIS_PER_DAY / satellite.getTLE().getMeanmo()) : 0;
+        passStepMillis = Math.max(SEARCH_STEP_MILLIS, periodMillis / 16);
+    }
+
+    /**
+     * @return the satellite
+     */
+    public Satellite getSatellite() {
+        return satellite;
+    }
+
+    /**
+     * @return the ground station
+     */
+    public GroundStationPosition getGroundStation() {
+        return groundStation;
+    }
+
+    /**
+     * Finds the pass which is in progress at the start time, or else the first pass which starts
+     * after it and before the end time.
+     *
+     * A satellite which stays above the horizon for more than an orbital period, such as a
+     * geostationary one, is reported as a pass of one period around the start time.
+     *
+     * @param start the start of the search
+     * @param end the end of the search
+     * @return the pass, or null if there is none
+     */
+    public SatPassTime nextPass(final Date start, final Date end) {
+        return nextPass(start.getTime(), end.getTime());
+    }
+
+    /**
+     * Finds the pass which is in progress at the start time, or else the first pass which starts
+     * after it and before the end time.
+     *
+     * @param startMillis the start of the search, in epoch millis
+     * @param endMillis the end of the search, in epoch millis
+     * @return the pass, or null if there is none
+     * @see #nextPass(Date, Date)
+     */
+    public SatPassTime nextPass(final long startMillis, final long endMillis) {
+
+        if (!visible || endMillis <= startMillis) {
+            return null;
+        }
+
+        long before = startMillis;
+        double beforeElevation = elevation(before);
+        long after;
+        double afterElevation;
+        final long aos;
+
+        if (beforeElevation > 0.0) {
+            /* In progress, so look back for the AOS */
+            final long limit = startMillis - periodMillis;
+            after = before;
+            afterElevation = beforeElevation;
+
+            while (beforeElevation > 0.0 && before > limit) {
+                after = before;
+                afterElevation = beforeElevation;
+                before = Math.max(before - passStepMillis, limit);
+                beforeElevation = elevation(before);
+            }
+
+            if (beforeElevation > 0.0) {
+                aos = before;
+                crossingAzimuth = lastAzimuth;
+            }
+            else {
+                aos = findCrossing(before, beforeElevation, after, afterElevation);
+            }
+        }
+        else {
+            after = before;
+            afterElevation = beforeElevation;
+
+            while (afterElevation <= 0.0) {
+                /* Skip any span in which the satellite cannot be seen */
+                final long invisible = filter.getInvisibleMillis(satPos);
+
+                if (after >= endMillis || invisible >= endMillis - after) {
+                    return null;
+                }
+                before = after;
+                beforeElevation = afterElevation;
+                after = before + Math.max(SEARCH_STEP_MILLIS, invisible);
+                afterElevation = elevation(after);
+            }
+
+            aos = findCrossing(before, beforeElevation, after, afterElevation);
+
+            if (aos >= endMillis) {
+                return null;
+            }
+        }
+
+        final double aosAzimuth = crossingAzimuth;
+
+        /* Step through the pass, keeping the samples either side of the highest one */
+        final long limit = Math.max(startMillis, aos) + periodMillis;
+        long highest = after;
+        double highestElevation = afterElevation;
+        long beforeHighest = aos;
+        long afterHighest = after;
+        before = after;
+        beforeElevation = afterElevation;
+
+        while (true) {
+            after = Math.min(before + passStepMillis, limit);
+            afterElevation = elevation(after);
+
+            if (afterHighest == highest) {
+                afterHighest = after;
+            }
+
+            if (afterElevation > highestElevation) {
+                beforeHighest = before;
+                highest = after;
+                highestElevation = afterElevation;
+                afterHighest = after;
+            }
+
+            if (afterElevation <= 0.0 || after == limit) {
+                break;
+            }
+
+            before = after;
+            beforeElevation = afterElevation;
+        }
+
+        final long los;
+
+        if (afterElevation > 0.0) {
+            los = after;
+            crossingAzimuth = lastAzimuth;
+        }
+        else {
+            los = findCrossing(before, beforeElevation, after, afterElevation);
+        }
+
+        final double losAzimuth = crossingAzimuth;
+
+        if (afterHighest > los) {
+            afterHighest = los;
+        }
+
+        return completePass(aos, aosAzimuth, los, losAzimuth, beforeHighest, afterHighest,
+                highest, highestElevation);
+    }
+
+    /**
+     * Re-checks a pass found earlier, for this satellite or for an older element set of it,
+     * using its AOS, LOS and TCA as warm brackets. If the elevation still changes sign within the
+     * tolerance either side of both AOS and LOS, the pass is returned unchanged. Otherwise the AOS
+     * bracket is widened, doubling each time, until it holds the crossing again; the LOS and TCA
+     * brackets are then moved by as much as the AOS moved, and the pass refined from them. No
+     * bracket is widened by more than half the pass's length or an eighth of an orbit.
+     *
+     * @param pass the earlier pass
+     * @param toleranceMillis how far AOS and LOS may move before the pass is refined
+     * @return the pass itself, the refined pass, or null if it was not found near the earlier one
+     */
+    SatPassTime refinePass(final SatPassTime pass, final long toleranceMillis) {
+
+        final long oldAos = pass.getStartTime().getTime();
+        final long oldLos = pass.getEndTime().getTime();
+        final long reach = Math.max((oldLos - oldAos) / 2, periodMillis / 8) + toleranceMillis;
+
+        /* AOS, with the elevation rising through zero */
+        long lower = oldAos - toleranceMillis;
+        double lowerElevation = elevation(lower);
+        long upper = oldAos + toleranceMillis;
+        double upperElevation = elevation(upper);
+        final boolean aosHeld = lowerElevation <= 0.0 && upperElevation > 0.0;
+        long step = toleranceMillis;
+
+        while (!(lowerElevation <= 0.0 && upperElevation > 0.0)) {
+            step *= 2;
+            if (lowerElevation > 0.0) {
+                upper = lower;
+                upperElevation = lowerElevation;
+                lower = upper - step;
+                if (oldAos - lower > reach) {
+                    return null;
+                }
+                lowerElevation = elevation(lower);
+            }
+            else {
+                lower = upper;
+                lowerElevation = upperElevation;
+                upper = lower + step;
+                if (upper - oldAos > reach) {
+                    return null;
+                }
+                upperElevation = elevation(upper);
+            }
+        }
+
+        final long aos;
+        final double aosAzimuth;
+
+        if (aosHeld) {
+            aos = oldAos;
+            aosAzimuth = Double.NaN;
+        }
+        else {
+            aos = findCrossing(lower, lowerElevation, upper, upperElevation);
+            aosAzimuth = crossingAzimuth;
+        }
+
+        /* LOS, with the elevation falling through zero, expected to have moved as the AOS did */
+        final long expectedLos = oldLos + aos - oldAos;
+        lower = expectedLos - toleranceMillis;
+        lowerElevation = elevation(lower);
+        upper = expectedLos + toleranceMillis;
+        upperElevation = elevation(upper);
+        step = toleranceMillis;
+
+        if (aosHeld && lowerElevation > 0.0 && upperElevation <= 0.0) {
+            return pass;
+        }
+
+        while (!(lowerElevation > 0.0 && upperElevation <= 0.0)) {
+            step *= 2;
+            if (upperElevation > 0.0) {
+                lower = upper;
+                lowerElevation = upperElevation;
+                upper = lower + step;
+                if (upper - expectedLos > reach) {
+                    return null;
+                }
+                upperElevation = elevation(upper);
+            }
+            else {
+                upper = lower;
+                upperElevation = lowerElevation;
+                lower = upper - step;
+                if (expectedLos - lower > reach) {
+                    return null;
+                }
+                lowerElevation = elevation(lower);
+            }
+        }
+
+        final long los = findCrossing(lower, lowerElevation, upper, upperElevation);
+        final double losAzimuth = crossingAzimuth;
+
+        if (los <= aos) {
+            return null;
+        }
+
+        if (aosHeld) {
+            /* Only the LOS moved, but the AOS azimuth is still needed */
+            elevation(aos);
+            return refinedPass(pass, aos, lastAzimuth, los, losAzimuth, toleranceMillis);
+        }
+
+        return refinedPass(pass, aos, aosAzimuth, los, losAzimuth, toleranceMillis);
+    }
+
+    /**
+     * Finds the maximum of a refined pass near where the earlier pass had it, moved by as much as
+     * the crossings moved.
+     */
+    private SatPassTime refinedPass(final SatPassTime pass, final long aos, final double aosAzimuth,
+            final long los, final double losAzimuth, final long toleranceMillis) {
+
+        final long aosShift = aos - pass.getStartTime().getTime();
+        final long losShift = los - pass.getEndTime().getTime();
+        final long expectedTca = pass.getTCA().getTime() + (aosShift + losShift) / 2;
+        final long width = toleranceMillis + Math.abs(losShift - aosShift) + 2 * MAXIMUM_TOLERANCE_MILLIS;
+        final long lower = Math.max(aos, expectedTca - width);
+        final long upper = Math.min(los, expectedTca + width);
+
+        return completePass(aos, aosAzimuth, los, losAzimuth, lower, upper, aos, 0.0);
+    }
+
+    /**
+     * Finds the maximum elevation of a pass and builds it.
+     *
+     * @param lower the start of the bracket holding the maximum
+     * @param upper the end of the bracket holding the maximum
+     * @param highest the time of the highest elevation seen so far
+     * @param highestElevation the highest elevation seen so far
+     */
+    private SatPassTime completePass(final long aos, final double aosAzimuth, final long los,
+            final double losAzimuth, final long lower, final long upper, final long highest,
+            final double highestElevation) {
+
+        findMaximum(lower, upper);
+
+        if (highestElevation > maximumElevation) {
+            maximumTime = highest;
+            maximumElevation = elevation(highest);
+            maximumAzimuth = lastAzimuth;
+        }
+
+        final long tca = maximumTime;
+        final double maxElevation = maximumElevation;
+        final double tcaAzimuth = maximumAzimuth;
+
+        String polePassed = getPolePassed(aosAzimuth, tcaAzimuth);
+        final String secondHalf = getPolePassed(tcaAzimuth, losAzimuth);
+
+        if (!PassPredictor.DEADSPOT_NONE.equals(secondHalf)) {
+            polePassed = secondHalf;
+        }
+
+        return new SatPassTime(new Date(aos), new Date(los), new Date(tca), polePassed,
+                (int)aosAzimuth, (int)losAzimuth, maxElevation * RAD2DEG);
+    }
+
+    /**
+     * Finds all the passes which are in progress at the start time or start before the end time.
+     *
+     * @param start the start of the window
+     * @param end the end of the window
+     * @return the passes, in time order
+     */
+    public List<SatPassTime> getPasses(final Date start, final Date end) {
+
+        final List<SatPassTime> passes = new ArrayList<SatPassTime>();
+        final Iterator<SatPassTime> iterator = iterator(start, end);
+
+        while (iterator.hasNext()) {
+            passes.add(iterator.next());
+        }
+
+        return passes;
+    }
+
+    /**
+     * Iterates over the passes which are in progress at the start time or start before the end
+     * time, finding each one only when it is asked for. The search never looks beyond the end
+     * time for an AOS, so stopping early costs nothing further.
+     *
+     * @param start the start of the window
+     * @param end the end of the window
+     * @return an iterator over the passes, in time order
+     */
+    public Iterator<SatPassTime> iterator(final Date start, final Date end) {
+        return passIterator(start, end);
+    }
+
+    /**
+     * A lazy stream of the passes which are in progress at the start time or start before the end
+     * time.
+     *
+     * @param start the start of the window
+     * @param end the end of the window
+     * @return a sequential, ordered stream of the passes
+     * @see #iterator(Date, Date)
+     */
+    public Stream<SatPassTime> stream(final Date start, final Date end) {
+        return passIterator(start, end).stream();
+    }
+
+    private PassIterator passIterator(final Date start, final Date end) {
+
+        final long endMillis = end.getTime();
+
+        return new PassIterator() {
+            private long time = start.getTime();
+
+            @Override
+            SatPassTime findNext() {
+                final SatPassTime pass = nextPass(time, endMillis);
+                if (pass != null) {
+                    time = pass.getEndTime().getTime() + CROSSING_TOLERANCE_MILLIS;
+                }
+                return pass;
+            }
+        };
+    }
+
+    /**
+     * @return the number of propagations made so far
+     */
+    public int getPropagationCount() {
+        return propagationCount;
+    }
+
+    /**
+     * Finds the time at which the elevation changes sign between two times by the Illinois
+     * variant of regula falsi, leaving the azimuth at that time in crossingAzimuth.
+     *
+     * @return the time nearest the crossing at which the satellite is above the horizon, or at
+     *         which it is within HORIZON_TOLERANCE of it
+     */
+    private long findCrossing(final long lower, final double lowerElevation,
+            final long upper, final double upperElevation) {
+
+        long a = lower;
+        double fa = lowerElevation;
+        double azimuthA = Double.NaN;
+        long b = upper;
+        double fb = upperElevation;
+        double azimuthB = Double.NaN;
+        int side = 0;
+
+        for (int i = 0; i < MAX_ITERATIONS && b - a > CROSSING_TOLERANCE_MILLIS; i++) {
+            long c = a + Math.round((b - a) * fa / (fa - fb));
+
+            if (c <= a || c >= b) {
+                c = a + (b - a) / 2;
+            }
+
+            final double fc = elevation(c);
+
+            if (Math.abs(fc) < HORIZON_TOLERANCE) {
+                crossingAzimuth = lastAzimuth;
+                return c;
+            }
+
+            if ((fc > 0.0) == (fb > 0.0)) {
+                b = c;
+                fb = fc;
+                azimuthB = lastAzimuth;
+                if (side == -1) {
+                    fa /= 2.0;
+                }
+                side = -1;
+            }
+            else {
+                a = c;
+                fa = fc;
+                azimuthA = lastAzimuth;
+                if (side == 1) {
+                    fb /= 2.0;
+                }
+                side = 1;
+            }
+        }
+
+        final long crossing = fa > 0.0 ? a : b;
+        crossingAzimuth = fa > 0.0 ? azimuthA : azimuthB;
+
+        if (Double.isNaN(crossingAzimuth)) {
+            elevation(crossing);
+            crossingAzimuth = lastAzimuth;
+        }
+
+        return crossing;
+    }
+
+    /**
+     * Finds the maximum elevation between two times by Brent's method, a golden section search
+     * which takes parabolic steps where it can, leaving the result in maximumTime,
+     * maximumElevation and maximumAzimuth.
+     */
+    private void findMaximum(final long lower, final long upper) {
+
+        final double tolerance = MAXIMUM_TOLERANCE_MILLIS / 2.0;
+
+        /* Offsets in millis from lower, minimising minus the elevation */
+        double a = 0.0;
+        double b = upper - lower;
+        double x = Math.rint(GOLDEN_SECTION * b);
+        double fx = -elevation(lower + (long)x);
+        double azimuthX = lastAzimuth;
+        double w = x;
+        double fw = fx;
+        double v = x;
+        double fv = fx;
+        double d = 0.0;
+        double e = 0.0;
+
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            final double middle = (a + b) / 2.0;
+
+            if (Math.abs(x - middle) <= 2.0 * tolerance - (b - a) / 2.0) {
+                break;
+            }
+
+            if (Math.abs(e) > tolerance) {
+                /* Try a parabola through x, w and v */
+                final double r = (x - w) * (fx - fv);
+                double q = (x - v) * (fx - fw);
+                double p = (x - v) * q - (x - w) * r;
+                q = 2.0 * (q - r);
+                if (q > 0.0) {
+                    p = -p;
+                }
+                q = Math.abs(q);
+                final double previous = e;
+                e = d;
+
+                if (Math.abs(p) >= Math.abs(0.5 * q * previous) || p <= q * (a - x) || p >= q * (b - x)) {
+                    e = (x >= middle) ? a - x : b - x;
+                    d = GOLDEN_SECTION * e;
+                }
+                else {
+                    d = p / q;
+                    if ((x + d) - a < 2.0 * tolerance || b - (x + d) < 2.0 * tolerance) {
+                        d = Math.copySign(tolerance, middle - x);
+                    }
+                }
+            }
+            else {
+                e = (x >= middle) ? a - x : b - x;
+                d = GOLDEN_SECTION * e;
+            }
+
+            final double u = Math.rint(Math.abs(d) >= tolerance ? x + d : x + Math.copySign(tolerance, d));
+            final double fu = -elevation(lower + (long)u);
+
+            if (fu <= fx) {
+                if (u >= x) {
+                    a = x;
+                }
+                else {
+                    b = x;
+                }
+                v = w;
+                fv = fw;
+                w = x;
+                fw = fx;
+                x = u;
+                fx = fu;
+                azimuthX = lastAzimuth;
+            }
+            else {
+                if (u < x) {
+                    a = u;
+                }
+                else {
+                    b = u;
+                }
+                if (fu <= fw || w == x) {
+                    v = w;
+                    fv = fw;
+                    w = u;
+                    fw = fu;
+                }
+                else if (fu <= fv || v == x || v == w) {
+                    v = u;
+                    fv = fu;
+                }
+            }
+        }
+
+        maximumTime = lower + (long)x;
+        maximumElevation = -fx;
+        maximumAzimuth = azimuthX;
+    }
+
+    private double elevation(final long time) {
+        propagationCount++;
+        satellite.getPosition(groundStation, time, satPos);
+        lastAzimuth = satPos.getAzimuth() * RAD2DEG;
+        return satPos.getElevation();
+    }
+
+    /**
+     * Works out which pole, if any, the azimuth passes going the short way from one azimuth to
+     * another.
+     *
+     * @param from the first azimuth in degrees
+     * @param to the second azimuth in degrees
+     * @return north, south or none
+     */
+    static String getPolePassed(final double from, final double to) {
+
+        final double end = from + ((to - from + 540.0) % 360.0) - 180.0;
+
+        if (end < 0.0 || end >= 360.0) {
+            return PassPredictor.NORTH;
+        }
+        else if ((from < 180.0) != (end < 180.0)) {
+            return PassPredictor.SOUTH;
+        }
+        else {
+            return PassPredictor.DEADSPOT_NONE;
+        }
+    }
+}
@@ -50,6 +50,7 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.stream.Stream;
 
 /**
  * Class which provides Pass Prediction.
@@ -60,12 +61,12 @@ import java.util.TimeZone;
 public class PassPredictor {
 
     private static final String UTC = "UTC";
-    private static final String SOUTH = "south";
-    private static final String NORTH = "north";
+    static final String SOUTH = "south";
+    static final String NORTH = "north";
     private static final double SPEED_OF_LIGHT = 2.99792458E8;
     private static final double TWOPI = Math.PI * 2.0;
 
-    private static final String DEADSPOT_NONE = "none";
+    static final String DEADSPOT_NONE = "none";
 
     /** The time at which we do all the calculations. */
     static final TimeZone TZ = TimeZone.getTimeZone(UTC);
@@ -77,6 +78,7 @@ public class PassPredictor {
     private final TLE tle;
     private final GroundStationPosition qth;
     private Satellite sat;
+    private VisibilityFilter filter;
     private boolean windBackTime;
     private final double meanMotion;
     private int iterationCount;
@@ -148,6 +150,64 @@ public class PassPredictor {
         return (long)((double)freq * (SPEED_OF_LIGHT + rangeRate * 1000.0) / SPEED_OF_LIGHT);
     }
 
+    /**
+     * Calculates the Doppler corrected uplink and downlink frequencies for each of the given
+     * frequencies, every step from start to end inclusive. Each sample is propagated once, whatever
+     * the number of frequencies.
+     *
+     * @param start the time of the first sample
+     * @param end the latest time to sample
+     * @param stepMillis the time between samples, milliseconds
+     * @param frequencies the transponder frequencies, Hz
+     * @return the table
+     * @throws InvalidTleException if the TLE data is invalid
+     * @throws SatNotFoundException if the satellite cannot be found
+     * @throws IllegalArgumentException if the step is not positive or the end is before the start
+     */
+    public DopplerTable getDopplerTable(final Date start, final Date end, final long stepMillis,
+            final long... frequencies) throws InvalidTleException, SatNotFoundException {
+        validateData();
+        final DopplerTable table = DopplerTable.calculate(sat, qth, start.getTime(), end.getTime(),
+                stepMillis, frequencies);
+        this.iterationCount += table.size();
+        return table;
+    }
+
+    /**
+     * Calculates the Doppler corrected uplink and downlink frequencies for each of the given
+     * frequencies, every step from the AOS to the LOS of a pass.
+     *
+     * @param pass the pass
+     * @param stepMillis the time between samples, milliseconds
+     * @param frequencies the transponder frequencies, Hz
+     * @return the table
+     * @throws InvalidTleException if the TLE data is invalid
+     * @throws SatNotFoundException if the satellite cannot be found
+     * @throws IllegalArgumentException if the step is not positive
+     */
+    public DopplerTable getDopplerTable(final SatPassTime pass, final long stepMillis,
+            final long... frequencies) throws InvalidTleException, SatNotFoundException {
+        return getDopplerTable(pass.getStartTime(), pass.getEndTime(), stepMillis, frequencies);
+    }
+
+    /**
+     * Fits the range rate from the AOS to the LOS of a pass, so that Doppler corrections can be
+     * worked out at a high rate without propagating.
+     *
+     * @param pass the pass
+     * @return the model, to {@link DopplerModel#DEFAULT_TOLERANCE}
+     * @throws InvalidTleException if the TLE data is invalid
+     * @throws SatNotFoundException if the satellite cannot be found
+     */
+    public DopplerModel getDopplerModel(final SatPassTime pass) throws InvalidTleException,
+            SatNotFoundException {
+        validateData();
+        final DopplerModel model = DopplerModel.fit(sat, qth, pass.getStartTime().getTime(),
+                pass.getEndTime().getTime());
+        this.iterationCount += model.getPropagationCount();
+        return model;
+    }
+
     /**
      * Finds the next satellite pass after the given date.
      *
@@ -209,7 +269,8 @@ public class PassPredictor {
             cal.add(Calendar.MINUTE, threeQuarterOrbitMinutes());
         }
 
-        // now find the next time it comes above the horizon
+        // now find the next time it comes above the horizon, skipping whole
+        // minutes in which it cannot be seen
         do {
             satPos = getPosition(cal, 60);
             final Date now = cal.getTime();
@@ -218,6 +279,9 @@ public class PassPredictor {
                 maxElevation = elevation;
                 tca = now;
             }
+            else if (elevation < 0.0) {
+                cal.add(Calendar.MINUTE, (int)(filter.getInvisibleMillis(satPos) / 60000L));
+            }
         }
         while (satPos.getElevation() < 0.0);
 
@@ -337,6 +401,58 @@ public class PassPredictor {
         return passes;
     }
 
+    /**
+     * A lazy stream of the passes that {@link #getPasses(Date, int, boolean)} finds, each worked
+     * out only when it is asked for. Unlike getPasses, the stream ends at the first pass which
+     * starts after the window rather than including it, so a caller which stops early, say at the
+     * first pass above 30 degrees, pays only for the passes it has looked at.
+     *
+     * @param start the start of the window
+     * @param hoursAhead the length of the window in hours
+     * @param windBack whether to wind back 1/4 of an orbit before the first pass
+     * @return a sequential, ordered stream of the passes
+     * @throws InvalidTleException if the TLE data is invalid
+     * @throws SatNotFoundException if the satellite will never be seen
+     */
+    public Stream<SatPassTime> getPassStream(final Date start, final int hoursAhead, final boolean windBack)
+            throws InvalidTleException, SatNotFoundException {
+
+        validateData();
+
+        this.iterationCount = 0;
+
+        final long trackEnd = start.getTime() + (hoursAhead * 60L * 60L * 1000L);
+
+        return new PassIterator() {
+            private Date trackStartDate = start;
+            private boolean first = true;
+
+            @Override
+            SatPassTime findNext() {
+                if (trackStartDate == null) {
+                    return null;
+                }
+
+                final SatPassTime pass;
+                try {
+                    pass = nextSatPass(trackStartDate, first && windBack);
+                }
+                catch (final PredictionException e) {
+                    throw new IllegalStateException("Satellite could not be propagated", e);
+                }
+                first = false;
+
+                if (pass.getStartTime().getTime() >= trackEnd) {
+                    trackStartDate = null;
+                    return null;
+                }
+
+                trackStartDate = new Date(pass.getEndTime().getTime() + (threeQuarterOrbitMinutes() * 60L * 1000L));
+                return pass;
+            }
+        }.stream();
+    }
+
     /**
      * @return the iterationCount
      */
@@ -349,6 +465,7 @@ public class PassPredictor {
 
         if (newTLE) {
             sat = SatelliteFactory.createSatellite(tle);
+            filter = new VisibilityFilter(tle, qth.getObserver());
 
             if (null == sat) {
                 throw new SatNotFoundException("Satellite has not been created");
@@ -434,4 +551,42 @@ public class PassPredictor {
 
         return positions;
     }
+
+    /**
+     * Calculates positions of the satellite as {@link #getPositions(Date, int, int, int)}, but into
+     * a columnar track rather than a list of SatPos.
+     *
+     * @param referenceDate the reference time
+     * @param incrementSeconds the time between samples, seconds
+     * @param minutesBefore the minutes before the reference time to start
+     * @param minutesAfter the minutes after the reference time to stop
+     * @param floatPrecision whether to hold the columns as float rather than double
+     * @return the track
+     * @throws InvalidTleException if the TLE data is invalid
+     * @throws SatNotFoundException if the satellite cannot be found
+     * @throws IllegalArgumentException if the increment is not positive
+     */
+    public GroundTrack getGroundTrack(
+            final Date referenceDate,
+            final int incrementSeconds,
+            final int minutesBefore,
+            final int minutesAfter,
+            final boolean floatPrecision)
+            throws InvalidTleException, SatNotFoundException {
+
+        if (incrementSeconds <= 0) {
+            throw new IllegalArgumentException("Increment must be positive: " + incrementSeconds);
+        }
+
+        validateData();
+
+        final long start = referenceDate.getTime() - (minutesBefore * 60L * 1000L);
+        final long end = referenceDate.getTime() + (minutesAfter * 60L * 1000L);
+        final long step = incrementSeconds * 1000L;
+        final int count = end > start ? (int)((end - start + step - 1) / step) : 0;
+
+        this.iterationCount += count;
+
+        return GroundTrack.calculate(sat, qth, start, step, count, floatPrecision);
+    }
 }
@@ -0,0 +1,178 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import uk.me.g4dpz.satellite.AbstractSatellite.Vector4;
+
+/**
+ * Per-caller scratch space for satellite propagation.
+ *
+ * The SGP4/SDP4 constants of a {@link Satellite} are fixed when it is created, so everything that
+ * changes from one calculation to the next lives here instead. Any number of threads can propagate
+ * the same satellite without locking as long as each thread uses its own PropagationState. A state
+ * may be reused for different satellites, but must not be used by two threads at the same time.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+final class PropagationState {
+
+    /** ECI position of the satellite, km. */
+    final Vector4 position = new Vector4();
+    /** ECI velocity of the satellite, km/s. */
+    final Vector4 velocity = new Vector4();
+    /** Julian date (UTC) of the last propagation. */
+    double julUTC;
+    /** Greenwich sidereal time at julUTC, radians. */
+    double gmst;
+    /** Orbital phase in radians. */
+    double phase;
+    /** Eclipse depth in radians. */
+    double eclipseDepth;
+
+    /* Observer geometry */
+    final Vector4 obsPos = new Vector4();
+    final Vector4 obsVel = new Vector4();
+    final Vector4 range = new Vector4();
+    final Vector4 rgvel = new Vector4();
+    final Vector4 squintVector = new Vector4();
+    /** Sine and cosine of the observer's local sidereal time. */
+    double sinLst;
+    double cosLst;
+    /** ECI position of the sun at julUTC, km, with its magnitude. */
+    final Vector4 sun = new Vector4();
+    /** Azimuth of the satellite from the observer, radians. */
+    double azimuth;
+    /** Elevation of the satellite from the observer, radians. */
+    double elevation;
+    /** Range rate of the satellite from the observer, km/s. */
+    double rangeRate;
+
+    /* Sub satellite point */
+    double theta;
+    double latitude;
+    double longitude;
+    double altitude;
+
+    /** Temporary values passed around as part of the orbit calculation. */
+    final double[] temp = new double[12];
+
+    /* Used by dpsec and dpper parts of Deep() */
+    double xll;
+    double omgadf;
+    double xnode;
+    double em;
+    double xinc;
+    double xn;
+    double t;
+
+    /* Deep space resonance integrator, only valid for resonanceOwner */
+    Object resonanceOwner;
+    double atime;
+    double xli;
+    double xni;
+    double xldot;
+    double xndot;
+    double xnddt;
+
+    /**
+     * Default constructor.
+     */
+    PropagationState() {
+    }
+
+    /**
+     * @return the Julian date (UTC) of the last propagation
+     */
+    public double getJulianUTC() {
+        return julUTC;
+    }
+
+    /**
+     * @return the ECI X position of the satellite, km
+     */
+    public double getPositionX() {
+        return position.getX();
+    }
+
+    /**
+     * @return the ECI Y position of the satellite, km
+     */
+    public double getPositionY() {
+        return position.getY();
+    }
+
+    /**
+     * @return the ECI Z position of the satellite, km
+     */
+    public double getPositionZ() {
+        return position.getZ();
+    }
+
+    /**
+     * @return the ECI X velocity of the satellite, km/s
+     */
+    public double getVelocityX() {
+        return velocity.getX();
+    }
+
+    /**
+     * @return the ECI Y velocity of the satellite, km/s
+     */
+    public double getVelocityY() {
+        return velocity.getY();
+    }
+
+    /**
+     * @return the ECI Z velocity of the satellite, km/s
+     */
+    public double getVelocityZ() {
+        return velocity.getZ();
+    }
+
+    /**
+     * @return the eclipse depth of the last propagation, radians
+     */
+    public double getEclipseDepth() {
+        return eclipseDepth;
+    }
+}
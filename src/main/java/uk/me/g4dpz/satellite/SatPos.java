@@ -76,6 +76,8 @@ public class SatPos {
 
     private boolean aboveHorizon;
 
+    /** Scratch state for getPosition(qth, epochMillis, satPos), created on first use. */
+    private transient PropagationState propagationState;
 
     /**
      * Default constructor.
@@ -238,6 +240,37 @@ public class SatPos {
         this.time = new Date(time.getTime());
     }
 
+    /**
+     * Sets the time, reusing the Date already held where there is one.
+     *
+     * @param epochMillis the time, milliseconds since 1970
+     */
+    final void setTime(final long epochMillis) {
+        if (time == null) {
+            time = new Date(epochMillis);
+        }
+        else {
+            time.setTime(epochMillis);
+        }
+    }
+
+    /**
+     * @return time for the SatPos, milliseconds since 1970
+     */
+    public final long getTimeMillis() {
+        return time.getTime();
+    }
+
+    /**
+     * @return the scratch state used when this SatPos is the target of a propagation
+     */
+    final PropagationState getPropagationState() {
+        if (propagationState == null) {
+            propagationState = new PropagationState();
+        }
+        return propagationState;
+    }
+
     /**
      * @return the aboveHorizon
      */
@@ -346,7 +379,7 @@ public class SatPos {
         range = other.range;
         rangeRate = other.rangeRate;
         theta = other.theta;
-        time = other.time;
+        time = other.time == null ? null : new Date(other.time.getTime());
         eclipseDepth = other.eclipseDepth;
         eclipsed = other.eclipsed;
     }
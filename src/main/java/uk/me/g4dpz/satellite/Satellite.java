@@ -108,4 +108,113 @@ public interface Satellite {
      * @return satellite position with all calculated parameters
      */
     SatPos getPosition(GroundStationPosition qth, Date time);
+
+    /**
+     * Calculates satellite position for a ground station at a specific time into an existing
+     * SatPos. For the satellites made by {@link SatelliteFactory}, no further objects are allocated
+     * once the SatPos has been used for a first call, so this suits tracking loops which run for a
+     * long time. The SatPos holds the scratch state used by the calculation and must not be the
+     * target of two calls at the same time.
+     *
+     * @param qth the ground station position
+     * @param epochMillis the time for the calculation, milliseconds since 1970
+     * @param satPos the satellite position to fill in with all calculated parameters
+     */
+    default void getPosition(final GroundStationPosition qth, final long epochMillis, final SatPos satPos) {
+        satPos.copy(getPosition(qth, new Date(epochMillis)));
+    }
+
+    /**
+     * Calculates satellite position for a ground station into an existing SatPos, using time
+     * dependent terms shared with other satellites and ground stations. Like
+     * {@link #getPosition(GroundStationPosition, long, SatPos)}, the satellites made by
+     * {@link SatelliteFactory} allocate nothing once the SatPos has been used.
+     *
+     * @param qth the ground station position
+     * @param time the time and the terms which depend only on it
+     * @param satPos the satellite position to fill in with all calculated parameters
+     */
+    default void getPosition(final GroundStationPosition qth, final TimeContext time, final SatPos satPos) {
+        getPosition(qth, time.getEpochMillis(), satPos);
+    }
+
+    /**
+     * Propagates the satellite to count evenly spaced times and writes the results into the
+     * caller's primitive columns, without creating a SatPos or Date per sample. Only the columns
+     * which are set are calculated.
+     *
+     * @param startMillis the time of the first sample, milliseconds since 1970
+     * @param stepMillis the time between samples, milliseconds
+     * @param count the number of samples
+     * @param qth the ground station for the look angle columns, may be null if they are not set
+     * @param columns the columns to fill, from index 0
+     * @throws IllegalArgumentException if a column is shorter than count, or look angles are
+     *             asked for without a ground station
+     * @throws UnsupportedOperationException if the satellite does not support batch propagation,
+     *             which every satellite made by {@link SatelliteFactory} does
+     */
+    default void calculatePositions(final long startMillis, final long stepMillis, final int count,
+            final GroundStationPosition qth, final EphemerisColumns columns) {
+        throw new UnsupportedOperationException("Batch propagation is not supported");
+    }
+
+    /**
+     * Propagates the satellite to each of the given times and writes the results into the
+     * caller's primitive columns, without creating a SatPos or Date per sample. Only the columns
+     * which are set are calculated.
+     *
+     * @param epochMillis the sample times, milliseconds since 1970
+     * @param qth the ground station for the look angle columns, may be null if they are not set
+     * @param columns the columns to fill, from index 0
+     * @throws IllegalArgumentException if a column is shorter than epochMillis, or look angles
+     *             are asked for without a ground station
+     * @throws UnsupportedOperationException if the satellite does not support batch propagation,
+     *             which every satellite made by {@link SatelliteFactory} does
+     */
+    default void calculatePositions(final long[] epochMillis, final GroundStationPosition qth,
+            final EphemerisColumns columns) {
+        throw new UnsupportedOperationException("Batch propagation is not supported");
+    }
+
+    /**
+     * Propagates the satellite once and calculates its look angles from many ground stations,
+     * writing them into primitive arrays. For the satellites made by {@link SatelliteFactory}, each
+     * extra station costs only the topocentric rotation.
+     * The result for station i is stored at index i of each array which is not null.
+     *
+     * @param epochMillis the time for the calculation, milliseconds since 1970
+     * @param stations the ground stations
+     * @param azimuth the azimuths, radians, or null
+     * @param elevation the elevations, radians, or null
+     * @param range the ranges, km, or null
+     * @param rangeRate the range rates, km/s, or null
+     * @throws IllegalArgumentException if an array is shorter than stations
+     */
+    default void calculateLookAngles(final long epochMillis, final GroundStationPosition[] stations,
+            final double[] azimuth, final double[] elevation, final double[] range, final double[] rangeRate) {
+
+        EphemerisColumns.checkLength("azimuth", azimuth, stations.length);
+        EphemerisColumns.checkLength("elevation", elevation, stations.length);
+        EphemerisColumns.checkLength("range", range, stations.length);
+        EphemerisColumns.checkLength("rangeRate", rangeRate, stations.length);
+
+        final Date time = new Date(epochMillis);
+
+        for (int i = 0; i < stations.length; i++) {
+            final SatPos satPos = getPosition(stations[i], time);
+
+            if (azimuth != null) {
+                azimuth[i] = satPos.getAzimuth();
+            }
+            if (elevation != null) {
+                elevation[i] = satPos.getElevation();
+            }
+            if (range != null) {
+                range[i] = satPos.getRange();
+            }
+            if (rangeRate != null) {
+                rangeRate[i] = satPos.getRangeRate();
+            }
+        }
+    }
 }
@@ -64,7 +64,7 @@ public final class SatelliteFactory {
      * @return <code>Satellite</code>
      * @throws IllegalArgumentException when the given TLE is null or the data is incorrect
      */
-    public static synchronized Satellite createSatellite(final TLE tle)
+    public static Satellite createSatellite(final TLE tle)
             throws IllegalArgumentException {
 
         if (null == tle) {
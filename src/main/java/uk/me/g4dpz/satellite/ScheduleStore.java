@@ -0,0 +1,269 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A schedule of passes over a set of ground stations and a time window, kept up to date as new
+ * element sets arrive.
+ *
+ * Each pass is kept with the element set it was found from. When a newer element set arrives,
+ * each pass is re-checked with its old AOS and LOS as warm brackets: a pass which has moved by
+ * less than the tolerance is kept as it is, and one which has moved further is refined from
+ * brackets widened around the old times. Only if a pass cannot be found near where it was is the
+ * whole schedule for that satellite and station searched again. Element sets which are not newer
+ * than the one held leave the schedule alone.
+ *
+ * A refresh does not look for passes which the older element set did not have at all. Those can
+ * only be grazing passes, or passes moving in across the ends of the window; {@link #rebuild(TLE)}
+ * searches from scratch.
+ *
+ * The schedule of each satellite is replaced as a whole, so readers always see a consistent one.
+ * Updates for the same satellite must not be made from more than one thread at a time.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class ScheduleStore {
+
+    private final GroundStationPosition[] groundStations;
+    private final Date start;
+    private final Date end;
+    private final long toleranceMillis;
+    private final Map<Integer, Schedule> schedules = new ConcurrentHashMap<Integer, Schedule>();
+    private final AtomicLong propagationCount = new AtomicLong();
+
+    /**
+     * Creates an empty ScheduleStore.
+     *
+     * @param groundStations the ground stations
+     * @param start the start of the window
+     * @param end the end of the window
+     * @param toleranceMillis how far a pass's AOS or LOS may move before it is refined
+     * @throws IllegalArgumentException if an argument is null or the tolerance is not positive
+     */
+    public ScheduleStore(final List<GroundStationPosition> groundStations, final Date start,
+            final Date end, final long toleranceMillis) throws IllegalArgumentException {
+
+        if (null == groundStations || null == start || null == end) {
+            throw new IllegalArgumentException("Ground stations, start and end must be set");
+        }
+
+        if (toleranceMillis <= 0) {
+            throw new IllegalArgumentException("Tolerance must be positive");
+        }
+
+        this.groundStations = groundStations.toArray(new GroundStationPosition[groundStations.size()]);
+        this.start = new Date(start.getTime());
+        this.end = new Date(end.getTime());
+        this.toleranceMillis = toleranceMillis;
+    }
+
+    /**
+     * Brings the schedule up to date with an element set. A satellite not yet in the schedule is
+     * searched for from scratch; one which is has its passes re-checked if the element set is newer.
+     *
+     * @param tle the element set
+     * @return true if the element set was taken, false if it was not newer than the one held
+     */
+    public boolean update(final TLE tle) {
+
+        final Schedule current = schedules.get(tle.getCatnum());
+
+        if (current == null) {
+            rebuild(tle);
+            return true;
+        }
+
+        if (TLE.compareAge(tle, current.tle) <= 0) {
+            return false;
+        }
+
+        final Satellite satellite = SatelliteFactory.createSatellite(tle);
+        final List<ScheduledPass> oldPasses = current.passes;
+        final List<ScheduledPass> passes = new ArrayList<ScheduledPass>();
+
+        for (final GroundStationPosition station : groundStations) {
+            final PassFinder finder = new PassFinder(satellite, station);
+            final List<SatPassTime> refreshed = new ArrayList<SatPassTime>();
+            boolean found = true;
+
+            for (final ScheduledPass old : oldPasses) {
+                if (old.getGroundStation() == station) {
+                    final SatPassTime pass = finder.refinePass(old.getPass(), toleranceMillis);
+
+                    if (pass == null) {
+                        found = false;
+                        break;
+                    }
+
+                    if (pass.getStartTime().before(end)
+                            && (refreshed.isEmpty() || pass.getStartTime().after(
+                                    refreshed.get(refreshed.size() - 1).getEndTime()))) {
+                        refreshed.add(pass);
+                    }
+                }
+            }
+
+            final List<SatPassTime> stationPasses = found ? refreshed : finder.getPasses(start, end);
+
+            for (final SatPassTime pass : stationPasses) {
+                passes.add(new ScheduledPass(tle, station, pass));
+            }
+
+            propagationCount.addAndGet(finder.getPropagationCount());
+        }
+
+        store(tle, passes);
+        return true;
+    }
+
+    /**
+     * Brings the schedule up to date with each of a catalog of element sets.
+     *
+     * @param catalog the element sets
+     * @return the number of element sets taken
+     */
+    public int update(final List<TLE> catalog) {
+        int taken = 0;
+        for (final TLE tle : catalog) {
+            if (update(tle)) {
+                taken++;
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Searches for a satellite's passes from scratch, whatever the schedule holds.
+     *
+     * @param tle the element set
+     */
+    public void rebuild(final TLE tle) {
+
+        final Satellite satellite = SatelliteFactory.createSatellite(tle);
+        final List<ScheduledPass> passes = new ArrayList<ScheduledPass>();
+
+        for (final GroundStationPosition station : groundStations) {
+            final PassFinder finder = new PassFinder(satellite, station);
+
+            for (final SatPassTime pass : finder.getPasses(start, end)) {
+                passes.add(new ScheduledPass(tle, station, pass));
+            }
+
+            propagationCount.addAndGet(finder.getPropagationCount());
+        }
+
+        store(tle, passes);
+    }
+
+    /**
+     * Removes a satellite from the schedule.
+     *
+     * @param catnum the catalog number
+     */
+    public void remove(final int catnum) {
+        schedules.remove(catnum);
+    }
+
+    /**
+     * @param catnum the catalog number
+     * @return the element set the satellite's passes came from, or null if it is not scheduled
+     */
+    public TLE getTLE(final int catnum) {
+        final Schedule schedule = schedules.get(catnum);
+        return schedule == null ? null : schedule.tle;
+    }
+
+    /**
+     * @param catnum the catalog number
+     * @return the satellite's passes, by ground station and then time, or an empty list
+     */
+    public List<ScheduledPass> getPasses(final int catnum) {
+        final Schedule schedule = schedules.get(catnum);
+        return schedule == null ? Collections.<ScheduledPass>emptyList() : schedule.passes;
+    }
+
+    /**
+     * @return every pass in the schedule, by AOS
+     */
+    public List<ScheduledPass> getPasses() {
+        final List<ScheduledPass> passes = new ArrayList<ScheduledPass>();
+        for (final Schedule schedule : schedules.values()) {
+            passes.addAll(schedule.passes);
+        }
+        Collections.sort(passes, ScheduledPass.BY_AOS);
+        return passes;
+    }
+
+    /**
+     * @return the number of propagations made so far
+     */
+    public long getPropagationCount() {
+        return propagationCount.get();
+    }
+
+    private void store(final TLE tle, final List<ScheduledPass> passes) {
+        schedules.put(tle.getCatnum(), new Schedule(tle, Collections.unmodifiableList(passes)));
+    }
+
+    /**
+     * The passes of one satellite and the element set they came from, replaced together.
+     */
+    private static final class Schedule {
+
+        private final TLE tle;
+        private final List<ScheduledPass> passes;
+
+        Schedule(final TLE tle, final List<ScheduledPass> passes) {
+            this.tle = tle;
+            this.passes = passes;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.Comparator;
+
+/**
+ * A pass of one satellite of a catalog over one of a set of ground stations.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class ScheduledPass {
+
+    /** Orders passes by their AOS. */
+    static final Comparator<ScheduledPass> BY_AOS = new Comparator<ScheduledPass>() {
+        @Override
+        public int compare(final ScheduledPass first, final ScheduledPass second) {
+            return first.getPass().getStartTime().compareTo(second.getPass().getStartTime());
+        }
+    };
+
+    private final TLE tle;
+    private final GroundStationPosition groundStation;
+    private final SatPassTime pass;
+
+    /**
+     * @param tle the satellite's elements
+     * @param groundStation the ground station
+     * @param pass the pass
+     */
+    public ScheduledPass(final TLE tle, final GroundStationPosition groundStation, final SatPassTime pass) {
+        this.tle = tle;
+        this.groundStation = groundStation;
+        this.pass = pass;
+    }
+
+    /**
+     * @return the satellite's elements
+     */
+    public TLE getTLE() {
+        return tle;
+    }
+
+    /**
+     * @return the ground station
+     */
+    public GroundStationPosition getGroundStation() {
+        return groundStation;
+    }
+
+    /**
+     * @return the pass
+     */
+    public SatPassTime getPass() {
+        return pass;
+    }
+
+    @Override
+    public String toString() {
+        return tle.getName() + " over " + groundStation.getLatitude() + ", "
+                + groundStation.getLongitude() + "\n" + pass;
+    }
+}
@@ -0,0 +1,105 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import uk.me.g4dpz.satellite.AbstractSatellite.Vector4;
+
+/**
+ * The sun's position over a window, worked out at knots a few hours apart and interpolated
+ * between them. The sun moves about a degree a day, so over a knot spacing of six hours linear
+ * interpolation of its position is good to a few hundredths of an arc second in direction.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+final class SunModel {
+
+    /** The spacing of the knots, days. */
+    static final double KNOT_DAYS = 0.25;
+
+    private final double firstKnot;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+
+    /**
+     * @param startJulian the start of the window, Julian date
+     * @param endJulian the end of the window, Julian date
+     */
+    SunModel(final double startJulian, final double endJulian) {
+
+        firstKnot = startJulian;
+
+        final int knots = (int)Math.ceil((endJulian - startJulian) / KNOT_DAYS) + 2;
+        x = new double[knots];
+        y = new double[knots];
+        z = new double[knots];
+
+        final Vector4 sun = new Vector4();
+
+        for (int k = 0; k < knots; k++) {
+            AbstractSatellite.calculateSunVector(firstKnot + k * KNOT_DAYS, sun);
+            x[k] = sun.getX();
+            y[k] = sun.getY();
+            z[k] = sun.getZ();
+        }
+    }
+
+    /**
+     * Sets the sun's position, with its magnitude. The direction is good to about 1.0E-8 radians;
+     * the distance is short by up to a few parts in a million, which does not matter to the
+     * shadow.
+     *
+     * @param julian the time, Julian date, within the window
+     * @param sun the vector to set
+     */
+    void getSun(final double julian, final Vector4 sun) {
+
+        final double position = (julian - firstKnot) / KNOT_DAYS;
+        final int k = Math.max(0, Math.min(x.length - 2, (int)position));
+        final double f = position - k;
+
+        /* The chord is inside the orbit, so its magnitude is taken rather than interpolated */
+        sun.setXYZ(x[k] + f * (x[k + 1] - x[k]), y[k] + f * (y[k + 1] - y[k]), z[k] + f * (z[k + 1] - z[k]));
+        AbstractSatellite.magnitude(sun);
+    }
+}
@@ -67,6 +67,8 @@ public class TLE implements Serializable {
     private static final double XKE = 7.43669161E-2;
     private static final double TWO_THIRDS = 2.0 / 3.0;
     private static final double CK2 = 5.413079E-4;
+    private static final double JULIAN_UNIX_EPOCH = 2440587.5;
+    private static final double MILLIS_PER_DAY = 8.64E7;
 
     private int catnum;
     private String name;
@@ -193,6 +195,76 @@ public class TLE implements Serializable {
 
         orbitnum = Integer.parseInt(StringUtils.strip(tle[2].substring(63, 68)));
 
+        deriveElements();
+    }
+
+    /**
+     * Constructor used by {@link TLEParser}, from the values read from the element set.
+     */
+    TLE(final int catnum, final String name, final int setnum, final int year, final double refepoch,
+            final double incl, final double raan, final double eccn, final double argper,
+            final double meanan, final double meanmo, final double drag, final double nddot6,
+            final double bstar, final int orbitnum) {
+        this.catnum = catnum;
+        this.name = name;
+        this.setnum = setnum;
+        this.year = year;
+        this.refepoch = refepoch;
+        this.incl = incl;
+        this.raan = raan;
+        this.eccn = eccn;
+        this.argper = argper;
+        this.meanan = meanan;
+        this.meanmo = meanmo;
+        this.drag = drag;
+        this.nddot6 = nddot6;
+        this.bstar = bstar;
+        this.orbitnum = orbitnum;
+
+        deriveElements();
+    }
+
+    /**
+     * Constructor used by {@link BinaryCatalog}, from the values read from the element set and
+     * those derived from them, so nothing is worked out again.
+     */
+    TLE(final int catnum, final String name, final int setnum, final int year, final double refepoch,
+            final double incl, final double raan, final double eccn, final double argper,
+            final double meanan, final double meanmo, final double drag, final double nddot6,
+            final double bstar, final int orbitnum, final double epoch, final double xndt2o,
+            final double xincl, final double xnodeo, final double eo, final double omegao,
+            final double xmo, final double xno, final boolean deepspace) {
+        this.catnum = catnum;
+        this.name = name;
+        this.setnum = setnum;
+        this.year = year;
+        this.refepoch = refepoch;
+        this.incl = incl;
+        this.raan = raan;
+        this.eccn = eccn;
+        this.argper = argper;
+        this.meanan = meanan;
+        this.meanmo = meanmo;
+        this.drag = drag;
+        this.nddot6 = nddot6;
+        this.bstar = bstar;
+        this.orbitnum = orbitnum;
+        this.epoch = epoch;
+        this.xndt2o = xndt2o;
+        this.xincl = xincl;
+        this.xnodeo = xnodeo;
+        this.eo = eo;
+        this.omegao = omegao;
+        this.xmo = xmo;
+        this.xno = xno;
+        this.deepspace = deepspace;
+    }
+
+    /**
+     * Works out the values used by the propagators from those read from the element set.
+     */
+    private void deriveElements() {
+
         /* reassign the values to thse which get used in calculations */
         epoch = (1000.0 * getYear()) + getRefepoch();
 
@@ -226,7 +298,7 @@ public class TLE implements Serializable {
     /**
      *
      */
-    private synchronized void preProcessTLESet() {
+    private void preProcessTLESet() {
         double temp;
         temp = TWO_PI / MINS_PERDAY / MINS_PERDAY;
         xno = xno * temp * MINS_PERDAY;
@@ -402,6 +474,40 @@ public class TLE implements Serializable {
         return epoch;
     }
 
+    /**
+     * Gets the epoch as a time. Two digit years 57 to 99 are taken as 1957 to 1999 and 00 to 56
+     * as 2000 to 2056, as the propagators do.
+     *
+     * @return the epoch of the elements in epoch millis
+     */
+    public long getEpochMillis() {
+        final int fullYear = (year < 57) ? year + 2000 : year + 1900;
+        return Math.round((AbstractSatellite.julianDateOfYear(fullYear) + refepoch - JULIAN_UNIX_EPOCH)
+                * MILLIS_PER_DAY);
+    }
+
+    /**
+     * Orders element sets by age: by epoch, then by element set number for the same epoch. Every
+     * store of element sets uses this to decide which one is newer.
+     *
+     * @return a negative number, zero or a positive number as the first element set is older
+     *         than, the same age as or newer than the second
+     */
+    static int compareAge(final long epochMillis, final int setnum, final long otherEpochMillis,
+            final int otherSetnum) {
+        final int byEpoch = Long.compare(epochMillis, otherEpochMillis);
+        return byEpoch != 0 ? byEpoch : Integer.compare(setnum, otherSetnum);
+    }
+
+    /**
+     * @return a negative number, zero or a positive number as the first element set is older
+     *         than, the same age as or newer than the second
+     * @see #compareAge(long, int, long, int)
+     */
+    static int compareAge(final TLE tle, final TLE other) {
+        return compareAge(tle.getEpochMillis(), tle.getSetnum(), other.getEpochMillis(), other.getSetnum());
+    }
+
     /**
      * @return Omegao
      */
@@ -445,10 +551,10 @@ public class TLE implements Serializable {
     }
 
     /**
-     * @return the createddate
+     * @return the createddate, or null if it has not been set
      */
     public Date getCreateddate() {
-        return new Date(createddate.getTime());
+        return createddate == null ? null : new Date(createddate.getTime());
     }
 
     /**
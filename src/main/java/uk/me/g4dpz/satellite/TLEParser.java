@@ -0,0 +1,435 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads element sets straight from their fixed columns, from CharSequences or from bytes,
+ * without the substrings and library parsing of {@link TLE#TLE(String[])}.
+ *
+ * Numbers are decoded by hand: each decimal field is read as an integer and divided by a power of
+ * ten, which, both being exact, rounds the same way as Double.parseDouble, and the implied decimal
+ * fields are scaled exactly as the String[] constructor does, so the TLEs made are the same to the
+ * last bit. The line numbers and, unless turned off, the checksums of both lines are checked as the
+ * columns are read. Apart from the TLE and its name nothing is allocated, so a parser should be
+ * kept and reused. A parser is not thread safe.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class TLEParser {
+
+    /** The length of a data line, with its checksum. */
+    static final int LINE_LENGTH = 69;
+
+    private static final int CHECKSUM_COLUMN = 68;
+
+    private static final double[] POWERS_OF_TEN = {
+        1.0E0, 1.0E1, 1.0E2, 1.0E3, 1.0E4, 1.0E5, 1.0E6, 1.0E7, 1.0E8, 1.0E9, 1.0E10, 1.0E11,
+        1.0E12, 1.0E13, 1.0E14, 1.0E15, 1.0E16, 1.0E17, 1.0E18, 1.0E19, 1.0E20, 1.0E21, 1.0E22
+    };
+
+    private final boolean verifyChecksums;
+    private final ByteLine byteLine1 = new ByteLine();
+    private final ByteLine byteLine2 = new ByteLine();
+
+    /** The line being read, for error messages. */
+    private int lineNumber;
+
+    /** Scratch space for names read from a ByteBuffer. */
+    private byte[] nameBytes = new byte[32];
+
+    /**
+     * Creates a parser which verifies checksums.
+     */
+    public TLEParser() {
+        this(true);
+    }
+
+    /**
+     * @param verifyChecksums whether to check the checksum at the end of each line
+     */
+    public TLEParser(final boolean verifyChecksums) {
+        this.verifyChecksums = verifyChecksums;
+    }
+
+    /**
+     * Parses an element set.
+     *
+     * @param name the name line, or null for a two line element set, which is then named by its
+     *            catalog number
+     * @param line1 the first data line
+     * @param line2 the second data line
+     * @return the TLE
+     * @throws IllegalArgumentException if a line is short, a field cannot be read or a checksum
+     *             is wrong
+     */
+    public TLE parse(final CharSequence name, final CharSequence line1, final CharSequence line2)
+            throws IllegalArgumentException {
+
+        if (null == line1 || null == line2) {
+            throw new IllegalArgumentException("TLE line was null");
+        }
+
+        return parse(line1, line2, name == null ? null : TLEParser.trim(name));
+    }
+
+    /**
+     * Parses an element set held as ASCII in a byte[], as read from a file.
+     *
+     * @param data the bytes
+     * @param nameStart the offset of the name line, or -1 for a two line element set
+     * @param nameEnd the offset just past the end of the name line, not counting the line break
+     * @param line1Start the offset of the first data line
+     * @param line2Start the offset of the second data line
+     * @return the TLE
+     * @throws IllegalArgumentException if a line is short, a field cannot be read or a checksum
+     *             is wrong
+     */
+    public TLE parse(final byte[] data, final int nameStart, final int nameEnd, final int line1Start,
+            final int line2Start) throws IllegalArgumentException {
+
+        byteLine1.set(data, line1Start);
+        byteLine2.set(data, line2Start);
+
+        String name = null;
+
+        if (nameStart >= 0) {
+            int start = nameStart;
+            int end = nameEnd;
+            while (start < end && (data[start] & 0xff) <= ' ') {
+                start++;
+            }
+            while (end > start && (data[end - 1] & 0xff) <= ' ') {
+                end--;
+            }
+            name = new String(data, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        return parse(byteLine1, byteLine2, name);
+    }
+
+    /**
+     * Parses an element set held as ASCII in a ByteBuffer, such as a mapped file. The buffer's
+     * position and limit are not changed.
+     *
+     * @param data the bytes
+     * @param nameStart the index of the name line, or -1 for a two line element set
+     * @param nameEnd the index just past the end of the name line, not counting the line break
+     * @param line1Start the index of the first data line
+     * @param line2Start the index of the second data line
+     * @return the TLE
+     * @throws IllegalArgumentException if a line is short, a field cannot be read or a checksum
+     *             is wrong
+     */
+    public TLE parse(final ByteBuffer data, final int nameStart, final int nameEnd, final int line1Start,
+            final int line2Start) throws IllegalArgumentException {
+
+        byteLine1.set(data, line1Start);
+        byteLine2.set(data, line2Start);
+
+        String name = null;
+
+        if (nameStart >= 0) {
+            int start = nameStart;
+            int end = nameEnd;
+            while (start < end && (data.get(start) & 0xff) <= ' ') {
+                start++;
+            }
+            while (end > start && (data.get(end - 1) & 0xff) <= ' ') {
+                end--;
+            }
+            if (nameBytes.length < end - start) {
+                nameBytes = Arrays.copyOf(nameBytes, Math.max(end - start, nameBytes.length * 2));
+            }
+            for (int i = start; i < end; i++) {
+                nameBytes[i - start] = data.get(i);
+            }
+            name = new String(nameBytes, 0, end - start, StandardCharsets.UTF_8);
+        }
+
+        return parse(byteLine1, byteLine2, name);
+    }
+
+    private TLE parse(final CharSequence line1, final CharSequence line2, final String name) {
+
+        lineNumber = 1;
+        checkLine(line1, '1');
+        final int catnum = (int)parseInteger(line1, 2, 7);
+        final int year = (int)parseInteger(line1, 18, 20);
+        final double refepoch = parseDecimal(line1, 20, 32);
+        final double drag = parseDecimal(line1, 33, 43);
+        final double nddot6 = 1.0e-5 * parseDecimal(line1, 44, 50) / POWERS_OF_TEN[digit(line1, 51)];
+        final double bstar = 1.0e-5 * parseDecimal(line1, 53, 59) / POWERS_OF_TEN[digit(line1, 60)];
+        final int setnum = (int)parseInteger(line1, 64, 68);
+
+        lineNumber = 2;
+        checkLine(line2, '2');
+        final double incl = parseDecimal(line2, 8, 16);
+        final double raan = parseDecimal(line2, 17, 25);
+        final double eccn = 1.0e-07 * parseDecimal(line2, 26, 33);
+        final double argper = parseDecimal(line2, 34, 42);
+        final double meanan = parseDecimal(line2, 43, 51);
+        final double meanmo = parseDecimal(line2, 52, 63);
+        final int orbitnum = (int)parseInteger(line2, 63, 68);
+
+        return new TLE(catnum, name == null ? Integer.toString(catnum) : name, setnum, year, refepoch,
+                incl, raan, eccn, argper, meanan, meanmo, drag, nddot6, bstar, orbitnum);
+    }
+
+    /**
+     * Checks the length, line number and, if asked for, the checksum of a data line.
+     */
+    private void checkLine(final CharSequence line, final char number) {
+
+        final int length = verifyChecksums ? LINE_LENGTH : CHECKSUM_COLUMN;
+
+        if (line.length() < length) {
+            throw error("is " + line.length() + " characters long, at least " + length + " required");
+        }
+
+        if (line.charAt(0) != number) {
+            throw error("does not start with " + number);
+        }
+
+        if (verifyChecksums) {
+            int sum = 0;
+            for (int i = 0; i < CHECKSUM_COLUMN; i++) {
+                final char c = line.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    sum += c - '0';
+                }
+                else if (c == '-') {
+                    sum++;
+                }
+            }
+
+            if (sum % 10 != digit(line, CHECKSUM_COLUMN)) {
+                throw error("has checksum " + line.charAt(CHECKSUM_COLUMN) + ", " + (sum % 10) + " calculated");
+            }
+        }
+    }
+
+    /**
+     * Reads an optionally signed integer, with blanks either side, from columns start to end.
+     */
+    private long parseInteger(final CharSequence line, final int start, final int end) {
+
+        int i = start;
+        int last = end;
+
+        while (i < last && line.charAt(i) == ' ') {
+            i++;
+        }
+        while (last > i && line.charAt(last - 1) == ' ') {
+            last--;
+        }
+
+        boolean negative = false;
+
+        if (i < last && (line.charAt(i) == '-' || line.charAt(i) == '+')) {
+            negative = line.charAt(i) == '-';
+            i++;
+        }
+
+        if (i == last) {
+            throw error("has no number in columns " + (start + 1) + " to " + end);
+        }
+
+        long value = 0;
+
+        for (; i < last; i++) {
+            final char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                throw error("has '" + c + "' in the number in columns " + (start + 1) + " to " + end);
+            }
+            value = value * 10 + (c - '0');
+        }
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads an optionally signed decimal number, with blanks either side, from columns start to
+     * end. The digits are read as an integer and divided by the power of ten given by the place of
+     * the decimal point.
+     */
+    private double parseDecimal(final CharSequence line, final int start, final int end) {
+
+        int i = start;
+        int last = end;
+
+        while (i < last && line.charAt(i) == ' ') {
+            i++;
+        }
+        while (last > i && line.charAt(last - 1) == ' ') {
+            last--;
+        }
+
+        boolean negative = false;
+
+        if (i < last && (line.charAt(i) == '-' || line.charAt(i) == '+')) {
+            negative = line.charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1;
+
+        for (; i < last; i++) {
+            final char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            }
+            else if (c == '.' && decimals < 0) {
+                decimals = 0;
+            }
+            else {
+                throw error("has '" + c + "' in the number in columns " + (start + 1) + " to " + end);
+            }
+        }
+
+        if (digits == 0) {
+            throw error("has no number in columns " + (start + 1) + " to " + end);
+        }
+
+        final double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+
+        return negative ? -value : value;
+    }
+
+    private int digit(final CharSequence line, final int column) {
+        final char c = line.charAt(column);
+        if (c < '0' || c > '9') {
+            throw error("has '" + c + "' in column " + (column + 1) + " where a digit was expected");
+        }
+        return c - '0';
+    }
+
+    private IllegalArgumentException error(final String problem) {
+        return new IllegalArgumentException("TLE line " + lineNumber + " " + problem);
+    }
+
+    private static String trim(final CharSequence name) {
+        int start = 0;
+        int end = name.length();
+        while (start < end && name.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && name.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return name.subSequence(start, end).toString();
+    }
+
+    /**
+     * A line held in a byte[] or a ByteBuffer, seen as characters.
+     */
+    private static final class ByteLine implements CharSequence {
+
+        private byte[] data;
+        private ByteBuffer buffer;
+        private int offset;
+        private int length;
+
+        void set(final byte[] bytes, final int start) {
+            data = bytes;
+            buffer = null;
+            offset = start;
+            int end = start;
+            while (end < bytes.length && bytes[end] != '\n' && bytes[end] != '\r') {
+                end++;
+            }
+            length = end - start;
+        }
+
+        void set(final ByteBuffer bytes, final int start) {
+            data = null;
+            buffer = bytes;
+            offset = start;
+            int end = start;
+            while (end < bytes.limit() && bytes.get(end) != '\n' && bytes.get(end) != '\r') {
+                end++;
+            }
+            length = end - start;
+        }
+
+        private byte get(final int index) {
+            return data != null ? data[index] : buffer.get(index);
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Column " + index + " of " + length);
+            }
+            return (char)(get(offset + index) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            final StringBuilder builder = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                builder.append(charAt(i));
+            }
+            return builder.toString();
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length).toString();
+        }
+    }
+}
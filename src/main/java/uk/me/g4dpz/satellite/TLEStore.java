@@ -0,0 +1,428 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Holds many element sets for each of many satellites and propagates each satellite from the
+ * element set whose epoch is nearest the time asked for.
+ *
+ * The element sets are indexed by catalog number in an open addressing table of primitive keys,
+ * and each satellite keeps its epochs in a sorted long[], so finding the element set for an
+ * instant is a hash probe and a binary search. The element set changes at the midpoint between
+ * two epochs. Satellites are built the first time they are needed and kept.
+ *
+ * All methods are thread safe. Satellites are built and batches propagated outside the lock.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class TLEStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private Entry[] entries = new Entry[INITIAL_CAPACITY];
+    private int size;
+    private int elementSetCount;
+
+    /**
+     * Adds an element set. One with the same catalog number and epoch as an element set already
+     * held replaces it unless its element set number is lower.
+     *
+     * @param tle the element set
+     * @return true if the element set was stored
+     * @throws IllegalArgumentException if the element set is null
+     */
+    public synchronized boolean add(final TLE tle) throws IllegalArgumentException {
+
+        if (null == tle) {
+            throw new IllegalArgumentException("TLE was null");
+        }
+
+        Entry entry = find(tle.getCatnum());
+
+        if (entry == null) {
+            if (2 * (size + 1) > keys.length) {
+                resize(keys.length * 2);
+            }
+            entry = new Entry();
+            insert(tle.getCatnum(), entry);
+            size++;
+        }
+
+        final int before = entry.count;
+        final boolean added = entry.add(tle);
+        elementSetCount += entry.count - before;
+
+        return added;
+    }
+
+    /**
+     * Adds a collection of element sets, as {@link #add(TLE)} does.
+     *
+     * @param tles the element sets
+     * @return the number of element sets stored
+     * @throws IllegalArgumentException if the collection or one of its element sets is null
+     */
+    public synchronized int addAll(final Collection<TLE> tles) throws IllegalArgumentException {
+
+        if (null == tles) {
+            throw new IllegalArgumentException("Element sets have not been set");
+        }
+
+        int added = 0;
+
+        for (final TLE tle : tles) {
+            if (add(tle)) {
+                added++;
+            }
+        }
+
+        return added;
+    }
+
+    /**
+     * @return the number of satellites held
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of element sets held, over all satellites
+     */
+    public synchronized int getElementSetCount() {
+        return elementSetCount;
+    }
+
+    /**
+     * @param catnum the catalog number
+     * @return the epochs of the satellite's element sets, in order, milliseconds since 1970; empty
+     *         if the satellite is not held
+     */
+    public synchronized long[] getEpochs(final int catnum) {
+        final Entry entry = find(catnum);
+        return entry == null ? new long[0] : Arrays.copyOf(entry.epochs, entry.count);
+    }
+
+    /**
+     * Finds the element set whose epoch is nearest a time.
+     *
+     * @param catnum the catalog number
+     * @param timeMillis the time, milliseconds since 1970
+     * @return the element set, or null if the satellite is not held
+     */
+    public synchronized TLE getTLE(final int catnum, final long timeMillis) {
+        final Entry entry = find(catnum);
+        return entry == null ? null : entry.tles[entry.select(timeMillis)];
+    }
+
+    /**
+     * Gets the satellite built from the element set whose epoch is nearest a time, building it
+     * the first time it is asked for.
+     *
+     * @param catnum the catalog number
+     * @param timeMillis the time, milliseconds since 1970
+     * @return the satellite, or null if the satellite is not held
+     */
+    public Satellite getSatellite(final int catnum, final long timeMillis) {
+        final TLE tle;
+        final AbstractSatellite satellite;
+
+        synchronized (this) {
+            final Entry entry = find(catnum);
+
+            if (entry == null) {
+                return null;
+            }
+
+            final int index = entry.select(timeMillis);
+            tle = entry.tles[index];
+            satellite = entry.satellites[index];
+        }
+
+        return satellite != null ? satellite : publish(tle, createSatellite(tle));
+    }
+
+    /**
+     * Propagates a satellite to count evenly spaced times, as
+     * {@link Satellite#calculatePositions(long, long, int, GroundStationPosition, EphemerisColumns)}
+     * does, using for each sample the element set whose epoch is nearest it.
+     *
+     * @param catnum the catalog number
+     * @param startMillis the time of the first sample, milliseconds since 1970
+     * @param stepMillis the time between samples, milliseconds
+     * @param count the number of samples
+     * @param qth the ground station for the look angle columns, may be null if they are not set
+     * @param columns the columns to fill, from index 0
+     * @throws IllegalArgumentException if the satellite is not held, a column is shorter than
+     *             count, or look angles are asked for without a ground station
+     */
+    public void calculatePositions(final int catnum, final long startMillis, final long stepMillis,
+            final int count, final GroundStationPosition qth, final EphemerisColumns columns)
+            throws IllegalArgumentException {
+
+        columns.check(count, qth != null);
+        calculatePositions(catnum, null, startMillis, stepMillis, count, qth, columns);
+    }
+
+    /**
+     * Propagates a satellite to each of the given times, as
+     * {@link Satellite#calculatePositions(long[], GroundStationPosition, EphemerisColumns)} does,
+     * using for each sample the element set whose epoch is nearest it.
+     *
+     * @param catnum the catalog number
+     * @param epochMillis the sample times, milliseconds since 1970
+     * @param qth the ground station for the look angle columns, may be null if they are not set
+     * @param columns the columns to fill, from index 0
+     * @throws IllegalArgumentException if the satellite is not held, a column is shorter than
+     *             epochMillis, or look angles are asked for without a ground station
+     */
+    public void calculatePositions(final int catnum, final long[] epochMillis, final GroundStationPosition qth,
+            final EphemerisColumns columns) throws IllegalArgumentException {
+
+        columns.check(epochMillis.length, qth != null);
+        calculatePositions(catnum, epochMillis, 0, 0, epochMillis.length, qth, columns);
+    }
+
+    /**
+     * Propagates a satellite to the given times, or to evenly spaced times if there are none,
+     * changing element set only when a sample falls outside the span of the one in use.
+     */
+    private void calculatePositions(final int catnum, final long[] epochMillis, final long startMillis,
+            final long stepMillis, final int count, final GroundStationPosition qth, final EphemerisColumns columns) {
+
+        final PropagationState state = new PropagationState();
+        AbstractSatellite satellite = null;
+
+        /* The element set in use covers [from, to) */
+        long from = 0;
+        long to = 0;
+
+        for (int i = 0; i < count; i++) {
+            final long time = epochMillis == null ? startMillis + i * stepMillis : epochMillis[i];
+
+            if (satellite == null || time < from || time >= to) {
+                final TLE tle;
+
+                synchronized (this) {
+                    final Entry entry = find(catnum);
+
+                    if (entry == null) {
+                        throw new IllegalArgumentException("No element sets for catalog number " + catnum);
+                    }
+
+                    final int index = entry.select(time);
+                    tle = entry.tles[index];
+                    satellite = entry.satellites[index];
+                    from = index == 0 ? Long.MIN_VALUE : Entry.midpoint(entry.epochs[index - 1], entry.epochs[index]);
+                    to = index == entry.count - 1 ? Long.MAX_VALUE
+                            : Entry.midpoint(entry.epochs[index], entry.epochs[index + 1]);
+                }
+
+                if (satellite == null) {
+                    satellite = publish(tle, createSatellite(tle));
+                }
+            }
+
+            satellite.calculatePosition(time, qth, columns, i, state);
+        }
+    }
+
+    /**
+     * Keeps a satellite built outside the lock, unless another thread has already kept one for
+     * the same element set or the element set has been replaced.
+     *
+     * @return the satellite kept for the element set, or the one given if it is no longer held
+     */
+    private synchronized AbstractSatellite publish(final TLE tle, final AbstractSatellite satellite) {
+        final Entry entry = find(tle.getCatnum());
+        final int index = entry == null ? -1 : entry.indexOf(tle);
+
+        if (index < 0) {
+            return satellite;
+        }
+
+        if (entry.satellites[index] == null) {
+            entry.satellites[index] = satellite;
+        }
+
+        return entry.satellites[index];
+    }
+
+    private static AbstractSatellite createSatellite(final TLE tle) {
+        return (AbstractSatellite)SatelliteFactory.createSatellite(tle);
+    }
+
+    private Entry find(final int catnum) {
+        final int mask = keys.length - 1;
+
+        for (int slot = hash(catnum) & mask; entries[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == catnum) {
+                return entries[slot];
+            }
+        }
+
+        return null;
+    }
+
+    private void insert(final int catnum, final Entry entry) {
+        final int mask = keys.length - 1;
+        int slot = hash(catnum) & mask;
+
+        while (entries[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = catnum;
+        entries[slot] = entry;
+    }
+
+    private void resize(final int capacity) {
+        final int[] oldKeys = keys;
+        final Entry[] oldEntries = entries;
+
+        keys = new int[capacity];
+        entries = new Entry[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldEntries[i] != null) {
+                insert(oldKeys[i], oldEntries[i]);
+            }
+        }
+    }
+
+    /**
+     * Spreads catalog numbers, which are mostly consecutive, over the table.
+     */
+    private static int hash(final int catnum) {
+        final int h = catnum * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * The element sets of one satellite, in epoch order.
+     */
+    private static final class Entry {
+
+        private long[] epochs = new long[2];
+        private TLE[] tles = new TLE[2];
+        private AbstractSatellite[] satellites = new AbstractSatellite[2];
+        private int count;
+
+        /**
+         * Adds an element set in epoch order.
+         *
+         * @return true if it was stored
+         */
+        boolean add(final TLE tle) {
+            final long epoch = tle.getEpochMillis();
+            final int found = Arrays.binarySearch(epochs, 0, count, epoch);
+
+            if (found >= 0) {
+                if (TLE.compareAge(epoch, tle.getSetnum(), epochs[found], tles[found].getSetnum()) < 0) {
+                    return false;
+                }
+                tles[found] = tle;
+                satellites[found] = null;
+                return true;
+            }
+
+            final int index = -found - 1;
+
+            if (count == epochs.length) {
+                epochs = Arrays.copyOf(epochs, count * 2);
+                tles = Arrays.copyOf(tles, count * 2);
+                satellites = Arrays.copyOf(satellites, count * 2);
+            }
+
+            System.arraycopy(epochs, index, epochs, index + 1, count - index);
+            System.arraycopy(tles, index, tles, index + 1, count - index);
+            System.arraycopy(satellites, index, satellites, index + 1, count - index);
+
+            epochs[index] = epoch;
+            tles[index] = tle;
+            satellites[index] = null;
+            count++;
+            return true;
+        }
+
+        /**
+         * @return the index of the element set whose epoch is nearest the time, the later one at
+         *         a midpoint
+         */
+        int select(final long timeMillis) {
+            final int found = Arrays.binarySearch(epochs, 0, count, timeMillis);
+
+            if (found >= 0) {
+                return found;
+            }
+
+            final int after = -found - 1;
+
+            if (after == 0) {
+                return 0;
+            }
+
+            if (after == count) {
+                return count - 1;
+            }
+
+            return timeMillis < midpoint(epochs[after - 1], epochs[after]) ? after - 1 : after;
+        }
+
+        /**
+         * @return the index of the element set, or -1 if it is not held
+         */
+        int indexOf(final TLE tle) {
+            final int found = Arrays.binarySearch(epochs, 0, count, tle.getEpochMillis());
+            return found >= 0 && tles[found] == tle ? found : -1;
+        }
+
+        static long midpoint(final long first, final long second) {
+            return first + (second - first) / 2;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import java.util.Date;
+
+import uk.me.g4dpz.satellite.AbstractSatellite.Vector4;
+
+/**
+ * The terms of a satellite calculation which depend only on the time: the Julian date, the
+ * Greenwich sidereal time, the position of the sun and delta ET.
+ *
+ * Build one TimeContext per instant and pass it to every satellite and ground station being
+ * calculated for that instant, rather than have each of them work these out again. A TimeContext
+ * is immutable and may be shared between threads.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+public final class TimeContext {
+
+    private final long epochMillis;
+    private final double julianUTC;
+    private final double gmst;
+    private final double deltaEt;
+    private final double sunX;
+    private final double sunY;
+    private final double sunZ;
+    private final double sunDistance;
+
+    /**
+     * Works out the time dependent terms for an instant.
+     *
+     * @param epochMillis the time, milliseconds since 1970
+     */
+    public TimeContext(final long epochMillis) {
+        this.epochMillis = epochMillis;
+
+        julianUTC = AbstractSatellite.julianDate(epochMillis);
+        gmst = AbstractSatellite.thetaGJD(julianUTC);
+
+        final double year = 1900 + (julianUTC - 2415020.0) / 365.25;
+        deltaEt = AbstractSatellite.deltaEt(year);
+
+        final Vector4 sun = new Vector4();
+        AbstractSatellite.calculateSunVector(julianUTC, sun);
+        AbstractSatellite.magnitude(sun);
+        sunX = sun.getX();
+        sunY = sun.getY();
+        sunZ = sun.getZ();
+        sunDistance = sun.getW();
+    }
+
+    /**
+     * Works out the time dependent terms for an instant.
+     *
+     * @param date the time
+     */
+    public TimeContext(final Date date) {
+        this(date.getTime());
+    }
+
+    /**
+     * @return the time, milliseconds since 1970
+     */
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    /**
+     * @return the Julian date (UTC)
+     */
+    public double getJulianUTC() {
+        return julianUTC;
+    }
+
+    /**
+     * @return the Greenwich mean sidereal time, radians
+     */
+    public double getGmst() {
+        return gmst;
+    }
+
+    /**
+     * @return the difference between ephemeris time and UT, seconds
+     */
+    public double getDeltaEt() {
+        return deltaEt;
+    }
+
+    /**
+     * @return the ECI X position of the sun, km
+     */
+    public double getSunX() {
+        return sunX;
+    }
+
+    /**
+     * @return the ECI Y position of the sun, km
+     */
+    public double getSunY() {
+        return sunY;
+    }
+
+    /**
+     * @return the ECI Z position of the sun, km
+     */
+    public double getSunZ() {
+        return sunZ;
+    }
+
+    /**
+     * @return the distance from the earth to the sun, km
+     */
+    public double getSunDistance() {
+        return sunDistance;
+    }
+
+    /**
+     * Copies the terms into a state which is about to be propagated.
+     *
+     * @param state the scratch state
+     */
+    void copyTo(final PropagationState state) {
+        state.julUTC = julianUTC;
+        state.gmst = gmst;
+        state.sun.setXYZ(sunX, sunY, sunZ);
+        state.sun.setW(sunDistance);
+    }
+}
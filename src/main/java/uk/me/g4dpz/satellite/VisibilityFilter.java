@@ -0,0 +1,115 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+/**
+ * A cheap geometric bound on how long a satellite must stay out of sight of a ground station.
+ *
+ * The satellite can only be above the station's horizon when its sub-satellite point lies within
+ * the footprint, the great circle angle at which a satellite at apogee height sits on the
+ * horizon. That angle can shrink no faster than the satellite's angular rate at perigee plus the
+ * earth's rotation, so a satellite outside the footprint stays invisible for at least the excess
+ * angle over that rate. Both limits carry a margin for the oblate earth and for the drift of the
+ * osculating elements.
+ *
+ * @author David A. B. Johnson, G4DPZ
+ */
+final class VisibilityFilter {
+
+    /** Margin added to the footprint half angle, in radians. */
+    private static final double ANGLE_MARGIN = 2.0 * AbstractSatellite.DEG2RAD;
+    /** Factor applied to the ground track rate. */
+    private static final double RATE_MARGIN = 1.1;
+    private static final double POLAR_RADIUS_KM = AbstractSatellite.EARTH_RADIUS_KM
+            * (1.0 - AbstractSatellite.FLATTENING_FACTOR);
+    private static final double EARTH_ROTATION_RADIANS_PER_MILLI = 7.292115E-8;
+    private static final double MILLIS_PER_DAY = 86400000.0;
+
+    private final double sinLatitude;
+    private final double cosLatitude;
+    private final double longitude;
+    private final double footprintAngle;
+    private final double groundTrackRate;
+
+    /**
+     * @param tle the satellite's elements
+     * @param observer the ground station
+     */
+    VisibilityFilter(final TLE tle, final Observer observer) {
+
+        sinLatitude = observer.sinLatitude;
+        cosLatitude = observer.cosLatitude;
+        longitude = observer.longitudeRad;
+
+        final double eccentricity = tle.getEccn();
+        final double semiMajorAxis = 331.25 * Math.exp(Math.log(1440.0 / tle.getMeanmo())
+                * (2.0 / 3.0));
+        final double apogeeRadius = semiMajorAxis * (1.0 + eccentricity);
+        final double stationRadius = POLAR_RADIUS_KM + Math.max(0.0, observer.getHeightAMSL() / 1000.0);
+
+        footprintAngle = Math.acos(Math.min(1.0, POLAR_RADIUS_KM / apogeeRadius))
+                + Math.acos(POLAR_RADIUS_KM / stationRadius) + ANGLE_MARGIN;
+
+        final double meanMotion = tle.getMeanmo() * AbstractSatellite.TWO_PI / MILLIS_PER_DAY;
+        final double perigeeRate = meanMotion * (1.0 + eccentricity) * (1.0 + eccentricity)
+                / Math.pow(1.0 - eccentricity * eccentricity, 1.5);
+
+        groundTrackRate = (perigeeRate + EARTH_ROTATION_RADIANS_PER_MILLI) * RATE_MARGIN;
+    }
+
+    /**
+     * Works out how long the satellite must stay out of sight.
+     *
+     * @param satPos the satellite's position, with its latitude and longitude in radians
+     * @return the time in millis for which the satellite cannot be seen, 0 if it may be seen now
+     */
+    long getInvisibleMillis(final SatPos satPos) {
+
+        final double satLatitude = satPos.getLatitude();
+        final double cosAngle = sinLatitude * Math.sin(satLatitude)
+                + cosLatitude * Math.cos(satLatitude) * Math.cos(satPos.getLongitude() - longitude);
+        final double angle = Math.acos(Math.max(-1.0, Math.min(1.0, cosAngle)));
+
+        return angle > footprintAngle ? (long)((angle - footprintAngle) / groundTrackRate) : 0;
+    }
+}
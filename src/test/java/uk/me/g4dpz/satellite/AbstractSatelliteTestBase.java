@@ -42,7 +42,12 @@
  */
 package uk.me.g4dpz.satellite;
 
+import org.junit.Assert;
+
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.Locale;
 import java.util.TimeZone;
 
 /**
@@ -107,8 +112,107 @@ public abstract class AbstractSatelliteTestBase {
             TLE_ISS_1,
             TLE_ISS_2};
 
+    /** One element set of each orbit type. */
+    private static final String[][] ORBITS = {LEO_TLE, DEEP_SPACE_TLE, GEOSYNC_TLE, MOLNIYA_TLE,
+        WEATHER_TLE, DE_ORBIT_TLE};
+
     protected static final String LATITUDE = "52.4670";
     protected static final String LONGITUDE = "-2.022";
     protected static final int HEIGHT_AMSL = 200;
 
+    /**
+     * @return the line with its checksum appended
+     */
+    protected static String withChecksum(final String line) {
+        int sum = 0;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (Character.isDigit(c)) {
+                sum += c - '0';
+            }
+            else if (c == '-') {
+                sum++;
+            }
+        }
+        return line + (sum % 10);
+    }
+
+    /**
+     * @return the ISS element set with another epoch and element set number
+     */
+    protected static TLE iss(final double epoch, final int setnum) {
+        return new TLE(new String[] {LEO_TLE[0], issLine1(epoch, setnum), LEO_TLE[2]});
+    }
+
+    /**
+     * @return the first line of the ISS element set with another epoch and element set number
+     */
+    protected static String issLine1(final double epoch, final int setnum) {
+        return withChecksum(LEO_TLE[1].substring(0, 18)
+                + String.format(Locale.US, "%014.8f", epoch) + LEO_TLE[1].substring(32, 64)
+                + String.format(Locale.US, "%4d", setnum));
+    }
+
+    /**
+     * Builds a catalog of every orbit type under many catalog numbers, alternating two and three
+     * line layouts, and the element sets it should load as.
+     */
+    protected static byte[] catalog(final int count, final List<TLE> expected) {
+        final StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < count; i++) {
+            final String[] orbit = ORBITS[i % ORBITS.length];
+            final String catnum = String.format(Locale.US, "%05d", 10000 + i);
+            final String line1 = withChecksum(orbit[1].substring(0, 2) + catnum + orbit[1].substring(7, 68));
+            final String line2 = withChecksum(orbit[2].substring(0, 2) + catnum + orbit[2].substring(7, 68));
+
+            if (i % 3 == 0) {
+                text.append(line1).append('\n').append(line2).append('\n');
+                expected.add(new TLE(new String[] {catnum, line1, line2}));
+            }
+            else {
+                text.append(orbit[0]).append(' ').append(i).append("\r\n");
+                text.append(line1).append("\r\n").append(line2).append("\r\n");
+                expected.add(new TLE(new String[] {orbit[0] + " " + i, line1, line2}));
+            }
+        }
+
+        return text.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Asserts that two element sets hold bit-for-bit the same values.
+     */
+    protected static void assertSameTLE(final TLE expected, final TLE actual) {
+        Assert.assertEquals(expected.getName(), actual.getName());
+        Assert.assertEquals(expected.getCatnum(), actual.getCatnum());
+        Assert.assertEquals(expected.getSetnum(), actual.getSetnum());
+        Assert.assertEquals(expected.getYear(), actual.getYear());
+        Assert.assertEquals(expected.getOrbitnum(), actual.getOrbitnum());
+        Assert.assertEquals(expected.isDeepspace(), actual.isDeepspace());
+
+        final double[] expectedValues = values(expected);
+        final double[] actualValues = values(actual);
+        for (int i = 0; i < expectedValues.length; i++) {
+            Assert.assertEquals("value " + i, Double.doubleToLongBits(expectedValues[i]),
+                    Double.doubleToLongBits(actualValues[i]));
+        }
+    }
+
+    private static double[] values(final TLE tle) {
+        return new double[] {tle.getRefepoch(), tle.getIncl(), tle.getRaan(), tle.getEccn(),
+            tle.getArgper(), tle.getMeanan(), tle.getMeanmo(), tle.getDrag(), tle.getNddot6(),
+            tle.getBstar(), tle.getEpoch(), tle.getXndt2o(), tle.getXincl(), tle.getXnodeo(),
+            tle.getEo(), tle.getOmegao(), tle.getXmo(), tle.getXno()};
+    }
+
+    /**
+     * Asserts that two lists hold bit-for-bit the same element sets, in the same order.
+     */
+    protected static void assertSameTLEs(final List<TLE> expected, final List<TLE> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameTLE(expected.get(i), actual.get(i));
+        }
+    }
 }
@@ -0,0 +1,156 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tests for the disk backed index of element set archives.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class ArchiveIndexTest extends AbstractSatelliteTestBase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testQueriesReadOnlyMatchingRecords() throws Exception {
+        final List<TLE> catalog = new ArrayList<TLE>();
+        final Path first = folder.newFile("catalog.txt").toPath();
+        Files.write(first, catalog(900, catalog));
+
+        /* The ISS over several days, in two and three line layouts and out of order, with a repeat */
+        final double[] days = {26044.5, 26040.5, 26042.5, 26046.5, 26042.5};
+        final StringBuilder history = new StringBuilder();
+        for (int i = 0; i < days.length; i++) {
+            if (i % 2 == 0) {
+                history.append(LEO_TLE[0]).append('\n');
+            }
+            history.append(issLine1(days[i], 100 + i)).append('\n').append(LEO_TLE[2]).append('\n');
+        }
+        final Path second = folder.newFile("history.txt").toPath();
+        Files.write(second, history.toString().getBytes(StandardCharsets.US_ASCII));
+
+        final Path indexFile = folder.newFile("archive.idx").toPath();
+        Assert.assertEquals(catalog.size() + 4, ArchiveIndex.build(indexFile, Arrays.asList(first, second), true));
+
+        final ArchiveIndex index = ArchiveIndex.open(indexFile);
+        Assert.assertEquals(catalog.size() + 4, index.size());
+        Assert.assertEquals(2, index.getArchives().size());
+
+        /* Two line sets are named by catalog number, and the first of a repeat is kept */
+        final TLE earliest = new TLE(new String[] {"25544", issLine1(26040.5, 101), LEO_TLE[2]});
+        final TLE repeated = iss(26042.5, 102);
+        final TLE latest = iss(26044.5, 100);
+
+        Assert.assertArrayEquals(new long[] {earliest.getEpochMillis(), repeated.getEpochMillis(),
+            latest.getEpochMillis(), iss(26046.5, 103).getEpochMillis()}, index.getEpochs(25544));
+
+        final List<TLE> found = index.getTLEs(25544, earliest.getEpochMillis(), latest.getEpochMillis());
+        assertSameTLEs(Arrays.asList(earliest, repeated, latest), found);
+
+        Assert.assertTrue(index.getTLEs(25544, earliest.getEpochMillis() + 1, repeated.getEpochMillis() - 1).isEmpty());
+
+        for (int i = 0; i < catalog.size(); i += 17) {
+            final TLE tle = catalog.get(i);
+            final List<TLE> single = index.getTLEs(tle.getCatnum(), Long.MIN_VALUE, Long.MAX_VALUE);
+            assertSameTLEs(Arrays.asList(tle), single);
+        }
+
+        Assert.assertEquals(0, index.getEpochs(99999).length);
+        Assert.assertTrue(index.getTLEs(99999, Long.MIN_VALUE, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testChangedArchive() throws Exception {
+        final Path archive = folder.newFile("history.txt").toPath();
+        Files.write(archive, (LEO_TLE[0] + "\n" + LEO_TLE[1] + "\n" + LEO_TLE[2] + "\n").getBytes(StandardCharsets.US_ASCII));
+
+        final Path indexFile = folder.newFile("archive.idx").toPath();
+        ArchiveIndex.build(indexFile, Arrays.asList(archive), true);
+        ArchiveIndex.open(indexFile);
+
+        Files.write(archive, (GEOSYNC_TLE[1] + "\n" + GEOSYNC_TLE[2] + "\n").getBytes(StandardCharsets.US_ASCII),
+                StandardOpenOption.APPEND);
+
+        try {
+            ArchiveIndex.open(indexFile);
+            Assert.fail("Expected IOException");
+        }
+        catch (final IOException e) {
+            Assert.assertTrue(e.getMessage().endsWith("has changed since it was indexed"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGzippedArchive() throws Exception {
+        final Path archive = folder.newFile("history.txt.gz").toPath();
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(archive))) {
+            out.write((LEO_TLE[1] + "\n" + LEO_TLE[2] + "\n").getBytes(StandardCharsets.US_ASCII));
+        }
+
+        ArchiveIndex.build(folder.newFile("archive.idx").toPath(), Arrays.asList(archive), true);
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAnIndex() throws Exception {
+        final Path file = folder.newFile().toPath();
+        Files.write(file, new byte[ArchiveIndex.HEADER_BYTES]);
+        ArchiveIndex.open(file);
+    }
+}
@@ -0,0 +1,197 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tests for the binary catalog format.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class BinaryCatalogTest extends AbstractSatelliteTestBase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final List<TLE> tles = new ArrayList<TLE>();
+        for (final String[] tle : new String[][] {LEO_TLE, DEEP_SPACE_TLE, GEOSYNC_TLE, MOLNIYA_TLE,
+                WEATHER_TLE, DE_ORBIT_TLE}) {
+            tles.add(new TLE(tle));
+        }
+        tles.add(new TLE(NIL_START_TLE.clone(), true));
+        tles.add(new TLEParser().parse(null, LEO_TLE[1], LEO_TLE[2]));
+        tles.get(0).setCreateddate(new Date(1771113600000L));
+
+        final Path file = folder.newFile().toPath();
+        BinaryCatalog.write(file, tles);
+        final BinaryCatalog catalog = BinaryCatalog.open(file);
+
+        Assert.assertEquals(tles.size(), catalog.size());
+        assertSameTLEs(tles, catalog.getTLEs());
+
+        for (int i = 0; i < tles.size(); i++) {
+            Assert.assertEquals(tles.get(i).getCatnum(), catalog.getCatnum(i));
+            Assert.assertEquals(tles.get(i).getCreateddate(), catalog.getTLE(i).getCreateddate());
+        }
+
+        Assert.assertEquals("ISS (ZARYA)", catalog.getTLE(6).getName());
+        Assert.assertEquals("25544", catalog.getTLE(7).getName());
+    }
+
+    @Test
+    public void testSatellitesMatchFactory() throws Exception {
+        final List<TLE> tles = new ArrayList<TLE>();
+        catalog(120, tles);
+
+        final Path file = folder.newFile().toPath();
+        BinaryCatalog.write(file, tles);
+        final BinaryCatalog catalog = BinaryCatalog.open(file);
+
+        final long epoch = tles.get(1).getEpochMillis();
+
+        for (int i = 0; i < tles.size(); i++) {
+            final Satellite satellite = catalog.getSatellite(i);
+            Assert.assertSame(satellite, catalog.getSatellite(i));
+            Assert.assertEquals(tles.get(i).isDeepspace(), satellite instanceof DeepSpaceSatellite);
+
+            final Satellite reference = SatelliteFactory.createSatellite(tles.get(i));
+
+            for (long t = epoch; t < epoch + 86400000L; t += 14400000L) {
+                final SatPos expected = reference.getPosition(GROUND_STATION, new Date(t));
+                final SatPos actual = satellite.getPosition(GROUND_STATION, new Date(t));
+                Assert.assertEquals(expected.getLatitude(), actual.getLatitude(), 0.0);
+                Assert.assertEquals(expected.getLongitude(), actual.getLongitude(), 0.0);
+                Assert.assertEquals(expected.getAltitude(), actual.getAltitude(), 0.0);
+                Assert.assertEquals(expected.getRangeRate(), actual.getRangeRate(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testOpensWithoutReadingRecords() throws Exception {
+        final List<TLE> tles = new ArrayList<TLE>();
+        catalog(6000, tles);
+
+        final List<TLE> large = new ArrayList<TLE>();
+        while (large.size() < 100000) {
+            large.addAll(tles);
+        }
+
+        final Path file = folder.newFile().toPath();
+        BinaryCatalog.write(file, large);
+
+        final long start = System.nanoTime();
+        final BinaryCatalog catalog = BinaryCatalog.open(file);
+        final long elapsed = System.nanoTime() - start;
+
+        Assert.assertEquals(large.size(), catalog.size());
+        Assert.assertTrue("Opening took " + elapsed / 1000000 + " ms", elapsed < 1000000000L);
+        Assert.assertEquals(large.get(large.size() - 1).getCatnum(), catalog.getCatnum(large.size() - 1));
+        assertSameTLE(large.get(54321), catalog.getTLE(54321));
+    }
+
+    @Test
+    public void testNotACatalog() throws Exception {
+        final Path file = folder.newFile().toPath();
+        Files.write(file, new byte[BinaryCatalog.HEADER_BYTES]);
+
+        try {
+            BinaryCatalog.open(file);
+            Assert.fail("Expected IOException");
+        }
+        catch (final IOException e) {
+            Assert.assertTrue(e.getMessage().endsWith("is not a binary catalog"));
+        }
+    }
+
+    @Test
+    public void testOtherVersion() throws Exception {
+        final Path file = folder.newFile().toPath();
+        BinaryCatalog.write(file, Arrays.asList(new TLE(LEO_TLE)));
+
+        final byte[] data = Files.readAllBytes(file);
+        ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).putInt(4, BinaryCatalog.VERSION + 1);
+        Files.write(file, data);
+
+        try {
+            BinaryCatalog.open(file);
+            Assert.fail("Expected IOException");
+        }
+        catch (final IOException e) {
+            Assert.assertTrue(e.getMessage().endsWith("is binary catalog version 2, not 1"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws Exception {
+        final Path file = folder.newFile().toPath();
+        BinaryCatalog.write(file, Arrays.asList(new TLE(LEO_TLE), new TLE(GEOSYNC_TLE)));
+
+        final byte[] data = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(data, data.length - 10));
+        BinaryCatalog.open(file);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testNoSuchElementSet() throws Exception {
+        final Path file = folder.newFile().toPath();
+        BinaryCatalog.write(file, Arrays.asList(new TLE(LEO_TLE)));
+        BinaryCatalog.open(file).getSatellite(1);
+    }
+}
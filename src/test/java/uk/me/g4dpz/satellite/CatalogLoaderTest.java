@@ -0,0 +1,185 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tests for the memory mapped, parallel catalog loader.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class CatalogLoaderTest extends AbstractSatelliteTestBase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testThreeLineFileMatchesImportSat() throws Exception {
+        final List<TLE> expected;
+        try (InputStream in = new FileInputStream("src/test/resources/LEO.txt")) {
+            expected = TLE.importSat(in);
+        }
+
+        assertSameTLEs(expected, new CatalogLoader().load(Paths.get("src/test/resources/LEO.txt")));
+    }
+
+    @Test
+    public void testMixedLayouts() throws Exception {
+        final StringBuilder text = new StringBuilder();
+        text.append(LEO_TLE[0]).append("\r\n").append(LEO_TLE[1]).append("\r\n").append(LEO_TLE[2]).append("\r\n");
+        text.append("\r\n");
+        text.append(DEEP_SPACE_TLE[1]).append("\n").append(DEEP_SPACE_TLE[2]).append("\n");
+        text.append("0 ").append(GEOSYNC_TLE[0]).append("\n").append(GEOSYNC_TLE[1]).append("\n")
+                .append(GEOSYNC_TLE[2]);
+
+        final Path file = write(text.toString().getBytes(StandardCharsets.US_ASCII));
+        final List<TLE> tles = new CatalogLoader(1, true).load(file);
+
+        Assert.assertEquals(3, tles.size());
+        assertSameTLE(new TLE(LEO_TLE), tles.get(0));
+        Assert.assertEquals("26609", tles.get(1).getName());
+        Assert.assertEquals(26609, tles.get(1).getCatnum());
+        assertSameTLE(new TLE(GEOSYNC_TLE), tles.get(2));
+    }
+
+    @Test
+    public void testSameResultsWhateverTheSplit() throws Exception {
+        final List<TLE> expected = new ArrayList<TLE>();
+        final byte[] data = catalog(3000, expected);
+        final Path file = write(data);
+
+        /* Large enough to be cut into several chunks */
+        Assert.assertTrue(data.length > 4 * CatalogLoader.MINIMUM_CHUNK_BYTES);
+
+        assertSameTLEs(expected, new CatalogLoader(1, true).load(file));
+        assertSameTLEs(expected, new CatalogLoader(4, true).load(file));
+
+        /* Mapped a region at a time, with regions ending in the middle of records */
+        assertSameTLEs(expected, new CatalogLoader(3, true, 100003).load(file));
+        assertSameTLEs(expected, new CatalogLoader(1, false, 7919).load(file));
+    }
+
+    @Test
+    public void testGzip() throws Exception {
+        final List<TLE> expected = new ArrayList<TLE>();
+        final byte[] data = catalog(500, expected);
+
+        final Path file = folder.newFile("catalog.txt.gz").toPath();
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(data);
+        }
+
+        assertSameTLEs(expected, new CatalogLoader(4, true).load(file));
+        assertSameTLEs(expected, new CatalogLoader(2, true).load(Files.newInputStream(file)));
+        assertSameTLEs(expected, new CatalogLoader(2, true).load(new ByteArrayInputStream(data)));
+    }
+
+    @Test
+    public void testSatellitesMatchFactory() throws Exception {
+        final List<TLE> expected = new ArrayList<TLE>();
+        final Path file = write(catalog(300, expected));
+
+        final List<Satellite> loaded = new CatalogLoader(4, true).loadSatellites(file);
+        final List<Satellite> created = new CatalogLoader(3, true).createSatellites(expected);
+        Assert.assertEquals(expected.size(), loaded.size());
+        Assert.assertEquals(expected.size(), created.size());
+
+        final Date time = new Date(1548460800000L);
+
+        for (int i = 0; i < expected.size(); i += 7) {
+            final SatPos reference = SatelliteFactory.createSatellite(expected.get(i)).getPosition(GROUND_STATION, time);
+            for (final Satellite satellite : new Satellite[] {loaded.get(i), created.get(i)}) {
+                Assert.assertEquals(expected.get(i).getCatnum(), satellite.getTLE().getCatnum());
+                final SatPos position = satellite.getPosition(GROUND_STATION, time);
+                Assert.assertEquals(reference.getLatitude(), position.getLatitude(), 0.0);
+                Assert.assertEquals(reference.getLongitude(), position.getLongitude(), 0.0);
+                Assert.assertEquals(reference.getAltitude(), position.getAltitude(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidRecordGivesOffset() throws Exception {
+        final String line2 = LEO_TLE[2].replace("51.6315", "51.6x15");
+        final String text = GEOSYNC_TLE[0] + "\n" + GEOSYNC_TLE[1] + "\n" + GEOSYNC_TLE[2] + "\n"
+                + LEO_TLE[0] + "\n" + LEO_TLE[1] + "\n" + line2 + "\n";
+        final Path file = write(text.getBytes(StandardCharsets.US_ASCII));
+        final int offset = text.indexOf(LEO_TLE[1]);
+
+        try {
+            new CatalogLoader(2, true).load(file);
+            Assert.fail("Expected IllegalArgumentException");
+        }
+        catch (final IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Element set at byte " + offset + ":"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadParallelism() {
+        new CatalogLoader(0, true);
+    }
+
+    private Path write(final byte[] data) throws Exception {
+        final Path file = folder.newFile().toPath();
+        Files.write(file, data);
+        return file;
+    }
+}
@@ -0,0 +1,133 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tests for CatalogPropagator.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class CatalogPropagatorTest extends AbstractSatelliteTestBase {
+
+    private static final String[][] CATALOG = {
+        LEO_TLE, GEOSYNC_TLE, WEATHER_TLE, MOLNIYA_TLE, DE_ORBIT_TLE, DEEP_SPACE_TLE};
+
+    @Test
+    public void testMixedCatalogMatchesGetPosition() {
+        final List<Satellite> satellites = createCatalog();
+        final CatalogPropagator propagator = new CatalogPropagator(satellites);
+
+        Assert.assertEquals(CATALOG.length, propagator.size());
+
+        final EphemerisColumns columns = new EphemerisColumns(propagator.size(), true);
+        final PropagationState state = new PropagationState();
+
+        for (int hour = 0; hour < 48; hour += 5) {
+            final Date date = new DateTime(EPOCH).plusHours(hour).plusSeconds(17).toDate();
+
+            propagator.calculatePositions(date.getTime(), GROUND_STATION, columns);
+
+            for (int i = 0; i < satellites.size(); i++) {
+                final SatPos satPos = ((AbstractSatellite) satellites.get(i)).getPosition(GROUND_STATION, date, state);
+
+                Assert.assertSame(satellites.get(i), propagator.getSatellite(i));
+                Assert.assertEquals(state.getPositionX(), columns.getPositionX()[i], 0.0);
+                Assert.assertEquals(state.getPositionY(), columns.getPositionY()[i], 0.0);
+                Assert.assertEquals(state.getPositionZ(), columns.getPositionZ()[i], 0.0);
+                Assert.assertEquals(state.getVelocityX(), columns.getVelocityX()[i], 0.0);
+                Assert.assertEquals(state.getVelocityY(), columns.getVelocityY()[i], 0.0);
+                Assert.assertEquals(state.getVelocityZ(), columns.getVelocityZ()[i], 0.0);
+                Assert.assertEquals(satPos.getLatitude(), columns.getLatitude()[i], 0.0);
+                Assert.assertEquals(satPos.getLongitude(), columns.getLongitude()[i], 0.0);
+                Assert.assertEquals(satPos.getAltitude(), columns.getAltitude()[i], 0.0);
+                Assert.assertEquals(satPos.getAzimuth(), columns.getAzimuth()[i], 0.0);
+                Assert.assertEquals(satPos.getElevation(), columns.getElevation()[i], 0.0);
+                Assert.assertEquals(satPos.getRange(), columns.getRange()[i], 0.0);
+                Assert.assertEquals(satPos.getRangeRate(), columns.getRangeRate()[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testPositionsOnlyNeedNoGroundStation() {
+        final CatalogPropagator propagator = new CatalogPropagator(createCatalog());
+
+        final double[] x = new double[propagator.size()];
+        final double[] y = new double[propagator.size()];
+        final double[] z = new double[propagator.size()];
+        final EphemerisColumns columns = new EphemerisColumns();
+        columns.setEci(x, y, z, null, null, null);
+
+        propagator.calculatePositions(new DateTime(EPOCH).getMillis(), null, columns);
+
+        for (int i = 0; i < propagator.size(); i++) {
+            final double radius = Math.sqrt(x[i] * x[i] + y[i] * y[i] + z[i] * z[i]);
+            Assert.assertTrue("Satellite " + i + " should be above the earth", radius > 6378.0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortColumnsAreRejected() {
+        final CatalogPropagator propagator = new CatalogPropagator(createCatalog());
+        propagator.calculatePositions(new DateTime(EPOCH).getMillis(), GROUND_STATION,
+                new EphemerisColumns(propagator.size() - 1, true));
+    }
+
+    private static List<Satellite> createCatalog() {
+        final List<Satellite> satellites = new ArrayList<Satellite>();
+
+        for (final String[] tle : CATALOG) {
+            satellites.add(SatelliteFactory.createSatellite(new TLE(tle)));
+        }
+
+        return satellites;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+
+/**
+ * Tests for the per-pass Doppler model.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class DopplerModelTest extends AbstractSatelliteTestBase {
+
+    private static final long FREQUENCY = 437800000L;
+
+    @Test
+    public void testModelMatchesPropagationAcrossPasses() throws Exception {
+        final TLE tle = new TLE(LEO_TLE);
+        final Satellite satellite = SatelliteFactory.createSatellite(tle);
+        final DateTime start = new DateTime(EPOCH);
+
+        for (final SatPassTime pass : new PassFinder(satellite, GROUND_STATION).getPasses(
+                start.toDate(), start.plusDays(1).toDate())) {
+
+            final DopplerModel model = DopplerModel.fit(satellite, GROUND_STATION,
+                    pass.getStartTime().getTime(), pass.getEndTime().getTime());
+
+            Assert.assertTrue(model.getErrorBound() <= DopplerModel.DEFAULT_TOLERANCE);
+            Assert.assertTrue(model.getPropagationCount() < 250);
+
+            for (long t = model.getStartMillis(); t <= model.getEndMillis(); t += 250L) {
+                final double expected = satellite.getPosition(GROUND_STATION, new Date(t)).getRangeRate();
+                Assert.assertEquals(expected, model.getRangeRate(t), 2.0 * DopplerModel.DEFAULT_TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void testFrequenciesMatchPassPredictor() throws Exception {
+        final PassPredictor predictor = new PassPredictor(new TLE(LEO_TLE), GROUND_STATION);
+        final SatPassTime pass = predictor.nextSatPass(new DateTime(EPOCH).toDate());
+        final DopplerModel model = predictor.getDopplerModel(pass);
+
+        final double allowed = model.getErrorBoundHz(FREQUENCY) * 2.0 + 1.0;
+        Assert.assertTrue(allowed < 2.0);
+
+        for (long t = model.getStartMillis(); t <= model.getEndMillis(); t += 5000L) {
+            final Date time = new Date(t);
+            Assert.assertEquals(predictor.getDownlinkFreq(FREQUENCY, time), model.getDownlinkFreq(FREQUENCY, t),
+                    allowed);
+            Assert.assertEquals(predictor.getUplinkFreq(FREQUENCY, time), model.getUplinkFreq(FREQUENCY, t),
+                    allowed);
+        }
+    }
+
+    @Test
+    public void testDeepSpaceModel() throws Exception {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(MOLNIYA_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+        final long end = start + 6 * 3600000L;
+
+        final DopplerModel model = DopplerModel.fit(satellite, GROUND_STATION, start, end);
+        Assert.assertTrue(model.getErrorBound() <= DopplerModel.DEFAULT_TOLERANCE);
+
+        for (long t = start; t <= end; t += 60000L) {
+            Assert.assertEquals(satellite.getPosition(GROUND_STATION, new Date(t)).getRangeRate(),
+                    model.getRangeRate(t), 2.0 * DopplerModel.DEFAULT_TOLERANCE);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeOutsideModel() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+        DopplerModel.fit(satellite, GROUND_STATION, start, start + 600000L).getRangeRate(start - 1L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEndMustBeAfterStart() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+        DopplerModel.fit(satellite, GROUND_STATION, start, start);
+    }
+}
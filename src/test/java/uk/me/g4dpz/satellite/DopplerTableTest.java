@@ -0,0 +1,139 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+
+/**
+ * Tests for batch Doppler tables.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class DopplerTableTest extends AbstractSatelliteTestBase {
+
+    private static final long[] FREQUENCIES = {145800000L, 437800000L, 2401000000L};
+
+    @Test
+    public void testTableMatchesSingleCalls() throws Exception {
+        final TLE tle = new TLE(LEO_TLE);
+        final PassPredictor predictor = new PassPredictor(tle, GROUND_STATION);
+        final SatPassTime pass = predictor.nextSatPass(new DateTime(EPOCH).toDate());
+
+        final DopplerTable table = predictor.getDopplerTable(pass, 5000L, FREQUENCIES);
+
+        Assert.assertEquals((pass.getEndTime().getTime() - pass.getStartTime().getTime()) / 5000L + 1,
+                table.size());
+        Assert.assertEquals(pass.getStartTime().getTime(), table.getTimes()[0]);
+
+        for (int i = 0; i < table.size(); i++) {
+            final Date time = new Date(table.getTimes()[i]);
+            for (int f = 0; f < FREQUENCIES.length; f++) {
+                Assert.assertEquals(predictor.getDownlinkFreq(FREQUENCIES[f], time).longValue(),
+                        table.getDownlink(f)[i]);
+                Assert.assertEquals(predictor.getUplinkFreq(FREQUENCIES[f], time).longValue(),
+                        table.getUplink(f)[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testRangeRateSignGivesDopplerDirection() throws Exception {
+        final TLE tle = new TLE(LEO_TLE);
+        final Satellite satellite = SatelliteFactory.createSatellite(tle);
+        final SatPassTime pass = new PassFinder(satellite, GROUND_STATION).nextPass(
+                new DateTime(EPOCH).toDate(), new DateTime(EPOCH).plusDays(1).toDate());
+
+        final DopplerTable table = DopplerTable.calculate(satellite, GROUND_STATION,
+                pass.getStartTime().getTime(), pass.getEndTime().getTime(), 10000L, 145800000L);
+
+        /* Approaching at AOS, so the downlink is heard high and the uplink is sent low */
+        Assert.assertTrue(table.getRangeRate()[0] < 0.0);
+        Assert.assertTrue(table.getDownlink(0)[0] > 145800000L);
+        Assert.assertTrue(table.getUplink(0)[0] < 145800000L);
+
+        final int last = table.size() - 1;
+        Assert.assertTrue(table.getRangeRate()[last] > 0.0);
+        Assert.assertTrue(table.getDownlink(0)[last] < 145800000L);
+    }
+
+    @Test
+    public void testFillMatchesTable() throws Exception {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+
+        final DopplerTable table = DopplerTable.calculate(satellite, GROUND_STATION, start,
+                start + 600000L, 60000L, FREQUENCIES);
+        Assert.assertEquals(11, table.size());
+
+        final long[] downlink = new long[table.size()];
+        DopplerTable.fillDownlink(table.getRangeRate(), table.size(), FREQUENCIES[1], downlink);
+        Assert.assertArrayEquals(table.getDownlink(1), downlink);
+
+        final long[] uplink = new long[table.size()];
+        DopplerTable.fillUplink(table.getRangeRate(), table.size(), FREQUENCIES[2], uplink);
+        Assert.assertArrayEquals(table.getUplink(2), uplink);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStepMustBePositive() throws Exception {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+        DopplerTable.calculate(satellite, GROUND_STATION, start, start + 1000L, 0L, FREQUENCIES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEndBeforeStart() throws Exception {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+        DopplerTable.calculate(satellite, GROUND_STATION, start, start - 1000L, 1000L, FREQUENCIES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortColumn() {
+        DopplerTable.fillDownlink(new double[2], 3, FREQUENCIES[0], new long[3]);
+    }
+}
@@ -0,0 +1,151 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tests for the eclipse finder.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class EclipseFinderTest extends AbstractSatelliteTestBase {
+
+    private static final long DAY_MILLIS = 86400000L;
+
+    @Test
+    public void testUmbraTransitionsMatchEclipseFlag() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+
+        final EclipseFinder finder = new EclipseFinder(satellite);
+        final List<EclipseInterval> eclipses = finder.findEclipses(start, start + DAY_MILLIS);
+
+        Assert.assertTrue(eclipses.size() >= 15);
+
+        for (final EclipseInterval eclipse : eclipses) {
+            Assert.assertTrue(eclipse.hasUmbra());
+            Assert.assertTrue(eclipse.getPenumbraEntry() <= eclipse.getUmbraEntry());
+            Assert.assertTrue(eclipse.getUmbraEntry() < eclipse.getUmbraExit());
+            Assert.assertTrue(eclipse.getUmbraExit() <= eclipse.getPenumbraExit());
+
+            if (eclipse.getPenumbraEntry() > start) {
+                Assert.assertTrue(eclipse.getPenumbraMillis() > 5000L);
+                Assert.assertFalse(isEclipsed(satellite, eclipse.getUmbraEntry() - 500L));
+                Assert.assertTrue(isEclipsed(satellite, eclipse.getUmbraEntry() + 500L));
+            }
+            if (eclipse.getPenumbraExit() < start + DAY_MILLIS) {
+                Assert.assertTrue(isEclipsed(satellite, eclipse.getUmbraExit() - 500L));
+                Assert.assertFalse(isEclipsed(satellite, eclipse.getUmbraExit() + 500L));
+            }
+        }
+
+        /* Far cheaper than sampling the eclipse flag */
+        Assert.assertTrue(finder.getPropagationCount() < 1000);
+    }
+
+    @Test
+    public void testIlluminationFractionMatchesSampling() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+
+        final EclipseFinder finder = new EclipseFinder(satellite);
+        final double[] fractions = finder.getOrbitIlluminationFractions(start, 3);
+        Assert.assertEquals(3, fractions.length);
+
+        for (int i = 0; i < fractions.length; i++) {
+            final long orbitStart = start + i * finder.getPeriodMillis();
+            int lit = 0;
+            int samples = 0;
+            for (long t = orbitStart; t < orbitStart + finder.getPeriodMillis(); t += 1000L) {
+                if (!isEclipsed(satellite, t)) {
+                    lit++;
+                }
+                samples++;
+            }
+            Assert.assertEquals((double)lit / samples, fractions[i], 0.005);
+            Assert.assertEquals(fractions[i], finder.getIlluminationFraction(orbitStart,
+                    orbitStart + finder.getPeriodMillis()), 5.0E-5);
+        }
+    }
+
+    @Test
+    public void testGeostationaryEclipseSeason() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(GEOSYNC_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+
+        final EclipseFinder finder = new EclipseFinder(satellite);
+        final List<EclipseInterval> eclipses = finder.findEclipses(start, start + 45 * DAY_MILLIS);
+
+        /* Eclipses last no more than 72 minutes, and the season ends with grazes of the penumbra */
+        Assert.assertTrue(eclipses.size() > 20);
+        boolean grazed = false;
+        for (final EclipseInterval eclipse : eclipses) {
+            Assert.assertTrue(eclipse.getPenumbraExit() - eclipse.getPenumbraEntry() < 75 * 60000L);
+            if (eclipse.hasUmbra()) {
+                Assert.assertTrue(isEclipsed(satellite, eclipse.getUmbraEntry() + 500L));
+                Assert.assertFalse(isEclipsed(satellite, eclipse.getUmbraExit() + 500L));
+            }
+            else {
+                grazed = true;
+            }
+        }
+        Assert.assertTrue(grazed);
+        Assert.assertTrue(finder.getPropagationCount() < 5000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEndBeforeStart() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        new EclipseFinder(satellite).findEclipses(1000L, 0L);
+    }
+
+    private static boolean isEclipsed(final Satellite satellite, final long time) {
+        return satellite.getPosition(GROUND_STATION, new Date(time)).isEclipsed();
+    }
+}
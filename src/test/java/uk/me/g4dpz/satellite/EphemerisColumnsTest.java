@@ -0,0 +1,154 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+
+/**
+ * Tests for the batch propagation methods writing into EphemerisColumns.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class EphemerisColumnsTest extends AbstractSatelliteTestBase {
+
+    private static final long STEP_MILLIS = 30 * 1000L;
+    private static final int COUNT = 240;
+
+    @Test
+    public void testLeoColumnsMatchGetPosition() {
+        assertColumnsMatchGetPosition(LEO_TLE);
+    }
+
+    @Test
+    public void testDeepSpaceColumnsMatchGetPosition() {
+        assertColumnsMatchGetPosition(MOLNIYA_TLE);
+        assertColumnsMatchGetPosition(GEOSYNC_TLE);
+    }
+
+    @Test
+    public void testEpochArrayMatchesEvenSteps() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+
+        final long[] times = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            times[i] = start + i * STEP_MILLIS;
+        }
+
+        final EphemerisColumns stepped = new EphemerisColumns(COUNT, true);
+        final EphemerisColumns listed = new EphemerisColumns(COUNT, true);
+        satellite.calculatePositions(start, STEP_MILLIS, COUNT, GROUND_STATION, stepped);
+        satellite.calculatePositions(times, GROUND_STATION, listed);
+
+        Assert.assertArrayEquals(stepped.getPositionX(), listed.getPositionX(), 0.0);
+        Assert.assertArrayEquals(stepped.getVelocityZ(), listed.getVelocityZ(), 0.0);
+        Assert.assertArrayEquals(stepped.getLongitude(), listed.getLongitude(), 0.0);
+        Assert.assertArrayEquals(stepped.getRangeRate(), listed.getRangeRate(), 0.0);
+    }
+
+    @Test
+    public void testUnsetColumnsAreSkipped() {
+        final AbstractSatellite satellite = (AbstractSatellite) SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+
+        final double[] x = new double[COUNT];
+        final EphemerisColumns columns = new EphemerisColumns();
+        columns.setEci(x, null, null, null, null, null);
+
+        // no ground station needed when no look angles are asked for
+        satellite.calculatePositions(start, STEP_MILLIS, COUNT, null, columns);
+
+        final PropagationState state = new PropagationState();
+        satellite.calculateSatelliteVectors(new Date(start + 7 * STEP_MILLIS), state);
+        Assert.assertEquals(state.getPositionX(), x[7], 0.0);
+        Assert.assertNull(columns.getLatitude());
+        Assert.assertNull(columns.getAzimuth());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortColumnIsRejected() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final EphemerisColumns columns = new EphemerisColumns(COUNT - 1, false);
+        satellite.calculatePositions(new DateTime(EPOCH).getMillis(), STEP_MILLIS, COUNT, null, columns);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLookAnglesNeedGroundStation() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final EphemerisColumns columns = new EphemerisColumns(COUNT, true);
+        satellite.calculatePositions(new DateTime(EPOCH).getMillis(), STEP_MILLIS, COUNT, null, columns);
+    }
+
+    private void assertColumnsMatchGetPosition(final String[] tleLines) {
+        final AbstractSatellite satellite = (AbstractSatellite) SatelliteFactory.createSatellite(new TLE(tleLines));
+        final long start = new DateTime(EPOCH).getMillis();
+
+        final EphemerisColumns columns = new EphemerisColumns(COUNT, true);
+        satellite.calculatePositions(start, STEP_MILLIS, COUNT, GROUND_STATION, columns);
+
+        final PropagationState state = new PropagationState();
+
+        for (int i = 0; i < COUNT; i += 17) {
+            final Date date = new Date(start + i * STEP_MILLIS);
+            final SatPos satPos = satellite.getPosition(GROUND_STATION, date, state);
+
+            Assert.assertEquals(state.getPositionX(), columns.getPositionX()[i], 0.0);
+            Assert.assertEquals(state.getPositionY(), columns.getPositionY()[i], 0.0);
+            Assert.assertEquals(state.getPositionZ(), columns.getPositionZ()[i], 0.0);
+            Assert.assertEquals(state.getVelocityX(), columns.getVelocityX()[i], 0.0);
+            Assert.assertEquals(state.getVelocityY(), columns.getVelocityY()[i], 0.0);
+            Assert.assertEquals(state.getVelocityZ(), columns.getVelocityZ()[i], 0.0);
+            Assert.assertEquals(satPos.getLatitude(), columns.getLatitude()[i], 0.0);
+            Assert.assertEquals(satPos.getLongitude(), columns.getLongitude()[i], 0.0);
+            Assert.assertEquals(satPos.getAltitude(), columns.getAltitude()[i], 0.0);
+            Assert.assertEquals(satPos.getAzimuth(), columns.getAzimuth()[i], 0.0);
+            Assert.assertEquals(satPos.getElevation(), columns.getElevation()[i], 0.0);
+            Assert.assertEquals(satPos.getRange(), columns.getRange()[i], 0.0);
+            Assert.assertEquals(satPos.getRangeRate(), columns.getRangeRate()[i], 0.0);
+        }
+    }
+}
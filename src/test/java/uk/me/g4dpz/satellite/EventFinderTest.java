@@ -0,0 +1,168 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tests for the event finder.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class EventFinderTest extends AbstractSatelliteTestBase {
+
+    private static final long DAY_MILLIS = 86400000L;
+
+    @Test
+    public void testOneSweepFindsEveryEventType() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+        final long end = start + DAY_MILLIS;
+
+        final ElevationDetector elevation = new ElevationDetector();
+        final ClosestApproachDetector approach = new ClosestApproachDetector();
+        final EclipseDetector eclipse = new EclipseDetector();
+        final NodeDetector node = new NodeDetector();
+
+        final EventFinder finder = new EventFinder(satellite, GROUND_STATION)
+                .addDetector(elevation).addDetector(approach).addDetector(eclipse).addDetector(node);
+        final List<OrbitEvent> events = finder.findEvents(start, end);
+
+        /* AOS and LOS agree with the pass finder */
+        final List<SatPassTime> passes = new PassFinder(satellite, GROUND_STATION).getPasses(
+                new Date(start), new Date(end));
+        final List<OrbitEvent> horizon = select(events, elevation);
+        Assert.assertEquals(passes.size() * 2, horizon.size());
+
+        for (int i = 0; i < passes.size(); i++) {
+            final OrbitEvent aos = horizon.get(2 * i);
+            final OrbitEvent los = horizon.get(2 * i + 1);
+            Assert.assertTrue(aos.isRising());
+            Assert.assertFalse(los.isRising());
+            Assert.assertEquals(passes.get(i).getStartTime().getTime(), aos.getTimeMillis(), 200.0);
+            Assert.assertEquals(passes.get(i).getEndTime().getTime(), los.getTimeMillis(), 200.0);
+        }
+
+        /* The closest approach of each pass is at its TCA */
+        int closest = 0;
+        for (final OrbitEvent event : select(events, approach)) {
+            if (event.isRising() && event.getPosition().isAboveHorizon()) {
+                Assert.assertEquals(passes.get(closest).getTCA().getTime(), event.getTimeMillis(), 5000.0);
+                closest++;
+            }
+        }
+        Assert.assertEquals(passes.size(), closest);
+
+        /* The ISS enters and leaves the umbra once an orbit */
+        final List<OrbitEvent> shadow = select(events, eclipse);
+        Assert.assertTrue(shadow.size() >= 30);
+        for (final OrbitEvent event : shadow) {
+            final long t = event.getTimeMillis();
+            Assert.assertEquals(event.isRising(), satellite.getPosition(GROUND_STATION, new Date(t + 500L)).isEclipsed());
+            Assert.assertEquals(!event.isRising(), satellite.getPosition(GROUND_STATION, new Date(t - 500L)).isEclipsed());
+        }
+
+        /* Nodes alternate, with the latitude at zero */
+        final List<OrbitEvent> nodes = select(events, node);
+        Assert.assertEquals(31, nodes.size(), 1.0);
+        for (int i = 0; i < nodes.size(); i++) {
+            Assert.assertEquals(0.0, nodes.get(i).getPosition().getLatitude(), 1.0E-3);
+            if (i > 0) {
+                Assert.assertTrue(nodes.get(i).isRising() != nodes.get(i - 1).isRising());
+            }
+        }
+
+        /* Events come out in time order */
+        for (int i = 1; i < events.size(); i++) {
+            Assert.assertTrue(events.get(i - 1).getTimeMillis() <= events.get(i).getTimeMillis());
+        }
+
+        /* Much cheaper than sampling every event type each 10 seconds */
+        Assert.assertTrue(finder.getPropagationCount() < DAY_MILLIS / 10000L / 4);
+    }
+
+    @Test
+    public void testElevationMask() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+
+        final List<OrbitEvent> events = new EventFinder(satellite, GROUND_STATION)
+                .addDetector(new ElevationDetector(10.0)).findEvents(start, start + DAY_MILLIS);
+
+        Assert.assertFalse(events.isEmpty());
+        for (final OrbitEvent event : events) {
+            Assert.assertEquals(10.0, event.getPosition().getElevation() / AbstractSatellite.DEG2RAD, 0.05);
+        }
+    }
+
+    @Test
+    public void testNoDetectors() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+        final EventFinder finder = new EventFinder(satellite, GROUND_STATION);
+
+        Assert.assertTrue(finder.findEvents(start, start + DAY_MILLIS).isEmpty());
+        Assert.assertEquals(0, finder.getPropagationCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaskBelowHorizon() {
+        new ElevationDetector(-1.0);
+    }
+
+    private static List<OrbitEvent> select(final List<OrbitEvent> events, final EventDetector detector) {
+        final List<OrbitEvent> selected = new ArrayList<OrbitEvent>();
+        for (final OrbitEvent event : events) {
+            if (event.getDetector() == detector) {
+                selected.add(event);
+            }
+        }
+        return selected;
+    }
+}
@@ -42,10 +42,13 @@
  */
 package uk.me.g4dpz.satellite;
 
+import org.joda.time.DateTime;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 /**
  * @author David A. B. Johnson, badgersoft
  *
@@ -112,4 +115,52 @@ public final class GroundStationPositionTest {
         }
 
     }
+
+    @Test
+    public void testObserverIsKeptUntilHorizonChanges() {
+
+        final GroundStationPosition groundStationPosition = new GroundStationPosition(LATITUDE, LONGITUDE, HEIGHT_AMSL);
+
+        final Observer observer = groundStationPosition.getObserver();
+        Assert.assertSame(observer, groundStationPosition.getObserver());
+        Assert.assertEquals(LATITUDE, observer.getLatitude(), 0.0);
+        Assert.assertEquals(LONGITUDE, observer.getLongitude(), 0.0);
+        Assert.assertEquals(HEIGHT_AMSL, observer.getHeightAMSL(), 0.0);
+        Assert.assertEquals(0, observer.getHorizonElevation(5));
+
+        final int[] elevations = new int[36];
+        elevations[5] = 10;
+        groundStationPosition.setHorizonElevations(elevations);
+
+        final Observer changed = groundStationPosition.getObserver();
+        Assert.assertNotSame(observer, changed);
+        Assert.assertEquals(10, changed.getHorizonElevation(5));
+
+        // an observer already handed out does not change
+        Assert.assertEquals(0, observer.getHorizonElevation(5));
+    }
+
+    @Test
+    public void testHorizonMaskAppliesToPositions() {
+
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(AbstractSatelliteTestBase.LEO_TLE));
+        final GroundStationPosition groundStationPosition = new GroundStationPosition(52.4670, -2.022, 200);
+        final long start = new DateTime(AbstractSatelliteTestBase.EPOCH).getMillis();
+        final SatPos satPos = new SatPos();
+
+        // find a time when the satellite is above the horizon
+        long time = start;
+        do {
+            time += 10000L;
+            satellite.getPosition(groundStationPosition, time, satPos);
+        }
+        while (!satPos.isAboveHorizon());
+
+        final int[] elevations = new int[36];
+        Arrays.fill(elevations, 90);
+        groundStationPosition.setHorizonElevations(elevations);
+
+        satellite.getPosition(groundStationPosition, time, satPos);
+        Assert.assertFalse(satPos.isAboveHorizon());
+    }
 }
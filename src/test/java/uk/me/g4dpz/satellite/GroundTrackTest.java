@@ -0,0 +1,186 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests for the columnar ground track.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class GroundTrackTest extends AbstractSatelliteTestBase {
+
+    @Test
+    public void testTrackMatchesPositions() throws Exception {
+        final PassPredictor predictor = new PassPredictor(new TLE(LEO_TLE), GROUND_STATION);
+        final DateTime reference = new DateTime(EPOCH);
+
+        final List<SatPos> positions = predictor.getPositions(reference.toDate(), 30, 0, 180);
+        final GroundTrack track = predictor.getGroundTrack(reference.toDate(), 30, 0, 180, false);
+
+        Assert.assertEquals(positions.size(), track.size());
+        Assert.assertFalse(track.isFloatPrecision());
+
+        boolean sawEclipse = false;
+        boolean sawSunlight = false;
+        final SatPos satPos = new SatPos();
+
+        for (int i = 0; i < track.size(); i++) {
+            final SatPos expected = positions.get(i);
+            Assert.assertEquals(expected.getTimeMillis(), track.getTimeMillis(i));
+            Assert.assertEquals(expected.getAzimuth(), track.get(GroundTrack.Column.AZIMUTH, i), 0.0);
+            Assert.assertEquals(expected.getElevation(), track.get(GroundTrack.Column.ELEVATION, i), 0.0);
+            Assert.assertEquals(expected.getLatitude(), track.get(GroundTrack.Column.LATITUDE, i), 0.0);
+            Assert.assertEquals(expected.getLongitude(), track.get(GroundTrack.Column.LONGITUDE, i), 0.0);
+            Assert.assertEquals(expected.getAltitude(), track.get(GroundTrack.Column.ALTITUDE, i), 0.0);
+            Assert.assertEquals(expected.getRange(), track.get(GroundTrack.Column.RANGE, i), 0.0);
+            Assert.assertEquals(expected.getRangeRate(), track.get(GroundTrack.Column.RANGE_RATE, i), 0.0);
+            Assert.assertEquals(expected.isAboveHorizon(), track.isAboveHorizon(i));
+            Assert.assertEquals(expected.isEclipsed(), track.isEclipsed(i));
+
+            sawEclipse |= track.isEclipsed(i);
+            sawSunlight |= !track.isEclipsed(i);
+
+            track.getPosition(i, satPos);
+            Assert.assertEquals(expected.getTime(), satPos.getTime());
+            Assert.assertEquals(expected.getLatitude(), satPos.getLatitude(), 0.0);
+            Assert.assertEquals(expected.isEclipsed(), satPos.isEclipsed());
+        }
+
+        Assert.assertTrue(sawEclipse && sawSunlight);
+    }
+
+    @Test
+    public void testFloatPrecision() throws Exception {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+
+        final GroundTrack exact = GroundTrack.calculate(satellite, GROUND_STATION, start, 60000L, 200, false);
+        final GroundTrack compact = GroundTrack.calculate(satellite, GROUND_STATION, start, 60000L, 200, true);
+
+        Assert.assertTrue(compact.isFloatPrecision());
+        for (int i = 0; i < exact.size(); i++) {
+            Assert.assertEquals(exact.getTimeMillis(i), compact.getTimeMillis(i));
+            Assert.assertEquals(exact.isEclipsed(i), compact.isEclipsed(i));
+            for (final GroundTrack.Column column : GroundTrack.Column.values()) {
+                final double value = exact.get(column, i);
+                Assert.assertEquals(value, compact.get(column, i), Math.abs(value) * 1.0E-7);
+            }
+        }
+    }
+
+    @Test
+    public void testViewSharesSamples() throws Exception {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final long start = new DateTime(EPOCH).getMillis();
+        final GroundTrack track = GroundTrack.calculate(satellite, GROUND_STATION, start, 10000L, 150, false);
+
+        final GroundTrack view = track.view(70, 140);
+        Assert.assertEquals(70, view.size());
+        Assert.assertEquals(track.getTimeMillis(70), view.getTimeMillis(0));
+        Assert.assertEquals(track.isEclipsed(139), view.isEclipsed(69));
+        Assert.assertEquals(track.get(GroundTrack.Column.LATITUDE, 100),
+                view.get(GroundTrack.Column.LATITUDE, 30), 0.0);
+
+        final GroundTrack inner = view.view(10, 20);
+        Assert.assertEquals(track.getTimeMillis(80), inner.getTimeMillis(0));
+
+        final long[] times = inner.times().toArray();
+        Assert.assertEquals(10, times.length);
+        Assert.assertEquals(track.getTimeMillis(89), times[9]);
+        Assert.assertEquals(track.get(GroundTrack.Column.ALTITUDE, 85),
+                inner.stream(GroundTrack.Column.ALTITUDE).toArray()[5], 0.0);
+
+        final double[] longitudes = new double[12];
+        inner.copy(GroundTrack.Column.LONGITUDE, longitudes, 2);
+        Assert.assertEquals(track.get(GroundTrack.Column.LONGITUDE, 80), longitudes[2], 0.0);
+    }
+
+    @Test
+    public void testTrackGrows() {
+        final GroundTrack track = new GroundTrack(0, false);
+        for (int i = 0; i < 200; i++) {
+            track.add(i, i, -i, 0.0, 0.0, 400.0, 1000.0, 0.0, i % 2 == 0, i % 3 == 0);
+        }
+
+        Assert.assertEquals(200, track.size());
+        Assert.assertEquals(199L, track.getTimeMillis(199));
+        Assert.assertEquals(-150.0, track.get(GroundTrack.Column.ELEVATION, 150), 0.0);
+        Assert.assertTrue(track.isAboveHorizon(64));
+        Assert.assertFalse(track.isAboveHorizon(65));
+        Assert.assertTrue(track.isEclipsed(129));
+        Assert.assertFalse(track.isEclipsed(130));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testViewCannotBeAddedTo() {
+        final GroundTrack track = new GroundTrack(4, true);
+        track.add(0L, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, false, false);
+        track.view(0, 1).add(1L, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, false, false);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutsideView() {
+        final GroundTrack track = new GroundTrack(4, false);
+        track.add(0L, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, false, false);
+        track.add(1L, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, false, false);
+        track.view(0, 1).getTimeMillis(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroIncrementIsRejected() throws Exception {
+        final PassPredictor predictor = new PassPredictor(new TLE(LEO_TLE), GROUND_STATION);
+        predictor.getGroundTrack(new DateTime(EPOCH).toDate(), 0, 0, 180, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeIncrementIsRejected() throws Exception {
+        final PassPredictor predictor = new PassPredictor(new TLE(LEO_TLE), GROUND_STATION);
+        predictor.getGroundTrack(new DateTime(EPOCH).toDate(), -30, 0, 180, false);
+    }
+}
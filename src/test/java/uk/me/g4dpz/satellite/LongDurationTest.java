@@ -409,4 +409,28 @@ public class LongDurationTest extends AbstractSatelliteTestBase {
             Assert.fail("Pass quality test failed: " + e.getMessage());
         }
     }
+
+    @Test
+    public void testDeepSpaceRandomAccessMatchesFreshSatellite() {
+        final double[] offsetDays = {700.0, -300.0, 45.3, 1500.0, 12.0, -900.5, 300.7, 699.9, -2.25};
+        final DateTime startTime = new DateTime(EPOCH);
+
+        for (final String[] elements : new String[][] {GEOSYNC_TLE, MOLNIYA_TLE}) {
+            final TLE tle = new TLE(elements);
+            final Satellite shared = SatelliteFactory.createSatellite(tle);
+
+            for (int pass = 0; pass < 2; pass++) {
+                for (final double days : offsetDays) {
+                    final Date time = new Date(startTime.getMillis() + (long)(days * 86400000L));
+                    final SatPos expected = SatelliteFactory.createSatellite(tle)
+                            .getPosition(GROUND_STATION, time);
+                    final SatPos actual = shared.getPosition(GROUND_STATION, time);
+
+                    Assert.assertEquals(expected.getLatitude(), actual.getLatitude(), 0.0);
+                    Assert.assertEquals(expected.getLongitude(), actual.getLongitude(), 0.0);
+                    Assert.assertEquals(expected.getRange(), actual.getRange(), 0.0);
+                }
+            }
+        }
+    }
 }
@@ -44,8 +44,11 @@ package uk.me.g4dpz.satellite;
 
 import org.joda.time.DateTime;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+
 /**
  * Memory allocation and leak tests
  * 
@@ -335,6 +338,45 @@ public class MemoryTest extends AbstractSatelliteTestBase {
                 memoryPerSatKB < 50.0);
     }
 
+    @Test
+    public void testPrimitiveTimeGetPositionAllocatesNothing() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("Per thread allocation counting is not available",
+                bean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)bean;
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        final Satellite leo = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final Satellite deepSpace = SatelliteFactory.createSatellite(new TLE(MOLNIYA_TLE));
+        final SatPos leoPos = new SatPos();
+        final SatPos deepSpacePos = new SatPos();
+        final long start = new DateTime(EPOCH).getMillis();
+        final long threadId = Thread.currentThread().getId();
+
+        // first use creates the scratch state held by each SatPos, then let the JIT settle
+        for (int i = 0; i < 20000; i++) {
+            leo.getPosition(GROUND_STATION, start + i * 100L, leoPos);
+            deepSpace.getPosition(GROUND_STATION, start + i * 100L, deepSpacePos);
+        }
+
+        threadBean.getThreadAllocatedBytes(threadId);
+        final long before = threadBean.getThreadAllocatedBytes(threadId);
+
+        // a 10 Hz tracking loop, carrying on from where the warm up stopped
+        for (int i = 20000; i < 30000; i++) {
+            leo.getPosition(GROUND_STATION, start + i * 100L, leoPos);
+            deepSpace.getPosition(GROUND_STATION, start + i * 100L, deepSpacePos);
+        }
+
+        final long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        System.out.println(String.format("Primitive time getPosition: 20000 calls, %d bytes allocated", allocated));
+
+        Assert.assertEquals("getPosition(qth, epochMillis, satPos) should not allocate", 0, allocated);
+        Assert.assertEquals(start + 29999 * 100L, leoPos.getTimeMillis());
+    }
+
     /**
      * Get current used memory in bytes
      */
@@ -0,0 +1,179 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+
+/**
+ * Tests for look angles from many ground stations with one propagation.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class MultiStationTest extends AbstractSatelliteTestBase {
+
+    private static final GroundStationPosition[] STATIONS = {
+        GROUND_STATION,
+        new GroundStationPosition(-33.86, 151.21, 50),
+        new GroundStationPosition(64.84, -147.72, 136),
+        new GroundStationPosition(0.0, 0.0, 0),
+        new GroundStationPosition(-77.85, 166.67, 10)};
+
+    @Test
+    public void testLookAnglesMatchGetPosition() {
+        for (final String[] tle : new String[][] {LEO_TLE, MOLNIYA_TLE, GEOSYNC_TLE}) {
+            final Satellite satellite = SatelliteFactory.createSatellite(new TLE(tle));
+
+            for (int minute = 0; minute < 600; minute += 37) {
+                final DateTime date = new DateTime(EPOCH).plusMinutes(minute);
+
+                final double[] azimuth = new double[STATIONS.length];
+                final double[] elevation = new double[STATIONS.length];
+                final double[] range = new double[STATIONS.length];
+                final double[] rangeRate = new double[STATIONS.length];
+
+                satellite.calculateLookAngles(date.getMillis(), STATIONS, azimuth, elevation, range, rangeRate);
+
+                for (int i = 0; i < STATIONS.length; i++) {
+                    final SatPos expected = satellite.getPosition(STATIONS[i], date.toDate());
+
+                    Assert.assertEquals(expected.getAzimuth(), azimuth[i], 0.0);
+                    Assert.assertEquals(expected.getElevation(), elevation[i], 0.0);
+                    Assert.assertEquals(expected.getRange(), range[i], 0.0);
+                    Assert.assertEquals(expected.getRangeRate(), rangeRate[i], 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSharedTimeAndStateWithSomeArraysUnset() {
+        final AbstractSatellite satellite = (AbstractSatellite) SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final TimeContext time = new TimeContext(new DateTime(EPOCH).plusMinutes(90).getMillis());
+        final PropagationState state = new PropagationState();
+
+        final double[] elevation = new double[STATIONS.length];
+        final double[] expected = new double[STATIONS.length];
+
+        satellite.calculateLookAngles(time, state, STATIONS, null, elevation, null, null);
+        satellite.calculateLookAngles(time.getEpochMillis(), STATIONS, null, expected, null, null);
+
+        Assert.assertArrayEquals(expected, elevation, 0.0);
+        Assert.assertEquals(time.getJulianUTC(), state.getJulianUTC(), 0.0);
+    }
+
+    @Test
+    public void testDefaultMethodsOfAnotherImplementation() {
+        final Satellite delegate = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final Satellite satellite = new Satellite() {
+            @Override
+            @Deprecated
+            public void getPosition(final GroundStationPosition qth, final SatPos satPos, final Date time) {
+                delegate.getPosition(qth, satPos, time);
+            }
+
+            @Override
+            public boolean willBeSeen(final GroundStationPosition qth) {
+                return delegate.willBeSeen(qth);
+            }
+
+            @Override
+            public void calculateSatelliteVectors(final Date time) {
+                delegate.calculateSatelliteVectors(time);
+            }
+
+            @Override
+            public SatPos calculateSatelliteGroundTrack() {
+                return delegate.calculateSatelliteGroundTrack();
+            }
+
+            @Override
+            public SatPos calculateSatPosForGroundStation(final GroundStationPosition gsPos) {
+                return delegate.calculateSatPosForGroundStation(gsPos);
+            }
+
+            @Override
+            public TLE getTLE() {
+                return delegate.getTLE();
+            }
+
+            @Override
+            public SatPos getPosition(final GroundStationPosition qth, final Date time) {
+                return delegate.getPosition(qth, time);
+            }
+        };
+
+        final long epochMillis = new DateTime(EPOCH).plusMinutes(90).getMillis();
+
+        final double[] elevation = new double[STATIONS.length];
+        final double[] expected = new double[STATIONS.length];
+
+        satellite.calculateLookAngles(epochMillis, STATIONS, null, elevation, null, null);
+        delegate.calculateLookAngles(epochMillis, STATIONS, null, expected, null, null);
+        Assert.assertArrayEquals(expected, elevation, 0.0);
+
+        final SatPos satPos = new SatPos();
+        satellite.getPosition(GROUND_STATION, new TimeContext(epochMillis), satPos);
+        Assert.assertEquals(delegate.getPosition(GROUND_STATION, new Date(epochMillis)).getRange(),
+                satPos.getRange(), 0.0);
+        Assert.assertEquals(epochMillis, satPos.getTimeMillis());
+
+        try {
+            satellite.calculatePositions(new long[] {epochMillis}, null, new EphemerisColumns(1, false));
+            Assert.fail("Expected UnsupportedOperationException");
+        }
+        catch (final UnsupportedOperationException e) {
+            Assert.assertEquals("Batch propagation is not supported", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortArrayIsRejected() {
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        satellite.calculateLookAngles(new DateTime(EPOCH).getMillis(), STATIONS,
+                new double[STATIONS.length], new double[STATIONS.length - 1], null, null);
+    }
+}
@@ -0,0 +1,176 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tests for the pass cache.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class PassCacheTest extends AbstractSatelliteTestBase {
+
+    private static final DateTime START = new DateTime(EPOCH);
+
+    @Test
+    public void testRepeatedRequestIsAHit() {
+        final TLE tle = new TLE(LEO_TLE);
+        final PassCache cache = new PassCache(10);
+        final Date end = START.plusDays(1).toDate();
+
+        final List<SatPassTime> first = cache.getPasses(tle, GROUND_STATION, START.toDate(), end);
+        Assert.assertEquals(new PassFinder(tle, GROUND_STATION).getPasses(START.toDate(), end), first);
+        Assert.assertEquals(0, cache.getHitCount());
+
+        /* An equal station and a re-read element set hit the same entry */
+        final GroundStationPosition sameStation = new GroundStationPosition(
+                GROUND_STATION.getLatitude(), GROUND_STATION.getLongitude(), GROUND_STATION.getHeightAMSL());
+        Assert.assertEquals(first, cache.getPasses(new TLE(LEO_TLE), sameStation, START.toDate(), end));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testOverlappingWindowsReuseCachedPasses() {
+        final TLE tle = new TLE(LEO_TLE);
+        final PassCache cache = new PassCache(10);
+
+        cache.getPasses(tle, GROUND_STATION, START.toDate(), START.plusDays(1).toDate());
+
+        /* Inside the cached window */
+        final Date from = START.plusHours(5).toDate();
+        final Date to = START.plusHours(20).toDate();
+        assertSamePasses(new PassFinder(tle, GROUND_STATION).getPasses(from, to),
+                cache.getPasses(tle, GROUND_STATION, from, to));
+        Assert.assertEquals(1, cache.getHitCount());
+
+        /* Overlapping it, so only the second day is searched */
+        final Date later = START.plusDays(2).toDate();
+        assertSamePasses(new PassFinder(tle, GROUND_STATION).getPasses(from, later),
+                cache.getPasses(tle, GROUND_STATION, from, later));
+        Assert.assertEquals(2, cache.getMissCount());
+
+        /* And now both days are cached */
+        assertSamePasses(new PassFinder(tle, GROUND_STATION).getPasses(START.toDate(), later),
+                cache.getPasses(tle, GROUND_STATION, START.toDate(), later));
+        Assert.assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        final TLE tle = new TLE(LEO_TLE);
+        final PassCache cache = new PassCache(2);
+        final Date end = START.plusHours(6).toDate();
+        final GroundStationPosition[] stations = {
+            GROUND_STATION,
+            new GroundStationPosition(-33.86, 151.21, 50),
+            new GroundStationPosition(64.84, -147.72, 136)};
+
+        cache.getPasses(tle, stations[0], START.toDate(), end);
+        cache.getPasses(tle, stations[1], START.toDate(), end);
+        cache.getPasses(tle, stations[0], START.toDate(), end);
+        cache.getPasses(tle, stations[2], START.toDate(), end);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getHitCount());
+
+        cache.getPasses(tle, stations[0], START.toDate(), end);
+        Assert.assertEquals(2, cache.getHitCount());
+
+        cache.getPasses(tle, stations[1], START.toDate(), end);
+        Assert.assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testNewerElementSetInvalidates() {
+        final TLE older = new TLE(LEO_TLE);
+        final TLE newer = new TLE(new String[] {LEO_TLE[0],
+            LEO_TLE[1].replace("26045.79523799", "26046.29523799"), LEO_TLE[2]});
+        final PassCache cache = new PassCache(10);
+        final Date end = START.plusDays(1).toDate();
+
+        Assert.assertTrue(newer.getEpochMillis() > older.getEpochMillis());
+
+        cache.getPasses(older, GROUND_STATION, START.toDate(), end);
+        cache.getPasses(new TLE(WEATHER_TLE), GROUND_STATION, START.toDate(), end);
+        Assert.assertEquals(2, cache.size());
+
+        Assert.assertTrue(cache.register(newer));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertFalse(cache.register(older));
+
+        /* The older element set is still answered, but not cached */
+        Assert.assertFalse(cache.getPasses(older, GROUND_STATION, START.toDate(), end).isEmpty());
+        Assert.assertEquals(1, cache.size());
+
+        cache.getPasses(newer, GROUND_STATION, START.toDate(), end);
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEpochMillis() {
+        Assert.assertEquals(new DateTime("2026-02-14T19:05:08.562Z").getMillis(),
+                new TLE(LEO_TLE).getEpochMillis(), 1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroSize() {
+        new PassCache(0);
+    }
+
+    private static void assertSamePasses(final List<SatPassTime> expected, final List<SatPassTime> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getStartTime().getTime(), actual.get(i).getStartTime().getTime(),
+                    PassFinder.CROSSING_TOLERANCE_MILLIS);
+            Assert.assertEquals(expected.get(i).getEndTime().getTime(), actual.get(i).getEndTime().getTime(),
+                    PassFinder.CROSSING_TOLERANCE_MILLIS);
+            Assert.assertEquals(expected.get(i).getMaxEl(), actual.get(i).getMaxEl(), 0.01);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tests for predicting the passes of a catalog over many ground stations.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class PassEngineTest extends AbstractSatelliteTestBase {
+
+    private static final List<GroundStationPosition> STATIONS = Arrays.asList(
+            GROUND_STATION,
+            new GroundStationPosition(-33.86, 151.21, 50),
+            new GroundStationPosition(64.84, -147.72, 136));
+
+    private static final List<TLE> CATALOG = Arrays.asList(
+            new TLE(LEO_TLE),
+            new TLE(WEATHER_TLE),
+            new TLE(MOLNIYA_TLE),
+            new TLE(DEEP_SPACE_TLE));
+
+    @Test
+    public void testPassesMatchPassFinder() {
+        final Date start = new DateTime(EPOCH).toDate();
+        final Date end = new DateTime(EPOCH).plusDays(1).toDate();
+
+        final List<ScheduledPass> passes = new PassEngine(4, PassEngine.Order.SATELLITE)
+                .getPasses(CATALOG, STATIONS, start, end);
+
+        int index = 0;
+
+        for (final TLE tle : CATALOG) {
+            for (final GroundStationPosition station : STATIONS) {
+                for (final SatPassTime expected : new PassFinder(tle, station).getPasses(start, end)) {
+                    final ScheduledPass actual = passes.get(index++);
+                    Assert.assertSame(tle, actual.getTLE());
+                    Assert.assertSame(station, actual.getGroundStation());
+                    Assert.assertEquals(expected, actual.getPass());
+                }
+            }
+        }
+
+        Assert.assertEquals(index, passes.size());
+        Assert.assertTrue(passes.size() > 10);
+    }
+
+    @Test
+    public void testOrderDoesNotDependOnParallelism() {
+        final Date start = new DateTime(EPOCH).toDate();
+        final Date end = new DateTime(EPOCH).plusDays(1).toDate();
+
+        final List<ScheduledPass> serial = new PassEngine(1, PassEngine.Order.TIME)
+                .getPasses(CATALOG, STATIONS, start, end);
+
+        for (final int parallelism : new int[] {2, 3, 8}) {
+            final List<ScheduledPass> parallel = new PassEngine(parallelism, PassEngine.Order.TIME)
+                    .getPasses(CATALOG, STATIONS, start, end);
+
+            Assert.assertEquals(serial.size(), parallel.size());
+
+            for (int i = 0; i < serial.size(); i++) {
+                Assert.assertSame(serial.get(i).getTLE(), parallel.get(i).getTLE());
+                Assert.assertSame(serial.get(i).getGroundStation(), parallel.get(i).getGroundStation());
+                Assert.assertEquals(serial.get(i).getPass(), parallel.get(i).getPass());
+            }
+        }
+
+        for (int i = 1; i < serial.size(); i++) {
+            Assert.assertFalse(serial.get(i).getPass().getStartTime()
+                    .before(serial.get(i - 1).getPass().getStartTime()));
+        }
+    }
+
+    @Test
+    public void testEmptyCatalog() {
+        final Date start = new DateTime(EPOCH).toDate();
+
+        Assert.assertTrue(new PassEngine().getPasses(Arrays.<TLE>asList(), STATIONS, start, start).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroParallelism() {
+        new PassEngine(0, PassEngine.Order.TIME);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullCatalog() {
+        final Date start = new DateTime(EPOCH).toDate();
+        new PassEngine().getPasses(null, STATIONS, start, start);
+    }
+}
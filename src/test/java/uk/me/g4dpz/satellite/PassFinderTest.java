@@ -0,0 +1,260 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for finding passes by root finding.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class PassFinderTest extends AbstractSatelliteTestBase {
+
+    private static final double HORIZON_TOLERANCE = 0.02;
+
+    @Test
+    public void testPassesAgreeWithPassPredictor() throws Exception {
+        final TLE tle = new TLE(LEO_TLE);
+        final DateTime start = new DateTime(EPOCH);
+
+        final PassPredictor predictor = new PassPredictor(tle, GROUND_STATION);
+        final List<SatPassTime> expected = predictor.getPasses(start.toDate(), 24, false);
+
+        final PassFinder finder = new PassFinder(tle, GROUND_STATION);
+        final List<SatPassTime> actual = finder.getPasses(start.toDate(), start.plusHours(24).toDate());
+
+        Assert.assertTrue(actual.size() > 3);
+        Assert.assertTrue(expected.size() >= actual.size());
+
+        for (int i = 0; i < actual.size(); i++) {
+            final SatPassTime grid = expected.get(i);
+            final SatPassTime pass = actual.get(i);
+
+            /* The 5 second grid reports the first sample above the horizon and the first below */
+            final long aosLag = grid.getStartTime().getTime() - pass.getStartTime().getTime();
+            final long losLag = grid.getEndTime().getTime() - pass.getEndTime().getTime();
+            Assert.assertTrue("AOS " + aosLag, aosLag >= -PassFinder.CROSSING_TOLERANCE_MILLIS && aosLag <= 5000);
+            Assert.assertTrue("LOS " + losLag, losLag >= -PassFinder.CROSSING_TOLERANCE_MILLIS && losLag <= 5000);
+            Assert.assertTrue(pass.getMaxEl() >= grid.getMaxEl() - 1e-6);
+            Assert.assertEquals(grid.getPolePassed(), pass.getPolePassed());
+            Assert.assertEquals(grid.getAosAzimuth(), pass.getAosAzimuth(), 1.0);
+            Assert.assertEquals(grid.getLosAzimuth(), pass.getLosAzimuth(), 1.0);
+        }
+    }
+
+    @Test
+    public void testCrossingsAreOnTheHorizon() {
+        for (final String[] elements : new String[][] {LEO_TLE, MOLNIYA_TLE}) {
+            final Satellite satellite = SatelliteFactory.createSatellite(new TLE(elements));
+            final DateTime start = new DateTime(EPOCH);
+            final PassFinder finder = new PassFinder(satellite, GROUND_STATION);
+            final List<SatPassTime> passes = finder.getPasses(start.toDate(), start.plusDays(2).toDate());
+
+            Assert.assertFalse(passes.isEmpty());
+
+            for (final SatPassTime pass : passes) {
+                final SatPos aos = satellite.getPosition(GROUND_STATION, pass.getStartTime());
+                final SatPos los = satellite.getPosition(GROUND_STATION, pass.getEndTime());
+                final SatPos tca = satellite.getPosition(GROUND_STATION, pass.getTCA());
+
+                Assert.assertEquals(0.0, Math.toDegrees(aos.getElevation()), HORIZON_TOLERANCE);
+                Assert.assertEquals(0.0, Math.toDegrees(los.getElevation()), HORIZON_TOLERANCE);
+                Assert.assertEquals(pass.getMaxEl(), Math.toDegrees(tca.getElevation()), 1e-9);
+
+                /* Nothing noticeably higher on a fine scan of the pass */
+                final long startMillis = pass.getStartTime().getTime();
+                final long endMillis = pass.getEndTime().getTime();
+                final long step = Math.max(1000, (endMillis - startMillis) / 2000);
+
+                for (long time = startMillis; time < endMillis; time += step) {
+                    final SatPos near = satellite.getPosition(GROUND_STATION, new Date(time));
+                    Assert.assertTrue(Math.toDegrees(near.getElevation()) < pass.getMaxEl() + 0.001);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRefiningAPassTakesFewPropagations() {
+        final TLE tle = new TLE(LEO_TLE);
+        final DateTime start = new DateTime(EPOCH);
+
+        for (final SatPassTime pass : new PassFinder(tle, GROUND_STATION)
+                .getPasses(start.toDate(), start.plusDays(1).toDate())) {
+            final PassFinder finder = new PassFinder(tle, GROUND_STATION);
+            final long justBefore = pass.getStartTime().getTime() - 30000;
+
+            final SatPassTime refound = finder.nextPass(justBefore, justBefore + 3600000);
+
+            Assert.assertEquals(pass.getStartTime().getTime(), refound.getStartTime().getTime(),
+                    PassFinder.CROSSING_TOLERANCE_MILLIS);
+            Assert.assertTrue("Propagations " + finder.getPropagationCount(), finder.getPropagationCount() <= 25);
+        }
+    }
+
+    @Test
+    public void testVisibilityFilterNeverSkipsAVisibleTime() {
+        final DateTime start = new DateTime(EPOCH);
+
+        for (final String[] elements : new String[][] {LEO_TLE, WEATHER_TLE, MOLNIYA_TLE}) {
+            final TLE tle = new TLE(elements);
+            final Satellite satellite = SatelliteFactory.createSatellite(tle);
+            final VisibilityFilter filter = new VisibilityFilter(tle, GROUND_STATION.getObserver());
+            int skipped = 0;
+
+            for (long time = start.getMillis(); time < start.plusDays(1).getMillis(); time += 300000) {
+                final long invisible = filter.getInvisibleMillis(satellite.getPosition(GROUND_STATION, new Date(time)));
+
+                for (long offset = 0; offset < invisible; offset += 20000) {
+                    final SatPos later = satellite.getPosition(GROUND_STATION, new Date(time + offset));
+                    Assert.assertTrue(later.getElevation() <= 0.0);
+                }
+
+                if (invisible > PassFinder.SEARCH_STEP_MILLIS) {
+                    skipped++;
+                }
+            }
+
+            Assert.assertTrue(skipped > 0);
+        }
+    }
+
+    @Test
+    public void testStreamIsLazy() {
+        final TLE tle = new TLE(LEO_TLE);
+        final DateTime start = new DateTime(EPOCH);
+        final Date end = start.plusDays(2).toDate();
+
+        final PassFinder all = new PassFinder(tle, GROUND_STATION);
+        final List<SatPassTime> passes = all.getPasses(start.toDate(), end);
+        Assert.assertEquals(passes, new PassFinder(tle, GROUND_STATION).stream(start.toDate(), end)
+                .collect(Collectors.toList()));
+
+        for (final SatPassTime pass : passes) {
+            Assert.assertTrue(pass.getStartTime().before(end));
+        }
+
+        final PassFinder first = new PassFinder(tle, GROUND_STATION);
+        final SatPassTime high = first.stream(start.toDate(), end)
+                .filter(pass -> pass.getMaxEl() > 30.0).findFirst().get();
+        Assert.assertTrue(passes.contains(high));
+        Assert.assertTrue(first.getPropagationCount() < all.getPropagationCount() / 2);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorEnds() {
+        final DateTime start = new DateTime(EPOCH);
+        final Iterator<SatPassTime> iterator = new PassFinder(new TLE(LEO_TLE), GROUND_STATION)
+                .iterator(start.toDate(), start.plusHours(2).toDate());
+
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+
+        iterator.next();
+    }
+
+    @Test
+    public void testPassInProgressIsFoundWhole() {
+        final TLE tle = new TLE(LEO_TLE);
+        final DateTime start = new DateTime(EPOCH);
+        final SatPassTime pass = new PassFinder(tle, GROUND_STATION)
+                .nextPass(start.toDate(), start.plusDays(1).toDate());
+
+        final SatPassTime inProgress = new PassFinder(tle, GROUND_STATION)
+                .nextPass(pass.getTCA(), start.plusDays(1).toDate());
+
+        Assert.assertEquals(pass.getStartTime().getTime(), inProgress.getStartTime().getTime(),
+                PassFinder.CROSSING_TOLERANCE_MILLIS);
+        Assert.assertEquals(pass.getEndTime().getTime(), inProgress.getEndTime().getTime(),
+                PassFinder.CROSSING_TOLERANCE_MILLIS);
+        Assert.assertEquals(pass.getMaxEl(), inProgress.getMaxEl(), 0.01);
+    }
+
+    @Test
+    public void testNoPasses() {
+        final DateTime start = new DateTime(EPOCH);
+        final GroundStationPosition pole = new GroundStationPosition(89.0, 0.0, 0.0);
+        final PassFinder finder = new PassFinder(new TLE(LEO_TLE), pole);
+
+        Assert.assertNull(finder.nextPass(start.toDate(), start.plusDays(1).toDate()));
+        Assert.assertEquals(0, finder.getPropagationCount());
+
+        final PassFinder empty = new PassFinder(new TLE(LEO_TLE), GROUND_STATION);
+        Assert.assertNull(empty.nextPass(start.toDate(), start.toDate()));
+    }
+
+    @Test
+    public void testGeostationaryPassIsOnePeriod() {
+        final DateTime start = new DateTime(EPOCH);
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(GEOSYNC_TLE));
+        final PassFinder finder = new PassFinder(satellite, GROUND_STATION);
+
+        if (satellite.getPosition(GROUND_STATION, start.toDate()).getElevation() > 0.0) {
+            final SatPassTime pass = finder.nextPass(start.toDate(), start.plusDays(1).toDate());
+            final long duration = pass.getEndTime().getTime() - pass.getStartTime().getTime();
+
+            Assert.assertTrue(duration > 0);
+            Assert.assertTrue(duration <= 2 * 86400000L / satellite.getTLE().getMeanmo());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullSatellite() {
+        new PassFinder((Satellite)null, GROUND_STATION);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullGroundStation() {
+        new PassFinder(new TLE(LEO_TLE), null);
+    }
+}
@@ -47,6 +47,7 @@ import org.junit.*;
 
 import java.util.Calendar;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -236,6 +237,32 @@ public class PassPredictorTest extends AbstractSatelliteTestBase {
 
 
 
+    @Test
+    public void testPassStreamStopsAtTheWindow() throws InvalidTleException, SatNotFoundException {
+
+        final TLE tle = new TLE(LEO_TLE);
+        final DateTime start = new DateTime(DATE_2014_03_15T00_00_00Z);
+        final long end = start.plusHours(24).getMillis();
+
+        final List<SatPassTime> passes = new PassPredictor(tle, GROUND_STATION).getPasses(start.toDate(), 24, false);
+        final List<SatPassTime> streamed = new PassPredictor(tle, GROUND_STATION)
+                .getPassStream(start.toDate(), 24, false).collect(Collectors.toList());
+
+        // getPasses includes the first pass after the window, the stream does not
+        assertTrue(passes.get(passes.size() - 1).getStartTime().getTime() >= end);
+        assertEquals(passes.subList(0, passes.size() - 1), streamed);
+
+        // stopping early needs fewer propagations
+        final PassPredictor predictor = new PassPredictor(tle, GROUND_STATION);
+        final SatPassTime high = predictor.getPassStream(start.toDate(), 24, false)
+                .filter(pass -> pass.getMaxEl() > 30.0).findFirst().get();
+        assertEquals("2026-02-15T07:44:25+0000", TZ_FORMAT.format(high.getStartTime()));
+
+        final PassPredictor all = new PassPredictor(tle, GROUND_STATION);
+        all.getPassStream(start.toDate(), 24, false).count();
+        assertTrue(predictor.getIterationCount() < all.getIterationCount());
+    }
+
     @Test
     public void testGetSatelliteTrack() throws Exception {
 
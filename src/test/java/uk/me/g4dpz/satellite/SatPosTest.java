@@ -104,4 +104,35 @@ public final class SatPosTest extends AbstractSatelliteTestBase {
         Assert.assertTrue(position.getAltitude() < 450.0);
         Assert.assertTrue(position.getRange() > 0);
     }
+
+    @Test
+    public void getPositionIntoSatPosMatchesDateTest() {
+
+        final DateTime cal = new DateTime(DATE_2026_02_15T04_30_00Z);
+        final GroundStationPosition qth = new GroundStationPosition(52.4670, -2.022, 200.0);
+
+        final Satellite satellite = SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final SatPos reused = new SatPos();
+
+        for (int minute = 0; minute < 120; minute += 7) {
+            final DateTime time = cal.plusMinutes(minute);
+            final SatPos expected = satellite.getPosition(qth, time.toDate());
+
+            satellite.getPosition(qth, time.getMillis(), reused);
+
+            Assert.assertEquals(expected.toString(), reused.toString());
+            Assert.assertEquals(expected.getTime(), reused.getTime());
+            Assert.assertEquals(expected.getAzimuth(), reused.getAzimuth(), 0.0);
+            Assert.assertEquals(expected.getElevation(), reused.getElevation(), 0.0);
+            Assert.assertEquals(expected.getLatitude(), reused.getLatitude(), 0.0);
+            Assert.assertEquals(expected.getLongitude(), reused.getLongitude(), 0.0);
+            Assert.assertEquals(expected.getEclipseDepth(), reused.getEclipseDepth(), 0.0);
+        }
+
+        // a copy keeps its own time when the SatPos it came from is reused
+        final SatPos copy = new SatPos();
+        copy.copy(reused);
+        satellite.getPosition(qth, cal.getMillis(), reused);
+        Assert.assertEquals(cal.plusMinutes(119).getMillis(), copy.getTimeMillis());
+    }
 }
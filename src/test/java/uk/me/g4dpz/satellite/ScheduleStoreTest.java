@@ -0,0 +1,154 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tests for keeping a schedule up to date as element sets are refreshed.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class ScheduleStoreTest extends AbstractSatelliteTestBase {
+
+    private static final List<GroundStationPosition> STATIONS = Arrays.asList(
+            GROUND_STATION,
+            new GroundStationPosition(-33.86, 151.21, 50));
+
+    private static final Date START = new DateTime(EPOCH).toDate();
+    private static final Date END = new DateTime(EPOCH).plusDays(2).toDate();
+
+    /** The ISS elements with an epoch 8.64 seconds later, so every pass is 8.64 seconds later. */
+    private static final TLE NEWER = new TLE(new String[] {LEO_TLE[0],
+        LEO_TLE[1].replace("26045.79523799", "26045.79533799"), LEO_TLE[2]});
+
+    @Test
+    public void testSmallMovesKeepPasses() {
+        final ScheduleStore store = new ScheduleStore(STATIONS, START, END, 30000);
+        final TLE tle = new TLE(LEO_TLE);
+
+        Assert.assertTrue(store.update(tle));
+        final List<ScheduledPass> before = store.getPasses(tle.getCatnum());
+        Assert.assertTrue(before.size() > 10);
+
+        /* The same element set again changes nothing */
+        final long searched = store.getPropagationCount();
+        Assert.assertFalse(store.update(new TLE(LEO_TLE)));
+        Assert.assertEquals(searched, store.getPropagationCount());
+
+        Assert.assertTrue(store.update(NEWER));
+        final List<ScheduledPass> after = store.getPasses(tle.getCatnum());
+
+        Assert.assertEquals(before.size(), after.size());
+        for (int i = 0; i < before.size(); i++) {
+            Assert.assertSame(before.get(i).getPass(), after.get(i).getPass());
+            Assert.assertSame(NEWER, after.get(i).getTLE());
+        }
+
+        /* Four propagations re-check each pass */
+        Assert.assertEquals(searched + 4 * before.size(), store.getPropagationCount());
+        Assert.assertSame(NEWER, store.getTLE(tle.getCatnum()));
+    }
+
+    @Test
+    public void testLargerMovesAreRefined() {
+        final ScheduleStore store = new ScheduleStore(STATIONS, START, END, 1000);
+        final TLE tle = new TLE(LEO_TLE);
+
+        store.update(tle);
+        final long searched = store.getPropagationCount();
+
+        store.update(NEWER);
+        final long refreshed = store.getPropagationCount() - searched;
+        Assert.assertTrue("Refresh took " + refreshed + " of " + searched, refreshed * 2 < searched);
+
+        final ScheduleStore fresh = new ScheduleStore(STATIONS, START, END, 1000);
+        fresh.update(NEWER);
+
+        final List<ScheduledPass> expected = fresh.getPasses(tle.getCatnum());
+        final List<ScheduledPass> actual = store.getPasses(tle.getCatnum());
+        Assert.assertEquals(expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            final SatPassTime pass = actual.get(i).getPass();
+            Assert.assertSame(expected.get(i).getGroundStation(), actual.get(i).getGroundStation());
+            Assert.assertEquals(expected.get(i).getPass().getStartTime().getTime(), pass.getStartTime().getTime(),
+                    2 * PassFinder.CROSSING_TOLERANCE_MILLIS);
+            Assert.assertEquals(expected.get(i).getPass().getEndTime().getTime(), pass.getEndTime().getTime(),
+                    2 * PassFinder.CROSSING_TOLERANCE_MILLIS);
+            Assert.assertEquals(expected.get(i).getPass().getMaxEl(), pass.getMaxEl(), 0.01);
+        }
+    }
+
+    @Test
+    public void testOtherSatellitesAreLeftAlone() {
+        final ScheduleStore store = new ScheduleStore(STATIONS, START, END, 1000);
+
+        Assert.assertEquals(2, store.update(Arrays.asList(new TLE(LEO_TLE), new TLE(WEATHER_TLE))));
+        final TLE weather = new TLE(WEATHER_TLE);
+        final List<ScheduledPass> weatherPasses = store.getPasses(weather.getCatnum());
+
+        Assert.assertEquals(1, store.update(Arrays.asList(NEWER, new TLE(WEATHER_TLE))));
+        Assert.assertSame(weatherPasses, store.getPasses(weather.getCatnum()));
+
+        final List<ScheduledPass> all = store.getPasses();
+        for (int i = 1; i < all.size(); i++) {
+            Assert.assertFalse(all.get(i).getPass().getStartTime().before(all.get(i - 1).getPass().getStartTime()));
+        }
+
+        store.remove(weather.getCatnum());
+        Assert.assertTrue(store.getPasses(weather.getCatnum()).isEmpty());
+        Assert.assertNull(store.getTLE(weather.getCatnum()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroTolerance() {
+        new ScheduleStore(STATIONS, START, END, 0);
+    }
+}
@@ -0,0 +1,166 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Tests for the fixed column TLE parser.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class TLEParserTest extends AbstractSatelliteTestBase {
+
+    private static final String LEO_FILE = "src/test/resources/LEO.txt";
+
+    @Test
+    public void testParseMatchesConstructorOverFile() throws Exception {
+        final List<TLE> expected;
+        try (InputStream in = new FileInputStream(LEO_FILE)) {
+            expected = TLE.importSat(in);
+        }
+        Assert.assertFalse(expected.isEmpty());
+
+        final List<String> lines = Files.readAllLines(Paths.get(LEO_FILE), StandardCharsets.UTF_8);
+        final byte[] data = Files.readAllBytes(Paths.get(LEO_FILE));
+        final TLEParser parser = new TLEParser();
+
+        int offset = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            final String name = lines.get(3 * i);
+            final String line1 = lines.get(3 * i + 1);
+            final String line2 = lines.get(3 * i + 2);
+
+            assertSameTLE(expected.get(i), parser.parse(name, line1, line2));
+
+            /* The same record read straight from the file's bytes */
+            final int line1Start = nextLine(data, offset);
+            final int line2Start = nextLine(data, line1Start);
+            assertSameTLE(expected.get(i), parser.parse(data, offset, lineEnd(data, offset), line1Start, line2Start));
+            offset = nextLine(data, line2Start);
+        }
+    }
+
+    @Test
+    public void testParseMatchesConstructorForEveryOrbitType() {
+        final TLEParser parser = new TLEParser();
+
+        for (final String[] tle : new String[][] {LEO_TLE, DEEP_SPACE_TLE, GEOSYNC_TLE, MOLNIYA_TLE,
+                WEATHER_TLE, DE_ORBIT_TLE}) {
+            assertSameTLE(new TLE(tle), parser.parse(tle[0], tle[1], tle[2]));
+
+            final byte[] data = (tle[0] + "\r\n" + tle[1] + "\r\n" + tle[2] + "\r\n").getBytes(StandardCharsets.US_ASCII);
+            final int line1Start = tle[0].length() + 2;
+            final int line2Start = line1Start + tle[1].length() + 2;
+            assertSameTLE(new TLE(tle), parser.parse(data, 0, tle[0].length(), line1Start, line2Start));
+        }
+    }
+
+    @Test
+    public void testTwoLineElementSetIsNamedByCatalogNumber() {
+        final TLE tle = new TLEParser().parse(null, LEO_TLE[1], LEO_TLE[2]);
+        Assert.assertEquals("25544", tle.getName());
+        Assert.assertEquals(25544, tle.getCatnum());
+
+        final byte[] data = (LEO_TLE[1] + "\n" + LEO_TLE[2]).getBytes(StandardCharsets.US_ASCII);
+        Assert.assertEquals("25544", new TLEParser().parse(data, -1, -1, 0, LEO_TLE[1].length() + 1).getName());
+    }
+
+    @Test
+    public void testBadChecksum() {
+        final String line2 = LEO_TLE[2].substring(0, 68) + ((LEO_TLE[2].charAt(68) - '0' + 1) % 10);
+
+        try {
+            new TLEParser().parse(LEO_TLE[0], LEO_TLE[1], line2);
+            Assert.fail("Expected IllegalArgumentException");
+        }
+        catch (final IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().startsWith("TLE line 2 has checksum"));
+        }
+
+        /* Accepted when checksums are not verified */
+        assertSameTLE(new TLE(LEO_TLE), new TLEParser(false).parse(LEO_TLE[0], LEO_TLE[1], line2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLinesSwapped() {
+        new TLEParser().parse(LEO_TLE[0], LEO_TLE[2], LEO_TLE[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortLine() {
+        new TLEParser().parse(LEO_TLE[0], LEO_TLE[1].substring(0, 60), LEO_TLE[2]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadNumber() {
+        new TLEParser(false).parse(LEO_TLE[0], LEO_TLE[1], LEO_TLE[2].replace("51.6315", "51.6x15"));
+    }
+
+    private static int lineEnd(final byte[] data, final int start) {
+        int end = start;
+        while (end < data.length && data[end] != '\n' && data[end] != '\r') {
+            end++;
+        }
+        return end;
+    }
+
+    private static int nextLine(final byte[] data, final int start) {
+        int next = lineEnd(data, start);
+        if (next < data.length && data[next] == '\r') {
+            next++;
+        }
+        if (next < data.length && data[next] == '\n') {
+            next++;
+        }
+        return next;
+    }
+}
@@ -0,0 +1,194 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the multi-epoch element set store.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class TLEStoreTest extends AbstractSatelliteTestBase {
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    @Test
+    public void testNearestEpochChangesAtMidpoint() {
+        final TLEStore store = new TLEStore();
+        final TLE first = iss(26040.5, 101);
+        final TLE second = iss(26042.5, 102);
+        final TLE third = iss(26045.5, 103);
+
+        /* Added out of order */
+        Assert.assertTrue(store.add(third));
+        Assert.assertTrue(store.add(first));
+        Assert.assertTrue(store.add(second));
+
+        Assert.assertEquals(1, store.size());
+        Assert.assertEquals(3, store.getElementSetCount());
+        Assert.assertArrayEquals(new long[] {first.getEpochMillis(), second.getEpochMillis(), third.getEpochMillis()},
+                store.getEpochs(25544));
+
+        final long midpoint = first.getEpochMillis() + MILLIS_PER_DAY;
+        Assert.assertSame(first, store.getTLE(25544, first.getEpochMillis() - 100 * MILLIS_PER_DAY));
+        Assert.assertSame(first, store.getTLE(25544, midpoint - 1));
+        Assert.assertSame(second, store.getTLE(25544, midpoint));
+        Assert.assertSame(second, store.getTLE(25544, second.getEpochMillis()));
+        Assert.assertSame(third, store.getTLE(25544, third.getEpochMillis() + 100 * MILLIS_PER_DAY));
+
+        final Satellite satellite = store.getSatellite(25544, midpoint);
+        Assert.assertSame(second, satellite.getTLE());
+        Assert.assertSame(satellite, store.getSatellite(25544, second.getEpochMillis()));
+
+        Assert.assertNull(store.getTLE(99999, midpoint));
+        Assert.assertNull(store.getSatellite(99999, midpoint));
+        Assert.assertEquals(0, store.getEpochs(99999).length);
+    }
+
+    @Test
+    public void testBatchMatchesNearestElementSets() {
+        final TLEStore store = new TLEStore();
+        store.add(iss(26040.5, 101));
+        store.add(iss(26042.5, 102));
+        store.add(iss(26045.5, 103));
+
+        final long start = iss(26039.0, 100).getEpochMillis();
+        final long step = 600000L;
+        final int count = 1200;
+
+        final EphemerisColumns columns = new EphemerisColumns(count, true);
+        store.calculatePositions(25544, start, step, count, GROUND_STATION, columns);
+
+        /* The same times in reverse */
+        final long[] times = new long[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = start + (count - 1 - i) * step;
+        }
+        final EphemerisColumns reversed = new EphemerisColumns(count, true);
+        store.calculatePositions(25544, times, GROUND_STATION, reversed);
+
+        final EphemerisColumns single = new EphemerisColumns(1, true);
+
+        for (int i = 0; i < count; i++) {
+            final long time = start + i * step;
+            store.getSatellite(25544, time).calculatePositions(new long[] {time}, GROUND_STATION, single);
+
+            Assert.assertEquals(single.getLatitude()[0], columns.getLatitude()[i], 0.0);
+            Assert.assertEquals(single.getLongitude()[0], columns.getLongitude()[i], 0.0);
+            Assert.assertEquals(single.getAltitude()[0], columns.getAltitude()[i], 0.0);
+            Assert.assertEquals(single.getElevation()[0], columns.getElevation()[i], 0.0);
+            Assert.assertEquals(single.getRangeRate()[0], columns.getRangeRate()[i], 0.0);
+            Assert.assertEquals(single.getPositionX()[0], reversed.getPositionX()[count - 1 - i], 0.0);
+        }
+    }
+
+    @Test
+    public void testSameEpochKeepsHigherElementSetNumber() {
+        final TLEStore store = new TLEStore();
+        final TLE older = iss(26040.5, 200);
+        final TLE newer = iss(26040.5, 201);
+
+        Assert.assertTrue(store.add(newer));
+        Assert.assertFalse(store.add(older));
+        Assert.assertSame(newer, store.getTLE(25544, newer.getEpochMillis()));
+
+        final TLE again = iss(26040.5, 201);
+        Assert.assertTrue(store.add(again));
+        Assert.assertSame(again, store.getTLE(25544, newer.getEpochMillis()));
+        Assert.assertEquals(1, store.getElementSetCount());
+    }
+
+    @Test
+    public void testManySatellites() {
+        final List<TLE> tles = new ArrayList<TLE>();
+        catalog(2000, tles);
+
+        final TLEStore store = new TLEStore();
+        Assert.assertEquals(2000, store.addAll(tles));
+        Assert.assertEquals(2000, store.size());
+
+        for (final TLE tle : tles) {
+            Assert.assertSame(tle, store.getTLE(tle.getCatnum(), tle.getEpochMillis()));
+        }
+    }
+
+    @Test
+    public void testThreadsShareOneSatellite() throws Exception {
+        final TLEStore store = new TLEStore();
+        final TLE tle = new TLE(DEEP_SPACE_TLE);
+        store.add(tle);
+
+        final Satellite[] satellites = new Satellite[8];
+        final Thread[] threads = new Thread[satellites.length];
+
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread(() -> satellites[index] = store.getSatellite(tle.getCatnum(), tle.getEpochMillis()));
+            threads[i].start();
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        for (final Satellite satellite : satellites) {
+            Assert.assertSame(satellites[0], satellite);
+        }
+        Assert.assertSame(satellites[0], store.getSatellite(tle.getCatnum(), tle.getEpochMillis()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchForUnknownSatellite() {
+        new TLEStore().calculatePositions(25544, 0L, 60000L, 10, null, new EphemerisColumns(10, false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNull() {
+        new TLEStore().add(null);
+    }
+}
@@ -149,6 +149,19 @@ public final class TLETest extends AbstractSatelliteTestBase {
         }
     }
 
+    @Test
+    public void testCompareAgeByEpochThenSetnum() {
+        final TLE older = iss(26040.5, 900);
+        final TLE newer = iss(26042.5, 100);
+        final TLE reissued = iss(26042.5, 101);
+
+        Assert.assertTrue(TLE.compareAge(older, newer) < 0);
+        Assert.assertTrue(TLE.compareAge(newer, older) > 0);
+        Assert.assertTrue(TLE.compareAge(newer, reissued) < 0);
+        Assert.assertTrue(TLE.compareAge(reissued, newer) > 0);
+        Assert.assertEquals(0, TLE.compareAge(reissued, iss(26042.5, 101)));
+    }
+
     @Test
     public void testLoadFromFile() {
 
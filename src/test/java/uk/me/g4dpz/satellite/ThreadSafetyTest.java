@@ -307,4 +307,71 @@ public class ThreadSafetyTest extends AbstractSatelliteTestBase {
                 THREAD_COUNT * 50, totalPositions);
     }
 
+    @Test
+    public void testSharedSatelliteWithPerThreadStateMatchesSerial() throws Exception {
+        // Each thread propagates the same satellites with its own PropagationState; the results must
+        // be identical to a serial run regardless of how the threads interleave
+        final Satellite[] satellites = {
+            SatelliteFactory.createSatellite(new TLE(LEO_TLE)),
+            SatelliteFactory.createSatellite(new TLE(GEOSYNC_TLE)),
+            SatelliteFactory.createSatellite(new TLE(MOLNIYA_TLE))};
+        final DateTime testTime = new DateTime(EPOCH);
+        final int samples = 200;
+
+        final double[][] expected = new double[satellites.length][samples];
+        for (int s = 0; s < satellites.length; s++) {
+            final Satellite serial = SatelliteFactory.createSatellite(satellites[s].getTLE());
+            for (int i = 0; i < samples; i++) {
+                expected[s][i] = serial.getPosition(GROUND_STATION,
+                        testTime.plusMinutes(i * 37).toDate()).getRange();
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        final List<Future<Boolean>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            final int threadId = t;
+            futures.add(executor.submit(() -> {
+                final PropagationState state = new PropagationState();
+                for (int n = 0; n < samples; n++) {
+                    // walk the samples in a different order on every thread
+                    final int i = (threadId % 2 == 0) ? (n * (threadId + 1)) % samples : samples - 1 - n;
+                    for (int s = 0; s < satellites.length; s++) {
+                        final SatPos pos = ((AbstractSatellite) satellites[s]).getPosition(GROUND_STATION,
+                                testTime.plusMinutes(i * 37).toDate(), state);
+                        if (Double.compare(expected[s][i], pos.getRange()) != 0) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }));
+        }
+
+        executor.shutdown();
+        Assert.assertTrue("Executor should terminate",
+                executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        for (Future<Boolean> future : futures) {
+            Assert.assertTrue("Concurrent results should match the serial results", future.get());
+        }
+    }
+
+    @Test
+    public void testDeepSpaceResultDoesNotDependOnCallOrder() {
+        final TLE tle = new TLE(GEOSYNC_TLE);
+        final DateTime testTime = new DateTime(EPOCH);
+
+        final Satellite forwards = SatelliteFactory.createSatellite(tle);
+        final SatPos later = forwards.getPosition(GROUND_STATION, testTime.plusDays(3).toDate());
+        final SatPos earlier = forwards.getPosition(GROUND_STATION, testTime.toDate());
+
+        final Satellite backwards = SatelliteFactory.createSatellite(tle);
+        Assert.assertEquals(earlier.getRange(),
+                backwards.getPosition(GROUND_STATION, testTime.toDate()).getRange(), 0.0);
+        Assert.assertEquals(later.getRange(),
+                backwards.getPosition(GROUND_STATION, testTime.plusDays(3).toDate()).getRange(), 0.0);
+    }
+
 }
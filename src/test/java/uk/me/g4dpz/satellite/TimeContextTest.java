@@ -0,0 +1,126 @@
+/**
+    predict4java: An SDP4 / SGP4 library for satellite orbit predictions
+
+    Copyright (C)  2004-2026  David A. B. Johnson, G4DPZ.
+
+    This class is a Java port of one of the core elements of
+    the Predict program, Copyright John A. Magliacane,
+    KD2BD 1991-2003: http://www.qsl.net/kd2bd/predict.html
+
+    Dr. T.S. Kelso is the author of the SGP4/SDP4 orbital models,
+    originally written in Fortran and Pascal, and released into the
+    public domain through his website (http://www.celestrak.com/).
+    Neoklis Kyriazis, 5B4AZ, later re-wrote Dr. Kelso's code in C,
+    and released it under the GNU GPL in 2002.
+    PREDICT's core is based on 5B4AZ's code translation efforts.
+
+    Author: David A. B. Johnson, G4DPZ <dave@g4dpz.me.uk>
+
+    Comments, questions and bugreports should be submitted via
+    http://sourceforge.net/projects/websat/
+    More details can be found at the project home page:
+
+    http://websat.sourceforge.net
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+package uk.me.g4dpz.satellite;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for TimeContext.
+ *
+ * @author David A. B. Johnson, badgersoft
+ */
+public class TimeContextTest extends AbstractSatelliteTestBase {
+
+    private static final GroundStationPosition SOUTHERN_STATION =
+            new GroundStationPosition(-33.86, 151.21, 50);
+
+    @Test
+    public void testTimeDependentTerms() {
+        final TimeContext time = new TimeContext(new DateTime(EPOCH).toDate());
+
+        Assert.assertEquals(new DateTime(EPOCH).getMillis(), time.getEpochMillis());
+        Assert.assertEquals(2461086.5, time.getJulianUTC(), 1e-9);
+        Assert.assertTrue(time.getGmst() >= 0.0 && time.getGmst() < 2.0 * Math.PI);
+        Assert.assertTrue("Delta ET should be around a minute", time.getDeltaEt() > 50.0
+                && time.getDeltaEt() < 100.0);
+        Assert.assertEquals(1.0, time.getSunDistance() / AbstractSatellite.ASTRONOMICAL_UNIT, 0.02);
+        Assert.assertEquals(time.getSunDistance(), Math.sqrt(time.getSunX() * time.getSunX()
+                + time.getSunY() * time.getSunY() + time.getSunZ() * time.getSunZ()), 1e-3);
+    }
+
+    @Test
+    public void testSharedContextMatchesPerCallTerms() {
+        final String[][] catalog = {LEO_TLE, WEATHER_TLE, GEOSYNC_TLE, MOLNIYA_TLE};
+        final GroundStationPosition[] stations = {GROUND_STATION, SOUTHERN_STATION};
+        final SatPos shared = new SatPos();
+        final SatPos own = new SatPos();
+
+        for (int hour = 0; hour < 24; hour += 3) {
+            final long millis = new DateTime(EPOCH).plusHours(hour).plusMillis(250).getMillis();
+            final TimeContext time = new TimeContext(millis);
+
+            for (final String[] tle : catalog) {
+                final Satellite satellite = SatelliteFactory.createSatellite(new TLE(tle));
+
+                for (final GroundStationPosition station : stations) {
+                    satellite.getPosition(station, time, shared);
+                    satellite.getPosition(station, millis, own);
+
+                    Assert.assertEquals(own.toString(), shared.toString());
+                    Assert.assertEquals(own.getTimeMillis(), shared.getTimeMillis());
+                    Assert.assertEquals(own.getAzimuth(), shared.getAzimuth(), 0.0);
+                    Assert.assertEquals(own.getRangeRate(), shared.getRangeRate(), 0.0);
+                    Assert.assertEquals(own.getLongitude(), shared.getLongitude(), 0.0);
+                    Assert.assertEquals(own.getEclipseDepth(), shared.getEclipseDepth(), 0.0);
+                    Assert.assertEquals(own.isEclipsed(), shared.isEclipsed());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSatelliteVectorsForManyStations() {
+        final AbstractSatellite satellite = (AbstractSatellite) SatelliteFactory.createSatellite(new TLE(LEO_TLE));
+        final DateTime date = new DateTime(EPOCH).plusMinutes(47);
+        final TimeContext time = new TimeContext(date.getMillis());
+        final PropagationState state = new PropagationState();
+
+        final SatPos vectors = satellite.calculateSatelliteVectors(time, state);
+        Assert.assertEquals(date.toDate(), vectors.getTime());
+
+        for (final GroundStationPosition station : new GroundStationPosition[] {GROUND_STATION, SOUTHERN_STATION}) {
+            final SatPos satPos = new SatPos();
+            satellite.calculateSatPosForGroundStation(station, state, satPos);
+
+            final SatPos expected = satellite.getPosition(station, date.toDate());
+            Assert.assertEquals(expected.getAzimuth(), satPos.getAzimuth(), 0.0);
+            Assert.assertEquals(expected.getElevation(), satPos.getElevation(), 0.0);
+            Assert.assertEquals(expected.getRange(), satPos.getRange(), 0.0);
+        }
+
+        Assert.assertEquals(satellite.getPosition(GROUND_STATION, date.toDate()).getEclipseDepth(),
+                vectors.getEclipseDepth(), 0.0);
+    }
+}